@@ -0,0 +1,180 @@
+/*
+ * BenchmarkServer.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Collections;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.common.keyprovider.MappedKeyPairProvider;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.session.ServerSession;
+import com.github.robtimus.filesystems.sftp.server.FixedSftpSubsystem;
+
+/**
+ * An embedded SFTP server for benchmarks. It uses the same setup as {@code AbstractSFTPFileSystemTest}, on localhost and a free port.
+ * Its files are stored in a temporary directory, that is deleted when the server is stopped.
+ * <p>
+ * Because a server on localhost hides the cost of round trips, the network between client and server can be shaped using system properties:
+ * <ul>
+ *   <li>{@code sftp-fs.benchmark.roundTripTime}: the round-trip time, as a {@link Duration}, for instance {@code PT0.03S} for 30 ms.</li>
+ *   <li>{@code sftp-fs.benchmark.jitter}: the maximum jitter, as a {@link Duration}.</li>
+ *   <li>{@code sftp-fs.benchmark.bandwidth}: the bandwidth in bytes per second for each direction.</li>
+ * </ul>
+ * Since JMH runs benchmarks in forked JVMs, these should be passed using JMH's {@code -jvmArgsAppend} option.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class BenchmarkServer {
+
+    private static final String USERNAME = "TEST_USER";
+    private static final String PASSWORD = "TEST_PASSWORD";
+
+    private static final String PROPERTY_PREFIX = "sftp-fs.benchmark.";
+
+    private final SshServer sshServer;
+    private final int port;
+    private final Path rootPath;
+
+    private BenchmarkServer(SshServer sshServer, int port, Path rootPath) {
+        this.sshServer = sshServer;
+        this.port = port;
+        this.rootPath = rootPath;
+    }
+
+    static BenchmarkServer start() throws IOException {
+        KeyPair keyPair;
+        try {
+            keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+
+        int port = findFreePort();
+        Path rootPath = Files.createTempDirectory("sftp-fs-benchmark");
+
+        SshServer sshServer = SshServer.setUpDefaultServer();
+        sshServer.setHost("localhost");
+        sshServer.setPort(port);
+        sshServer.setKeyPairProvider(new MappedKeyPairProvider(keyPair));
+        sshServer.setPasswordAuthenticator((String username, String password, ServerSession session) ->
+                USERNAME.equals(username) && PASSWORD.equals(password));
+        sshServer.setSubsystemFactories(Collections.singletonList(new FixedSftpSubsystem.Factory()));
+        sshServer.setFileSystemFactory(new VirtualFileSystemFactory(rootPath));
+        sshServer.start();
+
+        return new BenchmarkServer(sshServer, port, rootPath);
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    void stop() throws IOException {
+        sshServer.stop();
+        deleteRecursively(rootPath);
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    String hostname() {
+        return "localhost";
+    }
+
+    int port() {
+        return port;
+    }
+
+    URI uri() {
+        return URI.create("sftp://localhost:" + port);
+    }
+
+    /**
+     * Returns the local path for a path on the server. This can be used to prepare files without going through an SFTP file system.
+     *
+     * @param path The absolute path on the server.
+     * @return The local path for the given path.
+     */
+    Path localPath(String path) {
+        return rootPath.resolve(path.substring(1));
+    }
+
+    SFTPEnvironment createEnv(int maxPoolSize) {
+        SFTPEnvironment env = new SFTPEnvironment()
+                .withUsername(USERNAME)
+                .withUserInfo(new SimpleUserInfo(PASSWORD.toCharArray()))
+                .withHostKeyRepository(TrustAllHostKeyRepository.INSTANCE)
+                .withPoolConfig(SFTPPoolConfig.custom().withMaxSize(maxPoolSize).build());
+        ShapingSocketFactory socketFactory = createSocketFactory();
+        if (socketFactory != null) {
+            env.withSocketFactory(socketFactory);
+        }
+        return env;
+    }
+
+    private static ShapingSocketFactory createSocketFactory() {
+        String roundTripTime = System.getProperty(PROPERTY_PREFIX + "roundTripTime");
+        String jitter = System.getProperty(PROPERTY_PREFIX + "jitter");
+        String bandwidth = System.getProperty(PROPERTY_PREFIX + "bandwidth");
+        if (roundTripTime == null && jitter == null && bandwidth == null) {
+            return null;
+        }
+        ShapingSocketFactory.Builder builder = ShapingSocketFactory.custom();
+        if (roundTripTime != null) {
+            builder.withRoundTripTime(Duration.parse(roundTripTime));
+        }
+        if (jitter != null) {
+            builder.withJitter(Duration.parse(jitter));
+        }
+        if (bandwidth != null) {
+            builder.withBandwidth(Long.parseLong(bandwidth));
+        }
+        return builder.build();
+    }
+
+    SFTPFileSystem newFileSystem(SFTPEnvironment env) throws IOException {
+        return (SFTPFileSystem) new SFTPFileSystemProvider().newFileSystem(uri(), env);
+    }
+}
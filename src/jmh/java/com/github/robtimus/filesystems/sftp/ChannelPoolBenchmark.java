@@ -0,0 +1,87 @@
+/*
+ * ChannelPoolBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel;
+
+/**
+ * Benchmarks for acquiring and releasing client connections from a pool, with more threads than client connections.
+ *
+ * @author Rob Spoor
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ChannelPoolBenchmark {
+
+    @Param({ "1", "4", "16" })
+    public int poolSize;
+
+    private BenchmarkServer server;
+    private SSHChannelPool channelPool;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = BenchmarkServer.start();
+        // create all client connections up front, so only acquiring and releasing them is measured
+        SFTPEnvironment env = server.createEnv(poolSize)
+                .withPoolConfig(SFTPPoolConfig.custom().withInitialSize(poolSize).withMaxSize(poolSize).build());
+        channelPool = new SSHChannelPool(server.hostname(), server.port(), env);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        channelPool.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public void acquireAndRelease(Blackhole blackhole) throws IOException {
+        try (Channel channel = channelPool.get()) {
+            blackhole.consume(channel);
+        }
+    }
+
+    @Benchmark
+    public void acquireAndPwd(Blackhole blackhole) throws IOException {
+        try (Channel channel = channelPool.get()) {
+            blackhole.consume(channel.pwd());
+        }
+    }
+}
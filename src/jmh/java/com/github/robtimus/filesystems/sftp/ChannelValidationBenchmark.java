@@ -0,0 +1,94 @@
+/*
+ * ChannelValidationBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel;
+
+/**
+ * Benchmarks for the latency of acquiring client connections, for each {@link SFTPChannelValidation}.
+ * There are as many client connections as threads, so acquiring never waits for other threads.
+ * The network can be shaped using {@link BenchmarkServer}'s system properties to show the effect of round trips on validation.
+ *
+ * @author Rob Spoor
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ChannelValidationBenchmark {
+
+    private static final int POOL_SIZE = 4;
+
+    @Param({ "ON_ACQUIRE", "AFTER_IDLE_TIME", "BACKGROUND", "NONE" })
+    public SFTPChannelValidation channelValidation;
+
+    private BenchmarkServer server;
+    private SSHChannelPool channelPool;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = BenchmarkServer.start();
+        SFTPEnvironment env = server.createEnv(POOL_SIZE)
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(POOL_SIZE)
+                        .withMaxSize(POOL_SIZE)
+                        .withChannelValidation(channelValidation)
+                        .build());
+        channelPool = new SSHChannelPool(server.hostname(), server.port(), env);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        channelPool.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public void acquireAndRelease(Blackhole blackhole) throws IOException {
+        try (Channel channel = channelPool.get()) {
+            blackhole.consume(channel);
+        }
+    }
+
+    @Benchmark
+    public void acquireAndPwd(Blackhole blackhole) throws IOException {
+        try (Channel channel = channelPool.get()) {
+            blackhole.consume(channel.pwd());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * CopyBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for copying files within the same SFTP file system, and between two SFTP file systems.
+ *
+ * @author Rob Spoor
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+@SuppressWarnings("nls")
+public class CopyBenchmark {
+
+    @Param({ "1024", "1048576", "16777216" })
+    public int fileSize;
+
+    private BenchmarkServer server;
+    private SFTPFileSystem fileSystem;
+    private SFTPFileSystem otherFileSystem;
+    private Path source;
+    private Path sameFileSystemTarget;
+    private Path otherFileSystemTarget;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = BenchmarkServer.start();
+        byte[] content = new byte[fileSize];
+        new Random(0).nextBytes(content);
+        Files.write(server.localPath("/source"), content);
+
+        fileSystem = server.newFileSystem(server.createEnv(2));
+        otherFileSystem = server.newFileSystem(server.createEnv(2));
+        source = fileSystem.getPath("/source");
+        sameFileSystemTarget = fileSystem.getPath("/target");
+        otherFileSystemTarget = otherFileSystem.getPath("/target");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        otherFileSystem.close();
+        fileSystem.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public Path copySameFileSystem() throws IOException {
+        return Files.copy(source, sameFileSystemTarget, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Benchmark
+    public Path copyOtherFileSystem() throws IOException {
+        return Files.copy(source, otherFileSystemTarget, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * DirectoryStreamBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for iterating over large directories.
+ * Each invocation lists the entire directory, so these benchmarks measure single invocations.
+ *
+ * @author Rob Spoor
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+@SuppressWarnings("nls")
+public class DirectoryStreamBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int entryCount;
+
+    private BenchmarkServer server;
+    private SFTPFileSystem fileSystem;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = BenchmarkServer.start();
+        Path localDirectory = Files.createDirectory(server.localPath("/dir"));
+        for (int i = 0; i < entryCount; i++) {
+            Files.createFile(localDirectory.resolve("file" + i));
+        }
+
+        fileSystem = server.newFileSystem(server.createEnv(1));
+        directory = fileSystem.getPath("/dir");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fileSystem.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public int iterate(Blackhole blackhole) throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                blackhole.consume(path);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public Path firstEntry() throws IOException {
+        // measures the time until the first entry is available, and closing the stream while the listing is still in progress
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            return stream.iterator().next();
+        }
+    }
+}
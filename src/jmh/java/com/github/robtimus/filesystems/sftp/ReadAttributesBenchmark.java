@@ -0,0 +1,96 @@
+/*
+ * ReadAttributesBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the latency of reading attributes, for existing and non-existing files.
+ *
+ * @author Rob Spoor
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+@SuppressWarnings("nls")
+public class ReadAttributesBenchmark {
+
+    @Param({ "PT0S", "PT1M" })
+    public String attributeCacheTimeToLive;
+
+    private BenchmarkServer server;
+    private SFTPFileSystem fileSystem;
+    private Path existingFile;
+    private Path missingFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = BenchmarkServer.start();
+        Files.createFile(server.localPath("/file"));
+
+        SFTPEnvironment env = server.createEnv(4)
+                .withAttributeCacheTimeToLive(Duration.parse(attributeCacheTimeToLive));
+        fileSystem = server.newFileSystem(env);
+        existingFile = fileSystem.getPath("/file");
+        missingFile = fileSystem.getPath("/missing");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fileSystem.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public BasicFileAttributes readAttributes() throws IOException {
+        return Files.readAttributes(existingFile, BasicFileAttributes.class);
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return Files.exists(missingFile);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public BasicFileAttributes readAttributesContended() throws IOException {
+        return Files.readAttributes(existingFile, BasicFileAttributes.class);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * AdaptivePoolSizer.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of channels that can be in use at the same time, and adjusts that limit based on the observed acquire times and utilization.
+ * A permit must be acquired before a channel is acquired from the pool, and must be released once the channel is no longer used.
+ * Because the pool only creates channels if no idle channel is available, the limit also limits the pool size.
+ *
+ * @author Rob Spoor
+ * @see SFTPPoolConfig#adaptiveTargetWaitTime()
+ */
+final class AdaptivePoolSizer {
+
+    private static final double PERCENTILE = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetWaitTime;
+    private final int maxGrowth;
+    // negative to wait indefinitely
+    private final long maxWaitTime;
+
+    private final ResizableSemaphore permits;
+    private final AtomicInteger inUse;
+    private final AtomicInteger peakInUse;
+
+    private volatile LatencyHistogram window;
+    // only modified by adjust
+    private volatile int limit;
+
+    AdaptivePoolSizer(SFTPPoolConfig poolConfig, Duration targetWaitTime) {
+        this.minLimit = Math.max(poolConfig.initialSize(), 1);
+        this.maxLimit = poolConfig.maxSize();
+        this.targetWaitTime = targetWaitTime.toNanos();
+        this.maxGrowth = poolConfig.adaptiveMaxGrowth();
+        this.maxWaitTime = poolConfig.maxWaitTime()
+                .map(Duration::toNanos)
+                .orElse(-1L);
+
+        this.permits = new ResizableSemaphore(minLimit);
+        this.inUse = new AtomicInteger();
+        this.peakInUse = new AtomicInteger();
+
+        this.window = new LatencyHistogram();
+        this.limit = minLimit;
+    }
+
+    /**
+     * Acquires a permit to use a channel.
+     *
+     * @throws IOException If the maximum wait time passed before a permit became available.
+     * @throws InterruptedException If the current thread was interrupted while waiting for a permit.
+     */
+    void acquire() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        if (maxWaitTime < 0) {
+            permits.acquire();
+        } else if (!permits.tryAcquire(maxWaitTime, TimeUnit.NANOSECONDS)) {
+            window.record(System.nanoTime() - start);
+            throw new ConnectionWaitTimeoutException();
+        }
+        window.record(System.nanoTime() - start);
+        acquired();
+    }
+
+    /**
+     * Acquires a permit to use a channel without waiting.
+     *
+     * @return {@code true} if a permit was acquired, or {@code false} if the limit has been reached.
+     */
+    boolean tryAcquire() {
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        // nothing was waited for, so don't record a wait time
+        acquired();
+        return true;
+    }
+
+    private void acquired() {
+        int current = inUse.incrementAndGet();
+        int peak = peakInUse.get();
+        while (current > peak && !peakInUse.compareAndSet(peak, current)) {
+            peak = peakInUse.get();
+        }
+    }
+
+    /**
+     * Releases a permit that was acquired using {@link #acquire()} or {@link #tryAcquire()}.
+     */
+    void release() {
+        inUse.decrementAndGet();
+        permits.release();
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * Adjusts the limit based on the acquire times and utilization since the previous call.
+     * This method must not be called concurrently.
+     *
+     * @return The number of channels the limit was changed by; positive if the limit was increased, negative if it was decreased.
+     */
+    int adjust() {
+        LatencyHistogram previousWindow = window;
+        window = new LatencyHistogram();
+        int peak = peakInUse.getAndSet(inUse.get());
+
+        int change = 0;
+        if (previousWindow.percentile(PERCENTILE) > targetWaitTime) {
+            change = Math.min(maxGrowth, maxLimit - limit);
+        } else if (peak * 2 <= limit && limit > minLimit) {
+            change = -1;
+        }
+
+        if (change > 0) {
+            limit += change;
+            permits.release(change);
+        } else if (change < 0) {
+            limit += change;
+            // if all permits are in use, the number of available permits becomes negative until enough permits are released
+            permits.reducePermits(-change);
+        }
+        return change;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ResizableSemaphore extends Semaphore {
+
+        private ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
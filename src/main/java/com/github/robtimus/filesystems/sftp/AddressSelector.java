@@ -0,0 +1,202 @@
+/*
+ * AddressSelector.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.jcraft.jsch.Session;
+
+/**
+ * Selects the addresses to open sessions to, for host names that resolve to multiple addresses.
+ *
+ * @author Rob Spoor
+ */
+final class AddressSelector {
+
+    private final String hostname;
+    private final SFTPAddressSelection selection;
+    private final long resolutionInterval;
+    private final Resolver resolver;
+
+    // all fields below are guarded by this
+    private List<InetAddress> addresses;
+    private long resolvedAt;
+    private final Set<InetAddress> failedAddresses;
+    // the sessions that were opened, with the address they were opened to; disconnected sessions are removed on each selection
+    private final Map<Session, InetAddress> sessions;
+    private int nextIndex;
+
+    AddressSelector(String hostname, SFTPAddressSelection selection, Duration resolutionInterval) {
+        this(hostname, selection, resolutionInterval, InetAddress::getAllByName);
+    }
+
+    AddressSelector(String hostname, SFTPAddressSelection selection, Duration resolutionInterval, Resolver resolver) {
+        this.hostname = hostname;
+        this.selection = selection;
+        this.resolutionInterval = resolutionInterval.toNanos();
+        this.resolver = resolver;
+
+        this.addresses = new ArrayList<>();
+        this.failedAddresses = new HashSet<>();
+        this.sessions = new HashMap<>();
+    }
+
+    /**
+     * Returns the number of addresses that were resolved, or {@code 0} if addresses have not been resolved yet.
+     *
+     * @return The number of addresses that were resolved.
+     */
+    synchronized int addressCount() {
+        return addresses.size();
+    }
+
+    /**
+     * Selects the address to open a new session to. Addresses are resolved first if needed.
+     *
+     * @return The selected address.
+     * @throws UnknownHostException If the host name could not be resolved, and it had not been resolved before.
+     */
+    synchronized InetAddress select() throws UnknownHostException {
+        resolveIfNeeded();
+        removeDisconnectedSessions();
+
+        List<InetAddress> candidates = new ArrayList<>(addresses);
+        candidates.removeAll(failedAddresses);
+        if (candidates.isEmpty()) {
+            // sessions could not be opened to any address; try them all again
+            failedAddresses.clear();
+            candidates.addAll(addresses);
+        }
+
+        return selection == SFTPAddressSelection.LEAST_LOADED
+                ? selectLeastLoaded(candidates)
+                : selectNext(candidates);
+    }
+
+    // must be called while synchronized on this
+    private void resolveIfNeeded() throws UnknownHostException {
+        long now = System.nanoTime();
+        if (!addresses.isEmpty() && now - resolvedAt < resolutionInterval) {
+            return;
+        }
+        try {
+            addresses = new ArrayList<>(Arrays.asList(resolver.resolve(hostname)));
+            // failed addresses get another chance after each resolution
+            failedAddresses.clear();
+        } catch (UnknownHostException e) {
+            if (addresses.isEmpty()) {
+                throw e;
+            }
+            // keep using the previously resolved addresses
+        }
+        resolvedAt = now;
+    }
+
+    // must be called while synchronized on this
+    private InetAddress selectNext(List<InetAddress> candidates) {
+        // iterate over all addresses, not just the candidates, so the order stays the same if an address fails
+        int size = addresses.size();
+        for (int i = 0; i < size; i++) {
+            InetAddress address = addresses.get(nextIndex % size);
+            nextIndex = nextIndex % size + 1;
+            if (candidates.contains(address)) {
+                return address;
+            }
+        }
+        return candidates.get(0);
+    }
+
+    // must be called while synchronized on this
+    private InetAddress selectLeastLoaded(List<InetAddress> candidates) {
+        Map<InetAddress, Integer> loads = loads();
+        InetAddress leastLoaded = null;
+        int leastLoad = Integer.MAX_VALUE;
+        for (InetAddress address : candidates) {
+            int load = loads.getOrDefault(address, 0);
+            if (load < leastLoad) {
+                leastLoaded = address;
+                leastLoad = load;
+            }
+        }
+        return leastLoaded;
+    }
+
+    /**
+     * Returns the number of connected sessions per address.
+     *
+     * @return The number of connected sessions per address.
+     */
+    synchronized Map<InetAddress, Integer> loads() {
+        removeDisconnectedSessions();
+        Map<InetAddress, Integer> loads = new HashMap<>();
+        for (InetAddress address : sessions.values()) {
+            loads.merge(address, 1, Integer::sum);
+        }
+        return loads;
+    }
+
+    // must be called while synchronized on this
+    private void removeDisconnectedSessions() {
+        sessions.keySet().removeIf(session -> !session.isConnected());
+    }
+
+    /**
+     * Signals that a session was opened to an address.
+     *
+     * @param session The session that was opened.
+     * @param address The address the session was opened to.
+     */
+    synchronized void sessionOpened(Session session, InetAddress address) {
+        sessions.put(session, address);
+        failedAddresses.remove(address);
+    }
+
+    /**
+     * Signals that a session could not be opened to an address. The address is skipped until addresses are resolved again.
+     *
+     * @param address The address the session could not be opened to.
+     */
+    synchronized void sessionFailed(InetAddress address) {
+        failedAddresses.add(address);
+    }
+
+    /**
+     * A strategy for resolving host names.
+     *
+     * @author Rob Spoor
+     */
+    interface Resolver {
+
+        /**
+         * Resolves a host name.
+         *
+         * @param hostname The host name to resolve.
+         * @return All addresses of the host name.
+         * @throws UnknownHostException If the host name could not be resolved.
+         */
+        InetAddress[] resolve(String hostname) throws UnknownHostException;
+    }
+}
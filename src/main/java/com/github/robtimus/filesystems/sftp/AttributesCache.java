@@ -0,0 +1,244 @@
+/*
+ * AttributesCache.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static com.github.robtimus.filesystems.SimpleAbstractPath.ROOT_PATH;
+import static com.github.robtimus.filesystems.SimpleAbstractPath.SEPARATOR;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import com.jcraft.jsch.SftpATTRS;
+
+/**
+ * A cache for file attributes, including the absence of files.
+ * Entries expire after a fixed time, and if the cache is full the least recently used entry is evicted.
+ * <p>
+ * To prevent outdated attributes from being cached, callers should retrieve the {@linkplain #generation() generation} before retrieving
+ * attributes from the server, and pass it when caching them. If any entry was invalidated in the mean time, the attributes are not cached.
+ *
+ * @author Rob Spoor
+ */
+final class AttributesCache {
+
+    private final long timeToLive;
+    private final int maxSize;
+
+    // guarded by this
+    private final Map<Key, CacheEntry> entries;
+    private long generation;
+    private long lastInvalidation;
+
+    AttributesCache(Duration timeToLive, int maxSize) {
+        this.timeToLive = timeToLive.isNegative() ? 0 : toNanos(timeToLive);
+        this.maxSize = maxSize;
+
+        this.entries = new LinkedHashMap<Key, CacheEntry>(16, 0.75F, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CacheEntry> eldest) {
+                return size() > AttributesCache.this.maxSize;
+            }
+        };
+        this.generation = 0;
+        this.lastInvalidation = 0;
+    }
+
+    private static long toNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (@SuppressWarnings("unused") ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    boolean isEnabled() {
+        return timeToLive > 0 && maxSize > 0;
+    }
+
+    /**
+     * Returns the cached attributes for a path.
+     *
+     * @param path The normalized absolute path to return the cached attributes for.
+     * @param followLinks {@code true} to return the attributes of the final target of links, or {@code false} to return those of links themselves.
+     * @return The cached attributes, or {@code null} if no attributes are cached.
+     * @throws NoSuchFileException If the path is cached as not existing.
+     */
+    SftpATTRS get(String path, boolean followLinks) throws NoSuchFileException {
+        if (!isEnabled()) {
+            return null;
+        }
+        CacheEntry entry;
+        synchronized (this) {
+            Key key = new Key(path, followLinks);
+            entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.timestamp >= timeToLive) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (entry.missing != null) {
+            NoSuchFileException exception = new NoSuchFileException(entry.missing.getFile(), entry.missing.getOtherFile(),
+                    entry.missing.getReason());
+            exception.initCause(entry.missing.getCause());
+            throw exception;
+        }
+        return entry.attributes;
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Returns whether or not any entry was invalidated recently. Because entries are invalidated whenever files are modified, this also indicates
+     * whether or not any file was modified recently.
+     *
+     * @param time The maximum time in nanoseconds since the last invalidation.
+     * @return {@code true} if any entry was invalidated at most the given time ago, or {@code false} otherwise.
+     */
+    synchronized boolean invalidatedWithin(long time) {
+        return generation > 0 && System.nanoTime() - lastInvalidation < time;
+    }
+
+    void put(String path, boolean followLinks, SftpATTRS attributes, long expectedGeneration) {
+        put(path, followLinks, new CacheEntry(attributes, null), expectedGeneration);
+    }
+
+    void putMissing(String path, boolean followLinks, NoSuchFileException exception, long expectedGeneration) {
+        put(path, followLinks, new CacheEntry(null, exception), expectedGeneration);
+    }
+
+    private void put(String path, boolean followLinks, CacheEntry entry, long expectedGeneration) {
+        if (isEnabled()) {
+            synchronized (this) {
+                if (generation == expectedGeneration) {
+                    entries.put(new Key(path, followLinks), entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidates the cached attributes for a path and its parent.
+     *
+     * @param path The normalized absolute path to invalidate the cached attributes for.
+     */
+    void invalidate(String path) {
+        synchronized (this) {
+            // always increment the generation, it's also used by RequestCoalescer
+            generation++;
+            lastInvalidation = System.nanoTime();
+            if (isEnabled()) {
+                remove(path);
+                remove(parent(path));
+            }
+        }
+    }
+
+    /**
+     * Invalidates the cached attributes for a path, its parent and all of its descendants.
+     *
+     * @param path The normalized absolute path to invalidate the cached attributes for.
+     */
+    void invalidateTree(String path) {
+        synchronized (this) {
+            generation++;
+            lastInvalidation = System.nanoTime();
+            if (isEnabled()) {
+                if (ROOT_PATH.equals(path)) {
+                    entries.clear();
+                    return;
+                }
+                String prefix = path + SEPARATOR;
+                for (Iterator<Key> i = entries.keySet().iterator(); i.hasNext(); ) {
+                    String entryPath = i.next().path;
+                    if (entryPath.equals(path) || entryPath.startsWith(prefix)) {
+                        i.remove();
+                    }
+                }
+                remove(parent(path));
+            }
+        }
+    }
+
+    private void remove(String path) {
+        if (path != null) {
+            entries.remove(new Key(path, false));
+            entries.remove(new Key(path, true));
+        }
+    }
+
+    private static String parent(String path) {
+        int index = path.lastIndexOf(SEPARATOR);
+        if (index == -1 || ROOT_PATH.equals(path)) {
+            return null;
+        }
+        return index == 0 ? ROOT_PATH : path.substring(0, index);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Key {
+
+        private final String path;
+        private final boolean followLinks;
+
+        private Key(String path, boolean followLinks) {
+            this.path = path;
+            this.followLinks = followLinks;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o == null || o.getClass() != getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return path.equals(other.path) && followLinks == other.followLinks;
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() ^ Boolean.hashCode(followLinks);
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final SftpATTRS attributes;
+        private final NoSuchFileException missing;
+        private final long timestamp;
+
+        private CacheEntry(SftpATTRS attributes, NoSuchFileException missing) {
+            this.attributes = attributes;
+            this.missing = missing;
+            this.timestamp = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * ChannelLanes.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of channels that each {@link SFTPChannelLane lane} can use at the same time.
+ * Each lane has its own semaphore, with a fair queue of waiting threads.
+ * A permit must be acquired before a channel is acquired from the pool, and must be released once the channel is no longer used.
+ *
+ * @author Rob Spoor
+ */
+final class ChannelLanes {
+
+    private final Semaphore[] permits;
+    private final boolean borrowing;
+    // negative to wait indefinitely
+    private final long maxWaitTime;
+
+    private ChannelLanes(SFTPPoolConfig poolConfig) {
+        SFTPChannelLane[] lanes = SFTPChannelLane.values();
+        permits = new Semaphore[lanes.length];
+        for (SFTPChannelLane lane : lanes) {
+            permits[lane.ordinal()] = new Semaphore(poolConfig.laneSize(lane), true);
+        }
+        borrowing = poolConfig.laneBorrowing();
+        maxWaitTime = poolConfig.maxWaitTime()
+                .map(Duration::toNanos)
+                .orElse(-1L);
+    }
+
+    /**
+     * Creates a new {@link ChannelLanes} object for a pool configuration.
+     *
+     * @param poolConfig The pool configuration.
+     * @return The created {@link ChannelLanes} object, or {@code null} if no lane is limited to less than the maximum pool size.
+     */
+    static ChannelLanes create(SFTPPoolConfig poolConfig) {
+        for (SFTPChannelLane lane : SFTPChannelLane.values()) {
+            if (poolConfig.laneSize(lane) < poolConfig.maxSize()) {
+                return new ChannelLanes(poolConfig);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Acquires a permit for a lane. If the lane has no available permits and borrowing is enabled, a permit of another lane is used instead.
+     * Otherwise this method waits until the lane has an available permit.
+     *
+     * @param lane The lane to acquire a permit for.
+     * @return The semaphore that the permit was acquired from. This must be passed to {@link #release(Semaphore)} to release the permit.
+     * @throws IOException If the maximum wait time passed before a permit became available.
+     * @throws InterruptedException If the current thread was interrupted while waiting for a permit.
+     */
+    Semaphore acquire(SFTPChannelLane lane) throws IOException, InterruptedException {
+        Semaphore permit = tryAcquire(lane);
+        if (permit != null) {
+            return permit;
+        }
+        Semaphore own = permits[lane.ordinal()];
+        if (maxWaitTime < 0) {
+            own.acquire();
+        } else if (!own.tryAcquire(maxWaitTime, TimeUnit.NANOSECONDS)) {
+            throw new ConnectionWaitTimeoutException();
+        }
+        return own;
+    }
+
+    /**
+     * Acquires a permit for a lane without waiting. If the lane has no available permits and borrowing is enabled, a permit of another lane is
+     * used instead.
+     *
+     * @param lane The lane to acquire a permit for.
+     * @return The semaphore that the permit was acquired from, or {@code null} if no permit is available.
+     *         This must be passed to {@link #release(Semaphore)} to release the permit.
+     */
+    Semaphore tryAcquire(SFTPChannelLane lane) {
+        Semaphore own = permits[lane.ordinal()];
+        if (own.tryAcquire()) {
+            return own;
+        }
+        if (borrowing) {
+            for (Semaphore other : permits) {
+                if (other != own && other.tryAcquire()) {
+                    return other;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Releases a permit.
+     *
+     * @param permit The semaphore that the permit was acquired from, as returned by {@link #acquire(SFTPChannelLane)}.
+     */
+    void release(Semaphore permit) {
+        permit.release();
+    }
+
+    /**
+     * Returns the number of channels a lane can still use before it reaches its size.
+     *
+     * @param lane The lane to return the number of available channels for.
+     * @return The number of channels the given lane can still use before it reaches its size.
+     */
+    int availableChannels(SFTPChannelLane lane) {
+        return permits[lane.ordinal()].availablePermits();
+    }
+}
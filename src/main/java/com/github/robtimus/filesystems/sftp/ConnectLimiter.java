@@ -0,0 +1,135 @@
+/*
+ * ConnectLimiter.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A limit on the number of channels that a pool opens concurrently, and on the rate at which it opens them.
+ * A thread that has to wait before it can open a channel stops waiting as soon as a channel is released back to the pool,
+ * so it can use that channel instead.
+ *
+ * @author Rob Spoor
+ */
+final class ConnectLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxConcurrentConnects;
+    // the minimum time between two connects in nanoseconds
+    private final long connectInterval;
+    private final long maxWaitTime;
+
+    // all fields below are guarded by this
+    private int connectsInProgress;
+    private long nextConnect;
+
+    private ConnectLimiter(SFTPPoolConfig poolConfig) {
+        maxConcurrentConnects = poolConfig.maxConcurrentConnects();
+        connectInterval = poolConfig.maxConnectRate() > 0 ? NANOS_PER_SECOND / poolConfig.maxConnectRate() : 0;
+        maxWaitTime = poolConfig.maxWaitTime()
+                .map(Duration::toNanos)
+                .orElse(-1L);
+        nextConnect = System.nanoTime();
+    }
+
+    /**
+     * Creates a new limiter.
+     *
+     * @param poolConfig The pool config that defines the limits.
+     * @return The created limiter, or {@code null} if the pool config does not limit connects.
+     */
+    static ConnectLimiter create(SFTPPoolConfig poolConfig) {
+        return poolConfig.maxConcurrentConnects() > 0 || poolConfig.maxConnectRate() > 0
+                ? new ConnectLimiter(poolConfig)
+                : null;
+    }
+
+    /**
+     * Waits until a channel may be opened, or until a channel is available in the pool.
+     * If this method returns {@code true}, {@link #connectEnded()} must be called once the channel has been opened or failed to open.
+     *
+     * @param channelAvailable Tells whether or not a channel is available in the pool.
+     * @return {@code true} if a channel may be opened, or {@code false} if a channel became available in the pool first.
+     * @throws IOException If the maximum wait time passed before a channel could be opened,
+     *                         or if the current thread was interrupted while waiting.
+     */
+    synchronized boolean connectStarted(BooleanSupplier channelAvailable) throws IOException {
+        long deadline = System.nanoTime() + maxWaitTime;
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                long waitTime;
+                if (maxConcurrentConnects > 0 && connectsInProgress >= maxConcurrentConnects) {
+                    // wait until notified
+                    waitTime = -1;
+                } else if (now - nextConnect >= 0) {
+                    connectsInProgress++;
+                    nextConnect = now + connectInterval;
+                    return true;
+                } else {
+                    waitTime = nextConnect - now;
+                }
+                if (channelAvailable.getAsBoolean()) {
+                    return false;
+                }
+                if (maxWaitTime >= 0) {
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        throw new ConnectionWaitTimeoutException();
+                    }
+                    waitTime = waitTime < 0 ? remaining : Math.min(waitTime, remaining);
+                }
+                if (waitTime < 0) {
+                    wait();
+                } else {
+                    TimeUnit.NANOSECONDS.timedWait(this, waitTime);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            InterruptedIOException iioe = new InterruptedIOException(e.getMessage());
+            iioe.initCause(e);
+            throw iioe;
+        }
+    }
+
+    /**
+     * Signals that a channel has been opened or failed to open.
+     */
+    synchronized void connectEnded() {
+        connectsInProgress--;
+        notifyAll();
+    }
+
+    /**
+     * Signals that a channel was released back to the pool. Threads that are waiting to open a channel can use that channel instead.
+     */
+    synchronized void channelReleased() {
+        notifyAll();
+    }
+
+    synchronized int connectsInProgress() {
+        return connectsInProgress;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * ConnectionWaitTimeoutException.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+
+/**
+ * Thrown if no client connection could be obtained within the maximum wait time. Unlike other failures to obtain a client connection, this does
+ * not indicate that the SFTP server cannot be reached, only that it's in use by too many other threads.
+ *
+ * @author Rob Spoor
+ */
+final class ConnectionWaitTimeoutException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    ConnectionWaitTimeoutException() {
+        super(SFTPMessages.clientConnectionWaitTimeoutExpired());
+    }
+}
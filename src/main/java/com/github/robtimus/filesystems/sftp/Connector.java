@@ -0,0 +1,125 @@
+/*
+ * Connector.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor for opening connections in the background. Unlike {@link PoolMaintenance}, which uses a single thread, connections are opened
+ * concurrently, because each one takes at least a few network round trips. Threads are daemon threads that are only created when needed.
+ *
+ * @author Rob Spoor
+ */
+final class Connector {
+
+    private static final String THREAD_NAME_PREFIX = "sftp-fs-connector-"; //$NON-NLS-1$
+
+    private Connector() {
+    }
+
+    /**
+     * Runs a task in the background.
+     *
+     * @param <T> The result type of the task.
+     * @param task The task to run.
+     * @return A future that completes with the result of the task, or exceptionally with the exception it threw.
+     */
+    static <T> CompletableFuture<T> submit(Task<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Holder.EXECUTOR.execute(() -> {
+            try {
+                future.complete(task.run());
+            } catch (IOException | RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Waits for a future that was returned by {@link #submit(Task)} to complete.
+     *
+     * @param <T> The result type of the future.
+     * @param future The future to wait for.
+     * @return The result of the future.
+     * @throws IOException If the task threw an {@link IOException}, or if the current thread was interrupted while waiting.
+     */
+    static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            InterruptedIOException iioe = new InterruptedIOException(e.getMessage());
+            iioe.initCause(e);
+            throw iioe;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * A task that can be run in the background.
+     *
+     * @author Rob Spoor
+     * @param <T> The result type of the task.
+     */
+    interface Task<T> {
+
+        /**
+         * Runs this task.
+         *
+         * @return The result of this task.
+         * @throws IOException If an I/O error occurred.
+         */
+        T run() throws IOException;
+    }
+
+    private static final class Holder {
+
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private Holder() {
+        }
+
+        private static ExecutorService createExecutor() {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
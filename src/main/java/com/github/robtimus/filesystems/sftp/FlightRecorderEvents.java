@@ -0,0 +1,75 @@
+/*
+ * FlightRecorderEvents.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+/**
+ * Support for Java Flight Recorder events.
+ * Each event is started using a {@code begin} method, which returns the event or {@code null} if the event is not enabled, and committed using
+ * the matching {@code end} method. Events are only committed if their duration exceeds their threshold.
+ * <p>
+ * This implementation is used on Java 8, and does not emit any events. On Java 11 and higher, the implementation in {@code src/main/java11}
+ * is used instead, which is packaged in {@code META-INF/versions/11} of the multi-release JAR. Both implementations must have the same
+ * non-private members.
+ *
+ * @author Rob Spoor
+ */
+final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {
+    }
+
+    static Object beginChannelAcquire() {
+        return null;
+    }
+
+    static void endChannelAcquire(Object event, String pool, boolean acquired) {
+        // does nothing
+    }
+
+    static Object beginSessionCreation() {
+        return null;
+    }
+
+    static void endSessionCreation(Object event, String pool, boolean failed) {
+        // does nothing
+    }
+
+    static Object beginChannelCreation() {
+        return null;
+    }
+
+    static void endChannelCreation(Object event, String pool, boolean failed) {
+        // does nothing
+    }
+
+    static Object beginRequest() {
+        return null;
+    }
+
+    static void endRequest(Object event, String operation, SFTPRequestType type, String path, long bytes, boolean failed) {
+        // does nothing
+    }
+
+    static Object beginStream() {
+        return null;
+    }
+
+    static void endStream(Object event, String path, boolean output, long bytes) {
+        // does nothing
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * HostConnectionBudget.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A limit on the number of channels to a single host and port, that is shared by all pools in the JVM that use it.
+ * Each pool is a {@link Member} of the budget. A member must acquire a permit before it creates a channel, and must release it once the channel
+ * has been closed.
+ * <p>
+ * If no permit is available, members wait for one in a fair-share queue: released permits are handed to waiting members in turn, regardless of
+ * how many threads of each member are waiting. While a member waits, the member with the most idle channels is asked to close one of them.
+ *
+ * @author Rob Spoor
+ */
+final class HostConnectionBudget {
+
+    // guarded by itself
+    private static final Map<String, HostConnectionBudget> BUDGETS = new HashMap<>();
+
+    private static final int DEFAULT_PORT = 22;
+
+    private final String key;
+    private final int maxConnections;
+
+    // all fields below are guarded by this
+    private final Set<Member> members;
+    private final Map<Member, Deque<Waiter>> waiters;
+    // the members with waiters, in the order in which they will be handed a permit
+    private final Deque<Member> turns;
+    private int available;
+
+    private HostConnectionBudget(String key, int maxConnections) {
+        this.key = key;
+        this.maxConnections = maxConnections;
+
+        this.members = new LinkedHashSet<>();
+        this.waiters = new HashMap<>();
+        this.turns = new ArrayDeque<>();
+        this.available = maxConnections;
+    }
+
+    /**
+     * Joins the budget for a host and port. If no pool currently uses a budget for the host and port, a new budget is created.
+     * Otherwise the existing budget is used, which must have the same maximum number of connections.
+     *
+     * @param hostname The hostname.
+     * @param port The port, or {@code -1} for the default port.
+     * @param maxConnections The maximum number of connections.
+     * @param member The member that joins the budget.
+     * @return The budget for the given host and port.
+     * @throws IOException If a budget with a different maximum number of connections is already in use for the given host and port.
+     */
+    static HostConnectionBudget join(String hostname, int port, int maxConnections, Member member) throws IOException {
+        String key = key(hostname, port);
+        synchronized (BUDGETS) {
+            HostConnectionBudget budget = BUDGETS.computeIfAbsent(key, k -> new HostConnectionBudget(k, maxConnections));
+            if (budget.maxConnections != maxConnections) {
+                throw new IOException(SFTPMessages.hostConnectionBudgetConflict(key, budget.maxConnections, maxConnections));
+            }
+            synchronized (budget) {
+                budget.members.add(member);
+            }
+            return budget;
+        }
+    }
+
+    private static String key(String hostname, int port) {
+        // -1 and 22 both mean the default port; host names are case insensitive
+        return hostname.toLowerCase(Locale.ROOT) + ":" + (port == -1 ? DEFAULT_PORT : port); //$NON-NLS-1$
+    }
+
+    /**
+     * Leaves this budget. Once the last member has left, the budget is discarded. Permits that the member still holds must still be released.
+     *
+     * @param member The member that leaves this budget.
+     */
+    void leave(Member member) {
+        synchronized (BUDGETS) {
+            synchronized (this) {
+                members.remove(member);
+                if (members.isEmpty()) {
+                    BUDGETS.remove(key, this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Acquires a permit to create a channel.
+     *
+     * @param member The member that acquires the permit.
+     * @param maxWaitTime The maximum time to wait in nanoseconds, or a negative value to wait indefinitely.
+     * @throws IOException If the maximum wait time passed before a permit became available,
+     *                         or if the current thread was interrupted while waiting for a permit.
+     */
+    void acquire(Member member, long maxWaitTime) throws IOException {
+        Waiter waiter;
+        synchronized (this) {
+            if (available > 0 && turns.isEmpty()) {
+                available--;
+                return;
+            }
+            waiter = new Waiter();
+            Deque<Waiter> memberWaiters = waiters.computeIfAbsent(member, m -> new ArrayDeque<>());
+            if (memberWaiters.isEmpty()) {
+                turns.add(member);
+            }
+            memberWaiters.add(waiter);
+        }
+
+        requestReclaim(member);
+
+        long deadline = System.nanoTime() + maxWaitTime;
+        synchronized (this) {
+            try {
+                while (!waiter.granted) {
+                    if (maxWaitTime < 0) {
+                        wait();
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            removeWaiter(member, waiter);
+                            throw new ConnectionWaitTimeoutException();
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    // the permit was handed over already; give it to the next waiter
+                    releasePermit();
+                } else {
+                    removeWaiter(member, waiter);
+                }
+                Thread.currentThread().interrupt();
+
+                InterruptedIOException iioe = new InterruptedIOException(e.getMessage());
+                iioe.initCause(e);
+                throw iioe;
+            }
+        }
+    }
+
+    private void requestReclaim(Member requester) {
+        Member candidate = null;
+        int candidateIdleCount = 0;
+        synchronized (this) {
+            for (Member member : members) {
+                int idleCount = member.idleChannelCount();
+                if (member != requester && idleCount > candidateIdleCount) {
+                    candidate = member;
+                    candidateIdleCount = idleCount;
+                }
+            }
+        }
+        if (candidate != null) {
+            candidate.reclaimIdleChannel();
+        }
+    }
+
+    // must be called while synchronized on this
+    private void removeWaiter(Member member, Waiter waiter) {
+        Deque<Waiter> memberWaiters = waiters.get(member);
+        memberWaiters.remove(waiter);
+        if (memberWaiters.isEmpty()) {
+            waiters.remove(member);
+            turns.remove(member);
+        }
+    }
+
+    /**
+     * Releases a permit. If members are waiting, the permit is handed to the waiting member whose turn it is.
+     */
+    synchronized void release() {
+        releasePermit();
+    }
+
+    // must be called while synchronized on this
+    private void releasePermit() {
+        Member member = turns.poll();
+        if (member == null) {
+            available++;
+            return;
+        }
+        Deque<Waiter> memberWaiters = waiters.get(member);
+        Waiter waiter = memberWaiters.poll();
+        if (memberWaiters.isEmpty()) {
+            waiters.remove(member);
+        } else {
+            // the member's other waiters have to wait until the other waiting members have had their turn
+            turns.add(member);
+        }
+        waiter.granted = true;
+        notifyAll();
+    }
+
+    synchronized int availableConnections() {
+        return available;
+    }
+
+    synchronized int waiterCount() {
+        return waiters.values().stream()
+                .mapToInt(Deque::size)
+                .sum();
+    }
+
+    int maxConnections() {
+        return maxConnections;
+    }
+
+    static int budgetCount() {
+        synchronized (BUDGETS) {
+            return BUDGETS.size();
+        }
+    }
+
+    /**
+     * A member of a budget.
+     *
+     * @author Rob Spoor
+     */
+    interface Member {
+
+        /**
+         * Returns the number of idle channels of this member.
+         *
+         * @return The number of idle channels of this member.
+         */
+        int idleChannelCount();
+
+        /**
+         * Requests this member to close one of its idle channels. This method should not block.
+         */
+        void reclaimIdleChannel();
+    }
+
+    private static final class Waiter {
+
+        // guarded by the budget
+        private boolean granted;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * LatencyHistogram.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in nanoseconds.
+ * Durations are stored in buckets with a relative precision of 12.5%: each power of two is split into 8 buckets of equal size.
+ * Recording a duration is lock-free and does not allocate any memory.
+ *
+ * @author Rob Spoor
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // durations below this value have their own bucket
+    private static final int LINEAR_BUCKET_COUNT = SUB_BUCKET_COUNT * 2;
+    private static final int LINEAR_BUCKET_BITS = SUB_BUCKET_BITS + 1;
+    // the highest bit of a non-negative long is bit 62
+    private static final int BUCKET_COUNT = LINEAR_BUCKET_COUNT + (62 - LINEAR_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder total;
+    private final AtomicLong max;
+
+    LatencyHistogram() {
+        buckets = new AtomicLongArray(BUCKET_COUNT);
+        total = new LongAdder();
+        max = new AtomicLong();
+    }
+
+    void record(long durationInNanos) {
+        long duration = Math.max(durationInNanos, 0);
+        buckets.incrementAndGet(bucketIndex(duration));
+        total.add(duration);
+
+        long currentMax = max.get();
+        while (duration > currentMax && !max.compareAndSet(currentMax, duration)) {
+            currentMax = max.get();
+        }
+    }
+
+    static int bucketIndex(long duration) {
+        if (duration < LINEAR_BUCKET_COUNT) {
+            return (int) duration;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(duration);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        int subBucket = (int) (duration >>> shift) - SUB_BUCKET_COUNT;
+        return LINEAR_BUCKET_COUNT + (highestBit - LINEAR_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_BUCKET_COUNT) {
+            return index;
+        }
+        int highestBit = (index - LINEAR_BUCKET_COUNT) / SUB_BUCKET_COUNT + LINEAR_BUCKET_BITS;
+        int subBucket = (index - LINEAR_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Returns a snapshot of this histogram. Durations that are recorded while the snapshot is taken may or may not be included.
+     *
+     * @return A snapshot of this histogram.
+     */
+    SFTPLatencySnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        long maximum = max.get();
+        return new SFTPLatencySnapshot(count, total.sum(), maximum,
+                percentile(counts, count, maximum, 0.5),
+                percentile(counts, count, maximum, 0.9),
+                percentile(counts, count, maximum, 0.99));
+    }
+
+    /**
+     * Returns a percentile of the recorded durations. Durations that are recorded while the percentile is calculated may or may not be included.
+     *
+     * @param percentile The percentile to return, between 0 and 1.
+     * @return The given percentile of the recorded durations, or {@code 0} if no durations were recorded.
+     */
+    long percentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return percentile(counts, count, max.get(), percentile);
+    }
+
+    private static long percentile(long[] counts, long count, long maximum, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maximum);
+            }
+        }
+        return maximum;
+    }
+}
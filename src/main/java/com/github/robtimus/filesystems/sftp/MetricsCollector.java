@@ -0,0 +1,269 @@
+/*
+ * MetricsCollector.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the metrics of an SFTP file system. All updates are lock-free.
+ *
+ * @author Rob Spoor
+ */
+final class MetricsCollector implements SFTPFileStoreAttributeView {
+
+    static final String VIEW_NAME = "sftp"; //$NON-NLS-1$
+
+    private final AtomicInteger poolSize = new AtomicInteger();
+    private final AtomicInteger inUseCount = new AtomicInteger();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private final LatencyHistogram acquireWaitTime = new LatencyHistogram();
+    private final ConcurrentMap<String, LatencyHistogram> operationLatencies = new ConcurrentHashMap<>();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final AtomicInteger openStreamCount = new AtomicInteger();
+    private final LongAdder reconnectCount = new LongAdder();
+    private final LongAdder validationFailureCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+
+    private volatile int poolLimit;
+
+    // not exposed as attributes, but useful to check that pool maintenance does what it should
+    private final LongAdder createdChannelCount = new LongAdder();
+    private final LongAdder destroyedChannelCount = new LongAdder();
+    private final LongAdder maintenanceRunCount = new LongAdder();
+
+    // the number of lost sessions that have not been replaced yet
+    private final AtomicInteger lostSessionCount = new AtomicInteger();
+
+    void channelCreated() {
+        poolSize.incrementAndGet();
+        createdChannelCount.increment();
+    }
+
+    void channelDestroyed() {
+        poolSize.decrementAndGet();
+        destroyedChannelCount.increment();
+    }
+
+    long createdChannelCount() {
+        return createdChannelCount.sum();
+    }
+
+    long destroyedChannelCount() {
+        return destroyedChannelCount.sum();
+    }
+
+    void maintenanceRun() {
+        maintenanceRunCount.increment();
+    }
+
+    long maintenanceRunCount() {
+        return maintenanceRunCount.sum();
+    }
+
+    void poolLimitChanged(int limit) {
+        poolLimit = limit;
+    }
+
+    void channelAcquired() {
+        inUseCount.incrementAndGet();
+    }
+
+    void channelReleased() {
+        inUseCount.decrementAndGet();
+    }
+
+    void acquireStarted() {
+        waiterCount.incrementAndGet();
+    }
+
+    void acquireEnded(long durationInNanos) {
+        waiterCount.decrementAndGet();
+        acquireWaitTime.record(durationInNanos);
+    }
+
+    void operationCompleted(String operation, long durationInNanos) {
+        // ConcurrentHashMap.computeIfAbsent may lock even if the key exists, so try a plain lookup first
+        LatencyHistogram histogram = operationLatencies.get(operation);
+        if (histogram == null) {
+            histogram = operationLatencies.computeIfAbsent(operation, k -> new LatencyHistogram());
+        }
+        histogram.record(durationInNanos);
+    }
+
+    void bytesRead(long count) {
+        if (count > 0) {
+            bytesRead.add(count);
+        }
+    }
+
+    void bytesWritten(long count) {
+        if (count > 0) {
+            bytesWritten.add(count);
+        }
+    }
+
+    void streamOpened() {
+        openStreamCount.incrementAndGet();
+    }
+
+    void streamClosed() {
+        openStreamCount.decrementAndGet();
+    }
+
+    void sessionLost() {
+        lostSessionCount.incrementAndGet();
+    }
+
+    void sessionCreated() {
+        int lost;
+        while ((lost = lostSessionCount.get()) > 0) {
+            if (lostSessionCount.compareAndSet(lost, lost - 1)) {
+                reconnectCount.increment();
+                return;
+            }
+        }
+    }
+
+    void validationFailed() {
+        validationFailureCount.increment();
+    }
+
+    void requestRetried() {
+        retryCount.increment();
+    }
+
+    @Override
+    public String name() {
+        return VIEW_NAME;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return Math.max(poolSize.get(), 0);
+    }
+
+    @Override
+    public int getIdleCount() {
+        // the two values are not updated atomically, so prevent negative values
+        return Math.max(poolSize.get() - inUseCount.get(), 0);
+    }
+
+    @Override
+    public int getInUseCount() {
+        return Math.max(inUseCount.get(), 0);
+    }
+
+    @Override
+    public int getWaiterCount() {
+        return Math.max(waiterCount.get(), 0);
+    }
+
+    @Override
+    public int getPoolLimit() {
+        return poolLimit;
+    }
+
+    @Override
+    public SFTPLatencySnapshot getAcquireWaitTime() {
+        return acquireWaitTime.snapshot();
+    }
+
+    @Override
+    public Map<String, SFTPLatencySnapshot> getOperationLatencies() {
+        Map<String, SFTPLatencySnapshot> result = new TreeMap<>();
+        operationLatencies.forEach((operation, histogram) -> result.put(operation, histogram.snapshot()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public int getOpenStreamCount() {
+        return Math.max(openStreamCount.get(), 0);
+    }
+
+    @Override
+    public long getReconnectCount() {
+        return reconnectCount.sum();
+    }
+
+    @Override
+    public long getValidationFailureCount() {
+        return validationFailureCount.sum();
+    }
+
+    @Override
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    /**
+     * Returns the value of a single metric.
+     *
+     * @param name The name of the metric, which is the name of the matching {@link SFTPFileSystemMXBean} getter without {@code get},
+     *                 starting with a lowercase character.
+     * @return The value of the metric, or {@code null} if there is no such metric.
+     */
+    Object getAttribute(String name) {
+        switch (name) {
+            case "poolSize": //$NON-NLS-1$
+                return getPoolSize();
+            case "idleCount": //$NON-NLS-1$
+                return getIdleCount();
+            case "inUseCount": //$NON-NLS-1$
+                return getInUseCount();
+            case "waiterCount": //$NON-NLS-1$
+                return getWaiterCount();
+            case "poolLimit": //$NON-NLS-1$
+                return getPoolLimit();
+            case "acquireWaitTime": //$NON-NLS-1$
+                return getAcquireWaitTime();
+            case "operationLatencies": //$NON-NLS-1$
+                return getOperationLatencies();
+            case "bytesRead": //$NON-NLS-1$
+                return getBytesRead();
+            case "bytesWritten": //$NON-NLS-1$
+                return getBytesWritten();
+            case "openStreamCount": //$NON-NLS-1$
+                return getOpenStreamCount();
+            case "reconnectCount": //$NON-NLS-1$
+                return getReconnectCount();
+            case "validationFailureCount": //$NON-NLS-1$
+                return getValidationFailureCount();
+            case "retryCount": //$NON-NLS-1$
+                return getRetryCount();
+            default:
+                return null;
+        }
+    }
+}
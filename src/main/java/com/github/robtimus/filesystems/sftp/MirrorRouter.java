@@ -0,0 +1,241 @@
+/*
+ * MirrorRouter.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel;
+import com.github.robtimus.filesystems.sftp.SSHChannelPool.ChannelOperation;
+
+/**
+ * Routes the read-only operations of a file system to pools for read-only mirrors of its SFTP server.
+ * Operations use the healthy mirror with the fewest channels in use or waited for. They use the primary pool instead if there are no healthy
+ * mirrors, or if any file was modified through the primary pool too recently. The latter applies to all paths, not only the modified ones:
+ * a modification can affect other paths as well, like the parent directory or the files of a moved directory.
+ * <p>
+ * Attributes read from mirrors are not cached, only attributes read through the primary pool.
+ *
+ * @author Rob Spoor
+ */
+final class MirrorRouter {
+
+    private static final long DEFAULT_UNHEALTHY_TIME = TimeUnit.SECONDS.toNanos(30);
+
+    private final SSHChannelPool primary;
+    private final List<Mirror> mirrors;
+    private final long readYourWritesWindow;
+    private final long unhealthyTime;
+    // the mirror to consider first; rotated so mirrors with the same load are used in turn
+    private final AtomicInteger next;
+
+    MirrorRouter(SSHChannelPool primary, List<SSHChannelPool> mirrorPools, long readYourWritesWindow, long unhealthyTime) {
+        this.primary = primary;
+        this.mirrors = new ArrayList<>(mirrorPools.size());
+        for (SSHChannelPool pool : mirrorPools) {
+            this.mirrors.add(new Mirror(pool));
+        }
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.unhealthyTime = unhealthyTime;
+        this.next = new AtomicInteger();
+    }
+
+    /**
+     * Creates a router for the mirrors of a file system's environment.
+     *
+     * @param primary The primary pool.
+     * @param env The file system's environment.
+     * @param readYourWritesWindow The time in nanoseconds after modifying any file during which read-only operations use the primary pool.
+     * @return The created router. If the environment has no mirrors, it routes all operations to the primary pool.
+     * @throws IOException If a pool could not be created for any of the mirrors.
+     */
+    static MirrorRouter create(SSHChannelPool primary, SFTPEnvironment env, long readYourWritesWindow) throws IOException {
+        List<URI> uris = env.getMirrors();
+        if (uris.isEmpty()) {
+            return new MirrorRouter(primary, Collections.emptyList(), readYourWritesWindow, DEFAULT_UNHEALTHY_TIME);
+        }
+        SFTPEnvironment mirrorEnv = env.forMirror();
+        List<SSHChannelPool> mirrorPools = new ArrayList<>(uris.size());
+        try {
+            for (URI uri : uris) {
+                mirrorPools.add(primary.mirror(uri.getHost(), uri.getPort(), mirrorEnv));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (SSHChannelPool pool : mirrorPools) {
+                try {
+                    pool.close();
+                } catch (IOException e2) {
+                    e.addSuppressed(e2);
+                }
+            }
+            throw e;
+        }
+        return new MirrorRouter(primary, mirrorPools, readYourWritesWindow, DEFAULT_UNHEALTHY_TIME);
+    }
+
+    /**
+     * Executes a read-only operation. If the operation is routed to a mirror and a channel to that mirror cannot be acquired, the operation is
+     * executed using the primary pool instead. If that is because the mirror cannot be reached, or if the channel breaks, the mirror is also
+     * marked as unhealthy; in the latter case the operation is executed again, so it must not have any side effects.
+     *
+     * @param <T> The result type of the operation.
+     * @param lane The lane to use.
+     * @param operation The operation to execute.
+     * @return The result of the operation.
+     * @throws IOException If the operation failed.
+     * @see SSHChannelPool#executeIdempotent(SFTPChannelLane, ChannelOperation)
+     */
+    <T> T executeRead(SFTPChannelLane lane, ChannelOperation<T> operation) throws IOException {
+        Mirror mirror = select();
+        Channel channel = mirror != null ? mirror.get(lane) : null;
+        if (channel != null) {
+            try {
+                return operation.execute(channel);
+            } catch (IOException e) {
+                if (!channel.isBroken()) {
+                    throw e;
+                }
+                mirror.failed();
+            } finally {
+                channel.close();
+            }
+        }
+        return primary.executeIdempotent(lane, operation);
+    }
+
+    /**
+     * Returns a channel to a mirror, to read from instead of the primary pool. Like {@link SSHChannelPool#getOrCreate()}, this never waits.
+     *
+     * @return A channel to the selected mirror, or {@code null} if the primary pool should be used.
+     * @throws InterruptedIOException If the current thread was interrupted while opening a channel.
+     */
+    Channel getOrCreateForRead() throws InterruptedIOException {
+        Mirror mirror = select();
+        return mirror != null ? mirror.getOrCreate() : null;
+    }
+
+    private Mirror select() {
+        // this does not check whether the path to read was modified, but whether any file was modified
+        if (mirrors.isEmpty() || primary.attributesCache().invalidatedWithin(readYourWritesWindow)) {
+            return null;
+        }
+        long now = System.nanoTime();
+        int start = Math.floorMod(next.getAndIncrement(), mirrors.size());
+        Mirror selected = null;
+        int selectedLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < mirrors.size(); i++) {
+            Mirror mirror = mirrors.get((start + i) % mirrors.size());
+            if (mirror.isHealthy(now)) {
+                int load = mirror.load();
+                if (load < selectedLoad) {
+                    selected = mirror;
+                    selectedLoad = load;
+                }
+            }
+        }
+        return selected;
+    }
+
+    int mirrorCount() {
+        return mirrors.size();
+    }
+
+    SSHChannelPool mirrorPool(int index) {
+        return mirrors.get(index).pool;
+    }
+
+    boolean isHealthy(int index) {
+        return mirrors.get(index).isHealthy(System.nanoTime());
+    }
+
+    void close() throws IOException {
+        IOException exception = null;
+        for (Mirror mirror : mirrors) {
+            try {
+                mirror.pool.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private final class Mirror {
+
+        private final SSHChannelPool pool;
+        private volatile boolean failed;
+        private volatile long failedAt;
+
+        private Mirror(SSHChannelPool pool) {
+            this.pool = pool;
+        }
+
+        private boolean isHealthy(long now) {
+            return !failed || now - failedAt >= unhealthyTime;
+        }
+
+        private int load() {
+            MetricsCollector metrics = pool.metrics();
+            return metrics.getInUseCount() + metrics.getWaiterCount();
+        }
+
+        private Channel get(SFTPChannelLane lane) throws InterruptedIOException {
+            try {
+                return pool.get(lane);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (@SuppressWarnings("unused") ConnectionWaitTimeoutException e) {
+                // the mirror is busy, not unreachable
+                return null;
+            } catch (@SuppressWarnings("unused") IOException e) {
+                failed();
+                return null;
+            }
+        }
+
+        private Channel getOrCreate() throws InterruptedIOException {
+            try {
+                return pool.getOrCreate();
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (@SuppressWarnings("unused") ConnectionWaitTimeoutException e) {
+                // the mirror is busy, not unreachable
+                return null;
+            } catch (@SuppressWarnings("unused") IOException e) {
+                failed();
+                return null;
+            }
+        }
+
+        private void failed() {
+            failedAt = System.nanoTime();
+            failed = true;
+        }
+    }
+}
@@ -39,22 +39,53 @@ final class OpenOptions {
     public final boolean create;
     public final boolean createNew;
     public final boolean deleteOnClose;
+    public final boolean resumable;
+    // null if the default lane should be used
+    public final SFTPChannelLane lane;
 
     public final Collection<? extends OpenOption> options;
 
     private OpenOptions(boolean read, boolean write, boolean append, boolean create, boolean createNew, boolean deleteOnClose,
             Collection<? extends OpenOption> options) {
 
+        this(read, write, append, create, createNew, deleteOnClose, false, null, options);
+    }
+
+    private OpenOptions(boolean read, boolean write, boolean append, boolean create, boolean createNew, boolean deleteOnClose,
+            boolean resumable, SFTPChannelLane lane, Collection<? extends OpenOption> options) {
+
         this.read = read;
         this.write = write;
         this.append = append;
         this.create = create;
         this.createNew = createNew;
         this.deleteOnClose = deleteOnClose;
+        this.resumable = resumable;
+        this.lane = lane;
 
         this.options = options;
     }
 
+    /**
+     * Returns a copy of this object that does not delete the file on close. Resumable streams use this for the streams they delegate to,
+     * because these can be closed and replaced before the resumable stream itself is closed.
+     *
+     * @return A copy of this object that does not delete the file on close.
+     */
+    OpenOptions withoutDeleteOnClose() {
+        return new OpenOptions(read, write, append, create, createNew, false, resumable, lane, options);
+    }
+
+    /**
+     * Returns the lane to use.
+     *
+     * @param defaultLane The lane to use if no lane was specified.
+     * @return The lane to use.
+     */
+    SFTPChannelLane lane(SFTPChannelLane defaultLane) {
+        return lane != null ? lane : defaultLane;
+    }
+
     static OpenOptions forNewInputStream(OpenOption... options) {
         return forNewInputStream(Arrays.asList(options));
     }
@@ -65,16 +96,22 @@ final class OpenOptions {
         }
 
         boolean deleteOnClose = false;
+        boolean resumable = false;
+        SFTPChannelLane lane = null;
 
         for (OpenOption option : options) {
             if (option == StandardOpenOption.DELETE_ON_CLOSE) {
                 deleteOnClose = true;
+            } else if (option == SFTPOpenOption.RESUMABLE) {
+                resumable = true;
+            } else if (option instanceof SFTPChannelLane) {
+                lane = (SFTPChannelLane) option;
             } else if (option != StandardOpenOption.READ && !isIgnoredOpenOption(option)) {
                 throw Messages.fileSystemProvider().unsupportedOpenOption(option);
             }
         }
 
-        return new OpenOptions(true, false, false, false, false, deleteOnClose, options);
+        return new OpenOptions(true, false, false, false, false, deleteOnClose, resumable, lane, options);
     }
 
     static OpenOptions forNewOutputStream(OpenOption... options) {
@@ -92,6 +129,8 @@ final class OpenOptions {
         boolean create = false;
         boolean createNew = false;
         boolean deleteOnClose = false;
+        boolean resumable = false;
+        SFTPChannelLane lane = null;
 
         for (OpenOption option : options) {
             if (option == StandardOpenOption.APPEND) {
@@ -104,6 +143,10 @@ final class OpenOptions {
                 createNew = true;
             } else if (option == StandardOpenOption.DELETE_ON_CLOSE) {
                 deleteOnClose = true;
+            } else if (option == SFTPOpenOption.RESUMABLE) {
+                resumable = true;
+            } else if (option instanceof SFTPChannelLane) {
+                lane = (SFTPChannelLane) option;
             } else if (option != StandardOpenOption.WRITE && !isIgnoredOpenOption(option)) {
                 throw Messages.fileSystemProvider().unsupportedOpenOption(option);
             }
@@ -114,7 +157,7 @@ final class OpenOptions {
             throw Messages.fileSystemProvider().illegalOpenOptionCombination(options);
         }
 
-        return new OpenOptions(false, true, append, create, createNew, deleteOnClose, options);
+        return new OpenOptions(false, true, append, create, createNew, deleteOnClose, resumable, lane, options);
     }
 
     static OpenOptions forNewByteChannel(Set<? extends OpenOption> options) {
@@ -126,6 +169,7 @@ final class OpenOptions {
         boolean create = false;
         boolean createNew = false;
         boolean deleteOnClose = false;
+        SFTPChannelLane lane = null;
 
         for (OpenOption option : options) {
             if (option == StandardOpenOption.READ) {
@@ -142,6 +186,8 @@ final class OpenOptions {
                 createNew = true;
             } else if (option == StandardOpenOption.DELETE_ON_CLOSE) {
                 deleteOnClose = true;
+            } else if (option instanceof SFTPChannelLane) {
+                lane = (SFTPChannelLane) option;
             } else if (!isIgnoredOpenOption(option)) {
                 throw Messages.fileSystemProvider().unsupportedOpenOption(option);
             }
@@ -167,7 +213,7 @@ final class OpenOptions {
             throw Messages.fileSystemProvider().illegalOpenOptionCombination(options);
         }
 
-        return new OpenOptions(read, write, append, create, createNew, deleteOnClose, options);
+        return new OpenOptions(read, write, append, create, createNew, deleteOnClose, false, lane, options);
     }
 
     private static boolean isIgnoredOpenOption(OpenOption option) {
@@ -0,0 +1,174 @@
+/*
+ * ParallelTransfer.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel;
+
+/**
+ * A transfer of a single file that is split into chunks, which are transferred concurrently using several client connections.
+ * <p>
+ * The current thread always takes part in the transfer. Additional threads only take part if a worker thread starts before the current thread
+ * has finished and it can acquire a client connection without waiting; otherwise the chunks are simply transferred by fewer threads.
+ *
+ * @author Rob Spoor
+ */
+final class ParallelTransfer {
+
+    private final SSHChannelPool channelPool;
+    private final SFTPTransferConfig config;
+    private final ChunkTransfer chunkTransfer;
+
+    private final long size;
+    private final long chunkCount;
+    private final AtomicLong nextChunk;
+    private final AtomicReference<Throwable> failure;
+
+    ParallelTransfer(SSHChannelPool channelPool, SFTPTransferConfig config, long size, ChunkTransfer chunkTransfer) {
+        this.channelPool = channelPool;
+        this.config = config;
+        this.chunkTransfer = chunkTransfer;
+
+        this.size = size;
+        this.chunkCount = size == 0 ? 0 : (size - 1) / config.chunkSize() + 1;
+        this.nextChunk = new AtomicLong();
+        this.failure = new AtomicReference<>();
+    }
+
+    void run() throws IOException {
+        int helperCount = (int) Math.min(config.parallelism(), chunkCount) - 1;
+        List<Helper> helpers = new ArrayList<>(Math.max(helperCount, 0));
+        // attribute the requests of the helpers to the same operation as those of the current thread
+        RequestTracker requestTracker = channelPool.requestTracker();
+        String operation = requestTracker.currentOperation();
+        for (int i = 0; i < helperCount; i++) {
+            Helper helper = new Helper();
+            Workers.execute(() -> {
+                if (!helper.started.compareAndSet(false, true)) {
+                    // the current thread has already finished without this helper
+                    return;
+                }
+                String outerOperation = requestTracker.enter(operation);
+                try {
+                    transferChunks(false);
+                } finally {
+                    requestTracker.exit(outerOperation);
+                    helper.completion.complete(null);
+                }
+            });
+            helpers.add(helper);
+        }
+
+        transferChunks(true);
+
+        boolean interrupted = false;
+        for (Helper helper : helpers) {
+            if (helper.started.compareAndSet(false, true)) {
+                // the helper was still waiting for a worker thread, and will no longer take part
+                continue;
+            }
+            while (!helper.completion.isDone()) {
+                try {
+                    helper.completion.get();
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    // let the helpers stop after their current chunk
+                    interrupted = true;
+                    failure.compareAndSet(null, new InterruptedIOException());
+                } catch (@SuppressWarnings("unused") ExecutionException e) {
+                    // cannot occur; helpers are always completed normally
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        throwFailure();
+    }
+
+    private void transferChunks(boolean required) {
+        Channel channel;
+        try {
+            // the current thread may wait for a channel, but helpers only take part if a channel is available right away
+            channel = required ? channelPool.get(SFTPChannelLane.BULK) : channelPool.tryGet(SFTPChannelLane.BULK);
+        } catch (IOException e) {
+            if (required) {
+                addFailure(e);
+            }
+            // else the other threads will transfer the chunks
+            return;
+        }
+        if (channel == null) {
+            // no channel is available; the other threads will transfer the chunks
+            return;
+        }
+        try (Channel c = channel) {
+            // allocate the buffer once, and reuse it for all chunks
+            ByteBuffer buffer = ByteBuffer.allocate(config.bufferSize());
+            long chunk;
+            while (failure.get() == null && (chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                long offset = chunk * config.chunkSize();
+                long length = Math.min(config.chunkSize(), size - offset);
+                chunkTransfer.transfer(c, offset, length, buffer);
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            addFailure(e);
+        }
+    }
+
+    private void addFailure(Throwable t) {
+        if (!failure.compareAndSet(null, t)) {
+            Throwable first = failure.get();
+            if (first != t) {
+                first.addSuppressed(t);
+            }
+        }
+    }
+
+    private void throwFailure() throws IOException {
+        Throwable t = failure.get();
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+    }
+
+    private static final class Helper {
+
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    }
+
+    interface ChunkTransfer {
+
+        void transfer(Channel channel, long offset, long length, ByteBuffer buffer) throws IOException;
+    }
+}
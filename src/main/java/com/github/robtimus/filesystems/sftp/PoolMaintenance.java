@@ -0,0 +1,89 @@
+/*
+ * PoolMaintenance.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scheduler for background pool maintenance. All pools share a single daemon thread, that is only created when it's first needed.
+ * Maintenance tasks should therefore never block for longer than needed to create a client connection.
+ *
+ * @author Rob Spoor
+ */
+final class PoolMaintenance {
+
+    private static final String THREAD_NAME = "sftp-fs-pool-maintenance"; //$NON-NLS-1$
+
+    private PoolMaintenance() {
+    }
+
+    /**
+     * Schedules a maintenance task.
+     *
+     * @param task The task to schedule. It should not throw any exceptions; if it does, it will not be run again.
+     * @param interval The interval between the end of one run and the start of the next.
+     * @return A future that can be used to cancel the task.
+     */
+    static ScheduledFuture<?> schedule(Runnable task, Duration interval) {
+        long nanos = interval.toNanos();
+        return Holder.EXECUTOR.scheduleWithFixedDelay(task, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Schedules a one-off maintenance task.
+     *
+     * @param task The task to schedule. It should not throw any exceptions.
+     * @param delay The delay before the task is run.
+     * @return A future that can be used to cancel the task.
+     */
+    static ScheduledFuture<?> scheduleOnce(Runnable task, Duration delay) {
+        return Holder.EXECUTOR.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs a one-off maintenance task as soon as possible.
+     *
+     * @param task The task to run. It should not throw any exceptions.
+     */
+    static void execute(Runnable task) {
+        Holder.EXECUTOR.execute(task);
+    }
+
+    private static final class Holder {
+
+        private static final ScheduledExecutorService EXECUTOR = createExecutor();
+
+        private Holder() {
+        }
+
+        private static ScheduledExecutorService createExecutor() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+            // cancelled tasks of closed file systems should not linger in the queue
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * RequestCoalescer.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A coalescer for concurrent identical read-only requests.
+ * If a request is executed while an identical request is already in progress, the request is not executed but instead shares the result of the
+ * request that is in progress. Failures are not shared; if the request that is in progress fails, each waiting caller executes the request
+ * itself. This gives each caller its own exception, of the type it would have gotten without coalescing.
+ * <p>
+ * A request that started before a modification must not be shared with callers that started after that modification.
+ * Therefore requests are only shared if the {@linkplain AttributesCache#generation() generation} of the attributes cache has not changed.
+ *
+ * @author Rob Spoor
+ */
+final class RequestCoalescer {
+
+    private final AttributesCache attributesCache;
+
+    private final ConcurrentMap<Key, InFlightRequest> inFlightRequests;
+
+    private final AtomicInteger waiterCount;
+
+    RequestCoalescer(AttributesCache attributesCache) {
+        this.attributesCache = attributesCache;
+        this.inFlightRequests = new ConcurrentHashMap<>();
+        this.waiterCount = new AtomicInteger();
+    }
+
+    /**
+     * Executes a request, or waits for an identical request that is already in progress.
+     *
+     * @param <T> The result type of the request.
+     * @param operation The name of the operation.
+     * @param path The normalized absolute path the request is for.
+     * @param request The request to execute.
+     * @return The result of the request.
+     * @throws IOException If the request failed, or if the current thread was interrupted while waiting for an identical request.
+     */
+    <T> T execute(String operation, String path, Request<T> request) throws IOException {
+        Key key = new Key(operation, path, attributesCache.generation());
+        InFlightRequest inFlightRequest = new InFlightRequest();
+        InFlightRequest existing = inFlightRequests.putIfAbsent(key, inFlightRequest);
+        if (existing != null) {
+            boolean succeeded;
+            waiterCount.incrementAndGet();
+            try {
+                succeeded = existing.await();
+            } finally {
+                waiterCount.decrementAndGet();
+            }
+            if (succeeded) {
+                @SuppressWarnings("unchecked")
+                T result = (T) existing.result;
+                return result;
+            }
+            // the identical request failed; its exception is not shared, so execute the request to get a separate exception
+            return request.execute();
+        }
+        try {
+            T result = request.execute();
+            inFlightRequest.complete(result, true);
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            inFlightRequest.complete(null, false);
+            throw e;
+        } finally {
+            inFlightRequests.remove(key, inFlightRequest);
+        }
+    }
+
+    int inFlightRequestCount() {
+        return inFlightRequests.size();
+    }
+
+    int waiterCount() {
+        return waiterCount.get();
+    }
+
+    interface Request<T> {
+
+        T execute() throws IOException;
+    }
+
+    private static final class Key {
+
+        private final String operation;
+        private final String path;
+        private final long generation;
+
+        private Key(String operation, String path, long generation) {
+            this.operation = operation;
+            this.path = path;
+            this.generation = generation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o == null || o.getClass() != getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return operation.equals(other.operation) && path.equals(other.path) && generation == other.generation;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = operation.hashCode();
+            hash = 31 * hash + path.hashCode();
+            hash = 31 * hash + Long.hashCode(generation);
+            return hash;
+        }
+    }
+
+    private static final class InFlightRequest {
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private Object result;
+        private boolean succeeded;
+
+        private void complete(Object r, boolean s) {
+            // completed.countDown() guarantees that other threads see these values after completed.await()
+            result = r;
+            succeeded = s;
+            completed.countDown();
+        }
+
+        private boolean await() throws IOException {
+            try {
+                completed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                InterruptedIOException iioe = new InterruptedIOException(e.getMessage());
+                iioe.initCause(e);
+                throw iioe;
+            }
+            return succeeded;
+        }
+    }
+}
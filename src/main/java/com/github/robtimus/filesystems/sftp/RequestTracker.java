@@ -0,0 +1,152 @@
+/*
+ * RequestTracker.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.util.function.LongSupplier;
+import com.jcraft.jsch.SftpException;
+
+/**
+ * Tracks the requests that are sent to an SFTP server, and the file system operations that send them.
+ * <p>
+ * File system operations {@linkplain #enter(String) enter} and {@linkplain #exit(String) exit} operations on the current thread;
+ * requests that are sent in between are attributed to the outermost operation.
+ *
+ * @author Rob Spoor
+ */
+final class RequestTracker {
+
+    private final SFTPRequestStatistics statistics;
+    private final SFTPRequestListener listener;
+
+    private final ThreadLocal<String> currentOperation;
+
+    RequestTracker(SFTPRequestListener listener) {
+        this.statistics = new SFTPRequestStatistics();
+        this.listener = listener;
+        this.currentOperation = new ThreadLocal<>();
+    }
+
+    SFTPRequestStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * Enters an operation on the current thread. This must be followed by a call to {@link #exit(String)} in a {@code finally} block.
+     *
+     * @param operation The name of the operation to enter.
+     * @return The name of the operation that was already entered, or {@code null} if there was none.
+     */
+    String enter(String operation) {
+        String outerOperation = currentOperation.get();
+        if (outerOperation == null) {
+            currentOperation.set(operation);
+        }
+        return outerOperation;
+    }
+
+    /**
+     * Exits an operation on the current thread.
+     *
+     * @param outerOperation The result of the matching call to {@link #enter(String)}.
+     */
+    void exit(String outerOperation) {
+        if (outerOperation == null) {
+            currentOperation.remove();
+        }
+    }
+
+    String currentOperation() {
+        String operation = currentOperation.get();
+        return operation != null ? operation : SFTPRequestStatistics.OTHER_OPERATION;
+    }
+
+    <T> T execute(SFTPRequestType type, String path, Request<T> request) throws SftpException {
+        return execute(currentOperation(), type, path, request);
+    }
+
+    <T> T execute(String operation, SFTPRequestType type, String path, Request<T> request) throws SftpException {
+        Object event = FlightRecorderEvents.beginRequest();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = request.execute();
+            failed = false;
+            return result;
+        } finally {
+            record(operation, type, path, System.nanoTime() - start, 0, failed, event);
+        }
+    }
+
+    void run(SFTPRequestType type, String path, VoidRequest request) throws SftpException {
+        run(type, path, request, () -> 0);
+    }
+
+    /**
+     * Runs a request that transfers file contents.
+     *
+     * @param type The type of the request.
+     * @param path The path of the request.
+     * @param request The request to run.
+     * @param bytes A supplier for the number of bytes that the request transferred. It is called after the request ended, even if it failed.
+     * @throws SftpException If the request failed.
+     */
+    void run(SFTPRequestType type, String path, VoidRequest request, LongSupplier bytes) throws SftpException {
+        Object event = FlightRecorderEvents.beginRequest();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            request.run();
+            failed = false;
+        } finally {
+            record(currentOperation(), type, path, System.nanoTime() - start, bytes.getAsLong(), failed, event);
+        }
+    }
+
+    /**
+     * Records a request that JSch sends implicitly as part of another request. Its duration is included in the duration of that other request.
+     *
+     * @param type The type of the implicit request.
+     * @param path The path of the implicit request.
+     */
+    void recordImplicit(SFTPRequestType type, String path) {
+        Object event = FlightRecorderEvents.beginRequest();
+        record(currentOperation(), type, path, 0, 0, false, event);
+    }
+
+    private void record(String operation, SFTPRequestType type, String path, long duration, long bytes, boolean failed, Object event) {
+        statistics.record(operation, type, duration);
+        FlightRecorderEvents.endRequest(event, operation, type, path, bytes, failed);
+        if (listener != null) {
+            try {
+                listener.requestCompleted(operation, type, path, duration, failed);
+            } catch (RuntimeException e) {
+                // a failing listener must not replace the outcome of the request itself
+            }
+        }
+    }
+
+    interface Request<T> {
+
+        T execute() throws SftpException;
+    }
+
+    interface VoidRequest {
+
+        void run() throws SftpException;
+    }
+}
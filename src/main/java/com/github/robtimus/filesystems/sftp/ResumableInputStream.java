@@ -0,0 +1,169 @@
+/*
+ * ResumableInputStream.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel;
+import com.jcraft.jsch.SftpATTRS;
+
+/**
+ * An input stream that reopens its file on another channel if its channel breaks, and continues reading at the position it was at.
+ * To make sure the same file is read, its size and last modification time may not change.
+ *
+ * @author Rob Spoor
+ */
+final class ResumableInputStream extends InputStream {
+
+    private final SSHChannelPool channelPool;
+    private final String path;
+    private final boolean deleteOnClose;
+    private final int maxReconnects;
+    private final SFTPChannelLane lane;
+
+    private final long size;
+    private final int modificationTime;
+
+    private Channel channel;
+    private InputStream in;
+    private long position;
+    private int reconnects;
+    private boolean open;
+
+    private ResumableInputStream(SSHChannelPool channelPool, String path, OpenOptions options, int maxReconnects, Channel channel,
+            SftpATTRS attributes) throws IOException {
+
+        this.channelPool = channelPool;
+        this.path = path;
+        this.deleteOnClose = options.deleteOnClose;
+        this.maxReconnects = maxReconnects;
+        this.lane = options.lane(SFTPChannelLane.BULK);
+
+        this.size = attributes.getSize();
+        this.modificationTime = attributes.getMTime();
+
+        this.channel = channel;
+        this.in = channel.newInputStream(path, options.withoutDeleteOnClose());
+        this.position = 0;
+        this.reconnects = 0;
+        this.open = true;
+    }
+
+    static ResumableInputStream open(SSHChannelPool channelPool, String path, OpenOptions options, int maxReconnects) throws IOException {
+        try (Channel channel = channelPool.get(options.lane(SFTPChannelLane.BULK))) {
+            SftpATTRS attributes = channel.readAttributes(path, true);
+            return new ResumableInputStream(channelPool, path, options, maxReconnects, channel, attributes);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (true) {
+            try {
+                int b = in.read();
+                if (b != -1) {
+                    position++;
+                }
+                return b;
+            } catch (IOException e) {
+                resume(e);
+            }
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        while (true) {
+            try {
+                int n = in.read(b, off, len);
+                if (n > 0) {
+                    position += n;
+                }
+                return n;
+            } catch (IOException e) {
+                resume(e);
+            }
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        while (true) {
+            try {
+                long skipped = in.skip(n);
+                position += skipped;
+                return skipped;
+            } catch (IOException e) {
+                resume(e);
+            }
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return in.available();
+    }
+
+    private void resume(IOException failure) throws IOException {
+        IOException exception = failure;
+        Channel failedChannel = channel;
+        while (open && failedChannel.isBroken() && reconnects < maxReconnects) {
+            reconnects++;
+            closeBroken();
+
+            Channel newChannel = channelPool.get(lane);
+            try {
+                SftpATTRS attributes = newChannel.readAttributes(path, true);
+                if (attributes.getSize() != size || attributes.getMTime() != modificationTime) {
+                    throw new IOException(SFTPMessages.fileChangedDuringTransfer(path));
+                }
+                in = newChannel.resumeInputStream(path, position);
+                channel = newChannel;
+                return;
+            } catch (IOException e) {
+                e.addSuppressed(exception);
+                exception = e;
+                failedChannel = newChannel;
+            } finally {
+                newChannel.close();
+            }
+        }
+        throw exception;
+    }
+
+    private void closeBroken() {
+        try {
+            in.close();
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // the stream is broken; closing it is only needed to release its channel
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (open) {
+            open = false;
+            in.close();
+            if (deleteOnClose) {
+                try (Channel deleteChannel = channelPool.get()) {
+                    deleteChannel.delete(path, false);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * ResumableOutputStream.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel;
+
+/**
+ * An output stream that reopens its file on another channel if its channel breaks, and continues writing where the SFTP server stopped
+ * receiving data.
+ * <p>
+ * Data that was sent but not yet received by the SFTP server is lost when a channel breaks. Therefore the most recently written data is kept in
+ * a replay buffer, and written again after the file has been reopened. If the SFTP server lost more data than fits in the replay buffer,
+ * the stream cannot be resumed.
+ *
+ * @author Rob Spoor
+ */
+final class ResumableOutputStream extends OutputStream {
+
+    // JSch sends at most a few hundred kilobytes before waiting for acknowledgements, so this leaves plenty of room
+    private static final int REPLAY_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private final SSHChannelPool channelPool;
+    private final String path;
+    private final boolean deleteOnClose;
+    private final int maxReconnects;
+    private final SFTPChannelLane lane;
+
+    private final ReplayBuffer replayBuffer;
+
+    private Channel channel;
+    private OutputStream out;
+    private long position;
+    private int reconnects;
+    private boolean open;
+
+    ResumableOutputStream(SSHChannelPool channelPool, String path, boolean deleteOnClose, int maxReconnects, SFTPChannelLane lane,
+            Channel channel, OutputStream out, long position) {
+
+        this.channelPool = channelPool;
+        this.path = path;
+        this.deleteOnClose = deleteOnClose;
+        this.maxReconnects = maxReconnects;
+        this.lane = lane;
+
+        this.replayBuffer = new ReplayBuffer(REPLAY_BUFFER_SIZE);
+
+        this.channel = channel;
+        this.out = out;
+        this.position = position;
+        this.reconnects = 0;
+        this.open = true;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        // add the data to the replay buffer first; if writing fails, part of it may have been received already
+        replayBuffer.add(b, off, len);
+        position += len;
+        try {
+            out.write(b, off, len);
+        } catch (IOException e) {
+            // resuming writes all data from the SFTP server's position up to position, including this data
+            resume(e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        while (true) {
+            try {
+                out.flush();
+                return;
+            } catch (IOException e) {
+                resume(e);
+            }
+        }
+    }
+
+    private void resume(IOException failure) throws IOException {
+        IOException exception = failure;
+        Channel failedChannel = channel;
+        while (open && failedChannel.isBroken() && reconnects < maxReconnects) {
+            reconnects++;
+            closeBroken();
+
+            Channel newChannel = channelPool.get(lane);
+            try {
+                long size = newChannel.readAttributes(path, true).getSize();
+                long lost = position - size;
+                if (lost < 0 || lost > replayBuffer.size()) {
+                    throw new IOException(SFTPMessages.streamNotResumable(path, size, position));
+                }
+                out = newChannel.resumeOutputStream(path, size);
+                channel = newChannel;
+                replayBuffer.writeLast(lost, out);
+                return;
+            } catch (IOException e) {
+                e.addSuppressed(exception);
+                exception = e;
+                failedChannel = newChannel;
+            } finally {
+                newChannel.close();
+            }
+        }
+        throw exception;
+    }
+
+    private void closeBroken() {
+        try {
+            out.close();
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // the stream is broken; closing it is only needed to release its channel
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (open) {
+            // closing waits until the SFTP server has acknowledged all data, so this can also fail if the channel breaks
+            while (true) {
+                try {
+                    out.close();
+                    break;
+                } catch (IOException e) {
+                    resume(e);
+                }
+            }
+            open = false;
+            if (deleteOnClose) {
+                try (Channel deleteChannel = channelPool.get()) {
+                    deleteChannel.delete(path, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * A ring buffer that holds the most recently written data. The buffer starts small, and grows up to its capacity as data is added, so
+     * streams that only write a little data don't allocate the full capacity.
+     *
+     * @author Rob Spoor
+     */
+    static final class ReplayBuffer {
+
+        private static final int INITIAL_SIZE = 8 * 1024;
+
+        private final int capacity;
+        // until data.length reaches the capacity, the buffer has not wrapped around, and the data starts at index 0
+        private byte[] data;
+        // the total number of bytes added
+        private long count;
+
+        ReplayBuffer(int capacity) {
+            this.capacity = capacity;
+            data = new byte[0];
+            count = 0;
+        }
+
+        void add(byte[] b, int off, int len) {
+            if (len > capacity) {
+                // only the last bytes fit, and they replace all current data
+                if (data.length < capacity) {
+                    data = new byte[capacity];
+                }
+                int skip = len - capacity;
+                count += skip;
+                add(b, off + skip, capacity);
+                return;
+            }
+            if (data.length < capacity && count + len > data.length) {
+                grow(count + len);
+            }
+            if (len == 0) {
+                return;
+            }
+            int start = (int) (count % data.length);
+            int first = Math.min(len, data.length - start);
+            System.arraycopy(b, off, data, start, first);
+            System.arraycopy(b, off + first, data, 0, len - first);
+            count += len;
+        }
+
+        private void grow(long minLength) {
+            long newLength = Math.max(minLength, Math.max(data.length * 2L, INITIAL_SIZE));
+            byte[] newData = new byte[(int) Math.min(newLength, capacity)];
+            System.arraycopy(data, 0, newData, 0, (int) count);
+            data = newData;
+        }
+
+        long size() {
+            return Math.min(count, data.length);
+        }
+
+        int allocated() {
+            return data.length;
+        }
+
+        void writeLast(long n, OutputStream out) throws IOException {
+            if (n == 0) {
+                return;
+            }
+            int start = (int) ((count - n) % data.length);
+            int first = (int) Math.min(n, data.length - start);
+            out.write(data, start, first);
+            out.write(data, 0, (int) n - first);
+        }
+    }
+}
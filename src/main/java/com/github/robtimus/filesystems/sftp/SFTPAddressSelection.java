@@ -0,0 +1,40 @@
+/*
+ * SFTPAddressSelection.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+/**
+ * The possible ways in which SFTP file systems spread their sessions over the addresses of a host name that resolves to multiple addresses,
+ * for instance a load-balanced SFTP service.
+ * <p>
+ * Addresses are resolved when the first session is opened, and again after each
+ * {@linkplain SFTPEnvironment#withAddressResolutionInterval(java.time.Duration) resolution interval}. An address to which a session could
+ * not be opened is skipped until addresses are resolved again, unless sessions could not be opened to any address.
+ * Host keys are verified using the host name, not the address.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ * @see SFTPEnvironment#withAddressSelection(SFTPAddressSelection)
+ */
+public enum SFTPAddressSelection {
+
+    /** Open each new session to the next address in turn. */
+    ROUND_ROBIN,
+
+    /** Open each new session to the address that has the fewest connected sessions of the file system. */
+    LEAST_LOADED
+}
@@ -0,0 +1,44 @@
+/*
+ * SFTPChannelLane.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.nio.file.OpenOption;
+
+/**
+ * The lanes of the client connection pools of SFTP file systems. Each lane can be limited to a number of client connections, so long-running
+ * operations in one lane cannot take all client connections away from the other lane.
+ * See {@link SFTPPoolConfig.Builder#withLaneSize(SFTPChannelLane, int)}.
+ * <p>
+ * Input streams, output streams, byte channels and copies of files use the {@link #BULK} lane. All other operations use the
+ * {@link #INTERACTIVE} lane. Input streams, output streams and byte channels can be moved to another lane by passing the lane as open option.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ */
+public enum SFTPChannelLane implements OpenOption {
+
+    /**
+     * The lane for short operations like reading attributes, checking for existence, listing directories, and creating or deleting files.
+     */
+    INTERACTIVE,
+
+    /**
+     * The lane for operations that transfer file contents, and that can therefore use a client connection for a long time.
+     */
+    BULK
+}
@@ -0,0 +1,57 @@
+/*
+ * SFTPChannelValidation.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+/**
+ * The possible ways in which SFTP file systems validate client connections before using them.
+ * <p>
+ * Validation sends a keep-alive signal over the client connection's session, and waits until that has been written.
+ * For many small file system operations, this extra network traffic and the locking on the session can become a noticeable part of the cost.
+ * All strategies except {@link #ON_ACQUIRE} avoid this on most acquires. Regardless of the strategy, client connections that are known to be
+ * disconnected or broken are never used.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ * @see SFTPPoolConfig.Builder#withChannelValidation(SFTPChannelValidation)
+ */
+public enum SFTPChannelValidation {
+
+    /** Send a keep-alive signal each time a client connection is acquired. This is the default. */
+    ON_ACQUIRE,
+
+    /**
+     * Only send a keep-alive signal when a client connection is acquired that has been idle for at least the
+     * {@linkplain SFTPPoolConfig#validationIdleTime() validation idle time}. Client connections that are used frequently are not validated.
+     */
+    AFTER_IDLE_TIME,
+
+    /**
+     * Do not send a keep-alive signal when a client connection is acquired. Instead, keep-alive signals are sent to idle client connections
+     * during {@linkplain SFTPPoolConfig#maintenanceInterval() background maintenance} or when
+     * {@link SFTPFileSystemProvider#keepAlive(java.nio.file.FileSystem)} is called, and client connections for which that fails are discarded
+     * when they are next acquired. Without background maintenance or calls to {@code keepAlive}, this is the same as {@link #NONE}.
+     */
+    BACKGROUND,
+
+    /**
+     * Do not send any keep-alive signals when client connections are acquired. Only client connections that are known to be disconnected are
+     * discarded. Read-only operations on client connections that have silently died are
+     * {@linkplain SFTPPoolConfig#retryDeadline() retried} on another client connection; other operations will fail.
+     */
+    NONE
+}
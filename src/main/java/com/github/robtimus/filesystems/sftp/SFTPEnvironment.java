@@ -26,16 +26,25 @@ import java.lang.annotation.Repeatable;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.net.InetAddress;
 import java.net.Socket;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystemException;
 import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -119,6 +128,42 @@ public class SFTPEnvironment implements Map<String, Object> {
     private static final String POOL_CONFIG_MAX_IDLE_TIME = POOL_CONFIG + ".maxIdleTime"; //$NON-NLS-1$
     private static final String POOL_CONFIG_INITIAL_SIZE = POOL_CONFIG + ".initialSize"; //$NON-NLS-1$
     private static final String POOL_CONFIG_MAX_SIZE = POOL_CONFIG + ".maxSize"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_CHANNELS_PER_SESSION = POOL_CONFIG + ".channelsPerSession"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_MIN_IDLE_SIZE = POOL_CONFIG + ".minIdleSize"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_MAINTENANCE_INTERVAL = POOL_CONFIG + ".maintenanceInterval"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_CHANNEL_VALIDATION = POOL_CONFIG + ".channelValidation"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_VALIDATION_IDLE_TIME = POOL_CONFIG + ".validationIdleTime"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_RETRY_DEADLINE = POOL_CONFIG + ".retryDeadline"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_INTERACTIVE_LANE_SIZE = POOL_CONFIG + ".interactiveLaneSize"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_BULK_LANE_SIZE = POOL_CONFIG + ".bulkLaneSize"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_LANE_BORROWING = POOL_CONFIG + ".laneBorrowing"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_ADAPTIVE_TARGET_WAIT_TIME = POOL_CONFIG + ".adaptiveTargetWaitTime"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_ADAPTIVE_WINDOW = POOL_CONFIG + ".adaptiveWindow"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_ADAPTIVE_MAX_GROWTH = POOL_CONFIG + ".adaptiveMaxGrowth"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_MAX_CONCURRENT_CONNECTS = POOL_CONFIG + ".maxConcurrentConnects"; //$NON-NLS-1$
+    private static final String POOL_CONFIG_MAX_CONNECT_RATE = POOL_CONFIG + ".maxConnectRate"; //$NON-NLS-1$
+    private static final String LISTING_ATTRIBUTES_MAX_AGE = "listingAttributesMaxAge"; //$NON-NLS-1$
+    private static final String ATTRIBUTE_CACHE_TIME_TO_LIVE = "attributeCacheTimeToLive"; //$NON-NLS-1$
+    private static final String ATTRIBUTE_CACHE_MAX_SIZE = "attributeCacheMaxSize"; //$NON-NLS-1$
+    private static final String MAX_STREAM_RECONNECTS = "maxStreamReconnects"; //$NON-NLS-1$
+    private static final String HOST_CONNECTION_BUDGET = "hostConnectionBudget"; //$NON-NLS-1$
+    private static final String SESSION_SHARING = "sessionSharing"; //$NON-NLS-1$
+    // the settings that must be equal for file systems to share sessions, apart from the username and password
+    private static final String[] SESSION_SETTINGS = {
+            IDENTITY_REPOSITORY, IDENTITIES, HOST_KEY_REPOSITORY, KNOWN_HOSTS, CONFIG_REPOSITORY, PROXY, USER_INFO, CONFIG, APPENDED_CONFIG,
+            SOCKET_FACTORY, TIMEOUT, CLIENT_VERSION, HOST_KEY_ALIAS, SERVER_ALIVE_INTERVAL, SERVER_ALIVE_COUNT_MAX, CONNECT_TIMEOUT,
+    };
+    private static final String LAZY_CONNECT = "lazyConnect"; //$NON-NLS-1$
+    private static final String ADDRESS_SELECTION = "addressSelection"; //$NON-NLS-1$
+    private static final String ADDRESS_RESOLUTION_INTERVAL = "addressResolutionInterval"; //$NON-NLS-1$
+    private static final Duration DEFAULT_ADDRESS_RESOLUTION_INTERVAL = Duration.ofMinutes(1);
+    // not public; allows tests to control which addresses a host name resolves to
+    private static final String ADDRESS_RESOLVER = "addressResolver"; //$NON-NLS-1$
+    private static final String MIRRORS = "mirrors"; //$NON-NLS-1$
+    private static final String MIRROR_QUERY_PARAM = "mirror"; //$NON-NLS-1$
+    private static final String READ_YOUR_WRITES_WINDOW = "readYourWritesWindow"; //$NON-NLS-1$
+    private static final String REQUEST_LISTENER = "requestListener"; //$NON-NLS-1$
+    private static final String MBEAN_REGISTRATION = "mbeanRegistration"; //$NON-NLS-1$
     private static final String FILE_SYSTEM_EXCEPTION_FACTORY = "fileSystemExceptionFactory"; //$NON-NLS-1$
 
     private final Map<String, Object> map;
@@ -540,11 +585,297 @@ public class SFTPEnvironment implements Map<String, Object> {
     @QueryParam(POOL_CONFIG_MAX_IDLE_TIME)
     @QueryParam(POOL_CONFIG_INITIAL_SIZE)
     @QueryParam(POOL_CONFIG_MAX_SIZE)
+    @QueryParam(POOL_CONFIG_CHANNELS_PER_SESSION)
+    @QueryParam(POOL_CONFIG_MIN_IDLE_SIZE)
+    @QueryParam(POOL_CONFIG_MAINTENANCE_INTERVAL)
+    @QueryParam(POOL_CONFIG_CHANNEL_VALIDATION)
+    @QueryParam(POOL_CONFIG_VALIDATION_IDLE_TIME)
+    @QueryParam(POOL_CONFIG_RETRY_DEADLINE)
+    @QueryParam(POOL_CONFIG_INTERACTIVE_LANE_SIZE)
+    @QueryParam(POOL_CONFIG_BULK_LANE_SIZE)
+    @QueryParam(POOL_CONFIG_LANE_BORROWING)
+    @QueryParam(POOL_CONFIG_ADAPTIVE_TARGET_WAIT_TIME)
+    @QueryParam(POOL_CONFIG_ADAPTIVE_WINDOW)
+    @QueryParam(POOL_CONFIG_ADAPTIVE_MAX_GROWTH)
+    @QueryParam(POOL_CONFIG_MAX_CONCURRENT_CONNECTS)
+    @QueryParam(POOL_CONFIG_MAX_CONNECT_RATE)
     public SFTPEnvironment withPoolConfig(SFTPPoolConfig poolConfig) {
         put(POOL_CONFIG, poolConfig);
         return this;
     }
 
+    /**
+     * Stores the maximum age of file attributes that are retrieved when listing directories.
+     * <p>
+     * Paths returned by directory streams carry the attributes that the SFTP server returned for them.
+     * Reading the attributes of such a path will return these attributes, without contacting the SFTP server, until they are older than the given
+     * maximum age. This prevents an extra call for each file when walking file trees, at the cost of possibly returning outdated attributes.
+     * <br>
+     * If the maximum age is {@linkplain Duration#isZero() zero} or {@linkplain Duration#isNegative() negative}, the attributes from directory
+     * listings are never used. This is the default setting.
+     *
+     * @param maxAge The maximum age of file attributes that are retrieved when listing directories.
+     * @return This object.
+     * @since 3.4
+     */
+    @QueryParam(LISTING_ATTRIBUTES_MAX_AGE)
+    public SFTPEnvironment withListingAttributesMaxAge(Duration maxAge) {
+        put(LISTING_ATTRIBUTES_MAX_AGE, maxAge);
+        return this;
+    }
+
+    /**
+     * Stores the time that file attributes are cached.
+     * <p>
+     * If the time to live is {@linkplain Duration#isZero() zero} or {@linkplain Duration#isNegative() negative}, file attributes are not cached.
+     * This is the default setting.
+     * <p>
+     * Otherwise, file attributes are cached when they are retrieved from the SFTP server, as is the fact that a file does not exist.
+     * Reading attributes, checking access, checking whether a file is hidden, getting a file store and retrieving the real path will then use the
+     * cached attributes, until they are older than the given time to live.
+     * Operations that modify files through the same file system invalidate the cached attributes for these files and their parent directories.
+     * Changes made through other file systems or by other clients are not visible until the cached attributes have expired.
+     *
+     * @param timeToLive The time that file attributes are cached.
+     * @return This object.
+     * @since 3.4
+     * @see #withAttributeCacheMaxSize(int)
+     */
+    @QueryParam(ATTRIBUTE_CACHE_TIME_TO_LIVE)
+    public SFTPEnvironment withAttributeCacheTimeToLive(Duration timeToLive) {
+        put(ATTRIBUTE_CACHE_TIME_TO_LIVE, timeToLive);
+        return this;
+    }
+
+    /**
+     * Stores the maximum number of file attributes that are cached. If the cache is full, the least recently used file attributes are removed.
+     * The default is 10000.
+     * <p>
+     * This setting is only used if file attributes are cached.
+     *
+     * @param maxSize The maximum number of file attributes that are cached.
+     * @return This object.
+     * @since 3.4
+     * @see #withAttributeCacheTimeToLive(Duration)
+     */
+    @QueryParam(ATTRIBUTE_CACHE_MAX_SIZE)
+    public SFTPEnvironment withAttributeCacheMaxSize(int maxSize) {
+        put(ATTRIBUTE_CACHE_MAX_SIZE, maxSize);
+        return this;
+    }
+
+    /**
+     * Stores the maximum number of times that a single {@linkplain SFTPOpenOption#RESUMABLE resumable} stream can reopen its file after its
+     * client connection was lost. The default is 3.
+     *
+     * @param maxReconnects The maximum number of times that a single resumable stream can reopen its file.
+     * @return This object.
+     * @since 3.4
+     */
+    @QueryParam(MAX_STREAM_RECONNECTS)
+    public SFTPEnvironment withMaxStreamReconnects(int maxReconnects) {
+        put(MAX_STREAM_RECONNECTS, maxReconnects);
+        return this;
+    }
+
+    /**
+     * Stores the maximum number of channels that all file systems in the JVM together may open to the same host and port.
+     * The default is 0, which means that there is no such maximum.
+     * <p>
+     * All file systems with a connection budget for the same host and port share a single budget, which is discarded once the last of them is
+     * closed. The default port and port 22 are the same port, and host names are compared case insensitively; different host names for the
+     * same server, like {@code localhost} and {@code 127.0.0.1}, get separate budgets. While a budget exists, creating a file system with a
+     * different maximum for the same host and port fails.
+     * A file system that cannot open a channel because the budget is exhausted waits up to the pool's maximum wait time. Waiting file systems
+     * get released channels in turn, and file systems with idle channels are asked to close them.
+     *
+     * @param maxConnections The maximum number of channels that all file systems together may open to the same host and port.
+     * @return This object.
+     * @since 3.4
+     */
+    @QueryParam(HOST_CONNECTION_BUDGET)
+    public SFTPEnvironment withHostConnectionBudget(int maxConnections) {
+        put(HOST_CONNECTION_BUDGET, maxConnections);
+        return this;
+    }
+
+    /**
+     * Stores whether or not to share SSH sessions with other file systems of the same provider. By default sessions are not shared.
+     * <p>
+     * If sessions are shared, file systems for the same host, port and username with the same credentials and session settings open their channels
+     * on the same authenticated sessions where possible. A session that no longer has any channels, for instance because all file systems that
+     * used it have been closed, remains connected for the given linger time, so a new file system can use it without authenticating again.
+     * <p>
+     * Credentials and session settings like identities, user info and proxies are compared using {@link Object#equals(Object)}. For settings that
+     * do not override that method, file systems can only share sessions if they use the same instances.
+     *
+     * @param lingerTime The time to keep sessions without channels connected, or {@code null} to not share sessions.
+     * @return This object.
+     * @since 3.4
+     */
+    @QueryParam(SESSION_SHARING)
+    public SFTPEnvironment withSessionSharing(Duration lingerTime) {
+        put(SESSION_SHARING, lingerTime);
+        return this;
+    }
+
+    /**
+     * Stores whether or not to connect to the SFTP server lazily.
+     * <p>
+     * By default, creating a file system opens the pool config's {@linkplain SFTPPoolConfig#initialSize() initial number} of client connections
+     * in parallel, and looks up the default directory. If connecting lazily, creating a file system does not connect to the SFTP server at all.
+     * Instead, the first client connection is opened when it's first needed, and the default directory is looked up when a relative path is
+     * first made absolute. This also means that invalid credentials or an unreachable SFTP server are only detected on first use.
+     *
+     * @param lazyConnect {@code true} to connect lazily, or {@code false} to connect when the file system is created.
+     * @return This object.
+     * @since 3.4
+     * @see SFTPFileSystemProvider#newFileSystemAsync(URI, Map)
+     */
+    @QueryParam(LAZY_CONNECT)
+    public SFTPEnvironment withLazyConnect(boolean lazyConnect) {
+        put(LAZY_CONNECT, lazyConnect);
+        return this;
+    }
+
+    /**
+     * Stores how to spread sessions over the addresses of the SFTP server's host name. By default, the host name is passed to JSch, which
+     * connects all sessions to the same address if the host name resolves to multiple addresses.
+     * <p>
+     * Note that this setting is ignored for sessions that are {@linkplain #withSessionSharing(Duration) shared} with another file system that
+     * opened them.
+     *
+     * @param selection How to spread sessions over the addresses of the SFTP server's host name, or {@code null} to not spread sessions.
+     * @return This object.
+     * @since 3.4
+     * @see #withAddressResolutionInterval(Duration)
+     */
+    @QueryParam(ADDRESS_SELECTION)
+    public SFTPEnvironment withAddressSelection(SFTPAddressSelection selection) {
+        put(ADDRESS_SELECTION, selection);
+        return this;
+    }
+
+    /**
+     * Stores the interval after which the SFTP server's host name is resolved again, if sessions are
+     * {@linkplain #withAddressSelection(SFTPAddressSelection) spread} over its addresses. The default is 1 minute.
+     * Addresses to which sessions could not be opened are skipped until the host name is resolved again.
+     *
+     * @param interval The interval after which the SFTP server's host name is resolved again.
+     * @return This object.
+     * @since 3.4
+     */
+    @QueryParam(ADDRESS_RESOLUTION_INTERVAL)
+    public SFTPEnvironment withAddressResolutionInterval(Duration interval) {
+        put(ADDRESS_RESOLUTION_INTERVAL, interval);
+        return this;
+    }
+
+    SFTPEnvironment withAddressResolver(AddressSelector.Resolver resolver) {
+        put(ADDRESS_RESOLVER, resolver);
+        return this;
+    }
+
+    /**
+     * Stores a read-only mirror of the SFTP server to use. This method will not clear any previously set mirrors, but only add new ones.
+     * <p>
+     * Read-only operations like opening input streams and read-only byte channels, listing directories, reading attributes and reading the source
+     * of copy operations to other file systems use the healthy mirror with the fewest client connections in use. All other operations, and
+     * read-only operations when no mirror is healthy, use the SFTP server of the file system's URI. A mirror is considered unhealthy for 30
+     * seconds after a client connection to it could not be opened or broke. If a mirror is healthy but none of its client connections becomes
+     * available in time, only the current operation uses the SFTP server of the file system's URI instead. Input streams that delete their file when closed, resumable input
+     * streams, copies within the file system and moves always use the SFTP server of the file system's URI. Attributes that are read from
+     * mirrors are never {@linkplain #withAttributeCacheTimeToLive(Duration) cached}.
+     * <p>
+     * Mirrors use the same settings as the SFTP server of the file system's URI, including the username and password, but each has its own
+     * pool of client connections. These are opened lazily, so a mirror that cannot be reached does not prevent the file system from being
+     * created. The file system's metrics only cover the pool of the SFTP server of the file system's URI.
+     * <p>
+     * As query parameter, a mirror is specified as {@code host} or {@code host:port}. The query parameter can be repeated for several mirrors.
+     *
+     * @param hostname The host name of the mirror.
+     * @param port The port of the mirror, or {@code -1} to use the default port.
+     * @return This object.
+     * @throws NullPointerException If the given host name is {@code null}.
+     * @throws IllegalArgumentException If the given host name or port is invalid.
+     * @since 3.4
+     * @see #withReadYourWritesWindow(Duration)
+     */
+    @QueryParam(MIRROR_QUERY_PARAM)
+    public SFTPEnvironment withMirror(String hostname, int port) {
+        Objects.requireNonNull(hostname);
+        if (port < -1 || port > 65535) {
+            throw new IllegalArgumentException(Integer.toString(port));
+        }
+        try {
+            mirrors().add(new URI("sftp", null, hostname, port, null, null, null)); //$NON-NLS-1$
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return this;
+    }
+
+    private List<URI> mirrors() {
+        @SuppressWarnings("unchecked")
+        List<URI> mirrors = FileSystemProviderSupport.getValue(this, MIRRORS, List.class, null);
+        if (mirrors == null) {
+            mirrors = new ArrayList<>();
+            put(MIRRORS, mirrors);
+        }
+        return mirrors;
+    }
+
+    /**
+     * Stores how long read-only operations use the SFTP server of the file system's URI after the file system modified any file, instead of
+     * {@linkplain #withMirror(String, int) mirrors}. This allows the file system to read its own changes while they are still being copied to
+     * the mirrors. The default is {@link Duration#ZERO}, which means that read-only operations always use mirrors if possible.
+     * <p>
+     * The window is not tracked per path; after modifying any file, read-only operations on all paths use the SFTP server of the file system's
+     * URI until the window has passed.
+     *
+     * @param window How long read-only operations use the SFTP server of the file system's URI after the file system modified any file.
+     * @return This object.
+     * @since 3.4
+     */
+    @QueryParam(READ_YOUR_WRITES_WINDOW)
+    public SFTPEnvironment withReadYourWritesWindow(Duration window) {
+        put(READ_YOUR_WRITES_WINDOW, window);
+        return this;
+    }
+
+    /**
+     * Stores a listener that is notified of every request that is sent to the SFTP server.
+     * <p>
+     * Regardless of this setting, statistics about requests are always available through
+     * {@link SFTPFileSystemProvider#getRequestStatistics(java.nio.file.FileSystem)}.
+     *
+     * @param listener The listener to notify of every request, or {@code null} to not notify any listener.
+     * @return This object.
+     * @since 3.4
+     */
+    public SFTPEnvironment withRequestListener(SFTPRequestListener listener) {
+        put(REQUEST_LISTENER, listener);
+        return this;
+    }
+
+    /**
+     * Stores whether or not to register an MXBean for the file system's metrics with the platform MBean server.
+     * The MXBean implements {@link SFTPFileSystemMXBean}, and is registered with an object name with domain
+     * {@code com.github.robtimus.filesystems.sftp}, type {@code SFTPFileSystem}, and the file system's URI as name.
+     * It is unregistered when the file system is closed.
+     * <p>
+     * The default is {@code false}. Regardless of this setting, the metrics are always available through {@link SFTPFileStoreAttributeView}.
+     *
+     * @param registration {@code true} to register an MXBean for the file system's metrics, or {@code false} otherwise.
+     * @return This object.
+     * @since 3.4
+     */
+    @QueryParam(MBEAN_REGISTRATION)
+    public SFTPEnvironment withMBeanRegistration(boolean registration) {
+        put(MBEAN_REGISTRATION, registration);
+        return this;
+    }
+
     /**
      * Stores the file system exception factory to use.
      *
@@ -577,6 +908,107 @@ public class SFTPEnvironment implements Map<String, Object> {
         return FileSystemProviderSupport.getValue(this, POOL_CONFIG, SFTPPoolConfig.class, SFTPPoolConfig.defaultConfig());
     }
 
+    Duration getListingAttributesMaxAge() {
+        return FileSystemProviderSupport.getValue(this, LISTING_ATTRIBUTES_MAX_AGE, Duration.class, Duration.ZERO);
+    }
+
+    AttributesCache createAttributesCache() {
+        Duration timeToLive = FileSystemProviderSupport.getValue(this, ATTRIBUTE_CACHE_TIME_TO_LIVE, Duration.class, Duration.ZERO);
+        int maxSize = FileSystemProviderSupport.getIntValue(this, ATTRIBUTE_CACHE_MAX_SIZE, 10000);
+        return new AttributesCache(timeToLive, maxSize);
+    }
+
+    int getMaxStreamReconnects() {
+        return FileSystemProviderSupport.getIntValue(this, MAX_STREAM_RECONNECTS, 3);
+    }
+
+    int getHostConnectionBudget() {
+        return FileSystemProviderSupport.getIntValue(this, HOST_CONNECTION_BUDGET, 0);
+    }
+
+    Duration getSessionLingerTime() {
+        return FileSystemProviderSupport.getValue(this, SESSION_SHARING, Duration.class, null);
+    }
+
+    SessionRegistry.Key sessionKey(String hostname, int port) {
+        Map<String, Object> settings = new HashMap<>();
+        for (String key : SESSION_SETTINGS) {
+            if (containsKey(key)) {
+                settings.put(key, get(key));
+            }
+        }
+        char[] password = FileSystemProviderSupport.getValue(this, PASSWORD, char[].class, null);
+        return new SessionRegistry.Key(hostname, port, getUsername(), fingerprint(password), settings);
+    }
+
+    private static String fingerprint(char[] password) {
+        if (password == null) {
+            return null;
+        }
+        try {
+            // don't keep the password itself around in keys that may outlive this environment
+            MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+            // encode the password directly, without creating a String that cannot be cleared
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+            try {
+                digest.update(bytes);
+            } finally {
+                Arrays.fill(bytes.array(), (byte) 0);
+            }
+            byte[] hash = digest.digest();
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(String.format("%02x", b)); //$NON-NLS-1$
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // all Java implementations must support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    SFTPRequestListener getRequestListener() {
+        return FileSystemProviderSupport.getValue(this, REQUEST_LISTENER, SFTPRequestListener.class, null);
+    }
+
+    boolean isLazyConnectEnabled() {
+        return FileSystemProviderSupport.getBooleanValue(this, LAZY_CONNECT, false);
+    }
+
+    AddressSelector createAddressSelector(String hostname) {
+        SFTPAddressSelection selection = FileSystemProviderSupport.getValue(this, ADDRESS_SELECTION, SFTPAddressSelection.class, null);
+        if (selection == null) {
+            return null;
+        }
+        Duration interval = FileSystemProviderSupport.getValue(this, ADDRESS_RESOLUTION_INTERVAL, Duration.class,
+                DEFAULT_ADDRESS_RESOLUTION_INTERVAL);
+        AddressSelector.Resolver resolver = FileSystemProviderSupport.getValue(this, ADDRESS_RESOLVER, AddressSelector.Resolver.class, null);
+        return resolver != null
+                ? new AddressSelector(hostname, selection, interval, resolver)
+                : new AddressSelector(hostname, selection, interval);
+    }
+
+    List<URI> getMirrors() {
+        @SuppressWarnings("unchecked")
+        List<URI> mirrors = FileSystemProviderSupport.getValue(this, MIRRORS, List.class, Collections.emptyList());
+        return mirrors;
+    }
+
+    Duration getReadYourWritesWindow() {
+        return FileSystemProviderSupport.getValue(this, READ_YOUR_WRITES_WINDOW, Duration.class, Duration.ZERO);
+    }
+
+    SFTPEnvironment forMirror() {
+        SFTPEnvironment mirrorEnv = copy(this);
+        mirrorEnv.remove(MIRRORS);
+        // a mirror that cannot be reached should not prevent the file system from being created
+        return mirrorEnv.withLazyConnect(true);
+    }
+
+    boolean isMBeanRegistrationEnabled() {
+        return FileSystemProviderSupport.getBooleanValue(this, MBEAN_REGISTRATION, false);
+    }
+
     FileSystemExceptionFactory getExceptionFactory() {
         return FileSystemProviderSupport.getValue(this, FILE_SYSTEM_EXCEPTION_FACTORY, FileSystemExceptionFactory.class,
                 DefaultFileSystemExceptionFactory.INSTANCE);
@@ -647,19 +1079,40 @@ public class SFTPEnvironment implements Map<String, Object> {
         }
     }
 
-    ChannelSftp openChannel(JSch jsch, String hostname, int port) throws IOException {
+    Session openSession(JSch jsch, String hostname, int port) throws IOException {
         Session session = getSession(jsch, hostname, port);
         try {
             initialize(session);
-            ChannelSftp channel = connect(session);
-            initialize(channel);
-            return channel;
+            connectSession(session);
+            return session;
         } catch (IOException e) {
             session.disconnect();
             throw e;
         }
     }
 
+    Session openSession(JSch jsch, String hostname, InetAddress address, int port) throws IOException {
+        Session session = getSession(jsch, address.getHostAddress(), port);
+        try {
+            initialize(session);
+            if (!containsKey(HOST_KEY_ALIAS)) {
+                // verify the host key using the host name and not the address, the same way JSch does without alias
+                session.setHostKeyAlias(port == -1 || port == 22 ? hostname : "[" + hostname + "]:" + port); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            connectSession(session);
+            return session;
+        } catch (IOException e) {
+            session.disconnect();
+            throw e;
+        }
+    }
+
+    ChannelSftp openChannel(Session session) throws IOException {
+        ChannelSftp channel = createChannel(session);
+        initialize(channel);
+        return channel;
+    }
+
     Session getSession(JSch jsch, String hostname, int port) throws IOException {
         String username = getUsername();
 
@@ -780,10 +1233,21 @@ public class SFTPEnvironment implements Map<String, Object> {
     }
 
     ChannelSftp connect(Session session) throws IOException {
+        connectSession(session);
+        return createChannel(session);
+    }
+
+    private void connectSession(Session session) throws IOException {
         try {
             int connectTimeout = FileSystemProviderSupport.getIntValue(this, CONNECT_TIMEOUT, DEFAULT_CONNECT_TIMEOUT);
             session.connect(connectTimeout);
+        } catch (JSchException e) {
+            throw asFileSystemException(e);
+        }
+    }
 
+    private ChannelSftp createChannel(Session session) throws IOException {
+        try {
             return (ChannelSftp) session.openChannel("sftp"); //$NON-NLS-1$
         } catch (JSchException e) {
             throw asFileSystemException(e);
@@ -1125,6 +1589,84 @@ public class SFTPEnvironment implements Map<String, Object> {
                 case POOL_CONFIG_MAX_SIZE:
                     poolConfigBuilder().withMaxSize(Integer.parseInt(value));
                     break;
+                case POOL_CONFIG_CHANNELS_PER_SESSION:
+                    poolConfigBuilder().withChannelsPerSession(Integer.parseInt(value));
+                    break;
+                case POOL_CONFIG_MIN_IDLE_SIZE:
+                    poolConfigBuilder().withMinIdleSize(Integer.parseInt(value));
+                    break;
+                case POOL_CONFIG_MAINTENANCE_INTERVAL:
+                    poolConfigBuilder().withMaintenanceInterval(Duration.parse(value));
+                    break;
+                case POOL_CONFIG_CHANNEL_VALIDATION:
+                    poolConfigBuilder().withChannelValidation(SFTPChannelValidation.valueOf(value));
+                    break;
+                case POOL_CONFIG_VALIDATION_IDLE_TIME:
+                    poolConfigBuilder().withValidationIdleTime(Duration.parse(value));
+                    break;
+                case POOL_CONFIG_RETRY_DEADLINE:
+                    poolConfigBuilder().withRetryDeadline(Duration.parse(value));
+                    break;
+                case POOL_CONFIG_INTERACTIVE_LANE_SIZE:
+                    poolConfigBuilder().withLaneSize(SFTPChannelLane.INTERACTIVE, Integer.parseInt(value));
+                    break;
+                case POOL_CONFIG_BULK_LANE_SIZE:
+                    poolConfigBuilder().withLaneSize(SFTPChannelLane.BULK, Integer.parseInt(value));
+                    break;
+                case POOL_CONFIG_LANE_BORROWING:
+                    poolConfigBuilder().withLaneBorrowing(Boolean.parseBoolean(value));
+                    break;
+                case POOL_CONFIG_ADAPTIVE_TARGET_WAIT_TIME:
+                    poolConfigBuilder().withAdaptiveTargetWaitTime(Duration.parse(value));
+                    break;
+                case POOL_CONFIG_ADAPTIVE_WINDOW:
+                    poolConfigBuilder().withAdaptiveWindow(Duration.parse(value));
+                    break;
+                case POOL_CONFIG_ADAPTIVE_MAX_GROWTH:
+                    poolConfigBuilder().withAdaptiveMaxGrowth(Integer.parseInt(value));
+                    break;
+                case POOL_CONFIG_MAX_CONCURRENT_CONNECTS:
+                    poolConfigBuilder().withMaxConcurrentConnects(Integer.parseInt(value));
+                    break;
+                case POOL_CONFIG_MAX_CONNECT_RATE:
+                    poolConfigBuilder().withMaxConnectRate(Integer.parseInt(value));
+                    break;
+                case LISTING_ATTRIBUTES_MAX_AGE:
+                    env.withListingAttributesMaxAge(Duration.parse(value));
+                    break;
+                case ATTRIBUTE_CACHE_TIME_TO_LIVE:
+                    env.withAttributeCacheTimeToLive(Duration.parse(value));
+                    break;
+                case ATTRIBUTE_CACHE_MAX_SIZE:
+                    env.withAttributeCacheMaxSize(Integer.parseInt(value));
+                    break;
+                case MAX_STREAM_RECONNECTS:
+                    env.withMaxStreamReconnects(Integer.parseInt(value));
+                    break;
+                case HOST_CONNECTION_BUDGET:
+                    env.withHostConnectionBudget(Integer.parseInt(value));
+                    break;
+                case SESSION_SHARING:
+                    env.withSessionSharing(Duration.parse(value));
+                    break;
+                case LAZY_CONNECT:
+                    env.withLazyConnect(Boolean.parseBoolean(value));
+                    break;
+                case ADDRESS_SELECTION:
+                    env.withAddressSelection(SFTPAddressSelection.valueOf(value));
+                    break;
+                case ADDRESS_RESOLUTION_INTERVAL:
+                    env.withAddressResolutionInterval(Duration.parse(value));
+                    break;
+                case MIRROR_QUERY_PARAM:
+                    addMirror(value);
+                    break;
+                case READ_YOUR_WRITES_WINDOW:
+                    env.withReadYourWritesWindow(Duration.parse(value));
+                    break;
+                case MBEAN_REGISTRATION:
+                    env.withMBeanRegistration(Boolean.parseBoolean(value));
+                    break;
                 default:
                     if (name.startsWith(CONFIG + ".")) { //$NON-NLS-1$
                         env.withConfig(name.substring(CONFIG.length() + 1), value);
@@ -1136,6 +1678,15 @@ public class SFTPEnvironment implements Map<String, Object> {
             }
         }
 
+        private void addMirror(String value) {
+            // parse the value as the authority of a URI, so IPv6 addresses can be used as well
+            URI mirror = URI.create("sftp://" + value); //$NON-NLS-1$
+            if (mirror.getHost() == null) {
+                throw new IllegalArgumentException(value);
+            }
+            env.withMirror(mirror.getHost(), mirror.getPort());
+        }
+
         private String decode(String value) {
             try {
                 return URLDecoder.decode(value, "UTF-8"); //$NON-NLS-1$
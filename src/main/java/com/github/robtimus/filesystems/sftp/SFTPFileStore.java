@@ -88,6 +88,9 @@ class SFTPFileStore extends FileStore {
     @Override
     public <V extends FileStoreAttributeView> V getFileStoreAttributeView(Class<V> type) {
         Objects.requireNonNull(type);
+        if (type == SFTPFileStoreAttributeView.class) {
+            return type.cast(fs.metrics());
+        }
         return null;
     }
 
@@ -102,6 +105,12 @@ class SFTPFileStore extends FileStore {
         if ("unallocatedSpace".equals(attribute)) { //$NON-NLS-1$
             return getUnallocatedSpace();
         }
+        if (attribute.startsWith(MetricsCollector.VIEW_NAME + ":")) { //$NON-NLS-1$
+            Object value = fs.metrics().getAttribute(attribute.substring(MetricsCollector.VIEW_NAME.length() + 1));
+            if (value != null) {
+                return value;
+            }
+        }
         throw Messages.fileStore().unsupportedAttribute(attribute);
     }
 }
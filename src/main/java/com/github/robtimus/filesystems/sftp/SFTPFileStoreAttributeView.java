@@ -0,0 +1,42 @@
+/*
+ * SFTPFileStoreAttributeView.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.nio.file.FileStore;
+import java.nio.file.attribute.FileStoreAttributeView;
+
+/**
+ * A file store attribute view that provides the metrics of an SFTP file system. Its name is {@code sftp}.
+ * <p>
+ * An instance can be retrieved using {@link FileStore#getFileStoreAttributeView(Class)}.
+ * Its metrics are also available using {@link FileStore#getAttribute(String)}, using the name of this view followed by a colon and
+ * the name of the metric, for instance {@code sftp:poolSize} or {@code sftp:operationLatencies}.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ */
+public interface SFTPFileStoreAttributeView extends FileStoreAttributeView, SFTPFileSystemMXBean {
+
+    /**
+     * Returns the name of the attribute view. Attribute views of this type have the name {@code "sftp"}.
+     *
+     * @return The name of the attribute view.
+     */
+    @Override
+    String name();
+}
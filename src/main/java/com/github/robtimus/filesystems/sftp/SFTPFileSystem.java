@@ -33,13 +33,19 @@ import static com.github.robtimus.filesystems.attribute.FileAttributeSupport.pop
 import static com.github.robtimus.filesystems.attribute.FileAttributeViewMetadata.BASIC;
 import static com.github.robtimus.filesystems.attribute.FileAttributeViewMetadata.FILE_OWNER;
 import static com.github.robtimus.filesystems.attribute.FileAttributeViewMetadata.POSIX;
+import java.io.EOFException;
+import java.io.IOError;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.AccessMode;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.CopyOption;
 import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.DirectoryStream;
@@ -47,11 +53,13 @@ import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileStore;
 import java.nio.file.FileSystem;
+import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.NotDirectoryException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributeView;
@@ -65,10 +73,11 @@ import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.UserPrincipal;
 import java.nio.file.attribute.UserPrincipalLookupService;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -76,6 +85,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
 import com.github.robtimus.filesystems.AbstractDirectoryStream;
 import com.github.robtimus.filesystems.FileSystemProviderSupport;
 import com.github.robtimus.filesystems.Messages;
@@ -88,6 +101,7 @@ import com.github.robtimus.filesystems.attribute.PosixFilePermissionSupport;
 import com.github.robtimus.filesystems.attribute.SimpleGroupPrincipal;
 import com.github.robtimus.filesystems.attribute.SimpleUserPrincipal;
 import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel;
+import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel.LsEntryStream;
 import com.jcraft.jsch.ChannelSftp.LsEntry;
 import com.jcraft.jsch.SftpATTRS;
 import com.jcraft.jsch.SftpStatVFS;
@@ -106,13 +120,26 @@ class SFTPFileSystem extends FileSystem {
 
     static final FileAttributeViewCollection VIEWS = FileAttributeViewCollection.withViews(BASIC, FILE_OWNER, POSIX);
 
+    private static final String MBEAN_DOMAIN = SFTPFileSystem.class.getPackage().getName();
+
     private final SFTPFileSystemProvider provider;
     private final Iterable<Path> rootDirectories;
     private final Iterable<FileStore> fileStores;
 
     private final SSHChannelPool channelPool;
+    private final MirrorRouter mirrors;
     private final URI uri;
-    private final String defaultDirectory;
+    // null until first needed if connecting lazily
+    private volatile String defaultDirectory;
+    private final Object defaultDirectoryLock;
+
+    private final long listingAttributesMaxAge;
+    private final int maxStreamReconnects;
+    private final AttributesCache attributesCache;
+    private final RequestCoalescer requestCoalescer;
+    private final RequestTracker requestTracker;
+    private final MetricsCollector metrics;
+    private final ObjectName mbeanName;
 
     private final AtomicBoolean open = new AtomicBoolean(true);
 
@@ -123,11 +150,66 @@ class SFTPFileSystem extends FileSystem {
         this.rootDirectories = Collections.singleton(rootPath);
         this.fileStores = Collections.singleton(new SFTPFileStore(rootPath));
 
-        this.channelPool = new SSHChannelPool(uri.getHost(), uri.getPort(), env);
+        this.channelPool = new SSHChannelPool(uri.getHost(), uri.getPort(), env, provider.sessionRegistry());
+        try {
+            this.mirrors = MirrorRouter.create(channelPool, env, toNanos(env.getReadYourWritesWindow()));
+        } catch (IOException | RuntimeException e) {
+            channelPool.close();
+            throw e;
+        }
         this.uri = Objects.requireNonNull(uri);
 
-        try (Channel channel = channelPool.get()) {
-            this.defaultDirectory = channel.pwd();
+        this.listingAttributesMaxAge = toNanos(env.getListingAttributesMaxAge());
+        this.maxStreamReconnects = env.getMaxStreamReconnects();
+        this.attributesCache = channelPool.attributesCache();
+        this.requestCoalescer = new RequestCoalescer(attributesCache);
+        this.requestTracker = channelPool.requestTracker();
+        this.metrics = channelPool.metrics();
+
+        this.defaultDirectoryLock = new Object();
+        if (!env.isLazyConnectEnabled()) {
+            try (Channel channel = channelPool.get()) {
+                this.defaultDirectory = channel.pwd();
+            } catch (IOException | RuntimeException e) {
+                closePools();
+                throw e;
+            }
+        }
+
+        this.mbeanName = env.isMBeanRegistrationEnabled() ? registerMBean() : null;
+    }
+
+    private ObjectName registerMBean() throws IOException {
+        try {
+            ObjectName name = new ObjectName(MBEAN_DOMAIN + ":type=SFTPFileSystem,name=" + ObjectName.quote(uri.toString())); //$NON-NLS-1$
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(metrics, SFTPFileSystemMXBean.class, true), name);
+            return name;
+        } catch (JMException e) {
+            closePools();
+            throw new IOException(e);
+        }
+    }
+
+    private void unregisterMBean() throws IOException {
+        if (mbeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+            } catch (@SuppressWarnings("unused") InstanceNotFoundException e) {
+                // someone else already unregistered it
+            } catch (JMException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static long toNanos(Duration duration) {
+        if (duration.isNegative()) {
+            return 0;
+        }
+        try {
+            return duration.toNanos();
+        } catch (@SuppressWarnings("unused") ArithmeticException e) {
+            return Long.MAX_VALUE;
         }
     }
 
@@ -140,7 +222,19 @@ class SFTPFileSystem extends FileSystem {
     public void close() throws IOException {
         if (open.getAndSet(false)) {
             provider.removeFileSystem(uri);
+            try {
+                closePools();
+            } finally {
+                unregisterMBean();
+            }
+        }
+    }
+
+    private void closePools() throws IOException {
+        try {
             channelPool.close();
+        } finally {
+            mirrors.close();
         }
     }
 
@@ -204,6 +298,55 @@ class SFTPFileSystem extends FileSystem {
         channelPool.keepAlive();
     }
 
+    SFTPRequestStatistics requestStatistics() {
+        return requestTracker.statistics();
+    }
+
+    MetricsCollector metrics() {
+        return metrics;
+    }
+
+    MirrorRouter mirrors() {
+        return mirrors;
+    }
+
+    <T> T inOperation(String operation, Operation<T> action) throws IOException {
+        String outerOperation = requestTracker.enter(operation);
+        long start = System.nanoTime();
+        try {
+            return action.execute();
+        } finally {
+            exitOperation(operation, outerOperation, start);
+        }
+    }
+
+    void inOperation(String operation, VoidOperation action) throws IOException {
+        String outerOperation = requestTracker.enter(operation);
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            exitOperation(operation, outerOperation, start);
+        }
+    }
+
+    private void exitOperation(String operation, String outerOperation, long start) {
+        requestTracker.exit(outerOperation);
+        if (outerOperation == null) {
+            metrics.operationCompleted(operation, System.nanoTime() - start);
+        }
+    }
+
+    interface Operation<T> {
+
+        T execute() throws IOException;
+    }
+
+    interface VoidOperation {
+
+        void run() throws IOException;
+    }
+
     URI toUri(SFTPPath path) {
         return toUri(toAbsolutePath(path).normalizedPath());
     }
@@ -216,13 +359,37 @@ class SFTPFileSystem extends FileSystem {
         if (path.isAbsolute()) {
             return path;
         }
-        return new SFTPPath(this, defaultDirectory + SEPARATOR + path.path());
+        return new SFTPPath(this, defaultDirectory() + SEPARATOR + path.path());
+    }
+
+    private String defaultDirectory() {
+        String directory = defaultDirectory;
+        if (directory == null) {
+            synchronized (defaultDirectoryLock) {
+                directory = defaultDirectory;
+                if (directory == null) {
+                    try (Channel channel = channelPool.get()) {
+                        directory = channel.pwd();
+                    } catch (IOException e) {
+                        // Path.toAbsolutePath and Path.toUri are documented to throw IOError for I/O errors
+                        throw new IOError(e);
+                    }
+                    defaultDirectory = directory;
+                }
+            }
+        }
+        return directory;
     }
 
     SFTPPath toRealPath(SFTPPath path, boolean followLinks) throws IOException {
-        try (Channel channel = channelPool.get()) {
-            return toRealPath(channel, path, followLinks).path;
+        SFTPPath absPath = toAbsolutePath(path).normalize();
+        SftpATTRS attributes = attributesCache.get(absPath.path(), false);
+        if (attributes != null && !(followLinks && attributes.isLink())) {
+            return absPath;
         }
+        return requestCoalescer.execute(followLinks ? "realpath" : "realpath-nofollow", absPath.path(), () -> { //$NON-NLS-1$ //$NON-NLS-2$
+            return channelPool.executeIdempotent(channel -> toRealPath(channel, absPath, followLinks).path);
+        });
     }
 
     private SFTPPathAndAttributesPair toRealPath(Channel channel, SFTPPath path, boolean followLinks) throws IOException {
@@ -256,9 +423,17 @@ class SFTPFileSystem extends FileSystem {
     InputStream newInputStream(SFTPPath path, OpenOption... options) throws IOException {
         OpenOptions openOptions = OpenOptions.forNewInputStream(options);
 
-        try (Channel channel = channelPool.get()) {
-            return newInputStream(channel, normalizePath(path), openOptions);
+        if (openOptions.resumable) {
+            return ResumableInputStream.open(channelPool, normalizePath(path), openOptions, maxStreamReconnects);
         }
+
+        // opening the stream has no side effects; deleting on close only happens when the stream is closed
+        SFTPChannelLane lane = openOptions.lane(SFTPChannelLane.BULK);
+        if (openOptions.deleteOnClose) {
+            // mirrors are read-only
+            return channelPool.executeIdempotent(lane, channel -> newInputStream(channel, normalizePath(path), openOptions));
+        }
+        return mirrors.executeRead(lane, channel -> newInputStream(channel, normalizePath(path), openOptions));
     }
 
     private InputStream newInputStream(Channel channel, String path, OpenOptions options) throws IOException {
@@ -269,9 +444,19 @@ class SFTPFileSystem extends FileSystem {
 
     OutputStream newOutputStream(SFTPPath path, OpenOption... options) throws IOException {
         OpenOptions openOptions = OpenOptions.forNewOutputStream(options);
+        SFTPChannelLane lane = openOptions.lane(SFTPChannelLane.BULK);
 
-        try (Channel channel = channelPool.get()) {
-            return newOutputStream(channel, normalizePath(path), false, openOptions).out;
+        try (Channel channel = channelPool.get(lane)) {
+            String normalizedPath = normalizePath(path);
+            if (openOptions.resumable) {
+                // if append then the attributes are needed, to find the initial position of the stream
+                SFTPAttributesAndOutputStreamPair outPair = newOutputStream(channel, normalizedPath, openOptions.append,
+                        openOptions.withoutDeleteOnClose());
+                long position = openOptions.append && outPair.attributes != null ? outPair.attributes.getSize() : 0;
+                return new ResumableOutputStream(channelPool, normalizedPath, openOptions.deleteOnClose, maxStreamReconnects, lane, channel,
+                        outPair.out, position);
+            }
+            return newOutputStream(channel, normalizedPath, false, openOptions).out;
         }
     }
 
@@ -320,15 +505,17 @@ class SFTPFileSystem extends FileSystem {
         }
 
         OpenOptions openOptions = OpenOptions.forNewByteChannel(options);
+        SFTPChannelLane lane = openOptions.lane(SFTPChannelLane.BULK);
+        String normalizedPath = normalizePath(path);
 
-        try (Channel channel = channelPool.get()) {
-            String normalizedPath = normalizePath(path);
+        if (openOptions.read && !openOptions.deleteOnClose) {
+            // opening the channel has no side effects, so it can use a mirror
+            return mirrors.executeRead(lane, channel -> newReadByteChannel(channel, normalizedPath, openOptions));
+        }
+
+        try (Channel channel = channelPool.get(lane)) {
             if (openOptions.read) {
-                // use findAttributes instead of getAttributes, to let the opening of the stream provide the correct error message
-                SftpATTRS attributes = findAttributes(channel, normalizedPath, false);
-                InputStream in = newInputStream(channel, normalizedPath, openOptions);
-                long size = attributes == null ? 0 : attributes.getSize();
-                return FileSystemProviderSupport.createSeekableByteChannel(in, size);
+                return newReadByteChannel(channel, normalizedPath, openOptions);
             }
 
             // if append then we need the attributes, to find the initial position of the channel
@@ -342,54 +529,107 @@ class SFTPFileSystem extends FileSystem {
         }
     }
 
+    private SeekableByteChannel newReadByteChannel(Channel channel, String path, OpenOptions options) throws IOException {
+        // use findAttributes instead of getAttributes, to let the opening of the stream provide the correct error message
+        SftpATTRS attributes = findAttributes(channel, path, false);
+        InputStream in = newInputStream(channel, path, options);
+        long size = attributes == null ? 0 : attributes.getSize();
+        return FileSystemProviderSupport.createSeekableByteChannel(in, size);
+    }
+
     DirectoryStream<Path> newDirectoryStream(SFTPPath path, Filter<? super Path> filter) throws IOException {
-        try (Channel channel = channelPool.get()) {
-            String normalizedPath = normalizePath(path);
-            List<LsEntry> entries = channel.listFiles(normalizedPath);
-            boolean isDirectory = false;
-            for (Iterator<LsEntry> i = entries.iterator(); i.hasNext(); ) {
-                LsEntry entry = i.next();
-                String filename = entry.getFilename();
-                if (CURRENT_DIR.equals(filename)) {
-                    isDirectory = true;
-                    i.remove();
-                } else if (PARENT_DIR.equals(filename)) {
-                    i.remove();
-                }
-            }
+        return mirrors.executeRead(SFTPChannelLane.INTERACTIVE, channel -> newDirectoryStream(channel, path, filter));
+    }
 
-            if (!isDirectory) {
+    private DirectoryStream<Path> newDirectoryStream(Channel channel, SFTPPath path, Filter<? super Path> filter) throws IOException {
+        String normalizedPath = normalizePath(path);
+        LsEntryStream entries = channel.listFiles(normalizedPath);
+        try {
+            SFTPPathDirectoryStream stream = new SFTPPathDirectoryStream(path, entries, listingAttributesMaxAge > 0, filter);
+            if (!stream.skipSystemEntries()) {
                 // https://github.com/robtimus/sftp-fs/issues/4: don't fail immediately but check the attributes
                 // Follow links to ensure the directory attribute can be read correctly
-                SftpATTRS attributes = channel.readAttributes(normalizedPath, true);
+                SftpATTRS attributes = readDirectoryAttributes(channel, entries, normalizedPath);
                 if (!attributes.isDir()) {
                     throw new NotDirectoryException(path.path());
                 }
             }
-            return new SFTPPathDirectoryStream(path, entries, filter);
+            return stream;
+        } catch (IOException | RuntimeException e) {
+            entries.close();
+            throw e;
+        }
+    }
+
+    private SftpATTRS readDirectoryAttributes(Channel channel, LsEntryStream entries, String path) throws IOException {
+        if (entries.isDone()) {
+            return channel.readAttributes(path, true);
+        }
+        // the listing is still using the channel; use another channel of the same pool, which may be for a mirror
+        try (Channel otherChannel = channel.pool().getOrCreate()) {
+            return otherChannel.readAttributes(path, true);
         }
     }
 
     private static final class SFTPPathDirectoryStream extends AbstractDirectoryStream<Path> {
 
         private final SFTPPath path;
-        private final List<LsEntry> entries;
-        private Iterator<LsEntry> iterator;
+        private final LsEntryStream entries;
+        private final boolean includeAttributes;
+        private LsEntry firstEntry;
 
-        private SFTPPathDirectoryStream(SFTPPath path, List<LsEntry> entries, Filter<? super Path> filter) {
+        private SFTPPathDirectoryStream(SFTPPath path, LsEntryStream entries, boolean includeAttributes, Filter<? super Path> filter) {
             super(filter);
             this.path = path;
             this.entries = entries;
+            this.includeAttributes = includeAttributes;
         }
 
-        @Override
-        protected void setupIteration() {
-            iterator = entries.iterator();
+        private boolean skipSystemEntries() throws IOException {
+            boolean isDirectory = false;
+            LsEntry entry;
+            while ((entry = entries.next()) != null) {
+                String filename = entry.getFilename();
+                if (CURRENT_DIR.equals(filename)) {
+                    isDirectory = true;
+                } else if (!PARENT_DIR.equals(filename)) {
+                    break;
+                }
+            }
+            firstEntry = entry;
+            return isDirectory;
         }
 
         @Override
         protected Path getNext() throws IOException {
-            return iterator.hasNext() ? path.resolve(iterator.next().getFilename()) : null;
+            if (firstEntry != null) {
+                LsEntry entry = firstEntry;
+                firstEntry = null;
+                return resolve(entry);
+            }
+            LsEntry entry;
+            while ((entry = entries.next()) != null) {
+                String filename = entry.getFilename();
+                if (!CURRENT_DIR.equals(filename) && !PARENT_DIR.equals(filename)) {
+                    return resolve(entry);
+                }
+            }
+            return null;
+        }
+
+        private SFTPPath resolve(LsEntry entry) {
+            SFTPPath resolved = path.resolve(entry.getFilename());
+            return includeAttributes ? resolved.withListingAttributes(entry.getAttrs()) : resolved;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                // stops the listing if it's still in progress
+                entries.close();
+            }
         }
     }
 
@@ -413,10 +653,10 @@ class SFTPFileSystem extends FileSystem {
     }
 
     SFTPPath readSymbolicLink(SFTPPath path) throws IOException {
-        try (Channel channel = channelPool.get()) {
-            SFTPPath absPath = toAbsolutePath(path).normalize();
-            return readSymbolicLink(channel, absPath);
-        }
+        SFTPPath absPath = toAbsolutePath(path).normalize();
+        return requestCoalescer.execute("readlink", absPath.path(), () -> { //$NON-NLS-1$
+            return channelPool.executeIdempotent(channel -> readSymbolicLink(channel, absPath));
+        });
     }
 
     private SFTPPath readSymbolicLink(Channel channel, SFTPPath path) throws IOException {
@@ -428,16 +668,17 @@ class SFTPFileSystem extends FileSystem {
         boolean sameFileSystem = haveSameFileSystem(source, target);
         CopyOptions copyOptions = CopyOptions.forCopy(options);
 
-        try (Channel channel = channelPool.get()) {
-            // get the attributes to determine whether a directory needs to be created or a file needs to be copied
-            // Files.copy specifies that for links, the final target must be copied
-            SFTPPathAndAttributesPair sourcePair = toRealPath(channel, source, true);
-
+        // copying files transfers their contents, which can use the channel for a long time
+        try (Channel channel = channelPool.get(SFTPChannelLane.BULK)) {
             if (!sameFileSystem) {
-                copyAcrossFileSystems(channel, source, sourcePair.attributes, target, copyOptions);
+                copyAcrossFileSystems(channel, source, target, copyOptions);
                 return;
             }
 
+            // get the attributes to determine whether a directory needs to be created or a file needs to be copied
+            // Files.copy specifies that for links, the final target must be copied
+            SFTPPathAndAttributesPair sourcePair = toRealPath(channel, source, true);
+
             try {
                 if (sourcePair.path.path().equals(toRealPath(channel, target, true).path.path())) {
                     // non-op, don't do a thing as specified by Files.copy
@@ -462,17 +703,23 @@ class SFTPFileSystem extends FileSystem {
             if (sourcePair.attributes.isDir()) {
                 channel.mkdir(normalizedTarget);
             } else {
+                // mirrors may lag behind, so the copy must read the same file that its attributes were read from
                 try (Channel channel2 = channelPool.getOrCreate()) {
-                    copyFile(channel, normalizePath(source), channel2, normalizedTarget, copyOptions);
+                    copyFileContents(channel, normalizePath(source), channel2, normalizedTarget, copyOptions);
                 }
             }
         }
     }
 
-    private void copyAcrossFileSystems(Channel sourceChannel, SFTPPath source, SftpATTRS sourceAttributes, SFTPPath target, CopyOptions options)
-            throws IOException {
-
-        copyAcrossFileSystems(sourceChannel, normalizePath(source), sourceAttributes, target, options);
+    private void copyAcrossFileSystems(Channel channel, SFTPPath source, SFTPPath target, CopyOptions options) throws IOException {
+        // the source is left as-is, so it can be read from a mirror
+        // mirrors may lag behind, so the attributes and the contents must be read from the same server
+        try (Channel mirrorChannel = mirrors.getOrCreateForRead()) {
+            Channel sourceChannel = mirrorChannel != null ? mirrorChannel : channel;
+            // Files.copy specifies that for links, the final target must be copied
+            SFTPPathAndAttributesPair sourcePair = toRealPath(sourceChannel, source, true);
+            copyAcrossFileSystems(sourceChannel, normalizePath(source), sourcePair.attributes, target, options);
+        }
     }
 
     @SuppressWarnings("resource")
@@ -500,12 +747,14 @@ class SFTPFileSystem extends FileSystem {
             if (sourceAttributes.isDir()) {
                 targetChannel.mkdir(target);
             } else {
-                copyFile(sourceChannel, source, targetChannel, target, options);
+                copyFileContents(sourceChannel, source, targetChannel, target, options);
             }
         }
     }
 
-    private void copyFile(Channel sourceChannel, String source, Channel targetChannel, String target, CopyOptions options) throws IOException {
+    private void copyFileContents(Channel sourceChannel, String source, Channel targetChannel, String target, CopyOptions options)
+            throws IOException {
+
         OpenOptions inOptions = OpenOptions.forNewInputStream(options.toOpenOptions(StandardOpenOption.READ));
         OpenOptions outOptions = OpenOptions
                 .forNewOutputStream(options.toOpenOptions(StandardOpenOption.WRITE, StandardOpenOption.CREATE));
@@ -514,17 +763,138 @@ class SFTPFileSystem extends FileSystem {
         }
     }
 
+    void download(SFTPPath source, Path target, SFTPTransferConfig config) throws IOException {
+        String normalizedSource = normalizePath(source);
+        SftpATTRS attributes = channelPool.executeIdempotent(channel -> getAttributes(channel, normalizedSource, true));
+        if (attributes.isDir()) {
+            throw Messages.fileSystemProvider().isDirectory(source.path());
+        }
+
+        Path file = config.temporarySuffix()
+                .map(suffix -> target.resolveSibling(target.getFileName() + suffix))
+                .orElse(target);
+
+        boolean success = false;
+        try {
+            long size = attributes.getSize();
+            try (FileChannel out = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ParallelTransfer transfer = new ParallelTransfer(channelPool, config, size,
+                        (channel, offset, length, buffer) -> channel.downloadChunk(normalizedSource, offset, length, out, buffer));
+                transfer.run();
+            }
+            if (config.preserveLastModifiedTime()) {
+                // times are in seconds
+                Files.setLastModifiedTime(file, FileTime.from(attributes.getMTime(), TimeUnit.SECONDS));
+            }
+            if (file != target) {
+                moveLocalFile(file, target);
+            }
+            success = true;
+        } finally {
+            if (!success && file != target) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void moveLocalFile(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (@SuppressWarnings("unused") AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    void upload(Path source, SFTPPath target, SFTPTransferConfig config) throws IOException {
+        String normalizedTarget = normalizePath(target);
+        String file = config.temporarySuffix()
+                .map(suffix -> normalizedTarget + suffix)
+                .orElse(normalizedTarget);
+
+        Collection<OpenOption> openOptions = Arrays.asList(StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = in.size();
+            int lastByte = readLastByte(in, size);
+
+            try (Channel channel = channelPool.get()) {
+                SftpATTRS targetAttributes = findAttributes(channel, normalizedTarget, true);
+                if (targetAttributes != null && targetAttributes.isDir()) {
+                    throw Messages.fileSystemProvider().isDirectory(target.path());
+                }
+                channel.createFile(file, size, lastByte, openOptions);
+            }
+
+            boolean success = false;
+            try {
+                ParallelTransfer transfer = new ParallelTransfer(channelPool, config, size,
+                        (channel, offset, length, buffer) -> channel.uploadChunk(file, size, offset, length, in, buffer, openOptions));
+                transfer.run();
+
+                try (Channel channel = channelPool.get()) {
+                    if (config.preserveLastModifiedTime()) {
+                        channel.setMtime(file, Files.getLastModifiedTime(source).to(TimeUnit.SECONDS));
+                    }
+                    if (!file.equals(normalizedTarget)) {
+                        replaceFile(channel, file, normalizedTarget);
+                    }
+                }
+                success = true;
+            } finally {
+                if (!success && !file.equals(normalizedTarget)) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private static int readLastByte(FileChannel in, long size) throws IOException {
+        if (size == 0) {
+            return -1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        if (in.read(buffer, size - 1) != 1) {
+            throw new EOFException();
+        }
+        return buffer.get(0) & 0xFF;
+    }
+
+    private void replaceFile(Channel channel, String source, String target) throws IOException {
+        try {
+            // servers that support the posix-rename@openssh.com extension replace the target atomically
+            channel.rename(source, target);
+        } catch (IOException e) {
+            SftpATTRS targetAttributes = findAttributes(channel, target, false);
+            if (targetAttributes == null || targetAttributes.isDir()) {
+                throw e;
+            }
+            channel.delete(target, false);
+            channel.rename(source, target);
+        }
+    }
+
+    private void deleteQuietly(String path) {
+        try (Channel channel = channelPool.getOrCreate()) {
+            channel.delete(path, false);
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // ignore
+        }
+    }
+
     void move(SFTPPath source, SFTPPath target, CopyOption... options) throws IOException {
         boolean sameFileSystem = haveSameFileSystem(source, target);
         CopyOptions copyOptions = CopyOptions.forMove(sameFileSystem, options);
 
-        try (Channel channel = channelPool.get()) {
+        // moving across file systems transfers file contents, which can use the channel for a long time
+        try (Channel channel = channelPool.get(sameFileSystem ? SFTPChannelLane.INTERACTIVE : SFTPChannelLane.BULK)) {
             String normalizedSource = normalizePath(source);
             if (!sameFileSystem) {
                 SftpATTRS attributes = getAttributes(channel, normalizedSource, false);
                 if (attributes.isLink()) {
                     throw new IOException(SFTPMessages.copyOfSymbolicLinksAcrossFileSystemsNotSupported());
                 }
+                // the source is deleted afterwards, so its contents must not be read from a mirror that may lag behind
                 copyAcrossFileSystems(channel, normalizedSource, attributes, target, copyOptions);
                 channel.delete(normalizedSource, attributes.isDir());
                 return;
@@ -564,9 +934,7 @@ class SFTPFileSystem extends FileSystem {
         if (path.equals(path2)) {
             return true;
         }
-        try (Channel channel = channelPool.get()) {
-            return isSameFile(channel, path, path2);
-        }
+        return channelPool.executeIdempotent(channel -> isSameFile(channel, path, path2));
     }
 
     @SuppressWarnings("resource")
@@ -583,28 +951,22 @@ class SFTPFileSystem extends FileSystem {
 
     boolean isHidden(SFTPPath path) throws IOException {
         // call getAttributes to check for existence
-        try (Channel channel = channelPool.get()) {
-            getAttributes(channel, normalizePath(path), false);
-        }
+        getAttributes(normalizePath(path), false);
         String fileName = path.fileName();
         return !CURRENT_DIR.equals(fileName) && !PARENT_DIR.equals(fileName) && fileName.startsWith("."); //$NON-NLS-1$
     }
 
     FileStore getFileStore(SFTPPath path) throws IOException {
         // call getAttributes to check for existence
-        try (Channel channel = channelPool.get()) {
-            getAttributes(channel, normalizePath(path), false);
-        }
+        getAttributes(normalizePath(path), false);
         return new SFTPFileStore(path);
     }
 
     void checkAccess(SFTPPath path, AccessMode... modes) throws IOException {
-        try (Channel channel = channelPool.get()) {
-            SftpATTRS attributes = getAttributes(channel, normalizePath(path), true);
-            for (AccessMode mode : modes) {
-                if (!hasAccess(attributes, mode)) {
-                    throw new AccessDeniedException(path.path());
-                }
+        SftpATTRS attributes = getAttributes(normalizePath(path), true);
+        for (AccessMode mode : modes) {
+            if (!hasAccess(attributes, mode)) {
+                throw new AccessDeniedException(path.path());
             }
         }
     }
@@ -659,7 +1021,7 @@ class SFTPFileSystem extends FileSystem {
 
         @Override
         public PosixFileAttributes readAttributes() throws IOException {
-            return SFTPFileSystem.this.readAttributes(path, followLinks);
+            return inOperation("readAttributes", () -> SFTPFileSystem.this.readAttributes(path, followLinks)); //$NON-NLS-1$
         }
 
         @Override
@@ -671,10 +1033,12 @@ class SFTPFileSystem extends FileSystem {
                 throw new IOException(Messages.fileSystemProvider().unsupportedFileAttribute("creationTime")); //$NON-NLS-1$
             }
             if (lastModifiedTime != null) {
-                try (Channel channel = channelPool.get()) {
-                    // times are in seconds
-                    channel.setMtime(pathToUpdate(channel), lastModifiedTime.to(TimeUnit.SECONDS));
-                }
+                inOperation("setTimes", () -> { //$NON-NLS-1$
+                    try (Channel channel = channelPool.get()) {
+                        // times are in seconds
+                        channel.setMtime(pathToUpdate(channel), lastModifiedTime.to(TimeUnit.SECONDS));
+                    }
+                });
             }
         }
 
@@ -682,9 +1046,11 @@ class SFTPFileSystem extends FileSystem {
         public void setOwner(UserPrincipal owner) throws IOException {
             try {
                 int uid = Integer.parseInt(owner.getName());
-                try (Channel channel = channelPool.get()) {
-                    channel.chown(pathToUpdate(channel), uid);
-                }
+                inOperation("setOwner", () -> { //$NON-NLS-1$
+                    try (Channel channel = channelPool.get()) {
+                        channel.chown(pathToUpdate(channel), uid);
+                    }
+                });
             } catch (NumberFormatException e) {
                 throw new IOException(e);
             }
@@ -694,9 +1060,11 @@ class SFTPFileSystem extends FileSystem {
         public void setGroup(GroupPrincipal group) throws IOException {
             try {
                 int gid = Integer.parseInt(group.getName());
-                try (Channel channel = channelPool.get()) {
-                    channel.chgrp(pathToUpdate(channel), gid);
-                }
+                inOperation("setGroup", () -> { //$NON-NLS-1$
+                    try (Channel channel = channelPool.get()) {
+                        channel.chgrp(pathToUpdate(channel), gid);
+                    }
+                });
             } catch (NumberFormatException e) {
                 throw new IOException(e);
             }
@@ -704,22 +1072,32 @@ class SFTPFileSystem extends FileSystem {
 
         @Override
         public void setPermissions(Set<PosixFilePermission> permissions) throws IOException {
-            try (Channel channel = channelPool.get()) {
-                channel.chmod(pathToUpdate(channel), PosixFilePermissionSupport.toMask(permissions));
-            }
+            inOperation("setPermissions", () -> { //$NON-NLS-1$
+                try (Channel channel = channelPool.get()) {
+                    channel.chmod(pathToUpdate(channel), PosixFilePermissionSupport.toMask(permissions));
+                }
+            });
         }
 
         private String pathToUpdate(Channel channel) throws IOException {
-            return followLinks ? toRealPath(channel, path, followLinks).path.path() : normalizePath(path);
+            if (followLinks) {
+                // the cached attributes of the link itself are based on those of the updated file
+                attributesCache.invalidate(normalizePath(path));
+                return toRealPath(channel, path, followLinks).path.path();
+            }
+            return normalizePath(path);
         }
     }
 
     PosixFileAttributes readAttributes(SFTPPath path, boolean followLinks) throws IOException {
-
-        try (Channel channel = channelPool.get()) {
-            SftpATTRS attributes = getAttributes(channel, normalizePath(path), followLinks);
-            return new SFTPPathFileAttributes(attributes);
+        SftpATTRS listingAttributes = path.listingAttributes(listingAttributesMaxAge);
+        // directory listings don't follow links
+        if (listingAttributes != null && !(followLinks && listingAttributes.isLink())) {
+            return new SFTPPathFileAttributes(listingAttributes);
         }
+
+        SftpATTRS attributes = getAttributes(normalizePath(path), followLinks);
+        return new SFTPPathFileAttributes(attributes);
     }
 
     private static final class SFTPPathFileAttributes implements PosixFileAttributes {
@@ -858,6 +1236,18 @@ class SFTPFileSystem extends FileSystem {
         FileAttributeSupport.setAttribute(attribute, value, view);
     }
 
+    private SftpATTRS getAttributes(String path, boolean followLinks) throws IOException {
+        // only acquire a client connection if the attributes are not cached
+        SftpATTRS attributes = attributesCache.get(path, followLinks);
+        if (attributes != null) {
+            return attributes;
+        }
+        // concurrent identical requests share one client connection and one call to the SFTP server
+        return requestCoalescer.execute(followLinks ? "stat" : "lstat", path, () -> { //$NON-NLS-1$ //$NON-NLS-2$
+            return mirrors.executeRead(SFTPChannelLane.INTERACTIVE, channel -> getAttributes(channel, path, followLinks));
+        });
+    }
+
     private SftpATTRS getAttributes(Channel channel, String path, boolean followLinks) throws IOException {
         return channel.readAttributes(path, followLinks);
     }
@@ -871,8 +1261,8 @@ class SFTPFileSystem extends FileSystem {
     }
 
     long getTotalSpace(SFTPPath path) throws IOException {
-        try (Channel channel = channelPool.get()) {
-            SftpStatVFS stat = channel.statVFS(normalizePath(path));
+        try {
+            SftpStatVFS stat = statVFS(path);
             // don't use stat.getSize because that uses kilobyte precision
             return stat.getFragmentSize() * stat.getBlocks();
         } catch (@SuppressWarnings("unused") UnsupportedOperationException e) {
@@ -882,8 +1272,8 @@ class SFTPFileSystem extends FileSystem {
     }
 
     long getUsableSpace(SFTPPath path) throws IOException {
-        try (Channel channel = channelPool.get()) {
-            SftpStatVFS stat = channel.statVFS(normalizePath(path));
+        try {
+            SftpStatVFS stat = statVFS(path);
             // don't use stat.getAvailForNonRoot because that uses kilobyte precision
             return stat.getFragmentSize() * stat.getAvailBlocks();
         } catch (@SuppressWarnings("unused") UnsupportedOperationException e) {
@@ -893,8 +1283,8 @@ class SFTPFileSystem extends FileSystem {
     }
 
     long getUnallocatedSpace(SFTPPath path) throws IOException {
-        try (Channel channel = channelPool.get()) {
-            SftpStatVFS stat = channel.statVFS(normalizePath(path));
+        try {
+            SftpStatVFS stat = statVFS(path);
             // don't use stat.getAvail because that uses kilobyte precision
             return stat.getFragmentSize() * stat.getFreeBlocks();
         } catch (@SuppressWarnings("unused") UnsupportedOperationException e) {
@@ -904,10 +1294,15 @@ class SFTPFileSystem extends FileSystem {
     }
 
     long getBlockSize(SFTPPath path) throws IOException {
-        try (Channel channel = channelPool.get()) {
-            // Propagate any UnsupportedOperationException, as that's allowed to be thrown
-            SftpStatVFS stat = channel.statVFS(normalizePath(path));
-            return stat.getBlockSize();
-        }
+        // Propagate any UnsupportedOperationException, as that's allowed to be thrown
+        SftpStatVFS stat = statVFS(path);
+        return stat.getBlockSize();
+    }
+
+    private SftpStatVFS statVFS(SFTPPath path) throws IOException {
+        String normalizedPath = normalizePath(path);
+        return requestCoalescer.execute("statvfs", normalizedPath, () -> { //$NON-NLS-1$
+            return channelPool.executeIdempotent(channel -> channel.statVFS(normalizedPath));
+        });
     }
 }
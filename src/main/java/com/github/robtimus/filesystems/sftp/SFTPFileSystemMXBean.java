@@ -0,0 +1,126 @@
+/*
+ * SFTPFileSystemMXBean.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.util.Map;
+
+/**
+ * Metrics of an SFTP file system. These are available through the {@link SFTPFileStoreAttributeView} of the file system's file stores,
+ * and as MXBean if enabled using {@link SFTPEnvironment#withMBeanRegistration(boolean)}.
+ * <p>
+ * All values are live values; each call returns the current value.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ */
+public interface SFTPFileSystemMXBean {
+
+    /**
+     * Returns the number of channels in the file system's connection pool, both idle and in use.
+     *
+     * @return The number of channels in the file system's connection pool.
+     */
+    int getPoolSize();
+
+    /**
+     * Returns the number of idle channels in the file system's connection pool.
+     *
+     * @return The number of idle channels in the file system's connection pool.
+     */
+    int getIdleCount();
+
+    /**
+     * Returns the number of channels in the file system's connection pool that are in use.
+     * Channels are in use until the file system operations that use them are done, including any open streams or directory streams.
+     *
+     * @return The number of channels in the file system's connection pool that are in use.
+     */
+    int getInUseCount();
+
+    /**
+     * Returns the number of threads that are currently acquiring a channel from the file system's connection pool.
+     *
+     * @return The number of threads that are currently acquiring a channel from the file system's connection pool.
+     */
+    int getWaiterCount();
+
+    /**
+     * Returns the maximum number of channels that can currently be in use at the same time.
+     * This is the maximum pool size, unless the pool size is {@linkplain SFTPPoolConfig#adaptiveTargetWaitTime() adaptive}.
+     *
+     * @return The maximum number of channels that can currently be in use at the same time.
+     */
+    int getPoolLimit();
+
+    /**
+     * Returns a snapshot of the times that threads needed to acquire a channel from the file system's connection pool.
+     *
+     * @return A snapshot of the times that threads needed to acquire a channel from the file system's connection pool.
+     */
+    SFTPLatencySnapshot getAcquireWaitTime();
+
+    /**
+     * Returns snapshots of the durations of file system operations. Operations are named as described in {@link SFTPRequestStatistics}.
+     * If a file system operation calls another file system operation, only the outermost operation is included.
+     *
+     * @return A map with snapshots of the durations of file system operations, with the operation names as keys.
+     */
+    Map<String, SFTPLatencySnapshot> getOperationLatencies();
+
+    /**
+     * Returns the number of bytes that were read from files.
+     *
+     * @return The number of bytes that were read from files.
+     */
+    long getBytesRead();
+
+    /**
+     * Returns the number of bytes that were written to files.
+     *
+     * @return The number of bytes that were written to files.
+     */
+    long getBytesWritten();
+
+    /**
+     * Returns the number of input and output streams that are currently open. This includes streams that are used by byte channels.
+     *
+     * @return The number of input and output streams that are currently open.
+     */
+    int getOpenStreamCount();
+
+    /**
+     * Returns the number of SSH sessions that were opened to replace sessions that were lost.
+     *
+     * @return The number of SSH sessions that were opened to replace sessions that were lost.
+     */
+    long getReconnectCount();
+
+    /**
+     * Returns the number of times that a channel from the file system's connection pool was found to be no longer usable.
+     *
+     * @return The number of times that a channel from the file system's connection pool was found to be no longer usable.
+     */
+    long getValidationFailureCount();
+
+    /**
+     * Returns the number of read-only operations that were retried because their channel was found to be no longer usable.
+     *
+     * @return The number of read-only operations that were retried because their channel was found to be no longer usable.
+     */
+    long getRetryCount();
+}
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.AccessMode;
 import java.nio.file.CopyOption;
@@ -47,6 +48,7 @@ import java.nio.file.spi.FileSystemProvider;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import com.github.robtimus.filesystems.FileSystemMap;
 import com.github.robtimus.filesystems.LinkOptionSupport;
 import com.github.robtimus.filesystems.Messages;
@@ -62,6 +64,7 @@ import com.github.robtimus.filesystems.sftp.SFTPEnvironment.QueryParams;
 public class SFTPFileSystemProvider extends FileSystemProvider {
 
     private final FileSystemMap<SFTPFileSystem> fileSystems = new FileSystemMap<>(this::createFileSystem);
+    private final SessionRegistry sessionRegistry = new SessionRegistry();
 
     /**
      * Returns the URI scheme that identifies this provider: {@code sftp}.
@@ -76,6 +79,10 @@ public class SFTPFileSystemProvider extends FileSystemProvider {
         return new SFTPFileSystem(this, uri, environment);
     }
 
+    SessionRegistry sessionRegistry() {
+        return sessionRegistry;
+    }
+
     /**
      * Constructs a new {@code FileSystem} object identified by a URI.
      * <p>
@@ -105,6 +112,22 @@ public class SFTPFileSystemProvider extends FileSystemProvider {
         return fileSystems.add(normalizedURI, environment);
     }
 
+    /**
+     * Constructs a new {@code FileSystem} object identified by a URI in the background.
+     * This method works like {@link #newFileSystem(URI, Map)}, but returns without waiting for the file system to connect to the SFTP server.
+     * This allows file systems for several SFTP servers to be created concurrently.
+     *
+     * @param uri The URI reference.
+     * @param env A map of provider specific properties to configure the file system; may be empty.
+     * @return A future that completes with the new file system, or exceptionally with the exception that {@link #newFileSystem(URI, Map)}
+     *         would have thrown.
+     * @since 3.4
+     * @see SFTPEnvironment#withLazyConnect(boolean)
+     */
+    public CompletableFuture<FileSystem> newFileSystemAsync(URI uri, Map<String, ?> env) {
+        return Connector.submit(() -> newFileSystem(uri, env));
+    }
+
     private void addUserInfoIfNeeded(SFTPEnvironment environment, String userInfo) {
         if (userInfo != null) {
             int indexOfColon = userInfo.indexOf(':');
@@ -425,6 +448,52 @@ public class SFTPFileSystemProvider extends FileSystemProvider {
         throw new ProviderMismatchException();
     }
 
+    /**
+     * Downloads a file from an SFTP file system to a local file, using several client connections concurrently.
+     * <p>
+     * The file is split into chunks of the {@linkplain SFTPTransferConfig#chunkSize() configured size}, which are downloaded concurrently and
+     * written to the target file at their offsets. If the target file already exists it will be overwritten.
+     * <p>
+     * Note: while the download is in progress, the source's file system will have up to {@link SFTPTransferConfig#parallelism()} available
+     * connections fewer.
+     *
+     * @param source The file to download.
+     * @param target The local file to download to. Its file system must support {@link FileChannel}.
+     * @param config The configuration for the download.
+     * @throws NullPointerException If any of the given arguments is {@code null}.
+     * @throws ProviderMismatchException If the source is not a path of an SFTP file system (not created by an {@code SFTPFileSystemProvider}).
+     * @throws IOException If an I/O error occurred.
+     * @since 3.4
+     */
+    public static void download(Path source, Path target, SFTPTransferConfig config) throws IOException {
+        Objects.requireNonNull(target);
+        Objects.requireNonNull(config);
+        toSFTPPath(source).download(target, config);
+    }
+
+    /**
+     * Uploads a local file to an SFTP file system, using several client connections concurrently.
+     * <p>
+     * The file is split into chunks of the {@linkplain SFTPTransferConfig#chunkSize() configured size}, which are read from the source file at
+     * their offsets and uploaded concurrently. If the target file already exists it will be overwritten.
+     * <p>
+     * Note: while the upload is in progress, the target's file system will have up to {@link SFTPTransferConfig#parallelism()} available
+     * connections fewer.
+     *
+     * @param source The local file to upload. Its file system must support {@link FileChannel}.
+     * @param target The file to upload to.
+     * @param config The configuration for the upload.
+     * @throws NullPointerException If any of the given arguments is {@code null}.
+     * @throws ProviderMismatchException If the target is not a path of an SFTP file system (not created by an {@code SFTPFileSystemProvider}).
+     * @throws IOException If an I/O error occurred.
+     * @since 3.4
+     */
+    public static void upload(Path source, Path target, SFTPTransferConfig config) throws IOException {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(config);
+        toSFTPPath(target).upload(source, config);
+    }
+
     /**
      * Send a keep-alive signal for an SFTP file system.
      *
@@ -439,4 +508,20 @@ public class SFTPFileSystemProvider extends FileSystemProvider {
         }
         throw new ProviderMismatchException();
     }
+
+    /**
+     * Returns statistics about the requests that an SFTP file system has sent to its SFTP server.
+     * These can be used to determine how many requests each file system operation requires.
+     *
+     * @param fs The SFTP file system to return the statistics for.
+     * @return The statistics about the requests that the given SFTP file system has sent.
+     * @throws ProviderMismatchException If the given file system is not an SFTP file system (not created by an {@code SFTPFileSystemProvider}).
+     * @since 3.4
+     */
+    public static SFTPRequestStatistics getRequestStatistics(FileSystem fs) {
+        if (fs instanceof SFTPFileSystem) {
+            return ((SFTPFileSystem) fs).requestStatistics();
+        }
+        throw new ProviderMismatchException();
+    }
 }
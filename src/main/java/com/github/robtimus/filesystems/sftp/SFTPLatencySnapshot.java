@@ -0,0 +1,125 @@
+/*
+ * SFTPLatencySnapshot.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of a histogram of durations, for instance the durations of a file system operation.
+ * All durations are in nanoseconds. Percentiles are estimates, that are up to 12.5% higher than the actual values.
+ * <p>
+ * Instances of this class are immutable.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ * @see SFTPFileSystemMXBean
+ */
+public final class SFTPLatencySnapshot {
+
+    private final long count;
+    private final long totalTime;
+    private final long maxTime;
+    private final long median;
+    private final long percentile90;
+    private final long percentile99;
+
+    SFTPLatencySnapshot(long count, long totalTime, long maxTime, long median, long percentile90, long percentile99) {
+        this.count = count;
+        this.totalTime = totalTime;
+        this.maxTime = maxTime;
+        this.median = median;
+        this.percentile90 = percentile90;
+        this.percentile99 = percentile99;
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return The number of recorded durations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded durations.
+     *
+     * @return The sum of all recorded durations, in nanoseconds.
+     */
+    public long getTotalTimeInNanos() {
+        return totalTime;
+    }
+
+    /**
+     * Returns the mean of all recorded durations.
+     *
+     * @return The mean of all recorded durations, in nanoseconds, or {@code 0} if no durations were recorded.
+     */
+    public long getMeanTimeInNanos() {
+        return count == 0 ? 0 : totalTime / count;
+    }
+
+    /**
+     * Returns the maximum of all recorded durations.
+     *
+     * @return The maximum of all recorded durations, in nanoseconds, or {@code 0} if no durations were recorded.
+     */
+    public long getMaxTimeInNanos() {
+        return maxTime;
+    }
+
+    /**
+     * Returns the estimated median of all recorded durations.
+     *
+     * @return The estimated median of all recorded durations, in nanoseconds, or {@code 0} if no durations were recorded.
+     */
+    public long getMedianTimeInNanos() {
+        return median;
+    }
+
+    /**
+     * Returns the estimated 90th percentile of all recorded durations.
+     *
+     * @return The estimated 90th percentile of all recorded durations, in nanoseconds, or {@code 0} if no durations were recorded.
+     */
+    public long get90thPercentileTimeInNanos() {
+        return percentile90;
+    }
+
+    /**
+     * Returns the estimated 99th percentile of all recorded durations.
+     *
+     * @return The estimated 99th percentile of all recorded durations, in nanoseconds, or {@code 0} if no durations were recorded.
+     */
+    public long get99thPercentileTimeInNanos() {
+        return percentile99;
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName()
+                + "[count=" + count
+                + ",mean=" + Duration.ofNanos(getMeanTimeInNanos())
+                + ",median=" + Duration.ofNanos(median)
+                + ",p90=" + Duration.ofNanos(percentile90)
+                + ",p99=" + Duration.ofNanos(percentile99)
+                + ",max=" + Duration.ofNanos(maxTime)
+                + "]";
+    }
+}
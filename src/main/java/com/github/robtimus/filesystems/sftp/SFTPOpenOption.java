@@ -0,0 +1,45 @@
+/*
+ * SFTPOpenOption.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.nio.file.OpenOption;
+
+/**
+ * SFTP specific options for opening files.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ */
+public enum SFTPOpenOption implements OpenOption {
+
+    /**
+     * Makes input and output streams survive the loss of their client connection.
+     * <p>
+     * If the client connection of an input stream breaks, the stream reopens the file on another client connection and continues reading at
+     * its current position. This fails if the size or last modification time of the file has changed since the stream was opened.
+     * <p>
+     * If the client connection of an output stream breaks, the stream reopens the file on another client connection and continues writing
+     * where the SFTP server stopped receiving data. Recently written data is kept in memory so it can be written again; this fails if the
+     * SFTP server received less data than that, or more data than was written.
+     * <p>
+     * The number of times a single stream can reopen its file is limited by {@link SFTPEnvironment#withMaxStreamReconnects(int)}.
+     * This option is only supported by {@link java.nio.file.Files#newInputStream(java.nio.file.Path, OpenOption...)} and
+     * {@link java.nio.file.Files#newOutputStream(java.nio.file.Path, OpenOption...)}.
+     */
+    RESUMABLE
+}
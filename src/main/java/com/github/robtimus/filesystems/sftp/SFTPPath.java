@@ -43,6 +43,7 @@ import java.util.Set;
 import com.github.robtimus.filesystems.LinkOptionSupport;
 import com.github.robtimus.filesystems.Messages;
 import com.github.robtimus.filesystems.SimpleAbstractPath;
+import com.jcraft.jsch.SftpATTRS;
 
 /**
  * A path for SFTP file systems.
@@ -53,14 +54,39 @@ class SFTPPath extends SimpleAbstractPath {
 
     private final SFTPFileSystem fs;
 
+    // the attributes from the directory listing this path was returned from, if any; see SFTPFileSystem.readAttributes
+    private final SftpATTRS listingAttributes;
+    private final long listingTimestamp;
+
     SFTPPath(SFTPFileSystem fs, String path) {
         super(path);
         this.fs = Objects.requireNonNull(fs);
+        this.listingAttributes = null;
+        this.listingTimestamp = 0;
     }
 
     private SFTPPath(SFTPFileSystem fs, String path, boolean normalized) {
         super(path, normalized);
         this.fs = Objects.requireNonNull(fs);
+        this.listingAttributes = null;
+        this.listingTimestamp = 0;
+    }
+
+    private SFTPPath(SFTPPath path, SftpATTRS listingAttributes) {
+        super(path.path(), true);
+        this.fs = path.fs;
+        this.listingAttributes = listingAttributes;
+        this.listingTimestamp = System.nanoTime();
+    }
+
+    SFTPPath withListingAttributes(SftpATTRS attributes) {
+        return new SFTPPath(this, Objects.requireNonNull(attributes));
+    }
+
+    SftpATTRS listingAttributes(long maxAgeInNanos) {
+        return listingAttributes != null && System.nanoTime() - listingTimestamp < maxAgeInNanos
+                ? listingAttributes
+                : null;
     }
 
     @Override
@@ -141,7 +167,7 @@ class SFTPPath extends SimpleAbstractPath {
     @Override
     public SFTPPath toRealPath(LinkOption... options) throws IOException {
         boolean followLinks = LinkOptionSupport.followLinks(options);
-        return fs.toRealPath(this, followLinks);
+        return fs.inOperation("toRealPath", () -> fs.toRealPath(this, followLinks)); //$NON-NLS-1$
     }
 
     @Override
@@ -155,39 +181,47 @@ class SFTPPath extends SimpleAbstractPath {
     }
 
     InputStream newInputStream(OpenOption... options) throws IOException {
-        return fs.newInputStream(this, options);
+        return fs.inOperation("newInputStream", () -> fs.newInputStream(this, options)); //$NON-NLS-1$
     }
 
     OutputStream newOutputStream(OpenOption... options) throws IOException {
-        return fs.newOutputStream(this, options);
+        return fs.inOperation("newOutputStream", () -> fs.newOutputStream(this, options)); //$NON-NLS-1$
     }
 
     SeekableByteChannel newByteChannel(Set<? extends OpenOption> options, FileAttribute<?>... attrs) throws IOException {
-        return fs.newByteChannel(this, options, attrs);
+        return fs.inOperation("newByteChannel", () -> fs.newByteChannel(this, options, attrs)); //$NON-NLS-1$
     }
 
     DirectoryStream<Path> newDirectoryStream(Filter<? super Path> filter) throws IOException {
-        return fs.newDirectoryStream(this, filter);
+        return fs.inOperation("newDirectoryStream", () -> fs.newDirectoryStream(this, filter)); //$NON-NLS-1$
     }
 
     void createDirectory(FileAttribute<?>... attrs) throws IOException {
-        fs.createDirectory(this, attrs);
+        fs.inOperation("createDirectory", () -> fs.createDirectory(this, attrs)); //$NON-NLS-1$
     }
 
     void delete() throws IOException {
-        fs.delete(this);
+        fs.inOperation("delete", () -> fs.delete(this)); //$NON-NLS-1$
     }
 
     SFTPPath readSymbolicLink() throws IOException {
-        return fs.readSymbolicLink(this);
+        return fs.inOperation("readSymbolicLink", () -> fs.readSymbolicLink(this)); //$NON-NLS-1$
     }
 
     void copy(SFTPPath target, CopyOption... options) throws IOException {
-        fs.copy(this, target, options);
+        fs.inOperation("copy", () -> fs.copy(this, target, options)); //$NON-NLS-1$
     }
 
     void move(SFTPPath target, CopyOption... options) throws IOException {
-        fs.move(this, target, options);
+        fs.inOperation("move", () -> fs.move(this, target, options)); //$NON-NLS-1$
+    }
+
+    void download(Path target, SFTPTransferConfig config) throws IOException {
+        fs.inOperation("download", () -> fs.download(this, target, config)); //$NON-NLS-1$
+    }
+
+    void upload(Path source, SFTPTransferConfig config) throws IOException {
+        fs.inOperation("upload", () -> fs.upload(source, this, config)); //$NON-NLS-1$
     }
 
     @SuppressWarnings("resource")
@@ -198,19 +232,19 @@ class SFTPPath extends SimpleAbstractPath {
         if (other == null || getFileSystem() != other.getFileSystem()) {
             return false;
         }
-        return fs.isSameFile(this, (SFTPPath) other);
+        return fs.inOperation("isSameFile", () -> fs.isSameFile(this, (SFTPPath) other)); //$NON-NLS-1$
     }
 
     boolean isHidden() throws IOException {
-        return fs.isHidden(this);
+        return fs.inOperation("isHidden", () -> fs.isHidden(this)); //$NON-NLS-1$
     }
 
     FileStore getFileStore() throws IOException {
-        return fs.getFileStore(this);
+        return fs.inOperation("getFileStore", () -> fs.getFileStore(this)); //$NON-NLS-1$
     }
 
     void checkAccess(AccessMode... modes) throws IOException {
-        fs.checkAccess(this, modes);
+        fs.inOperation("checkAccess", () -> fs.checkAccess(this, modes)); //$NON-NLS-1$
     }
 
     <V extends FileAttributeView> V getFileAttributeView(Class<V> type, boolean followLinks) {
@@ -218,30 +252,30 @@ class SFTPPath extends SimpleAbstractPath {
     }
 
     PosixFileAttributes readAttributes(boolean followLinks) throws IOException {
-        return fs.readAttributes(this, followLinks);
+        return fs.inOperation("readAttributes", () -> fs.readAttributes(this, followLinks)); //$NON-NLS-1$
     }
 
     Map<String, Object> readAttributes(String attributes, boolean followLinks) throws IOException {
-        return fs.readAttributes(this, attributes, followLinks);
+        return fs.inOperation("readAttributes", () -> fs.readAttributes(this, attributes, followLinks)); //$NON-NLS-1$
     }
 
     void setAttribute(String attribute, Object value, boolean followLinks) throws IOException {
-        fs.setAttribute(this, attribute, value, followLinks);
+        fs.inOperation("setAttribute", () -> fs.setAttribute(this, attribute, value, followLinks)); //$NON-NLS-1$
     }
 
     long getTotalSpace() throws IOException {
-        return fs.getTotalSpace(this);
+        return fs.inOperation("getTotalSpace", () -> fs.getTotalSpace(this)); //$NON-NLS-1$
     }
 
     long getUsableSpace() throws IOException {
-        return fs.getUsableSpace(this);
+        return fs.inOperation("getUsableSpace", () -> fs.getUsableSpace(this)); //$NON-NLS-1$
     }
 
     long getUnallocatedSpace() throws IOException {
-        return fs.getUnallocatedSpace(this);
+        return fs.inOperation("getUnallocatedSpace", () -> fs.getUnallocatedSpace(this)); //$NON-NLS-1$
     }
 
     long getBlockSize() throws IOException {
-        return fs.getBlockSize(this);
+        return fs.inOperation("getBlockSize", () -> fs.getBlockSize(this)); //$NON-NLS-1$
     }
 }
@@ -18,6 +18,9 @@
 package com.github.robtimus.filesystems.sftp;
 
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import com.github.robtimus.pool.PoolConfig;
 
@@ -31,14 +34,47 @@ import com.github.robtimus.pool.PoolConfig;
  */
 public final class SFTPPoolConfig {
 
+    private static final Duration DEFAULT_VALIDATION_IDLE_TIME = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_RETRY_DEADLINE = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_ADAPTIVE_WINDOW = Duration.ofSeconds(10);
+
+    // must be declared after the other defaults, which are used to build it
     private static final SFTPPoolConfig DEFAULT_CONFIG = custom().build();
 
     // By wrapping PoolConfig and not using it directly, we are not tied to one specific pool implementation
 
     private final PoolConfig config;
 
+    private final int channelsPerSession;
+    private final int minIdleSize;
+    private final Duration maintenanceInterval;
+    private final SFTPChannelValidation channelValidation;
+    private final Duration validationIdleTime;
+    private final Duration retryDeadline;
+    // contains the lane sizes that were set explicitly; other lanes can use up to the maximum pool size
+    private final Map<SFTPChannelLane, Integer> laneSizes;
+    private final boolean laneBorrowing;
+    private final Duration adaptiveTargetWaitTime;
+    private final Duration adaptiveWindow;
+    private final int adaptiveMaxGrowth;
+    private final int maxConcurrentConnects;
+    private final int maxConnectRate;
+
     private SFTPPoolConfig(Builder builder) {
         config = builder.configBuilder.build();
+        channelsPerSession = builder.channelsPerSession;
+        minIdleSize = Math.min(builder.minIdleSize, config.maxSize());
+        maintenanceInterval = builder.maintenanceInterval;
+        channelValidation = builder.channelValidation;
+        validationIdleTime = builder.validationIdleTime;
+        retryDeadline = builder.retryDeadline;
+        laneSizes = new EnumMap<>(builder.laneSizes);
+        laneBorrowing = builder.laneBorrowing;
+        adaptiveTargetWaitTime = builder.adaptiveTargetWaitTime;
+        adaptiveWindow = builder.adaptiveWindow;
+        adaptiveMaxGrowth = builder.adaptiveMaxGrowth;
+        maxConcurrentConnects = builder.maxConcurrentConnects;
+        maxConnectRate = builder.maxConnectRate;
     }
 
     /**
@@ -79,6 +115,148 @@ public final class SFTPPoolConfig {
         return config.maxSize();
     }
 
+    /**
+     * Returns the maximum number of client connections that share a single SSH session.
+     *
+     * @return The maximum number of client connections that share a single SSH session.
+     * @since 3.4
+     */
+    public int channelsPerSession() {
+        return channelsPerSession;
+    }
+
+    /**
+     * Returns the minimum number of idle client connections that background maintenance keeps available.
+     *
+     * @return The minimum number of idle client connections that background maintenance keeps available.
+     * @since 3.4
+     */
+    public int minIdleSize() {
+        return minIdleSize;
+    }
+
+    /**
+     * Returns the interval between background maintenance runs.
+     *
+     * @return An {@link Optional} describing the interval between background maintenance runs,
+     *         or {@link Optional#empty()} if background maintenance is disabled.
+     * @since 3.4
+     */
+    public Optional<Duration> maintenanceInterval() {
+        return Optional.ofNullable(maintenanceInterval);
+    }
+
+    /**
+     * Returns how client connections are validated before they are used.
+     *
+     * @return How client connections are validated before they are used.
+     * @since 3.4
+     */
+    public SFTPChannelValidation channelValidation() {
+        return channelValidation;
+    }
+
+    /**
+     * Returns the minimum time that client connections must have been idle before they are validated when they are acquired.
+     * This is only used if the {@linkplain #channelValidation() channel validation} is {@link SFTPChannelValidation#AFTER_IDLE_TIME}.
+     *
+     * @return The minimum time that client connections must have been idle before they are validated when they are acquired.
+     * @since 3.4
+     */
+    public Duration validationIdleTime() {
+        return validationIdleTime;
+    }
+
+    /**
+     * Returns the maximum time since the start of a read-only operation within which it is retried if its client connection turned out to be
+     * broken.
+     *
+     * @return The maximum time since the start of a read-only operation within which it is retried if its client connection turned out to be
+     *         broken. If {@linkplain Duration#isZero() zero}, operations are never retried.
+     * @since 3.4
+     */
+    public Duration retryDeadline() {
+        return retryDeadline;
+    }
+
+    /**
+     * Returns the maximum number of client connections that operations in a lane can use at the same time.
+     *
+     * @param lane The lane to return the maximum number of client connections for.
+     * @return The maximum number of client connections that operations in the given lane can use at the same time.
+     *         This is never larger than the {@linkplain #maxSize() maximum pool size}.
+     * @throws NullPointerException If the given lane is {@code null}.
+     * @since 3.4
+     */
+    public int laneSize(SFTPChannelLane lane) {
+        Objects.requireNonNull(lane);
+        Integer laneSize = laneSizes.get(lane);
+        return laneSize == null ? maxSize() : Math.min(laneSize, maxSize());
+    }
+
+    /**
+     * Returns whether or not operations in a lane that has reached its {@linkplain #laneSize(SFTPChannelLane) size} can use client connections
+     * that other lanes are not using.
+     *
+     * @return {@code true} if operations can borrow client connections from other lanes, or {@code false} otherwise.
+     * @since 3.4
+     */
+    public boolean laneBorrowing() {
+        return laneBorrowing;
+    }
+
+    /**
+     * Returns the target for the 95th percentile of the time that is needed to acquire client connections if the pool size is adaptive.
+     *
+     * @return An {@link Optional} describing the target for the 95th percentile of the time that is needed to acquire client connections,
+     *         or {@link Optional#empty()} if the pool size is not adaptive.
+     * @since 3.4
+     */
+    public Optional<Duration> adaptiveTargetWaitTime() {
+        return Optional.ofNullable(adaptiveTargetWaitTime);
+    }
+
+    /**
+     * Returns the window over which acquire times and pool utilization are measured if the pool size is adaptive.
+     * After each window, the pool size is adjusted.
+     *
+     * @return The window over which acquire times and pool utilization are measured if the pool size is adaptive.
+     * @since 3.4
+     */
+    public Duration adaptiveWindow() {
+        return adaptiveWindow;
+    }
+
+    /**
+     * Returns the maximum number of client connections that an adaptive pool can grow by in a single {@linkplain #adaptiveWindow() window}.
+     *
+     * @return The maximum number of client connections that an adaptive pool can grow by in a single window.
+     * @since 3.4
+     */
+    public int adaptiveMaxGrowth() {
+        return adaptiveMaxGrowth;
+    }
+
+    /**
+     * Returns the maximum number of client connections that can be opened concurrently.
+     *
+     * @return The maximum number of client connections that can be opened concurrently, or {@code 0} if there is no maximum.
+     * @since 3.4
+     */
+    public int maxConcurrentConnects() {
+        return maxConcurrentConnects;
+    }
+
+    /**
+     * Returns the maximum number of client connections that can be opened per second.
+     *
+     * @return The maximum number of client connections that can be opened per second, or {@code 0} if there is no maximum.
+     * @since 3.4
+     */
+    public int maxConnectRate() {
+        return maxConnectRate;
+    }
+
     PoolConfig config() {
         return config;
     }
@@ -91,13 +269,41 @@ public final class SFTPPoolConfig {
                 + ",maxIdleTime=" + maxIdleTime().orElse(null)
                 + ",initialSize=" + initialSize()
                 + ",maxSize=" + maxSize()
+                + ",channelsPerSession=" + channelsPerSession
+                + ",minIdleSize=" + minIdleSize
+                + ",maintenanceInterval=" + maintenanceInterval
+                + ",channelValidation=" + channelValidation
+                + ",validationIdleTime=" + validationIdleTime
+                + ",retryDeadline=" + retryDeadline
+                + ",interactiveLaneSize=" + laneSize(SFTPChannelLane.INTERACTIVE)
+                + ",bulkLaneSize=" + laneSize(SFTPChannelLane.BULK)
+                + ",laneBorrowing=" + laneBorrowing
+                + ",adaptiveTargetWaitTime=" + adaptiveTargetWaitTime
+                + ",adaptiveWindow=" + adaptiveWindow
+                + ",adaptiveMaxGrowth=" + adaptiveMaxGrowth
+                + ",maxConcurrentConnects=" + maxConcurrentConnects
+                + ",maxConnectRate=" + maxConnectRate
                 + "]";
     }
 
     Builder toBuilder() {
         Builder builder = custom()
                 .withInitialSize(initialSize())
-                .withMaxSize(maxSize());
+                .withMaxSize(maxSize())
+                .withChannelsPerSession(channelsPerSession)
+                .withMinIdleSize(minIdleSize)
+                .withMaintenanceInterval(maintenanceInterval)
+                .withChannelValidation(channelValidation)
+                .withValidationIdleTime(validationIdleTime)
+                .withRetryDeadline(retryDeadline)
+                .withLaneBorrowing(laneBorrowing)
+                .withAdaptiveTargetWaitTime(adaptiveTargetWaitTime)
+                .withAdaptiveWindow(adaptiveWindow)
+                .withAdaptiveMaxGrowth(adaptiveMaxGrowth)
+                .withMaxConcurrentConnects(maxConcurrentConnects)
+                .withMaxConnectRate(maxConnectRate);
+        // only copy the explicitly set lane sizes, so they follow the maximum pool size otherwise
+        builder.laneSizes.putAll(laneSizes);
         builder = maxWaitTime()
                 .map(builder::withMaxWaitTime)
                 .orElse(builder);
@@ -136,8 +342,35 @@ public final class SFTPPoolConfig {
 
         private PoolConfig.Builder configBuilder;
 
+        private int channelsPerSession;
+        private int minIdleSize;
+        private Duration maintenanceInterval;
+        private SFTPChannelValidation channelValidation;
+        private Duration validationIdleTime;
+        private Duration retryDeadline;
+        private final Map<SFTPChannelLane, Integer> laneSizes;
+        private boolean laneBorrowing;
+        private Duration adaptiveTargetWaitTime;
+        private Duration adaptiveWindow;
+        private int adaptiveMaxGrowth;
+        private int maxConcurrentConnects;
+        private int maxConnectRate;
+
         private Builder() {
             configBuilder = PoolConfig.custom();
+            channelsPerSession = 1;
+            minIdleSize = 0;
+            maintenanceInterval = null;
+            channelValidation = SFTPChannelValidation.ON_ACQUIRE;
+            validationIdleTime = DEFAULT_VALIDATION_IDLE_TIME;
+            retryDeadline = DEFAULT_RETRY_DEADLINE;
+            laneSizes = new EnumMap<>(SFTPChannelLane.class);
+            laneBorrowing = false;
+            adaptiveTargetWaitTime = null;
+            adaptiveWindow = DEFAULT_ADAPTIVE_WINDOW;
+            adaptiveMaxGrowth = 1;
+            maxConcurrentConnects = 0;
+            maxConnectRate = 0;
         }
 
         /**
@@ -194,6 +427,279 @@ public final class SFTPPoolConfig {
             return this;
         }
 
+        /**
+         * Sets the maximum number of client connections that share a single SSH session. The default is 1.
+         * <p>
+         * If this value is larger than 1, the pool multiplexes several SFTP channels over each SSH session, so only one TCP connect, key exchange
+         * and authentication is needed for every group of client connections. If a session dies, its client connections are discarded and new
+         * client connections are spread over the remaining sessions, or over a new session if none has capacity left.
+         * <p>
+         * Note that SSH servers often limit the number of channels per session; for OpenSSH this is the {@code MaxSessions} setting which
+         * defaults to 10.
+         *
+         * @param channelsPerSession The maximum number of client connections per SSH session.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given number is not positive.
+         * @since 3.4
+         */
+        public Builder withChannelsPerSession(int channelsPerSession) {
+            if (channelsPerSession <= 0) {
+                throw new IllegalArgumentException(channelsPerSession + " <= 0"); //$NON-NLS-1$
+            }
+            this.channelsPerSession = channelsPerSession;
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of idle client connections that background maintenance keeps available. The default is 0.
+         * <p>
+         * This setting is only used if {@linkplain #withMaintenanceInterval(Duration) background maintenance} is enabled.
+         * If it is larger than the {@linkplain #withMaxSize(int) maximum pool size}, the maximum pool size is used instead.
+         *
+         * @param minIdleSize The minimum number of idle client connections.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given number is negative.
+         * @since 3.4
+         */
+        public Builder withMinIdleSize(int minIdleSize) {
+            if (minIdleSize < 0) {
+                throw new IllegalArgumentException(minIdleSize + " < 0"); //$NON-NLS-1$
+            }
+            this.minIdleSize = minIdleSize;
+            return this;
+        }
+
+        /**
+         * Sets the interval between background maintenance runs.
+         * If {@code null}, {@linkplain Duration#isZero() zero} or {@linkplain Duration#isNegative() negative}, background maintenance is disabled.
+         * This is the default setting.
+         * <p>
+         * Background maintenance is done by a single daemon thread that is shared by all SFTP file systems. Each run, it sends a keep-alive signal
+         * over each idle client connection, and discards client connections that are no longer usable or that have been idle for longer than the
+         * {@linkplain #withMaxIdleTime(Duration) maximum idle time}. It then creates new client connections until at least the
+         * {@linkplain #withMinIdleSize(int) minimum number of idle client connections} are available, as long as the maximum pool size allows it.
+         * That way, dead connections are discovered and replaced in the background instead of when file system operations are called.
+         *
+         * @param maintenanceInterval The interval between background maintenance runs.
+         * @return This builder.
+         * @since 3.4
+         */
+        public Builder withMaintenanceInterval(Duration maintenanceInterval) {
+            this.maintenanceInterval = maintenanceInterval == null || maintenanceInterval.isZero() || maintenanceInterval.isNegative()
+                    ? null
+                    : maintenanceInterval;
+            return this;
+        }
+
+        /**
+         * Sets how client connections are validated before they are used.
+         * If {@code null}, {@link SFTPChannelValidation#ON_ACQUIRE} is used. This is the default setting.
+         *
+         * @param channelValidation The channel validation to use.
+         * @return This builder.
+         * @since 3.4
+         */
+        public Builder withChannelValidation(SFTPChannelValidation channelValidation) {
+            this.channelValidation = channelValidation != null ? channelValidation : SFTPChannelValidation.ON_ACQUIRE;
+            return this;
+        }
+
+        /**
+         * Sets the minimum time that client connections must have been idle before they are validated when they are acquired.
+         * This is only used if the {@linkplain #withChannelValidation(SFTPChannelValidation) channel validation} is
+         * {@link SFTPChannelValidation#AFTER_IDLE_TIME}. If {@code null}, 30 seconds is used. This is the default setting.
+         *
+         * @param validationIdleTime The minimum idle time before validation.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given duration is negative.
+         * @since 3.4
+         */
+        public Builder withValidationIdleTime(Duration validationIdleTime) {
+            if (validationIdleTime == null) {
+                this.validationIdleTime = DEFAULT_VALIDATION_IDLE_TIME;
+            } else if (validationIdleTime.isNegative()) {
+                throw new IllegalArgumentException(validationIdleTime + " < 0"); //$NON-NLS-1$
+            } else {
+                this.validationIdleTime = validationIdleTime;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the maximum time since the start of a read-only operation within which it is retried if its client connection turned out to be
+         * broken. If {@code null}, 30 seconds is used. This is the default setting.
+         * <p>
+         * If a client connection has silently died, for instance because of a server restart or a network timeout, the next operation that
+         * uses it will fail. Operations that only read, like reading attributes or listing directories, are then retried once on another client
+         * connection, as long as the retry starts within this deadline. Operations that modify files or directories are never retried, because
+         * it's not known whether or not the SFTP server already performed them. Either way, the broken client connection is discarded.
+         * <p>
+         * If {@linkplain Duration#isZero() zero}, operations are never retried.
+         *
+         * @param retryDeadline The maximum time since the start of a read-only operation within which it is retried.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given duration is negative.
+         * @since 3.4
+         */
+        public Builder withRetryDeadline(Duration retryDeadline) {
+            if (retryDeadline == null) {
+                this.retryDeadline = DEFAULT_RETRY_DEADLINE;
+            } else if (retryDeadline.isNegative()) {
+                throw new IllegalArgumentException(retryDeadline + " < 0"); //$NON-NLS-1$
+            } else {
+                this.retryDeadline = retryDeadline;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of client connections that operations in a lane can use at the same time.
+         * By default, each lane can use up to the {@linkplain #withMaxSize(int) maximum pool size}.
+         * If the given size is larger than the maximum pool size, the maximum pool size is used instead.
+         * <p>
+         * Input and output streams keep their client connection until they are closed. Without limits, a few slow transfers can use all client
+         * connections, and all other operations must wait until one of them finishes. Limiting the {@link SFTPChannelLane#BULK} lane to less
+         * than the maximum pool size reserves the remaining client connections for the {@link SFTPChannelLane#INTERACTIVE} lane.
+         * <p>
+         * Operations that cannot use a client connection because their lane has reached its size wait in a queue for that lane, for at most the
+         * {@linkplain #withMaxWaitTime(Duration) maximum wait time}.
+         *
+         * @param lane The lane to set the maximum number of client connections for.
+         * @param laneSize The maximum number of client connections for the given lane.
+         * @return This builder.
+         * @throws NullPointerException If the given lane is {@code null}.
+         * @throws IllegalArgumentException If the given size is not positive.
+         * @since 3.4
+         */
+        public Builder withLaneSize(SFTPChannelLane lane, int laneSize) {
+            Objects.requireNonNull(lane);
+            if (laneSize <= 0) {
+                throw new IllegalArgumentException(laneSize + " <= 0"); //$NON-NLS-1$
+            }
+            laneSizes.put(lane, laneSize);
+            return this;
+        }
+
+        /**
+         * Sets whether or not operations in a lane that has reached its {@linkplain #withLaneSize(SFTPChannelLane, int) size} can use client
+         * connections that other lanes are not using. The default is {@code false}.
+         * <p>
+         * A borrowed client connection is kept until the operation is done, so borrowing makes better use of the pool at the cost of the
+         * reservation that lane sizes provide.
+         *
+         * @param laneBorrowing {@code true} to let operations borrow client connections from other lanes, or {@code false} otherwise.
+         * @return This builder.
+         * @since 3.4
+         */
+        public Builder withLaneBorrowing(boolean laneBorrowing) {
+            this.laneBorrowing = laneBorrowing;
+            return this;
+        }
+
+        /**
+         * Sets the target for the 95th percentile of the time that is needed to acquire client connections.
+         * If not {@code null}, the pool size is adaptive; if {@code null}, the pool size is not adaptive. This is the default setting.
+         * <p>
+         * An adaptive pool starts with a limit of {@linkplain #withInitialSize(int) initial size} client connections, or 1 if the initial size
+         * is 0. After each {@linkplain #withAdaptiveWindow(Duration) window}, the limit is adjusted:
+         * <ul>
+         *   <li>If the 95th percentile of the time that threads waited for a client connection during the window was above the target, the limit
+         *       is increased by at most the {@linkplain #withAdaptiveMaxGrowth(int) maximum growth}, but not above the
+         *       {@linkplain #withMaxSize(int) maximum pool size}.</li>
+         *   <li>Otherwise, if at most half of the limit was in use at the same time during the window, the limit is decreased by 1, but not below
+         *       the initial limit. Idle client connections above the new limit are closed.</li>
+         * </ul>
+         * Because the limit grows by a limited number of client connections per window, a burst of operations cannot cause a burst of new
+         * connections to the SFTP server.
+         *
+         * @param adaptiveTargetWaitTime The target for the 95th percentile of the time that is needed to acquire client connections.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given duration is negative.
+         * @since 3.4
+         */
+        public Builder withAdaptiveTargetWaitTime(Duration adaptiveTargetWaitTime) {
+            if (adaptiveTargetWaitTime != null && adaptiveTargetWaitTime.isNegative()) {
+                throw new IllegalArgumentException(adaptiveTargetWaitTime + " < 0"); //$NON-NLS-1$
+            }
+            this.adaptiveTargetWaitTime = adaptiveTargetWaitTime;
+            return this;
+        }
+
+        /**
+         * Sets the window over which acquire times and pool utilization are measured if the pool size is
+         * {@linkplain #withAdaptiveTargetWaitTime(Duration) adaptive}. If {@code null}, 10 seconds is used. This is the default setting.
+         *
+         * @param adaptiveWindow The window over which acquire times and pool utilization are measured.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given duration is not positive.
+         * @since 3.4
+         */
+        public Builder withAdaptiveWindow(Duration adaptiveWindow) {
+            if (adaptiveWindow == null) {
+                this.adaptiveWindow = DEFAULT_ADAPTIVE_WINDOW;
+            } else if (adaptiveWindow.isZero() || adaptiveWindow.isNegative()) {
+                throw new IllegalArgumentException(adaptiveWindow + " <= 0"); //$NON-NLS-1$
+            } else {
+                this.adaptiveWindow = adaptiveWindow;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of client connections that an {@linkplain #withAdaptiveTargetWaitTime(Duration) adaptive} pool can grow by in a
+         * single {@linkplain #withAdaptiveWindow(Duration) window}. The default is 1.
+         *
+         * @param adaptiveMaxGrowth The maximum number of client connections that an adaptive pool can grow by in a single window.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given number is not positive.
+         * @since 3.4
+         */
+        public Builder withAdaptiveMaxGrowth(int adaptiveMaxGrowth) {
+            if (adaptiveMaxGrowth <= 0) {
+                throw new IllegalArgumentException(adaptiveMaxGrowth + " <= 0"); //$NON-NLS-1$
+            }
+            this.adaptiveMaxGrowth = adaptiveMaxGrowth;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of client connections that can be opened concurrently. The default is 0, which means that there is no maximum.
+         * <p>
+         * Opening a client connection requires an SSH handshake and authentication if no existing session can be used. SFTP servers may limit the
+         * number of such handshakes that can be in progress at the same time, and reject any others. Operations that need to wait before they can
+         * open a client connection use the first client connection that is released back to the pool instead, if that comes sooner.
+         *
+         * @param maxConcurrentConnects The maximum number of client connections that can be opened concurrently, or {@code 0} for no maximum.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given number is negative.
+         * @since 3.4
+         */
+        public Builder withMaxConcurrentConnects(int maxConcurrentConnects) {
+            if (maxConcurrentConnects < 0) {
+                throw new IllegalArgumentException(maxConcurrentConnects + " < 0"); //$NON-NLS-1$
+            }
+            this.maxConcurrentConnects = maxConcurrentConnects;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of client connections that can be opened per second. The default is 0, which means that there is no maximum.
+         * Connection attempts are spread evenly; for instance, a rate of 10 allows one connection attempt every 100 milliseconds.
+         *
+         * @param maxConnectRate The maximum number of client connections that can be opened per second, or {@code 0} for no maximum.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given number is negative.
+         * @since 3.4
+         * @see #withMaxConcurrentConnects(int)
+         */
+        public Builder withMaxConnectRate(int maxConnectRate) {
+            if (maxConnectRate < 0) {
+                throw new IllegalArgumentException(maxConnectRate + " < 0"); //$NON-NLS-1$
+            }
+            this.maxConnectRate = maxConnectRate;
+            return this;
+        }
+
         /**
          * Creates a new {@link SFTPPoolConfig} object based on the settings of this builder.
          *
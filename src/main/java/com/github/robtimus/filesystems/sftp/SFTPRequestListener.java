@@ -0,0 +1,45 @@
+/*
+ * SFTPRequestListener.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+/**
+ * A listener for requests that SFTP file systems send to SFTP servers.
+ * <p>
+ * Listeners are called from the threads that send the requests, which are not necessarily the threads that called the file system operations.
+ * Implementations should therefore be thread-safe, and they should return quickly because they delay the file system operations.
+ * Any exception thrown by a listener is ignored; it does not affect the outcome of the request.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ * @see SFTPEnvironment#withRequestListener(SFTPRequestListener)
+ */
+@FunctionalInterface
+public interface SFTPRequestListener {
+
+    /**
+     * Called when a request has completed.
+     *
+     * @param operation The name of the file system operation that sent the request.
+     *                      See {@link SFTPRequestStatistics} for the possible operation names.
+     * @param type The type of request.
+     * @param path The path the request was for.
+     * @param durationInNanos The duration of the request, in nanoseconds.
+     * @param failed {@code true} if the request failed, or {@code false} if it completed successfully.
+     */
+    void requestCompleted(String operation, SFTPRequestType type, String path, long durationInNanos, boolean failed);
+}
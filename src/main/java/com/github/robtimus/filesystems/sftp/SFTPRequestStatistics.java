@@ -0,0 +1,214 @@
+/*
+ * SFTPRequestStatistics.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.nio.file.FileSystem;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the requests that an SFTP file system has sent to its SFTP server.
+ * <p>
+ * Requests are attributed to the file system operation that sent them. Operations are named after the methods of
+ * {@link java.nio.file.spi.FileSystemProvider FileSystemProvider}, {@link java.nio.file.attribute.PosixFileAttributeView PosixFileAttributeView}
+ * and {@link java.nio.file.FileStore FileStore} that are called, for instance {@code copy}, {@code readAttributes}, {@code setTimes} or
+ * {@code getTotalSpace}. {@link java.nio.file.Path#toRealPath(java.nio.file.LinkOption...) Path.toRealPath} is named {@code toRealPath},
+ * and the parallel transfers of {@link SFTPFileSystemProvider} are named {@code download} and {@code upload}.
+ * If an operation calls another operation, requests are attributed to the outermost operation.
+ * Requests that are not sent by any specific operation, like removing a file when a stream that was opened with
+ * {@link java.nio.file.StandardOpenOption#DELETE_ON_CLOSE DELETE_ON_CLOSE} is closed, are attributed to operation {@link #OTHER_OPERATION}.
+ * <p>
+ * Note that the reading and writing of file contents is not counted; only opening files is.
+ * <p>
+ * Instances of this class are thread-safe. Their values are updated while requests are sent.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ * @see SFTPFileSystemProvider#getRequestStatistics(FileSystem)
+ */
+public final class SFTPRequestStatistics {
+
+    /** The name of the operation that requests are attributed to that are not sent by any specific file system operation. */
+    public static final String OTHER_OPERATION = "other"; //$NON-NLS-1$
+
+    private static final SFTPRequestType[] REQUEST_TYPES = SFTPRequestType.values();
+
+    private final ConcurrentMap<String, Counter[]> counters;
+
+    SFTPRequestStatistics() {
+        counters = new ConcurrentHashMap<>();
+    }
+
+    void record(String operation, SFTPRequestType type, long durationInNanos) {
+        Counter[] operationCounters = counters.computeIfAbsent(operation, k -> createCounters());
+        operationCounters[type.ordinal()].record(durationInNanos);
+    }
+
+    private static Counter[] createCounters() {
+        Counter[] result = new Counter[REQUEST_TYPES.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new Counter();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the names of all operations that have sent requests.
+     *
+     * @return A sorted set with the names of all operations that have sent requests.
+     */
+    public Set<String> operations() {
+        return Collections.unmodifiableSet(new TreeSet<>(counters.keySet()));
+    }
+
+    /**
+     * Returns the total number of requests.
+     *
+     * @return The total number of requests.
+     */
+    public long requestCount() {
+        long count = 0;
+        for (Counter[] operationCounters : counters.values()) {
+            count += count(operationCounters);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of requests of a specific type.
+     *
+     * @param type The request type.
+     * @return The number of requests of the given type.
+     */
+    public long requestCount(SFTPRequestType type) {
+        long count = 0;
+        for (Counter[] operationCounters : counters.values()) {
+            count += operationCounters[type.ordinal()].count.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of requests sent by a specific operation.
+     *
+     * @param operation The name of the operation.
+     * @return The number of requests sent by the given operation.
+     */
+    public long requestCount(String operation) {
+        Counter[] operationCounters = counters.get(operation);
+        return operationCounters == null ? 0 : count(operationCounters);
+    }
+
+    /**
+     * Returns the number of requests of a specific type sent by a specific operation.
+     *
+     * @param operation The name of the operation.
+     * @param type The request type.
+     * @return The number of requests of the given type sent by the given operation.
+     */
+    public long requestCount(String operation, SFTPRequestType type) {
+        Counter[] operationCounters = counters.get(operation);
+        return operationCounters == null ? 0 : operationCounters[type.ordinal()].count.sum();
+    }
+
+    private static long count(Counter[] operationCounters) {
+        long count = 0;
+        for (Counter counter : operationCounters) {
+            count += counter.count.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the total time spent on requests sent by a specific operation.
+     *
+     * @param operation The name of the operation.
+     * @return The total time spent on requests sent by the given operation.
+     */
+    public Duration requestTime(String operation) {
+        Counter[] operationCounters = counters.get(operation);
+        long time = 0;
+        if (operationCounters != null) {
+            for (Counter counter : operationCounters) {
+                time += counter.time.sum();
+            }
+        }
+        return Duration.ofNanos(time);
+    }
+
+    /**
+     * Returns the total time spent on requests of a specific type sent by a specific operation.
+     *
+     * @param operation The name of the operation.
+     * @param type The request type.
+     * @return The total time spent on requests of the given type sent by the given operation.
+     */
+    public Duration requestTime(String operation, SFTPRequestType type) {
+        Counter[] operationCounters = counters.get(operation);
+        return Duration.ofNanos(operationCounters == null ? 0 : operationCounters[type.ordinal()].time.sum());
+    }
+
+    /**
+     * Resets all statistics.
+     * Requests that are in progress while this method is called may or may not be included afterwards.
+     */
+    public void reset() {
+        counters.clear();
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        StringBuilder sb = new StringBuilder(getClass().getSimpleName()).append('[');
+        String separator = "";
+        for (String operation : operations()) {
+            Counter[] operationCounters = counters.get(operation);
+            if (operationCounters == null) {
+                continue;
+            }
+            sb.append(separator).append(operation).append("={");
+            String typeSeparator = "";
+            for (SFTPRequestType type : REQUEST_TYPES) {
+                long count = operationCounters[type.ordinal()].count.sum();
+                if (count > 0) {
+                    sb.append(typeSeparator).append(type).append('=').append(count);
+                    typeSeparator = ",";
+                }
+            }
+            sb.append('}');
+            separator = ",";
+        }
+        return sb.append(']').toString();
+    }
+
+    private static final class Counter {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder time = new LongAdder();
+
+        private void record(long durationInNanos) {
+            count.increment();
+            time.add(durationInNanos);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * SFTPRequestType.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+/**
+ * The types of requests that SFTP file systems send to SFTP servers.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ * @see SFTPRequestStatistics
+ * @see SFTPRequestListener
+ */
+public enum SFTPRequestType {
+
+    /** Reads the attributes of a file, following symbolic links. */
+    STAT,
+
+    /** Reads the attributes of a file, without following symbolic links. */
+    LSTAT,
+
+    /** Reads the target of a symbolic link. */
+    READLINK,
+
+    /** Lists the entries of a directory. */
+    LIST,
+
+    /** Creates a directory. */
+    MKDIR,
+
+    /** Removes a directory. */
+    RMDIR,
+
+    /** Removes a file. */
+    REMOVE,
+
+    /** Renames or moves a file or directory. */
+    RENAME,
+
+    /** Opens a file for reading. */
+    GET,
+
+    /** Opens a file for writing. */
+    PUT,
+
+    /** Updates the attributes of a file, like its owner, group, permissions or last modification time. */
+    SETSTAT,
+
+    /** Reads file system statistics. */
+    STATVFS
+}
@@ -0,0 +1,245 @@
+/*
+ * SFTPTransferConfig.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.util.Optional;
+import com.github.robtimus.filesystems.Messages;
+
+/**
+ * Configuration for parallel transfers of single files between SFTP file systems and local file systems.
+ * <p>
+ * Files are split into chunks, which are transferred concurrently using several client connections of the SFTP file system's pool.
+ * Note that the number of client connections that can be used is limited by the {@linkplain SFTPPoolConfig#maxSize() maximum pool size}.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ *
+ * @author Rob Spoor
+ * @since 3.4
+ * @see SFTPFileSystemProvider#download(java.nio.file.Path, java.nio.file.Path, SFTPTransferConfig)
+ * @see SFTPFileSystemProvider#upload(java.nio.file.Path, java.nio.file.Path, SFTPTransferConfig)
+ */
+public final class SFTPTransferConfig {
+
+    private static final SFTPTransferConfig DEFAULT_CONFIG = custom().build();
+
+    private final long chunkSize;
+    private final int parallelism;
+    private final int bufferSize;
+    private final String temporarySuffix;
+    private final boolean preserveLastModifiedTime;
+
+    private SFTPTransferConfig(Builder builder) {
+        chunkSize = builder.chunkSize;
+        parallelism = builder.parallelism;
+        bufferSize = builder.bufferSize;
+        temporarySuffix = builder.temporarySuffix;
+        preserveLastModifiedTime = builder.preserveLastModifiedTime;
+    }
+
+    /**
+     * Returns the size of the chunks that files are split into.
+     *
+     * @return The size of the chunks that files are split into.
+     */
+    public long chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns the maximum number of chunks that are transferred concurrently.
+     *
+     * @return The maximum number of chunks that are transferred concurrently.
+     */
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the size of the buffer that each concurrent transfer uses.
+     *
+     * @return The size of the buffer that each concurrent transfer uses.
+     */
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the suffix for temporary files. If present, files are transferred to a temporary file with the same name and this suffix,
+     * which is renamed to the actual target once the transfer has finished.
+     *
+     * @return An {@link Optional} describing the suffix for temporary files,
+     *         or {@link Optional#empty()} if files are transferred to the target directly.
+     */
+    public Optional<String> temporarySuffix() {
+        return Optional.ofNullable(temporarySuffix);
+    }
+
+    /**
+     * Returns whether or not the last modified time of the source is copied to the target.
+     *
+     * @return {@code true} if the last modified time of the source is copied to the target, or {@code false} otherwise.
+     */
+    public boolean preserveLastModifiedTime() {
+        return preserveLastModifiedTime;
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName()
+                + "[chunkSize=" + chunkSize
+                + ",parallelism=" + parallelism
+                + ",bufferSize=" + bufferSize
+                + ",temporarySuffix=" + temporarySuffix
+                + ",preserveLastModifiedTime=" + preserveLastModifiedTime
+                + "]";
+    }
+
+    /**
+     * Returns a default {@link SFTPTransferConfig} object. This has the same configuration as an object returned by {@code custom().build()}.
+     *
+     * @return A default {@link SFTPTransferConfig} object.
+     * @see #custom()
+     */
+    public static SFTPTransferConfig defaultConfig() {
+        return DEFAULT_CONFIG;
+    }
+
+    /**
+     * Returns a new builder for creating {@link SFTPTransferConfig} objects.
+     *
+     * @return A new builder for creating {@link SFTPTransferConfig} objects.
+     */
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * A builder for {@link SFTPTransferConfig} objects.
+     *
+     * @author Rob Spoor
+     * @since 3.4
+     */
+    public static final class Builder {
+
+        private long chunkSize;
+        private int parallelism;
+        private int bufferSize;
+        private String temporarySuffix;
+        private boolean preserveLastModifiedTime;
+
+        private Builder() {
+            chunkSize = 8L * 1024 * 1024;
+            parallelism = 4;
+            bufferSize = 32 * 1024;
+            temporarySuffix = null;
+            preserveLastModifiedTime = false;
+        }
+
+        /**
+         * Sets the size of the chunks that files are split into. The default is 8 MB.
+         * <p>
+         * Each chunk requires a file to be opened and closed on the SFTP server, so chunks should not be too small.
+         *
+         * @param chunkSize The size of the chunks that files are split into.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given size is not positive.
+         */
+        public Builder withChunkSize(long chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException(chunkSize + " <= 0"); //$NON-NLS-1$
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of chunks that are transferred concurrently. The default is 4.
+         * <p>
+         * Each concurrent transfer uses its own client connection. If the SFTP file system's pool has no more client connections available,
+         * fewer chunks are transferred concurrently.
+         *
+         * @param parallelism The maximum number of chunks that are transferred concurrently.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given number is not positive.
+         */
+        public Builder withParallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException(parallelism + " <= 0"); //$NON-NLS-1$
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the size of the buffer that each concurrent transfer uses. The default is 32 KB.
+         * <p>
+         * Buffers are allocated once per concurrent transfer, and reused for all chunks.
+         *
+         * @param bufferSize The size of the buffer that each concurrent transfer uses.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given size is not positive.
+         */
+        public Builder withBufferSize(int bufferSize) {
+            if (bufferSize <= 0) {
+                throw new IllegalArgumentException(bufferSize + " <= 0"); //$NON-NLS-1$
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the suffix for temporary files. The default is to transfer files to the target directly.
+         * <p>
+         * If not {@code null}, files are transferred to a temporary file in the same directory as the target, with the same name as the target
+         * followed by the given suffix. Once the transfer has finished, the temporary file is renamed to the target, replacing it if it exists.
+         * This way the target will never contain a partially transferred file. If the transfer fails, the temporary file is deleted.
+         *
+         * @param temporarySuffix The suffix for temporary files, or {@code null} to transfer files to the target directly.
+         * @return This builder.
+         * @throws IllegalArgumentException If the given suffix is empty.
+         */
+        public Builder withTemporarySuffix(String temporarySuffix) {
+            if (temporarySuffix != null && temporarySuffix.isEmpty()) {
+                throw Messages.fileSystemProvider().env().invalidProperty("temporarySuffix", temporarySuffix); //$NON-NLS-1$
+            }
+            this.temporarySuffix = temporarySuffix;
+            return this;
+        }
+
+        /**
+         * Sets whether or not the last modified time of the source is copied to the target. The default is {@code false}.
+         *
+         * @param preserveLastModifiedTime {@code true} to copy the last modified time of the source to the target, or {@code false} otherwise.
+         * @return This builder.
+         */
+        public Builder withPreserveLastModifiedTime(boolean preserveLastModifiedTime) {
+            this.preserveLastModifiedTime = preserveLastModifiedTime;
+            return this;
+        }
+
+        /**
+         * Creates a new {@link SFTPTransferConfig} object based on the settings of this builder.
+         *
+         * @return The created {@link SFTPTransferConfig} object.
+         */
+        public SFTPTransferConfig build() {
+            return new SFTPTransferConfig(this);
+        }
+    }
+}
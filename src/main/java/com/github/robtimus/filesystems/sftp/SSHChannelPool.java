@@ -18,16 +18,38 @@
 package com.github.robtimus.filesystems.sftp;
 
 import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.net.InetAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileSystemException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 import com.github.robtimus.pool.Pool;
 import com.github.robtimus.pool.PoolConfig;
 import com.github.robtimus.pool.PoolLogger;
@@ -37,6 +59,7 @@ import com.jcraft.jsch.ChannelSftp.LsEntry;
 import com.jcraft.jsch.ChannelSftp.LsEntrySelector;
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpATTRS;
 import com.jcraft.jsch.SftpException;
 import com.jcraft.jsch.SftpStatVFS;
@@ -52,32 +75,228 @@ final class SSHChannelPool {
 
     private final String hostname;
     private final int port;
+    private final String poolName;
 
     private final SFTPEnvironment env;
     private final FileSystemExceptionFactory exceptionFactory;
+    private final AttributesCache attributesCache;
+    private final RequestTracker requestTracker;
+    private final MetricsCollector metrics;
+
+    private final int channelsPerSession;
+    private final List<SharedSession> sessions;
+    private final Object sessionCreationLock;
+    // null if sessions are not shared with other pools
+    private final SessionRegistry sessionRegistry;
+    private final SessionRegistry.Key sessionKey;
+    private final Duration sessionLingerTime;
 
     private final Pool<Channel, IOException> pool;
+    // null if no lane is limited
+    private final ChannelLanes lanes;
+    // null if the pool size is not adaptive
+    private final AdaptivePoolSizer sizer;
+    // the number of idle channels that should be discarded when they are next validated
+    private final AtomicInteger channelsToEvict;
+    // null if sessions are not spread over the host's addresses
+    private final AddressSelector addressSelector;
+    // null if opening channels is not limited
+    private final ConnectLimiter connectLimiter;
+    // null if there is no connection budget for the host
+    private final HostConnectionBudget budget;
+    private final HostConnectionBudget.Member budgetMember;
+    private final long budgetWaitTime;
+
+    private final long maxIdleTime;
+    private final int maxSize;
+    private final int minIdleSize;
+    private final Object prewarmLock;
+    // the number of channels that are being opened by prewarming but are not yet idle; guarded by prewarmLock
+    private int prewarmingChannels;
+    private final SFTPChannelValidation channelValidation;
+    private final long validationIdleTime;
+    private final long retryDeadline;
+    private final ScheduledFuture<?> maintenanceTask;
+    private final ScheduledFuture<?> sizingTask;
 
     SSHChannelPool(String hostname, int port, SFTPEnvironment env) throws IOException {
+        this(hostname, port, env, null);
+    }
+
+    SSHChannelPool(String hostname, int port, SFTPEnvironment env, SessionRegistry sessionRegistry) throws IOException {
+        this(hostname, port, env, sessionRegistry, env.createAttributesCache(), new RequestTracker(env.getRequestListener()));
+    }
+
+    private SSHChannelPool(String hostname, int port, SFTPEnvironment env, SessionRegistry sessionRegistry, AttributesCache attributesCache,
+            RequestTracker requestTracker) throws IOException {
+
         jsch = env.createJSch();
 
         this.hostname = hostname;
         this.port = port;
+        this.poolName = port == -1 ? hostname : hostname + ":" + port; //$NON-NLS-1$
         this.env = env;
         this.exceptionFactory = env.getExceptionFactory();
+        this.attributesCache = attributesCache;
+        this.requestTracker = requestTracker;
+        this.metrics = new MetricsCollector();
 
-        PoolConfig config = env.getPoolConfig().config();
+        SFTPPoolConfig poolConfig = env.getPoolConfig();
+        channelsPerSession = poolConfig.channelsPerSession();
+        sessions = new ArrayList<>();
+        sessionCreationLock = new Object();
+        sessionLingerTime = env.getSessionLingerTime();
+        this.sessionRegistry = sessionLingerTime != null ? sessionRegistry : null;
+        sessionKey = this.sessionRegistry != null ? env.sessionKey(hostname, port) : null;
+
+        // the pool itself starts empty; the initial channels are opened in parallel below, or not at all if connecting lazily
+        PoolConfig config = poolConfig.toBuilder()
+                .withInitialSize(0)
+                .build()
+                .config();
         PoolLogger logger = PoolLogger.custom()
                 .withLoggerClass(SSHChannelPool.class)
-                .withMessagePrefix((port == -1 ? hostname : hostname + ":" + port) + " - ") //$NON-NLS-1$ //$NON-NLS-2$
+                .withMessagePrefix(poolName + " - ") //$NON-NLS-1$
                 .withObjectPrefix("channel-") //$NON-NLS-1$
                 .build();
-        pool = new Pool<>(config, Channel::new, logger);
+
+        maxIdleTime = config.maxIdleTime().map(Duration::toNanos).orElse(Long.MAX_VALUE);
+        maxSize = config.maxSize();
+        minIdleSize = poolConfig.minIdleSize();
+        prewarmLock = new Object();
+        channelValidation = poolConfig.channelValidation();
+        validationIdleTime = poolConfig.validationIdleTime().toNanos();
+        retryDeadline = poolConfig.retryDeadline().toNanos();
+
+        int budgetSize = env.getHostConnectionBudget();
+        budgetMember = new BudgetMember();
+        budget = budgetSize > 0 ? HostConnectionBudget.join(hostname, port, budgetSize, budgetMember) : null;
+        budgetWaitTime = config.maxWaitTime().map(Duration::toNanos).orElse(-1L);
+        channelsToEvict = new AtomicInteger();
+        connectLimiter = ConnectLimiter.create(poolConfig);
+        addressSelector = env.createAddressSelector(hostname);
+
+        try {
+            pool = new Pool<>(config, Channel::new, logger);
+        } catch (IOException | RuntimeException e) {
+            leaveBudget();
+            throw e;
+        }
+        lanes = ChannelLanes.create(poolConfig);
+        sizer = poolConfig.adaptiveTargetWaitTime()
+                .map(targetWaitTime -> new AdaptivePoolSizer(poolConfig, targetWaitTime))
+                .orElse(null);
+        metrics.poolLimitChanged(sizer != null ? sizer.limit() : maxSize);
+
+        if (!env.isLazyConnectEnabled()) {
+            try {
+                openChannels(poolConfig.initialSize());
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        // only start maintaining after the initial fill, otherwise prewarming would open channels next to the initial ones
+        maintenanceTask = poolConfig.maintenanceInterval()
+                .map(interval -> PoolMaintenance.schedule(this::maintain, interval))
+                .orElse(null);
+        sizingTask = sizer != null
+                ? PoolMaintenance.schedule(this::adjustSize, poolConfig.adaptiveWindow())
+                : null;
+    }
+
+    /**
+     * Creates a pool for a mirror of the SFTP server of this pool. The new pool shares this pool's request tracker, so its requests are
+     * included in the file system's request statistics. It does not cache any attributes; a mirror may lag behind, so the attributes it returns
+     * must not be cached as if they were returned by the SFTP server of this pool, and invalidating them would require modifying files through
+     * the mirror.
+     *
+     * @param mirrorHostname The host name of the mirror.
+     * @param mirrorPort The port of the mirror, or {@code -1} to use the default port.
+     * @param mirrorEnv The environment to use for the mirror.
+     * @return The created pool.
+     * @throws IOException If the pool could not be created.
+     */
+    SSHChannelPool mirror(String mirrorHostname, int mirrorPort, SFTPEnvironment mirrorEnv) throws IOException {
+        AttributesCache disabledCache = new AttributesCache(Duration.ZERO, 0);
+        return new SSHChannelPool(mirrorHostname, mirrorPort, mirrorEnv, sessionRegistry, disabledCache, requestTracker);
+    }
+
+    private void openChannels(int count) throws IOException {
+        // all channels must be acquired before any is released, otherwise a released channel would be acquired again instead of opening a new one
+        List<CompletableFuture<Channel>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(Connector.submit(this::getOrCreate));
+        }
+        List<Channel> channels = new ArrayList<>(count);
+        IOException exception = null;
+        int awaited = 0;
+        try {
+            for (; awaited < count; awaited++) {
+                try {
+                    channels.add(Connector.await(futures.get(awaited)));
+                } catch (InterruptedIOException e) {
+                    exception = addException(exception, e);
+                    // stop waiting; the channels of the remaining futures are released once they have been acquired
+                    break;
+                } catch (IOException e) {
+                    exception = addException(exception, e);
+                }
+            }
+        } finally {
+            for (int i = awaited; i < count; i++) {
+                futures.get(i).thenAccept(SSHChannelPool::closeChannel);
+            }
+            for (Channel channel : channels) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    exception = addException(exception, e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private static IOException addException(IOException existing, IOException exception) {
+        if (existing == null) {
+            return exception;
+        }
+        existing.addSuppressed(exception);
+        return existing;
+    }
+
+    private static void closeChannel(Channel channel) {
+        try {
+            channel.close();
+        } catch (@SuppressWarnings("unused") IOException e) {
+            // releasing the channel failed; there is nobody left to report this to
+        }
     }
 
     Channel get() throws IOException {
+        return get(SFTPChannelLane.INTERACTIVE);
+    }
+
+    Channel get(SFTPChannelLane lane) throws IOException {
+        Channel channel = null;
+        Semaphore permit = null;
+        boolean sized = false;
+        Object event = FlightRecorderEvents.beginChannelAcquire();
+        metrics.acquireStarted();
+        long start = System.nanoTime();
         try {
-            return pool.acquire(() -> new IOException(SFTPMessages.clientConnectionWaitTimeoutExpired()));
+            if (lanes != null) {
+                permit = lanes.acquire(lane);
+            }
+            if (sizer != null) {
+                sizer.acquire();
+                sized = true;
+            }
+            channel = acquireChannel();
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -85,58 +304,671 @@ final class SSHChannelPool {
             InterruptedIOException iioe = new InterruptedIOException(e.getMessage());
             iioe.initCause(e);
             throw iioe;
+        } finally {
+            if (channel == null) {
+                releasePermits(permit, sized);
+            }
+            metrics.acquireEnded(System.nanoTime() - start);
+            FlightRecorderEvents.endChannelAcquire(event, poolName, channel != null);
+        }
+        channel.lease(permit, sized);
+        return channel;
+    }
+
+    /**
+     * Returns a channel if one can be acquired without waiting for another channel to be released.
+     * Unlike {@link #getOrCreate()}, this method does not create channels beyond the maximum pool size or the limit of the given lane.
+     *
+     * @param lane The lane to use.
+     * @return The acquired channel, or {@code null} if no channel is available.
+     * @throws IOException If a new channel could not be opened.
+     */
+    Channel tryGet(SFTPChannelLane lane) throws IOException {
+        Semaphore permit = null;
+        boolean sized = false;
+        Channel channel = null;
+        try {
+            if (lanes != null) {
+                permit = lanes.tryAcquire(lane);
+                if (permit == null) {
+                    return null;
+                }
+            }
+            if (sizer != null) {
+                sized = sizer.tryAcquire();
+                if (!sized) {
+                    return null;
+                }
+            }
+            channel = acquireChannelNow();
+        } finally {
+            if (channel == null) {
+                releasePermits(permit, sized);
+            }
+        }
+        if (channel != null) {
+            channel.lease(permit, sized);
+        }
+        return channel;
+    }
+
+    private Channel acquireChannelNow() throws IOException {
+        while (true) {
+            try {
+                return pool.acquireNow().orElse(null);
+            } catch (@SuppressWarnings("unused") ChannelAvailableException e) {
+                // a channel was released while opening a new one; acquire that one instead
+            }
+        }
+    }
+
+    private void releasePermits(Semaphore lanePermit, boolean sizerPermit) {
+        if (lanePermit != null) {
+            lanes.release(lanePermit);
+        }
+        if (sizerPermit) {
+            sizer.release();
+        }
+    }
+
+    private Channel acquireChannel() throws IOException, InterruptedException {
+        while (true) {
+            try {
+                return pool.acquire(ConnectionWaitTimeoutException::new);
+            } catch (@SuppressWarnings("unused") ChannelAvailableException e) {
+                // a channel was released while waiting to open a new one; acquire that one instead
+            }
+        }
+    }
+
+    private void channelReleased() {
+        if (connectLimiter != null) {
+            connectLimiter.channelReleased();
         }
     }
 
     Channel getOrCreate() throws IOException {
-        return pool.acquireOrCreate();
+        Channel channel = acquireOrCreateChannel();
+        // acquireOrCreate never waits, so it doesn't use any lane or adaptive limit
+        channel.lease(null, false);
+        return channel;
+    }
+
+    /**
+     * Executes a read-only operation. If the operation fails because its channel turned out to be broken, it's retried once on another channel,
+     * as long as the retry deadline has not yet passed. The operation must therefore not have any side effects.
+     *
+     * @param <T> The result type of the operation.
+     * @param operation The operation to execute.
+     * @return The result of the operation.
+     * @throws IOException If the operation failed.
+     */
+    <T> T executeIdempotent(ChannelOperation<T> operation) throws IOException {
+        return executeIdempotent(SFTPChannelLane.INTERACTIVE, operation);
+    }
+
+    /**
+     * Executes a read-only operation using a channel of a specific lane. If the operation fails because its channel turned out to be broken,
+     * it's retried once on another channel, as long as the retry deadline has not yet passed.
+     *
+     * @param <T> The result type of the operation.
+     * @param lane The lane to use.
+     * @param operation The operation to execute.
+     * @return The result of the operation.
+     * @throws IOException If the operation failed.
+     * @see #executeIdempotent(ChannelOperation)
+     */
+    <T> T executeIdempotent(SFTPChannelLane lane, ChannelOperation<T> operation) throws IOException {
+        long start = System.nanoTime();
+        Channel channel = get(lane);
+        try {
+            return operation.execute(channel);
+        } catch (IOException e) {
+            if (!channel.isBroken() || System.nanoTime() - start >= retryDeadline) {
+                throw e;
+            }
+            metrics.requestRetried();
+        } finally {
+            channel.close();
+        }
+        // the broken channel is discarded when it's validated, so the pool will return another one
+        try (Channel retryChannel = get(lane)) {
+            return operation.execute(retryChannel);
+        }
+    }
+
+    AttributesCache attributesCache() {
+        return attributesCache;
+    }
+
+    RequestTracker requestTracker() {
+        return requestTracker;
+    }
+
+    MetricsCollector metrics() {
+        return metrics;
     }
 
     void keepAlive() throws IOException {
-        // Actually, no need to do anything; channels are validated using a keep-alive signal by the forAllIdleObjects call
+        // forAllIdleObjects validates each idle channel, but depending on the channel validation that may not send a keep-alive signal
+        long start = System.nanoTime();
+        AtomicBoolean broken = new AtomicBoolean();
         pool.forAllIdleObjects(channel -> {
-            // does nothing
+            if (!channel.keepAlive(start)) {
+                broken.set(true);
+            }
         });
+        if (broken.get()) {
+            // validate again, so the broken channels are discarded
+            pool.forAllIdleObjects(channel -> {
+                // does nothing
+            });
+        }
+    }
+
+    void maintain() {
+        try {
+            // validating idle channels sends a keep-alive signal, and discards broken or expired channels
+            keepAlive();
+            prewarm();
+        } catch (@SuppressWarnings("unused") IOException | RuntimeException e) {
+            // ignore; the next run or the next acquire will try again
+        } finally {
+            metrics.maintenanceRun();
+        }
+    }
+
+    private void prewarm() throws IOException {
+        int idle;
+        int missing;
+        synchronized (prewarmLock) {
+            idle = metrics.getIdleCount();
+            // channels that are still being opened will become idle, so don't open them again
+            missing = minIdleSize - idle - prewarmingChannels;
+            // acquireOrCreate never waits, but it creates channels outside the pool if the pool is full, so don't exceed the maximum size
+            int limit = sizer != null ? sizer.limit() : maxSize;
+            missing = Math.min(missing, limit - metrics.getPoolSize() - prewarmingChannels);
+            if (missing <= 0) {
+                return;
+            }
+            prewarmingChannels += missing;
+        }
+        try {
+            // acquiring returns idle channels first, so the idle channels must be acquired as well to open the missing ones
+            openChannels(idle + missing);
+        } finally {
+            synchronized (prewarmLock) {
+                prewarmingChannels -= missing;
+            }
+        }
+    }
+
+    void adjustSize() {
+        try {
+            int change = sizer.adjust();
+            metrics.poolLimitChanged(sizer.limit());
+            if (change < 0) {
+                evictExcessChannels();
+            }
+        } catch (@SuppressWarnings("unused") IOException | RuntimeException e) {
+            // ignore; the next run will try again
+        }
+    }
+
+    private void evictExcessChannels() throws IOException {
+        int excess = metrics.getPoolSize() - sizer.limit();
+        if (excess <= 0) {
+            return;
+        }
+        channelsToEvict.set(excess);
+        try {
+            // forAllIdleObjects validates each idle channel, and validation discards channels while channelsToEvict is positive
+            pool.forAllIdleObjects(channel -> {
+                // does nothing
+            });
+        } finally {
+            channelsToEvict.set(0);
+        }
+    }
+
+    private void reclaimIdleChannel() {
+        // only reclaim one channel at a time, to not close more channels than other file systems need
+        if (channelsToEvict.compareAndSet(0, 1)) {
+            try {
+                pool.forAllIdleObjects(channel -> {
+                    // does nothing
+                });
+            } catch (@SuppressWarnings("unused") IOException | RuntimeException e) {
+                // ignore; another file system will ask again if it still needs a channel
+            } finally {
+                channelsToEvict.set(0);
+            }
+        }
+    }
+
+    private boolean evictChannel() {
+        int count;
+        while ((count = channelsToEvict.get()) > 0) {
+            if (channelsToEvict.compareAndSet(count, count - 1)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     void close() throws IOException {
-        pool.shutdown();
+        if (maintenanceTask != null) {
+            maintenanceTask.cancel(false);
+        }
+        if (sizingTask != null) {
+            sizingTask.cancel(false);
+        }
+        try {
+            pool.shutdown();
+        } finally {
+            leaveBudget();
+        }
+    }
+
+    private void leaveBudget() {
+        if (budget != null) {
+            budget.leave(budgetMember);
+        }
+    }
+
+    private void releaseBudget() {
+        if (budget != null) {
+            budget.release();
+        }
+    }
+
+    private Channel acquireOrCreateChannel() throws IOException {
+        while (true) {
+            try {
+                return pool.acquireOrCreate();
+            } catch (@SuppressWarnings("unused") ChannelAvailableException e) {
+                // a channel was released while waiting to open a new one; acquire that one instead
+            }
+        }
+    }
+
+    private SharedSession reserveSession() throws IOException {
+        if (sessionRegistry != null) {
+            return new SharedSession(sessionRegistry.reserve(sessionKey, channelsPerSession, this::openSession));
+        }
+        SharedSession session = reserveExistingSession();
+        if (session != null) {
+            return session;
+        }
+        if (channelsPerSession == 1) {
+            // sessions are never shared, so there is no need to prevent other threads from creating sessions concurrently
+            return createSession();
+        }
+        // Only create one session at a time, so concurrently created channels end up on the same session instead of each creating their own
+        synchronized (sessionCreationLock) {
+            session = reserveExistingSession();
+            return session != null ? session : createSession();
+        }
+    }
+
+    private SharedSession reserveExistingSession() {
+        synchronized (sessions) {
+            // Pick the least loaded live session, so channels are spread evenly after a session has died
+            SharedSession leastLoaded = null;
+            for (SharedSession session : sessions) {
+                if (session.channelCount < channelsPerSession && session.session.isConnected()
+                        && (leastLoaded == null || session.channelCount < leastLoaded.channelCount)) {
+                    leastLoaded = session;
+                }
+            }
+            if (leastLoaded != null) {
+                leastLoaded.channelCount++;
+            }
+            return leastLoaded;
+        }
+    }
+
+    private SharedSession createSession() throws IOException {
+        SharedSession sharedSession = new SharedSession(openSession());
+        synchronized (sessions) {
+            sessions.add(sharedSession);
+        }
+        return sharedSession;
+    }
+
+    private Session openSession() throws IOException {
+        Object event = FlightRecorderEvents.beginSessionCreation();
+        Session session;
+        boolean failed = true;
+        try {
+            session = addressSelector != null ? openSessionToSelectedAddress() : env.openSession(jsch, hostname, port);
+            failed = false;
+        } finally {
+            FlightRecorderEvents.endSessionCreation(event, poolName, failed);
+        }
+        metrics.sessionCreated();
+        return session;
+    }
+
+    private Session openSessionToSelectedAddress() throws IOException {
+        // try each address at most once; failed addresses are skipped by the next selection
+        IOException exception = null;
+        int attempts = 0;
+        do {
+            InetAddress address = addressSelector.select();
+            try {
+                Session session = env.openSession(jsch, hostname, address, port);
+                addressSelector.sessionOpened(session, address);
+                return session;
+            } catch (IOException e) {
+                addressSelector.sessionFailed(address);
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        } while (++attempts < addressSelector.addressCount());
+        throw exception;
+    }
+
+    private void releaseSession(SharedSession session) {
+        if (session.registryEntry != null) {
+            sessionRegistry.release(session.registryEntry, sessionLingerTime);
+            return;
+        }
+        boolean disconnect;
+        synchronized (sessions) {
+            session.channelCount--;
+            disconnect = session.channelCount == 0;
+            if (disconnect) {
+                sessions.remove(session);
+            }
+        }
+        if (disconnect) {
+            if (!session.session.isConnected()) {
+                metrics.sessionLost();
+            }
+            session.session.disconnect();
+        }
+    }
+
+    int sessionCount() {
+        if (sessionRegistry != null) {
+            return sessionRegistry.sessionCount(sessionKey);
+        }
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    interface ChannelOperation<T> {
+
+        T execute(Channel channel) throws IOException;
+    }
+
+    private final class BudgetMember implements HostConnectionBudget.Member {
+
+        @Override
+        public int idleChannelCount() {
+            return metrics.getIdleCount();
+        }
+
+        @Override
+        public void reclaimIdleChannel() {
+            PoolMaintenance.execute(SSHChannelPool.this::reclaimIdleChannel);
+        }
+    }
+
+    /**
+     * Thrown when a channel is not opened because another channel became available in the pool first.
+     * This exception never leaves this class.
+     */
+    private static final class ChannelAvailableException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private ChannelAvailableException() {
+            super();
+        }
+    }
+
+    private static final class SharedSession {
+
+        private final Session session;
+        // guarded by sessions
+        private int channelCount;
+        // non-null if the session is shared with other pools; its channels are counted by the registry instead
+        private final SessionRegistry.Entry registryEntry;
+
+        private SharedSession(Session session) {
+            this.session = session;
+            this.channelCount = 1;
+            this.registryEntry = null;
+        }
+
+        private SharedSession(SessionRegistry.Entry registryEntry) {
+            this.session = registryEntry.session();
+            this.channelCount = 1;
+            this.registryEntry = registryEntry;
+        }
     }
 
     final class Channel extends PoolableObject<IOException> implements Closeable {
 
+        private final SharedSession session;
         private final ChannelSftp channelSftp;
 
+        // the number of users of this channel: the thread that acquired it, and any open streams
+        private final AtomicInteger leases = new AtomicInteger();
+        private volatile long idleSince = System.nanoTime();
+        private volatile long lastKeepAlive = idleSince;
+        // set if a keep-alive signal failed; such channels are discarded when they are next validated
+        private volatile boolean broken;
+        // the permits to release when the last lease ends; set and cleared when leases changes from and to 0
+        private volatile Semaphore lanePermit;
+        private volatile boolean sizerPermit;
+
         private Channel() throws IOException {
-            channelSftp = env.openChannel(jsch, hostname, port);
+            Object event = FlightRecorderEvents.beginChannelCreation();
+            boolean failed = true;
+            try {
+                // waiting for the budget can take long, so do that before taking a connect slot that other channels could use meanwhile
+                if (budget != null) {
+                    budget.acquire(budgetMember, budgetWaitTime);
+                }
+                try {
+                    if (connectLimiter != null && !connectLimiter.connectStarted(() -> metrics.getIdleCount() > 0)) {
+                        throw new ChannelAvailableException();
+                    }
+                    try {
+                        session = reserveSession();
+                        try {
+                            channelSftp = env.openChannel(session.session);
+                        } catch (IOException e) {
+                            releaseSession(session);
+                            throw e;
+                        }
+                    } finally {
+                        if (connectLimiter != null) {
+                            connectLimiter.connectEnded();
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    releaseBudget();
+                    throw e;
+                }
+                failed = false;
+            } finally {
+                FlightRecorderEvents.endChannelCreation(event, poolName, failed);
+            }
+            metrics.channelCreated();
+        }
+
+        private void lease(Semaphore permit, boolean sized) {
+            if (leases.getAndIncrement() == 0) {
+                lanePermit = permit;
+                sizerPermit = sized;
+                metrics.channelAcquired();
+            }
+        }
+
+        private void endLease() {
+            if (leases.decrementAndGet() == 0) {
+                idleSince = System.nanoTime();
+                Semaphore permit = lanePermit;
+                boolean sized = sizerPermit;
+                lanePermit = null;
+                sizerPermit = false;
+                releasePermits(permit, sized);
+                metrics.channelReleased();
+            }
+        }
+
+        private void addLeasedReference(Object reference) {
+            // the channel is still leased by the thread that acquired it, so this doesn't replace its permits
+            lease(null, false);
+            addReference(reference);
+        }
+
+        private void removeLeasedReference(Object reference) throws IOException {
+            endLease();
+            removeReference(reference);
+            channelReleased();
         }
 
         @Override
         protected boolean validate() {
-            if (channelSftp.isConnected()) {
-                try {
-                    channelSftp.getSession().sendKeepAliveMsg();
+            if (leases.get() == 0 && evictChannel()) {
+                // the adaptive pool size was decreased - let the pool call releaseResources
+                return false;
+            }
+            if (leases.get() == 0 && System.nanoTime() - idleSince > maxIdleTime) {
+                // the channel has been idle for too long - let the pool call releaseResources
+                return false;
+            }
+            if (!broken && channelSftp.isConnected() && session.session.isConnected()
+                    && (!shouldSendKeepAlive() || sendKeepAlive())) {
+                return true;
+            }
+            // the channel is broken - let the pool call releaseResources
+            metrics.validationFailed();
+            return false;
+        }
+
+        private boolean shouldSendKeepAlive() {
+            switch (channelValidation) {
+                case ON_ACQUIRE:
                     return true;
-                } catch (@SuppressWarnings("unused") Exception e) {
-                    // the keep alive failed - let the pool call releaseResources
+                case AFTER_IDLE_TIME:
+                    return System.nanoTime() - idleSince >= validationIdleTime;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean sendKeepAlive() {
+            try {
+                session.session.sendKeepAliveMsg();
+                lastKeepAlive = System.nanoTime();
+                return true;
+            } catch (@SuppressWarnings("unused") Exception e) {
+                broken = true;
+                return false;
+            }
+        }
+
+        private <T> T execute(SFTPRequestType type, String path, RequestTracker.Request<T> request) throws SftpException {
+            return execute(requestTracker.currentOperation(), type, path, request);
+        }
+
+        private <T> T execute(String operation, SFTPRequestType type, String path, RequestTracker.Request<T> request) throws SftpException {
+            try {
+                return requestTracker.execute(operation, type, path, request);
+            } catch (SftpException e) {
+                checkConnectionFailure(e);
+                throw e;
+            }
+        }
+
+        private void run(SFTPRequestType type, String path, RequestTracker.VoidRequest request) throws SftpException {
+            try {
+                requestTracker.run(type, path, request);
+            } catch (SftpException e) {
+                checkConnectionFailure(e);
+                throw e;
+            }
+        }
+
+        private void run(SFTPRequestType type, String path, RequestTracker.VoidRequest request, LongSupplier bytes) throws SftpException {
+            try {
+                requestTracker.run(type, path, request, bytes);
+            } catch (SftpException e) {
+                checkConnectionFailure(e);
+                throw e;
+            }
+        }
+
+        private void checkConnectionFailure(SftpException e) {
+            if (isConnectionFailure(e) || !channelSftp.isConnected() || !session.session.isConnected()) {
+                // the channel can no longer be used; it's discarded when it's next validated
+                broken = true;
+            }
+        }
+
+        /**
+         * Marks this channel as broken if a stream failed because of the connection. The stream's channel or session may not yet have noticed
+         * that the connection was lost, so without this, a resumable stream would not know that it can resume.
+         *
+         * @param e The exception thrown by the stream.
+         * @return The given exception.
+         */
+        private IOException checkStreamFailure(IOException e) {
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof SocketException) {
+                    broken = true;
+                    break;
                 }
             }
-            return false;
+            return e;
+        }
+
+        /**
+         * Returns whether or not this channel can no longer be used, because a request failed because of the connection and not because of the
+         * file the request was for, or because the channel or its session has been disconnected.
+         *
+         * @return {@code true} if this channel can no longer be used, or {@code false} otherwise.
+         */
+        boolean isBroken() {
+            return broken || !channelSftp.isConnected() || !session.session.isConnected();
+        }
+
+        SSHChannelPool pool() {
+            return SSHChannelPool.this;
+        }
+
+        private boolean keepAlive(long since) {
+            // don't send a second keep-alive signal if validate already sent one
+            return lastKeepAlive - since >= 0 || sendKeepAlive();
         }
 
         @Override
         protected void releaseResources() throws IOException {
-            channelSftp.disconnect();
             try {
-                channelSftp.getSession().disconnect();
-            } catch (JSchException e) {
-                throw asIOException(e);
+                channelSftp.disconnect();
+            } finally {
+                // the session is disconnected once its last channel is released
+                releaseSession(session);
+                releaseBudget();
+                metrics.channelDestroyed();
             }
         }
 
         @Override
         public void close() throws IOException {
+            endLease();
             release();
+            channelReleased();
         }
 
         String pwd() throws IOException {
@@ -151,9 +983,21 @@ final class SSHChannelPool {
             assert options.read;
 
             try {
-                InputStream in = channelSftp.get(path);
+                InputStream in = execute(SFTPRequestType.GET, path, () -> channelSftp.get(path));
                 in = new SFTPInputStream(path, in, options.deleteOnClose);
-                addReference(in);
+                addLeasedReference(in);
+                return in;
+            } catch (SftpException e) {
+                throw exceptionFactory.createNewInputStreamException(path, e);
+            }
+        }
+
+        InputStream resumeInputStream(String path, long position) throws IOException {
+            try {
+                InputStream in = execute(SFTPRequestType.GET, path, () -> channelSftp.get(path, null, position));
+                in = new SFTPInputStream(path, in, false);
+                addLeasedReference(in);
+                logEvent(() -> SFTPMessages.log.resumedInputStream(path, position));
                 return in;
             } catch (SftpException e) {
                 throw exceptionFactory.createNewInputStreamException(path, e);
@@ -165,29 +1009,63 @@ final class SSHChannelPool {
             private final String path;
             private final InputStream in;
             private final boolean deleteOnClose;
+            private final Object event;
 
             private boolean open = true;
+            private long bytesRead = 0;
 
             private SFTPInputStream(String path, InputStream in, boolean deleteOnClose) {
                 this.path = path;
                 this.in = in;
                 this.deleteOnClose = deleteOnClose;
+                this.event = FlightRecorderEvents.beginStream();
+                metrics.streamOpened();
                 logEvent(() -> SFTPMessages.log.createdInputStream(path));
             }
 
             @Override
             public int read() throws IOException {
-                return in.read();
+                int b;
+                try {
+                    b = in.read();
+                } catch (IOException e) {
+                    throw checkStreamFailure(e);
+                }
+                if (b != -1) {
+                    bytesRead(1);
+                }
+                return b;
             }
 
             @Override
             public int read(byte[] b) throws IOException {
-                return in.read(b);
+                int n;
+                try {
+                    n = in.read(b);
+                } catch (IOException e) {
+                    throw checkStreamFailure(e);
+                }
+                bytesRead(n);
+                return n;
             }
 
             @Override
             public int read(byte[] b, int off, int len) throws IOException {
-                return in.read(b, off, len);
+                int n;
+                try {
+                    n = in.read(b, off, len);
+                } catch (IOException e) {
+                    throw checkStreamFailure(e);
+                }
+                bytesRead(n);
+                return n;
+            }
+
+            private void bytesRead(int n) {
+                if (n > 0) {
+                    bytesRead += n;
+                    metrics.bytesRead(n);
+                }
             }
 
             @Override
@@ -209,7 +1087,9 @@ final class SSHChannelPool {
                         // always finalize the stream, to prevent pool starvation
                         // set open to false as well, to prevent finalizing the stream twice
                         open = false;
-                        removeReference(this);
+                        metrics.streamClosed();
+                        FlightRecorderEvents.endStream(event, path, false, bytesRead);
+                        removeLeasedReference(this);
                     }
                     if (deleteOnClose) {
                         delete(path, false);
@@ -239,12 +1119,30 @@ final class SSHChannelPool {
 
             int mode = options.append ? ChannelSftp.APPEND : ChannelSftp.OVERWRITE;
             try {
-                OutputStream out = channelSftp.put(path, mode);
+                OutputStream out = execute(SFTPRequestType.PUT, path, () -> channelSftp.put(path, mode));
                 out = new SFTPOutputStream(path, out, options.deleteOnClose);
-                addReference(out);
+                addLeasedReference(out);
                 return out;
             } catch (SftpException e) {
                 throw exceptionFactory.createNewOutputStreamException(path, e, options.options);
+            } finally {
+                // the file may have been created or truncated
+                attributesCache.invalidate(path);
+            }
+        }
+
+        OutputStream resumeOutputStream(String path, long position) throws IOException {
+            try {
+                // RESUME continues writing at the current size of the file, which the caller has verified to be at most position
+                OutputStream out = execute(SFTPRequestType.PUT, path, () -> channelSftp.put(path, ChannelSftp.RESUME));
+                out = new SFTPOutputStream(path, out, false);
+                addLeasedReference(out);
+                logEvent(() -> SFTPMessages.log.resumedOutputStream(path, position));
+                return out;
+            } catch (SftpException e) {
+                throw exceptionFactory.createNewOutputStreamException(path, e, Collections.singleton(StandardOpenOption.WRITE));
+            } finally {
+                attributesCache.invalidate(path);
             }
         }
 
@@ -253,34 +1151,62 @@ final class SSHChannelPool {
             private final String path;
             private final OutputStream out;
             private final boolean deleteOnClose;
+            private final Object event;
 
             private boolean open = true;
+            private long bytesWritten = 0;
 
             private SFTPOutputStream(String path, OutputStream out, boolean deleteOnClose) {
                 this.path = path;
                 this.out = out;
                 this.deleteOnClose = deleteOnClose;
+                this.event = FlightRecorderEvents.beginStream();
+                metrics.streamOpened();
                 logEvent(() -> SFTPMessages.log.createdOutputStream(path));
             }
 
             @Override
             public void write(int b) throws IOException {
-                out.write(b);
+                try {
+                    out.write(b);
+                } catch (IOException e) {
+                    throw checkStreamFailure(e);
+                }
+                bytesWritten(1);
             }
 
             @Override
             public void write(byte[] b) throws IOException {
-                out.write(b);
+                try {
+                    out.write(b);
+                } catch (IOException e) {
+                    throw checkStreamFailure(e);
+                }
+                bytesWritten(b.length);
             }
 
             @Override
             public void write(byte[] b, int off, int len) throws IOException {
-                out.write(b, off, len);
+                try {
+                    out.write(b, off, len);
+                } catch (IOException e) {
+                    throw checkStreamFailure(e);
+                }
+                bytesWritten(len);
+            }
+
+            private void bytesWritten(int n) {
+                bytesWritten += n;
+                metrics.bytesWritten(n);
             }
 
             @Override
             public void flush() throws IOException {
-                out.flush();
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    throw checkStreamFailure(e);
+                }
             }
 
             @Override
@@ -288,11 +1214,16 @@ final class SSHChannelPool {
                 if (open) {
                     try {
                         out.close();
+                    } catch (IOException e) {
+                        throw checkStreamFailure(e);
                     } finally {
                         // always finalize the stream, to prevent pool starvation
                         // set open to false as well, to prevent finalizing the stream twice
                         open = false;
-                        removeReference(this);
+                        attributesCache.invalidate(path);
+                        metrics.streamClosed();
+                        FlightRecorderEvents.endStream(event, path, true, bytesWritten);
+                        removeLeasedReference(this);
                     }
                     if (deleteOnClose) {
                         delete(path, false);
@@ -302,58 +1233,357 @@ final class SSHChannelPool {
             }
         }
 
+        void downloadChunk(String path, long offset, long length, FileChannel target, ByteBuffer buffer) throws IOException {
+            byte[] bytes = buffer.array();
+            Object event = FlightRecorderEvents.beginStream();
+            long remaining = length;
+            try (InputStream in = execute(SFTPRequestType.GET, path, () -> channelSftp.get(path, null, offset))) {
+                long position = offset;
+                while (remaining > 0) {
+                    int n = in.read(bytes, 0, (int) Math.min(bytes.length, remaining));
+                    if (n == -1) {
+                        // the file was truncated during the download; the rest of the chunk would otherwise remain zero-filled
+                        throw new IOException(SFTPMessages.fileChangedDuringTransfer(path));
+                    }
+                    metrics.bytesRead(n);
+                    buffer.clear();
+                    buffer.limit(n);
+                    while (buffer.hasRemaining()) {
+                        position += target.write(buffer, position);
+                    }
+                    remaining -= n;
+                }
+            } catch (SftpException e) {
+                throw exceptionFactory.createNewInputStreamException(path, e);
+            } finally {
+                FlightRecorderEvents.endStream(event, path, false, length - remaining);
+            }
+        }
+
+        void createFile(String path, long size, int lastByte, Collection<? extends OpenOption> openOptions) throws IOException {
+            // OVERWRITE truncates the file; writing its last byte immediately gives the file its final size
+            long position = Math.max(size - 1, 0);
+            try (OutputStream out = execute(SFTPRequestType.PUT, path,
+                    () -> channelSftp.put(path, null, ChannelSftp.OVERWRITE, position))) {
+                if (size > 0) {
+                    out.write(lastByte);
+                    metrics.bytesWritten(1);
+                }
+            } catch (SftpException e) {
+                throw exceptionFactory.createNewOutputStreamException(path, e, openOptions);
+            } finally {
+                attributesCache.invalidate(path);
+            }
+        }
+
+        void uploadChunk(String path, long size, long offset, long length, FileChannel source, ByteBuffer buffer,
+                Collection<? extends OpenOption> openOptions) throws IOException {
+
+            byte[] bytes = buffer.array();
+            // JSch can only write at an explicit offset with OVERWRITE, but that truncates the file. APPEND does not truncate the file, but
+            // JSch reads the file's current size with an implicit STAT request, and writes at the given offset plus that size.
+            // The file already has its final size (see createFile), so subtract that to write at the actual offset.
+            // This relies on the implicit STAT request succeeding; if it fails, JSch silently uses a size of 0 and the chunk would be written
+            // at the wrong offset.
+            Object event = FlightRecorderEvents.beginStream();
+            long remaining = length;
+            try (OutputStream out = execute(SFTPRequestType.PUT, path,
+                    () -> channelSftp.put(path, null, ChannelSftp.APPEND, offset - size))) {
+                requestTracker.recordImplicit(SFTPRequestType.STAT, path);
+                long position = offset;
+                while (remaining > 0) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(bytes.length, remaining));
+                    int n = source.read(buffer, position);
+                    if (n == -1) {
+                        throw new EOFException();
+                    }
+                    out.write(bytes, 0, n);
+                    metrics.bytesWritten(n);
+                    position += n;
+                    remaining -= n;
+                }
+            } catch (SftpException e) {
+                throw exceptionFactory.createNewOutputStreamException(path, e, openOptions);
+            } finally {
+                attributesCache.invalidate(path);
+                FlightRecorderEvents.endStream(event, path, true, length - remaining);
+            }
+        }
+
         void storeFile(String path, InputStream local, Collection<? extends OpenOption> openOptions) throws IOException {
+            Object event = FlightRecorderEvents.beginStream();
+            CountingInputStream counting = new CountingInputStream(local);
             try {
-                channelSftp.put(local, path);
+                run(SFTPRequestType.PUT, path, () -> channelSftp.put(counting, path), () -> counting.count);
             } catch (SftpException e) {
                 throw exceptionFactory.createNewOutputStreamException(path, e, openOptions);
+            } finally {
+                attributesCache.invalidate(path);
+                FlightRecorderEvents.endStream(event, path, true, counting.count);
+            }
+        }
+
+        // counts the bytes that are read from a local stream, to be written to the SFTP server
+        private final class CountingInputStream extends FilterInputStream {
+
+            private long count = 0;
+
+            private CountingInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = in.read();
+                if (b != -1) {
+                    count(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = in.read(b, off, len);
+                count(n);
+                return n;
+            }
+
+            private void count(int n) {
+                if (n > 0) {
+                    count += n;
+                    metrics.bytesWritten(n);
+                }
             }
         }
 
         SftpATTRS readAttributes(String path, boolean followLinks) throws IOException {
+            long generation = attributesCache.generation();
             try {
-                return followLinks ? channelSftp.stat(path) : channelSftp.lstat(path);
+                SftpATTRS attributes = followLinks
+                        ? execute(SFTPRequestType.STAT, path, () -> channelSftp.stat(path))
+                        : execute(SFTPRequestType.LSTAT, path, () -> channelSftp.lstat(path));
+                attributesCache.put(path, followLinks, attributes, generation);
+                return attributes;
             } catch (SftpException e) {
-                throw exceptionFactory.createGetFileException(path, e);
+                FileSystemException exception = exceptionFactory.createGetFileException(path, e);
+                if (exception instanceof NoSuchFileException) {
+                    attributesCache.putMissing(path, followLinks, (NoSuchFileException) exception, generation);
+                }
+                throw exception;
             }
         }
 
         String readSymbolicLink(String path) throws IOException {
             try {
-                return channelSftp.readlink(path);
+                return execute(SFTPRequestType.READLINK, path, () -> channelSftp.readlink(path));
             } catch (SftpException e) {
                 throw exceptionFactory.createReadLinkException(path, e);
             }
         }
 
-        List<LsEntry> listFiles(String path) throws IOException {
-            final List<LsEntry> entries = new ArrayList<>();
-            LsEntrySelector selector = entry -> {
-                entries.add(entry);
-                return LsEntrySelector.CONTINUE;
-            };
-            try {
-                channelSftp.ls(path, selector);
-            } catch (SftpException e) {
-                throw exceptionFactory.createListFilesException(path, e);
-            }
+        LsEntryStream listFiles(String path) throws IOException {
+            // the listing is done by another thread, so capture the current operation
+            Listing listing = new Listing(path, requestTracker.currentOperation());
+            LsEntryStream entries = new LsEntryStream(listing);
+            // the listing only has a weak reference to the stream, so it can stop if the stream is discarded without being closed
+            Reference<LsEntryStream> consumer = new WeakReference<>(entries);
+            addLeasedReference(listing);
+            // if all worker threads are busy, the listing starts once one becomes available
+            Workers.execute(() -> listing.list(consumer));
+            listing.awaitReady();
             return entries;
         }
 
+        /**
+         * A listing of a single directory. The entries are read by a worker thread as the server returns them, and buffered in a bounded queue
+         * until they are consumed through an {@link LsEntryStream}. The channel is held until the listing ends or the stream is closed.
+         * <p>
+         * If the buffer stays full, the listing is abandoned once the stream is no longer reachable. This prevents streams that are discarded
+         * without being closed from holding a thread and a channel indefinitely. Streams that are still reachable are never abandoned, because
+         * they may only be read later, for instance while walking a file tree.
+         *
+         * @author Rob Spoor
+         */
+        private final class Listing {
+
+            private static final int BUFFER_SIZE = 1024;
+            private static final long OFFER_TIMEOUT = 100;
+
+            private final String path;
+            private final String operation;
+            private final CountDownLatch ready;
+            private final Object end;
+
+            private final BlockingQueue<Object> queue;
+            private volatile boolean open;
+            private volatile boolean done;
+
+            private Listing(String path, String operation) {
+                this.path = path;
+                this.operation = operation;
+                this.ready = new CountDownLatch(1);
+                this.end = new Object();
+                this.queue = new ArrayBlockingQueue<>(BUFFER_SIZE);
+                this.open = true;
+                this.done = false;
+            }
+
+            private void list(Reference<LsEntryStream> consumer) {
+                LsEntrySelector selector = entry -> offer(entry, consumer) ? LsEntrySelector.CONTINUE : LsEntrySelector.BREAK;
+                Object last = end;
+                try {
+                    execute(operation, SFTPRequestType.LIST, path, () -> {
+                        channelSftp.ls(path, selector);
+                        return null;
+                    });
+                } catch (SftpException | RuntimeException e) {
+                    last = e;
+                } finally {
+                    // the channel is no longer used by the listing, so release it before the last entries are consumed
+                    done = true;
+                    try {
+                        removeLeasedReference(this);
+                    } catch (@SuppressWarnings("unused") IOException e) {
+                        // releasing the channel failed; there is nobody left to report this to
+                    } finally {
+                        // if the listing was abandoned, this returns false right away
+                        offer(last, consumer);
+                        ready.countDown();
+                    }
+                }
+            }
+
+            private boolean offer(Object element, Reference<LsEntryStream> consumer) {
+                if (queue.offer(element)) {
+                    return open;
+                }
+                // the buffer is full; entries can be consumed from this point
+                ready.countDown();
+                try {
+                    while (open) {
+                        if (queue.offer(element, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                            return open;
+                        }
+                        if (consumer.get() == null) {
+                            // nobody will consume the remaining entries
+                            return false;
+                        }
+                    }
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+
+            private void awaitReady() throws IOException {
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    close();
+                    Thread.currentThread().interrupt();
+                    InterruptedIOException exception = new InterruptedIOException(e.getMessage());
+                    exception.initCause(e);
+                    throw exception;
+                }
+            }
+
+            private Object take() throws IOException {
+                Object element = queue.poll();
+                if (element != null) {
+                    return element;
+                }
+                try {
+                    return queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    InterruptedIOException exception = new InterruptedIOException(e.getMessage());
+                    exception.initCause(e);
+                    throw exception;
+                }
+            }
+
+            private void close() {
+                // the listing will stop by returning LsEntrySelector.BREAK for the next entry
+                open = false;
+                queue.clear();
+            }
+        }
+
+        /**
+         * A stream of {@link LsEntry} objects for a single directory. The entries are read by another thread as the server returns them.
+         *
+         * @author Rob Spoor
+         */
+        final class LsEntryStream implements Closeable {
+
+            private final Listing listing;
+
+            private LsEntryStream(Listing listing) {
+                this.listing = listing;
+            }
+
+            /**
+             * Returns whether or not the listing has ended. If so, the channel can safely be used for other commands.
+             *
+             * @return {@code true} if the listing has ended, or {@code false} otherwise.
+             */
+            boolean isDone() {
+                return listing.done;
+            }
+
+            /**
+             * Returns the next entry.
+             *
+             * @return The next entry, or {@code null} if there are no more entries.
+             * @throws IOException If the listing failed.
+             */
+            LsEntry next() throws IOException {
+                if (!listing.open) {
+                    return null;
+                }
+                Object element;
+                try {
+                    element = listing.take();
+                } catch (IOException e) {
+                    listing.open = false;
+                    throw e;
+                }
+                if (element instanceof LsEntry) {
+                    return (LsEntry) element;
+                }
+                listing.open = false;
+                if (element instanceof SftpException) {
+                    throw exceptionFactory.createListFilesException(listing.path, (SftpException) element);
+                }
+                if (element instanceof RuntimeException) {
+                    throw (RuntimeException) element;
+                }
+                return null;
+            }
+
+            @Override
+            public void close() {
+                listing.close();
+            }
+        }
+
         void mkdir(String path) throws IOException {
             try {
-                channelSftp.mkdir(path);
+                run(SFTPRequestType.MKDIR, path, () -> channelSftp.mkdir(path));
             } catch (SftpException e) {
                 if (fileExists(path)) {
                     throw new FileAlreadyExistsException(path);
                 }
                 throw exceptionFactory.createCreateDirectoryException(path, e);
+            } finally {
+                attributesCache.invalidate(path);
             }
         }
 
         private boolean fileExists(String path) {
             try {
-                channelSftp.stat(path);
+                execute(SFTPRequestType.STAT, path, () -> channelSftp.stat(path));
                 return true;
             } catch (@SuppressWarnings("unused") SftpException e) {
                 // the file actually may exist, but throw the original exception instead
@@ -364,58 +1594,72 @@ final class SSHChannelPool {
         void delete(String path, boolean isDirectory) throws IOException {
             try {
                 if (isDirectory) {
-                    channelSftp.rmdir(path);
+                    run(SFTPRequestType.RMDIR, path, () -> channelSftp.rmdir(path));
                 } else {
-                    channelSftp.rm(path);
+                    run(SFTPRequestType.REMOVE, path, () -> channelSftp.rm(path));
                 }
             } catch (SftpException e) {
                 throw exceptionFactory.createDeleteException(path, e, isDirectory);
+            } finally {
+                attributesCache.invalidate(path);
             }
         }
 
         void rename(String source, String target) throws IOException {
             try {
-                channelSftp.rename(source, target);
+                run(SFTPRequestType.RENAME, source, () -> channelSftp.rename(source, target));
             } catch (SftpException e) {
                 throw exceptionFactory.createMoveException(source, target, e);
+            } finally {
+                // for directories, all cached descendants have moved as well
+                attributesCache.invalidateTree(source);
+                attributesCache.invalidateTree(target);
             }
         }
 
         void chown(String path, int uid) throws IOException {
             try {
-                channelSftp.chown(uid, path);
+                run(SFTPRequestType.SETSTAT, path, () -> channelSftp.chown(uid, path));
             } catch (SftpException e) {
                 throw exceptionFactory.createSetOwnerException(path, e);
+            } finally {
+                attributesCache.invalidate(path);
             }
         }
 
         void chgrp(String path, int gid) throws IOException {
             try {
-                channelSftp.chgrp(gid, path);
+                run(SFTPRequestType.SETSTAT, path, () -> channelSftp.chgrp(gid, path));
             } catch (SftpException e) {
                 throw exceptionFactory.createSetGroupException(path, e);
+            } finally {
+                attributesCache.invalidate(path);
             }
         }
 
         void chmod(String path, int permissions) throws IOException {
             try {
-                channelSftp.chmod(permissions, path);
+                run(SFTPRequestType.SETSTAT, path, () -> channelSftp.chmod(permissions, path));
             } catch (SftpException e) {
                 throw exceptionFactory.createSetPermissionsException(path, e);
+            } finally {
+                attributesCache.invalidate(path);
             }
         }
 
         void setMtime(String path, long mtime) throws IOException {
             try {
-                channelSftp.setMtime(path, (int) mtime);
+                run(SFTPRequestType.SETSTAT, path, () -> channelSftp.setMtime(path, (int) mtime));
             } catch (SftpException e) {
                 throw exceptionFactory.createSetModificationTimeException(path, e);
+            } finally {
+                attributesCache.invalidate(path);
             }
         }
 
         SftpStatVFS statVFS(String path) throws IOException {
             try {
-                return channelSftp.statVFS(path);
+                return execute(SFTPRequestType.STATVFS, path, () -> channelSftp.statVFS(path));
             } catch (SftpException e) {
                 if (e.id == ChannelSftp.SSH_FX_OP_UNSUPPORTED) {
                     throw new UnsupportedOperationException(e);
@@ -426,6 +1670,15 @@ final class SSHChannelPool {
         }
     }
 
+    static boolean isConnectionFailure(SftpException e) {
+        if (e.id == ChannelSftp.SSH_FX_NO_CONNECTION || e.id == ChannelSftp.SSH_FX_CONNECTION_LOST) {
+            return true;
+        }
+        // JSch wraps I/O errors on the channel's streams, as well as JSch errors, using SSH_FX_FAILURE
+        Throwable cause = e.getCause();
+        return cause instanceof IOException || cause instanceof JSchException;
+    }
+
     IOException asIOException(Exception e) throws IOException {
         if (e instanceof IOException) {
             throw (IOException) e;
@@ -0,0 +1,239 @@
+/*
+ * SessionRegistry.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import com.jcraft.jsch.Session;
+
+/**
+ * A registry of authenticated SSH sessions that can be shared by file systems with the same host, port, username and credentials.
+ * Sessions are reference-counted by the number of channels that are open on them. Once a session has no more channels it lingers for a while,
+ * so a file system that is created shortly after another one was closed does not need to authenticate again.
+ *
+ * @author Rob Spoor
+ */
+final class SessionRegistry {
+
+    // guarded by itself
+    private final Map<Key, List<Entry>> entries = new HashMap<>();
+    // never removed; there are only as many keys as there are distinct hosts, usernames and credentials
+    private final ConcurrentMap<Key, Object> creationLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Reserves a channel on a session. If a connected session exists for the given key that has less than the given number of channels, that
+     * session is used. Otherwise a new session is opened.
+     *
+     * @param key The key that identifies the host, port, username and credentials.
+     * @param maxChannels The maximum number of channels that an existing session may already have.
+     * @param factory The factory to use to open a new session.
+     * @return The entry for the session.
+     * @throws IOException If a new session could not be opened.
+     */
+    Entry reserve(Key key, int maxChannels, SessionFactory factory) throws IOException {
+        Entry entry = reserveExisting(key, maxChannels);
+        if (entry != null) {
+            return entry;
+        }
+        // Only create one session per key at a time, so concurrently reserved channels end up on the same session instead of each opening their own
+        synchronized (creationLocks.computeIfAbsent(key, k -> new Object())) {
+            entry = reserveExisting(key, maxChannels);
+            if (entry != null) {
+                return entry;
+            }
+            entry = new Entry(key, factory.openSession());
+            synchronized (entries) {
+                entries.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+            }
+            return entry;
+        }
+    }
+
+    private Entry reserveExisting(Key key, int maxChannels) {
+        synchronized (entries) {
+            // Pick the least loaded live session, so channels are spread evenly after a session has died
+            Entry leastLoaded = null;
+            for (Entry entry : entries.getOrDefault(key, Collections.emptyList())) {
+                if (entry.channelCount < maxChannels && entry.session.isConnected()
+                        && (leastLoaded == null || entry.channelCount < leastLoaded.channelCount)) {
+                    leastLoaded = entry;
+                }
+            }
+            if (leastLoaded != null) {
+                leastLoaded.channelCount++;
+                leastLoaded.cancelExpiration();
+            }
+            return leastLoaded;
+        }
+    }
+
+    /**
+     * Releases a channel on a session. If the session has no more channels, it is disconnected after the given linger time,
+     * unless a channel is reserved on it again before that.
+     *
+     * @param entry The entry for the session.
+     * @param lingerTime The time to keep the session connected if it has no more channels.
+     */
+    void release(Entry entry, Duration lingerTime) {
+        synchronized (entries) {
+            entry.channelCount--;
+            if (entry.channelCount > 0) {
+                return;
+            }
+            if (entry.session.isConnected() && !lingerTime.isZero() && !lingerTime.isNegative()) {
+                int generation = entry.generation;
+                entry.expiration = PoolMaintenance.scheduleOnce(() -> expire(entry, generation), lingerTime);
+                return;
+            }
+            remove(entry);
+        }
+        entry.session.disconnect();
+    }
+
+    private void expire(Entry entry, int generation) {
+        synchronized (entries) {
+            if (entry.channelCount > 0 || entry.generation != generation) {
+                // a channel was reserved after the expiration was scheduled
+                return;
+            }
+            entry.expiration = null;
+            remove(entry);
+        }
+        entry.session.disconnect();
+    }
+
+    // must be called while synchronized on entries
+    private void remove(Entry entry) {
+        List<Entry> keyEntries = entries.get(entry.key);
+        if (keyEntries != null) {
+            keyEntries.remove(entry);
+            if (keyEntries.isEmpty()) {
+                entries.remove(entry.key);
+            }
+        }
+    }
+
+    int sessionCount(Key key) {
+        synchronized (entries) {
+            return entries.getOrDefault(key, Collections.emptyList()).size();
+        }
+    }
+
+    /**
+     * A key that identifies a host, port, username and credentials.
+     *
+     * @author Rob Spoor
+     */
+    static final class Key {
+
+        private final String hostname;
+        private final int port;
+        private final String username;
+        private final String credentialFingerprint;
+        // other settings that affect sessions, compared using equals
+        private final Map<String, Object> settings;
+
+        Key(String hostname, int port, String username, String credentialFingerprint, Map<String, Object> settings) {
+            this.hostname = Objects.requireNonNull(hostname);
+            this.port = port;
+            this.username = username;
+            this.credentialFingerprint = credentialFingerprint;
+            this.settings = settings;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o == null || o.getClass() != getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hostname.equals(other.hostname)
+                    && port == other.port
+                    && Objects.equals(username, other.username)
+                    && Objects.equals(credentialFingerprint, other.credentialFingerprint)
+                    && settings.equals(other.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hostname, port, username, credentialFingerprint, settings);
+        }
+    }
+
+    /**
+     * An entry for a session.
+     *
+     * @author Rob Spoor
+     */
+    static final class Entry {
+
+        private final Key key;
+        private final Session session;
+        // guarded by the registry's entries
+        private int channelCount;
+        private ScheduledFuture<?> expiration;
+        // incremented each time an expiration is cancelled, so an expiration that could not be cancelled in time can detect it's stale
+        private int generation;
+
+        private Entry(Key key, Session session) {
+            this.key = key;
+            this.session = session;
+            this.channelCount = 1;
+        }
+
+        Session session() {
+            return session;
+        }
+
+        private void cancelExpiration() {
+            if (expiration != null) {
+                expiration.cancel(false);
+                expiration = null;
+                generation++;
+            }
+        }
+    }
+
+    /**
+     * A factory for sessions.
+     *
+     * @author Rob Spoor
+     */
+    interface SessionFactory {
+
+        /**
+         * Opens a new session.
+         *
+         * @return The opened session.
+         * @throws IOException If the session could not be opened.
+         */
+        Session openSession() throws IOException;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Workers.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor for tasks that use a client connection in the background, like reading directory listings or transferring chunks of files.
+ * Unlike {@link Connector}, the number of threads is limited, so abandoned or slow tasks cannot create an unbounded number of threads.
+ * If all threads are busy, tasks are queued until a thread becomes available.
+ * Threads are daemon threads that are only created when needed.
+ *
+ * @author Rob Spoor
+ */
+final class Workers {
+
+    private static final String THREAD_NAME_PREFIX = "sftp-fs-worker-"; //$NON-NLS-1$
+
+    private static final int MAX_THREADS = 64;
+    private static final long KEEP_ALIVE_TIME = 60;
+
+    private Workers() {
+    }
+
+    /**
+     * Runs a task in the background. If all threads are busy, the task is started once a thread becomes available.
+     *
+     * @param task The task to run. It should not throw any exceptions.
+     */
+    static void execute(Runnable task) {
+        Holder.EXECUTOR.execute(task);
+    }
+
+    private static final class Holder {
+
+        private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+        private Holder() {
+        }
+
+        private static ThreadPoolExecutor createExecutor() {
+            AtomicInteger threadCount = new AtomicInteger();
+            // with an unbounded queue no threads are added beyond the core pool size, so let the core threads time out instead
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
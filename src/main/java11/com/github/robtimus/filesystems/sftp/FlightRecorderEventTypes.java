@@ -0,0 +1,222 @@
+/*
+ * FlightRecorderEventTypes.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The Java Flight Recorder events of SFTP file systems.
+ * <p>
+ * For each event type, a shared instance is used to check whether or not the event type is enabled.
+ * That way, no events are created if an event type is disabled.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class FlightRecorderEventTypes {
+
+    private static final String CATEGORY = "SFTP";
+    private static final String NAME_PREFIX = "com.github.robtimus.filesystems.sftp.";
+
+    private static final ChannelAcquireEvent CHANNEL_ACQUIRE = new ChannelAcquireEvent();
+    private static final SessionCreationEvent SESSION_CREATION = new SessionCreationEvent();
+    private static final ChannelCreationEvent CHANNEL_CREATION = new ChannelCreationEvent();
+    private static final RequestEvent REQUEST = new RequestEvent();
+    private static final StreamEvent STREAM = new StreamEvent();
+
+    private FlightRecorderEventTypes() {
+    }
+
+    static Object beginChannelAcquire() {
+        return CHANNEL_ACQUIRE.isEnabled() ? begin(new ChannelAcquireEvent()) : null;
+    }
+
+    static void endChannelAcquire(Object e, String pool, boolean acquired) {
+        ChannelAcquireEvent event = (ChannelAcquireEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.pool = pool;
+            event.acquired = acquired;
+            event.commit();
+        }
+    }
+
+    static Object beginSessionCreation() {
+        return SESSION_CREATION.isEnabled() ? begin(new SessionCreationEvent()) : null;
+    }
+
+    static void endSessionCreation(Object e, String pool, boolean failed) {
+        SessionCreationEvent event = (SessionCreationEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.pool = pool;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    static Object beginChannelCreation() {
+        return CHANNEL_CREATION.isEnabled() ? begin(new ChannelCreationEvent()) : null;
+    }
+
+    static void endChannelCreation(Object e, String pool, boolean failed) {
+        ChannelCreationEvent event = (ChannelCreationEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.pool = pool;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    static Object beginRequest() {
+        return REQUEST.isEnabled() ? begin(new RequestEvent()) : null;
+    }
+
+    static void endRequest(Object e, String operation, SFTPRequestType type, String path, long bytes, boolean failed) {
+        RequestEvent event = (RequestEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.requestType = type.name();
+            event.path = path;
+            event.bytes = bytes;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    static Object beginStream() {
+        return STREAM.isEnabled() ? begin(new StreamEvent()) : null;
+    }
+
+    static void endStream(Object e, String path, boolean output, long bytes) {
+        StreamEvent event = (StreamEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.output = output;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    private static Event begin(Event event) {
+        event.begin();
+        return event;
+    }
+
+    @Name(NAME_PREFIX + "ChannelAcquire")
+    @Label("SFTP Channel Acquire")
+    @Category(CATEGORY)
+    @Description("Waiting for a channel from the connection pool of an SFTP file system")
+    @Threshold("10 ms")
+    static final class ChannelAcquireEvent extends Event {
+
+        @Label("Pool")
+        @Description("The host and port of the SFTP server")
+        String pool;
+
+        @Label("Acquired")
+        @Description("Whether or not a channel was acquired before the maximum wait time expired")
+        boolean acquired;
+    }
+
+    @Name(NAME_PREFIX + "SessionCreation")
+    @Label("SFTP Session Creation")
+    @Category(CATEGORY)
+    @Description("Connecting to an SFTP server, including the SSH handshake and authentication")
+    @Threshold("0 ms")
+    static final class SessionCreationEvent extends Event {
+
+        @Label("Pool")
+        @Description("The host and port of the SFTP server")
+        String pool;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name(NAME_PREFIX + "ChannelCreation")
+    @Label("SFTP Channel Creation")
+    @Category(CATEGORY)
+    @Description("Opening an SFTP channel, including creating an SSH session if needed")
+    @Threshold("0 ms")
+    static final class ChannelCreationEvent extends Event {
+
+        @Label("Pool")
+        @Description("The host and port of the SFTP server")
+        String pool;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name(NAME_PREFIX + "Request")
+    @Label("SFTP Request")
+    @Category(CATEGORY)
+    @Description("A request sent to an SFTP server. For GET and PUT requests, this only includes opening the file")
+    @Threshold("10 ms")
+    static final class RequestEvent extends Event {
+
+        @Label("Operation")
+        @Description("The file system operation that sent the request")
+        String operation;
+
+        @Label("Request Type")
+        String requestType;
+
+        @Label("Path")
+        String path;
+
+        @Label("Bytes")
+        @Description("The number of bytes of file contents transferred by the request itself; 0 if file contents are transferred by a stream")
+        @DataAmount
+        long bytes;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name(NAME_PREFIX + "Stream")
+    @Label("SFTP Stream")
+    @Category(CATEGORY)
+    @Description("The lifetime of a stream that reads from or writes to a file on an SFTP server")
+    @Threshold("10 ms")
+    @StackTrace(false)
+    static final class StreamEvent extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Output")
+        @Description("True for writing, false for reading")
+        boolean output;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * FlightRecorderEvents.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.util.Optional;
+
+/**
+ * Support for Java Flight Recorder events.
+ * Each event is started using a {@code begin} method, which returns the event or {@code null} if the event is not enabled, and committed using
+ * the matching {@code end} method. Events are only committed if their duration exceeds their threshold.
+ * <p>
+ * This implementation is used on Java 11 and higher. It emits events only if module {@code jdk.jfr} is available; the events themselves are
+ * defined in {@link FlightRecorderEventTypes}, so that class is only loaded if that module is available.
+ *
+ * @author Rob Spoor
+ */
+final class FlightRecorderEvents {
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    private FlightRecorderEvents() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Optional<Module> module = ModuleLayer.boot().findModule("jdk.jfr"); //$NON-NLS-1$
+            return module.isPresent() && FlightRecorderEvents.class.getModule().canRead(module.get());
+        } catch (@SuppressWarnings("unused") LinkageError | SecurityException e) {
+            return false;
+        }
+    }
+
+    static Object beginChannelAcquire() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginChannelAcquire() : null;
+    }
+
+    static void endChannelAcquire(Object event, String pool, boolean acquired) {
+        if (event != null) {
+            FlightRecorderEventTypes.endChannelAcquire(event, pool, acquired);
+        }
+    }
+
+    static Object beginSessionCreation() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginSessionCreation() : null;
+    }
+
+    static void endSessionCreation(Object event, String pool, boolean failed) {
+        if (event != null) {
+            FlightRecorderEventTypes.endSessionCreation(event, pool, failed);
+        }
+    }
+
+    static Object beginChannelCreation() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginChannelCreation() : null;
+    }
+
+    static void endChannelCreation(Object event, String pool, boolean failed) {
+        if (event != null) {
+            FlightRecorderEventTypes.endChannelCreation(event, pool, failed);
+        }
+    }
+
+    static Object beginRequest() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginRequest() : null;
+    }
+
+    static void endRequest(Object event, String operation, SFTPRequestType type, String path, long bytes, boolean failed) {
+        if (event != null) {
+            FlightRecorderEventTypes.endRequest(event, operation, type, path, bytes, failed);
+        }
+    }
+
+    static Object beginStream() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginStream() : null;
+    }
+
+    static void endStream(Object event, String path, boolean output, long bytes) {
+        if (event != null) {
+            FlightRecorderEventTypes.endStream(event, path, output, bytes);
+        }
+    }
+}
@@ -19,6 +19,8 @@ module com.github.robtimus.filesystems.sftp {
     requires com.github.robtimus.filesystems;
     requires transitive com.jcraft.jsch;
     requires com.github.robtimus.pool;
+    requires java.management;
+    requires static jdk.jfr;
 
     exports com.github.robtimus.filesystems.sftp;
 
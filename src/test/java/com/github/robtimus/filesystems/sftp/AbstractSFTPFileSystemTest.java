@@ -25,6 +25,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
@@ -51,7 +53,9 @@ import java.util.Base64;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
 import org.apache.sshd.common.keyprovider.MappedKeyPairProvider;
 import org.apache.sshd.server.SshServer;
@@ -235,6 +239,22 @@ abstract class AbstractSFTPFileSystemTest {
         });
     }
 
+    /**
+     * Closes all sessions on the server side, to simulate a server restart or a dropped connection.
+     */
+    protected final void closeServerSessions() {
+        sshServer.getActiveSessions().forEach(session -> session.close(true));
+    }
+
+    /**
+     * Returns the server addresses that the currently active sessions are connected to.
+     */
+    protected final List<InetAddress> getServerSessionAddresses() {
+        return sshServer.getActiveSessions().stream()
+                .map(session -> ((InetSocketAddress) session.getLocalAddress()).getAddress())
+                .collect(Collectors.toList());
+    }
+
     protected final String getBaseUrl() {
         return "sftp://" + USERNAME + "@localhost:" + port;
     }
@@ -365,6 +385,16 @@ abstract class AbstractSFTPFileSystemTest {
         return new String(getContents(file), StandardCharsets.UTF_8);
     }
 
+    protected static String readContents(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int len;
+        while ((len = input.read(buffer)) != -1) {
+            output.write(buffer, 0, len);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
     protected final void setContents(Path file, byte[] contents) throws IOException {
         try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
             out.write(contents);
@@ -0,0 +1,153 @@
+/*
+ * AdaptivePoolSizerTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AdaptivePoolSizerTest {
+
+    private static final Duration TARGET_WAIT_TIME = Duration.ofMillis(10);
+
+    @Test
+    void testInitialLimit() {
+        AdaptivePoolSizer sizer = createSizer(2, 5, 1);
+
+        assertEquals(2, sizer.limit());
+    }
+
+    @Test
+    void testInitialLimitWithoutInitialSize() {
+        AdaptivePoolSizer sizer = createSizer(0, 5, 1);
+
+        assertEquals(1, sizer.limit());
+    }
+
+    @Test
+    void testGrowsWhenWaitingLongerThanTarget() throws IOException, InterruptedException {
+        AdaptivePoolSizer sizer = createSizer(1, 5, 1);
+
+        sizer.acquire();
+        assertThrows(IOException.class, sizer::acquire);
+
+        assertEquals(1, sizer.adjust());
+        assertEquals(2, sizer.limit());
+
+        // the new permit is immediately available
+        sizer.acquire();
+    }
+
+    @Test
+    void testGrowthLimited() throws IOException, InterruptedException {
+        AdaptivePoolSizer sizer = createSizer(1, 5, 2);
+
+        sizer.acquire();
+        for (int i = 0; i < 10; i++) {
+            assertThrows(IOException.class, sizer::acquire);
+        }
+
+        assertEquals(2, sizer.adjust());
+        assertEquals(3, sizer.limit());
+    }
+
+    @Test
+    void testGrowthCappedAtMaxSize() throws IOException, InterruptedException {
+        AdaptivePoolSizer sizer = createSizer(1, 2, 5);
+
+        sizer.acquire();
+        assertThrows(IOException.class, sizer::acquire);
+
+        assertEquals(1, sizer.adjust());
+        assertEquals(2, sizer.limit());
+
+        sizer.acquire();
+        assertThrows(IOException.class, sizer::acquire);
+
+        assertEquals(0, sizer.adjust());
+        assertEquals(2, sizer.limit());
+    }
+
+    @Test
+    void testShrinksWhenUtilizationLow() throws IOException, InterruptedException {
+        AdaptivePoolSizer sizer = createSizer(1, 5, 2);
+
+        sizer.acquire();
+        assertThrows(IOException.class, sizer::acquire);
+        sizer.adjust();
+        sizer.release();
+        assertEquals(3, sizer.limit());
+
+        assertEquals(-1, sizer.adjust());
+        assertEquals(2, sizer.limit());
+
+        assertEquals(-1, sizer.adjust());
+        assertEquals(1, sizer.limit());
+
+        // never below the initial limit
+        assertEquals(0, sizer.adjust());
+        assertEquals(1, sizer.limit());
+    }
+
+    @Test
+    void testDoesNotShrinkWhenUtilized() throws IOException, InterruptedException {
+        AdaptivePoolSizer sizer = createSizer(2, 5, 1);
+
+        sizer.acquire();
+        sizer.acquire();
+        sizer.release();
+        sizer.release();
+
+        assertEquals(0, sizer.adjust());
+        assertEquals(2, sizer.limit());
+    }
+
+    @Test
+    void testShrinkWhileInUse() throws IOException, InterruptedException {
+        AdaptivePoolSizer sizer = createSizer(1, 5, 3);
+
+        sizer.acquire();
+        assertThrows(IOException.class, sizer::acquire);
+        sizer.adjust();
+        assertEquals(4, sizer.limit());
+
+        // a peak of 1 of 4; the permit that is still in use remains in use until it's released
+        assertEquals(-1, sizer.adjust());
+        assertEquals(3, sizer.limit());
+
+        sizer.acquire();
+        sizer.acquire();
+        assertThrows(IOException.class, sizer::acquire);
+
+        sizer.release();
+        sizer.acquire();
+    }
+
+    private static AdaptivePoolSizer createSizer(int initialSize, int maxSize, int maxGrowth) {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .withInitialSize(initialSize)
+                .withMaxSize(maxSize)
+                .withMaxWaitTime(Duration.ofMillis(50))
+                .withAdaptiveTargetWaitTime(TARGET_WAIT_TIME)
+                .withAdaptiveMaxGrowth(maxGrowth)
+                .build();
+        return new AdaptivePoolSizer(poolConfig, TARGET_WAIT_TIME);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * AddressSelectorTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import com.jcraft.jsch.Session;
+
+@SuppressWarnings("nls")
+class AddressSelectorTest {
+
+    private static final InetAddress ADDRESS1 = address(1);
+    private static final InetAddress ADDRESS2 = address(2);
+    private static final InetAddress ADDRESS3 = address(3);
+
+    @Test
+    void testRoundRobin() throws UnknownHostException {
+        AddressSelector selector = new AddressSelector("example.org", SFTPAddressSelection.ROUND_ROBIN, Duration.ofMinutes(1),
+                hostname -> new InetAddress[] { ADDRESS1, ADDRESS2, ADDRESS3 });
+
+        assertEquals(ADDRESS1, selector.select());
+        assertEquals(ADDRESS2, selector.select());
+        assertEquals(ADDRESS3, selector.select());
+        assertEquals(ADDRESS1, selector.select());
+        assertEquals(3, selector.addressCount());
+    }
+
+    @Test
+    void testRoundRobinSkipsFailedAddresses() throws UnknownHostException {
+        AddressSelector selector = new AddressSelector("example.org", SFTPAddressSelection.ROUND_ROBIN, Duration.ofMinutes(1),
+                hostname -> new InetAddress[] { ADDRESS1, ADDRESS2, ADDRESS3 });
+
+        selector.sessionFailed(selector.select());
+
+        assertEquals(ADDRESS2, selector.select());
+        assertEquals(ADDRESS3, selector.select());
+        assertEquals(ADDRESS2, selector.select());
+    }
+
+    @Test
+    void testAllAddressesFailed() throws UnknownHostException {
+        AddressSelector selector = new AddressSelector("example.org", SFTPAddressSelection.ROUND_ROBIN, Duration.ofMinutes(1),
+                hostname -> new InetAddress[] { ADDRESS1, ADDRESS2 });
+
+        selector.sessionFailed(selector.select());
+        selector.sessionFailed(selector.select());
+
+        // all addresses are tried again
+        assertEquals(ADDRESS1, selector.select());
+        assertEquals(ADDRESS2, selector.select());
+    }
+
+    @Test
+    void testLeastLoaded() throws UnknownHostException {
+        AddressSelector selector = new AddressSelector("example.org", SFTPAddressSelection.LEAST_LOADED, Duration.ofMinutes(1),
+                hostname -> new InetAddress[] { ADDRESS1, ADDRESS2 });
+
+        Session session1 = connectedSession();
+        Session session2 = connectedSession();
+        Session session3 = connectedSession();
+
+        assertEquals(ADDRESS1, selector.select());
+        selector.sessionOpened(session1, ADDRESS1);
+        assertEquals(ADDRESS2, selector.select());
+        selector.sessionOpened(session2, ADDRESS2);
+        assertEquals(ADDRESS1, selector.select());
+        selector.sessionOpened(session3, ADDRESS1);
+
+        assertEquals(2, (int) selector.loads().get(ADDRESS1));
+        assertEquals(1, (int) selector.loads().get(ADDRESS2));
+
+        // disconnected sessions no longer count
+        when(session1.isConnected()).thenReturn(false);
+        when(session3.isConnected()).thenReturn(false);
+
+        assertEquals(ADDRESS1, selector.select());
+        assertNull(selector.loads().get(ADDRESS1));
+    }
+
+    @Test
+    void testResolveAgainAfterInterval() throws UnknownHostException {
+        AtomicReference<InetAddress[]> addresses = new AtomicReference<>(new InetAddress[] { ADDRESS1, ADDRESS2 });
+        AtomicInteger resolveCount = new AtomicInteger();
+        AddressSelector selector = new AddressSelector("example.org", SFTPAddressSelection.ROUND_ROBIN, Duration.ofMillis(50), hostname -> {
+            resolveCount.incrementAndGet();
+            return addresses.get();
+        });
+
+        assertEquals(ADDRESS1, selector.select());
+        selector.sessionFailed(ADDRESS1);
+
+        addresses.set(new InetAddress[] { ADDRESS1, ADDRESS3 });
+
+        // until the addresses are resolved again, only the address that did not fail is selected
+        InetAddress first = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            InetAddress address;
+            while ((address = selector.select()).equals(ADDRESS2)) {
+                Thread.yield();
+            }
+            return address;
+        });
+
+        // the failed address gets another chance after resolving again
+        Set<InetAddress> selected = new HashSet<>(Arrays.asList(first, selector.select()));
+        assertEquals(new HashSet<>(Arrays.asList(ADDRESS1, ADDRESS3)), selected);
+        assertEquals(2, resolveCount.get());
+    }
+
+    @Test
+    void testResolveFailure() throws UnknownHostException {
+        AtomicInteger resolveCount = new AtomicInteger();
+        AddressSelector selector = new AddressSelector("example.org", SFTPAddressSelection.ROUND_ROBIN, Duration.ofMillis(50), hostname -> {
+            if (resolveCount.incrementAndGet() > 1) {
+                throw new UnknownHostException(hostname);
+            }
+            return new InetAddress[] { ADDRESS1 };
+        });
+
+        assertEquals(ADDRESS1, selector.select());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (resolveCount.get() < 2) {
+                // the previously resolved addresses are still used
+                assertEquals(ADDRESS1, selector.select());
+            }
+        });
+        assertEquals(ADDRESS1, selector.select());
+    }
+
+    @Test
+    void testUnknownHost() {
+        AddressSelector selector = new AddressSelector("example.org", SFTPAddressSelection.ROUND_ROBIN, Duration.ofMinutes(1), hostname -> {
+            throw new UnknownHostException(hostname);
+        });
+
+        assertThrows(UnknownHostException.class, selector::select);
+    }
+
+    private static Session connectedSession() {
+        Session session = mock(Session.class);
+        when(session.isConnected()).thenReturn(true);
+        return session;
+    }
+
+    private static InetAddress address(int lastByte) {
+        try {
+            return InetAddress.getByAddress(new byte[] { 10, 0, 0, (byte) lastByte });
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
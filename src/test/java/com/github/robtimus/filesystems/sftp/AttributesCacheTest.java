@@ -0,0 +1,251 @@
+/*
+ * AttributesCacheTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.jcraft.jsch.SftpATTRS;
+
+@SuppressWarnings("nls")
+class AttributesCacheTest {
+
+    @Nested
+    class Enabled {
+
+        @Test
+        void testZeroTimeToLive() {
+            assertFalse(new AttributesCache(Duration.ZERO, 100).isEnabled());
+        }
+
+        @Test
+        void testNegativeTimeToLive() {
+            assertFalse(new AttributesCache(Duration.ofSeconds(-1), 100).isEnabled());
+        }
+
+        @Test
+        void testZeroMaxSize() {
+            assertFalse(new AttributesCache(Duration.ofMinutes(1), 0).isEnabled());
+        }
+
+        @Test
+        void testPositiveTimeToLiveAndMaxSize() {
+            assertTrue(new AttributesCache(Duration.ofMinutes(1), 100).isEnabled());
+        }
+
+        @Test
+        void testDisabledDoesNotCache() throws NoSuchFileException {
+            AttributesCache cache = new AttributesCache(Duration.ZERO, 100);
+            cache.put("/foo", false, mock(SftpATTRS.class), cache.generation());
+
+            assertNull(cache.get("/foo", false));
+            assertEquals(0, cache.size());
+        }
+
+        @Test
+        void testDisabledMaintainsGeneration() {
+            AttributesCache cache = new AttributesCache(Duration.ZERO, 100);
+            long generation = cache.generation();
+
+            cache.invalidate("/foo");
+            cache.invalidateTree("/bar");
+
+            assertEquals(generation + 2, cache.generation());
+        }
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        void testCachedAttributes() throws NoSuchFileException {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 100);
+            SftpATTRS attributes = mock(SftpATTRS.class);
+            cache.put("/foo", false, attributes, cache.generation());
+
+            assertSame(attributes, cache.get("/foo", false));
+            assertNull(cache.get("/foo", true));
+            assertNull(cache.get("/bar", false));
+        }
+
+        @Test
+        void testCachedMissing() {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 100);
+            NoSuchFileException missing = new NoSuchFileException("/foo");
+            cache.putMissing("/foo", true, missing, cache.generation());
+
+            NoSuchFileException exception = assertThrows(NoSuchFileException.class, () -> cache.get("/foo", true));
+            assertNotSame(missing, exception);
+            assertEquals("/foo", exception.getFile());
+        }
+
+        @Test
+        void testExpired() {
+            AttributesCache cache = new AttributesCache(Duration.ofMillis(50), 100);
+            cache.put("/foo", false, mock(SftpATTRS.class), cache.generation());
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                while (cache.get("/foo", false) != null) {
+                    Thread.yield();
+                }
+            });
+
+            assertEquals(0, cache.size());
+        }
+
+        @Test
+        void testLeastRecentlyUsedEvicted() throws NoSuchFileException {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 2);
+            SftpATTRS attributes = mock(SftpATTRS.class);
+            cache.put("/foo", false, attributes, cache.generation());
+            cache.put("/bar", false, attributes, cache.generation());
+
+            assertSame(attributes, cache.get("/foo", false));
+
+            cache.put("/baz", false, attributes, cache.generation());
+
+            assertEquals(2, cache.size());
+            assertSame(attributes, cache.get("/foo", false));
+            assertNull(cache.get("/bar", false));
+            assertSame(attributes, cache.get("/baz", false));
+        }
+    }
+
+    @Nested
+    class Put {
+
+        @Test
+        void testOutdatedGeneration() throws NoSuchFileException {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 100);
+            long generation = cache.generation();
+
+            cache.invalidate("/bar");
+            cache.put("/foo", false, mock(SftpATTRS.class), generation);
+
+            assertNull(cache.get("/foo", false));
+        }
+    }
+
+    @Nested
+    class Invalidate {
+
+        @Test
+        void testInvalidate() throws NoSuchFileException {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 100);
+            SftpATTRS attributes = mock(SftpATTRS.class);
+            cache.put("/", false, attributes, cache.generation());
+            cache.put("/foo", false, attributes, cache.generation());
+            cache.put("/foo", true, attributes, cache.generation());
+            cache.put("/foo/bar", false, attributes, cache.generation());
+            cache.put("/foo/bar/baz", false, attributes, cache.generation());
+
+            cache.invalidate("/foo/bar");
+
+            assertSame(attributes, cache.get("/", false));
+            assertNull(cache.get("/foo", false));
+            assertNull(cache.get("/foo", true));
+            assertNull(cache.get("/foo/bar", false));
+            assertSame(attributes, cache.get("/foo/bar/baz", false));
+        }
+
+        @Test
+        void testInvalidateTree() throws NoSuchFileException {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 100);
+            SftpATTRS attributes = mock(SftpATTRS.class);
+            cache.put("/", false, attributes, cache.generation());
+            cache.put("/foo", false, attributes, cache.generation());
+            cache.put("/foo/bar", false, attributes, cache.generation());
+            cache.put("/foo/bar/baz", true, attributes, cache.generation());
+            cache.put("/foo/barbaz", false, attributes, cache.generation());
+
+            cache.invalidateTree("/foo/bar");
+
+            assertSame(attributes, cache.get("/", false));
+            assertNull(cache.get("/foo", false));
+            assertNull(cache.get("/foo/bar", false));
+            assertNull(cache.get("/foo/bar/baz", true));
+            assertSame(attributes, cache.get("/foo/barbaz", false));
+        }
+
+        @Test
+        void testInvalidateTreeRoot() {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 100);
+            SftpATTRS attributes = mock(SftpATTRS.class);
+            cache.put("/", false, attributes, cache.generation());
+            cache.put("/foo", false, attributes, cache.generation());
+
+            cache.invalidateTree("/");
+
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Nested
+    class InvalidatedWithin {
+
+        @Test
+        void testNeverInvalidated() {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 100);
+
+            assertFalse(cache.invalidatedWithin(Long.MAX_VALUE));
+        }
+
+        @Test
+        void testInvalidated() {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 100);
+
+            cache.invalidate("/foo");
+
+            assertTrue(cache.invalidatedWithin(Duration.ofMinutes(1).toNanos()));
+            assertFalse(cache.invalidatedWithin(0));
+        }
+
+        @Test
+        void testInvalidatedTree() {
+            AttributesCache cache = new AttributesCache(Duration.ofMinutes(1), 100);
+
+            cache.invalidateTree("/foo");
+
+            assertTrue(cache.invalidatedWithin(Duration.ofMinutes(1).toNanos()));
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                while (cache.invalidatedWithin(Duration.ofMillis(10).toNanos())) {
+                    Thread.yield();
+                }
+            });
+        }
+
+        @Test
+        void testDisabledCacheInvalidated() {
+            AttributesCache cache = new AttributesCache(Duration.ZERO, 100);
+
+            cache.invalidate("/foo");
+
+            assertTrue(cache.invalidatedWithin(Duration.ofMinutes(1).toNanos()));
+        }
+    }
+}
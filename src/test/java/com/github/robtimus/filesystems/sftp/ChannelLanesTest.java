@@ -0,0 +1,104 @@
+/*
+ * ChannelLanesTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import org.junit.jupiter.api.Test;
+
+class ChannelLanesTest {
+
+    @Test
+    void testNotCreatedWithoutLimitedLanes() {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .withMaxSize(5)
+                .withLaneSize(SFTPChannelLane.BULK, 10)
+                .build();
+
+        assertNull(ChannelLanes.create(poolConfig));
+    }
+
+    @Test
+    void testAcquireAndRelease() throws IOException, InterruptedException {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .withMaxSize(5)
+                .withLaneSize(SFTPChannelLane.BULK, 2)
+                .build();
+        ChannelLanes lanes = ChannelLanes.create(poolConfig);
+        assertNotNull(lanes);
+
+        Semaphore permit = lanes.acquire(SFTPChannelLane.BULK);
+
+        assertEquals(1, lanes.availableChannels(SFTPChannelLane.BULK));
+        assertEquals(5, lanes.availableChannels(SFTPChannelLane.INTERACTIVE));
+
+        lanes.release(permit);
+
+        assertEquals(2, lanes.availableChannels(SFTPChannelLane.BULK));
+    }
+
+    @Test
+    void testFullLaneWaits() throws IOException, InterruptedException {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .withMaxSize(5)
+                .withMaxWaitTime(Duration.ofMillis(100))
+                .withLaneSize(SFTPChannelLane.BULK, 1)
+                .build();
+        ChannelLanes lanes = ChannelLanes.create(poolConfig);
+        assertNotNull(lanes);
+
+        lanes.acquire(SFTPChannelLane.BULK);
+
+        IOException exception = assertThrows(IOException.class, () -> lanes.acquire(SFTPChannelLane.BULK));
+        assertEquals(SFTPMessages.clientConnectionWaitTimeoutExpired(), exception.getMessage());
+
+        // the other lane is not affected
+        lanes.acquire(SFTPChannelLane.INTERACTIVE);
+    }
+
+    @Test
+    void testFullLaneBorrows() throws IOException, InterruptedException {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .withMaxSize(3)
+                .withMaxWaitTime(Duration.ofMillis(100))
+                .withLaneSize(SFTPChannelLane.INTERACTIVE, 1)
+                .withLaneSize(SFTPChannelLane.BULK, 2)
+                .withLaneBorrowing(true)
+                .build();
+        ChannelLanes lanes = ChannelLanes.create(poolConfig);
+        assertNotNull(lanes);
+
+        lanes.acquire(SFTPChannelLane.BULK);
+        lanes.acquire(SFTPChannelLane.BULK);
+        Semaphore borrowed = lanes.acquire(SFTPChannelLane.BULK);
+
+        assertEquals(0, lanes.availableChannels(SFTPChannelLane.INTERACTIVE));
+        assertThrows(IOException.class, () -> lanes.acquire(SFTPChannelLane.INTERACTIVE));
+
+        lanes.release(borrowed);
+
+        assertEquals(1, lanes.availableChannels(SFTPChannelLane.INTERACTIVE));
+        assertSame(borrowed, lanes.acquire(SFTPChannelLane.INTERACTIVE));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * ConnectLimiterTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class ConnectLimiterTest {
+
+    @Test
+    void testNotCreatedWithoutLimits() {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .build();
+
+        assertNull(ConnectLimiter.create(poolConfig));
+    }
+
+    @Test
+    void testMaxConcurrentConnects() throws IOException {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .withMaxWaitTime(Duration.ofMillis(100))
+                .withMaxConcurrentConnects(1)
+                .build();
+        ConnectLimiter limiter = ConnectLimiter.create(poolConfig);
+        assertNotNull(limiter);
+
+        assertTrue(limiter.connectStarted(() -> false));
+        assertEquals(1, limiter.connectsInProgress());
+
+        IOException exception = assertThrows(IOException.class, () -> limiter.connectStarted(() -> false));
+        assertEquals(SFTPMessages.clientConnectionWaitTimeoutExpired(), exception.getMessage());
+
+        limiter.connectEnded();
+
+        assertTrue(limiter.connectStarted(() -> false));
+    }
+
+    @Test
+    void testChannelAvailable() throws IOException {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .withMaxConcurrentConnects(1)
+                .build();
+        ConnectLimiter limiter = ConnectLimiter.create(poolConfig);
+        assertNotNull(limiter);
+
+        assertTrue(limiter.connectStarted(() -> true));
+        // the limit is reached, so a channel that is available is used instead
+        assertFalse(limiter.connectStarted(() -> true));
+        assertEquals(1, limiter.connectsInProgress());
+    }
+
+    @Test
+    void testChannelReleasedWhileWaiting() throws Exception {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .withMaxWaitTime(Duration.ofSeconds(10))
+                .withMaxConcurrentConnects(1)
+                .build();
+        ConnectLimiter limiter = ConnectLimiter.create(poolConfig);
+        assertNotNull(limiter);
+
+        assertTrue(limiter.connectStarted(() -> false));
+
+        AtomicBoolean channelAvailable = new AtomicBoolean(false);
+        // the limiter checks for an available channel just before it starts waiting, while holding its lock
+        CountDownLatch checked = new CountDownLatch(1);
+        CompletableFuture<Boolean> future = Connector.submit(() -> limiter.connectStarted(() -> {
+            checked.countDown();
+            return channelAvailable.get();
+        }));
+
+        assertTrue(checked.await(5, TimeUnit.SECONDS));
+        assertFalse(future.isDone());
+
+        channelAvailable.set(true);
+        limiter.channelReleased();
+
+        assertFalse(future.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.connectsInProgress());
+    }
+
+    @Test
+    void testMaxConnectRate() throws IOException {
+        SFTPPoolConfig poolConfig = SFTPPoolConfig.custom()
+                .withMaxConnectRate(5)
+                .build();
+        ConnectLimiter limiter = ConnectLimiter.create(poolConfig);
+        assertNotNull(limiter);
+
+        long start = System.nanoTime();
+        assertTrue(limiter.connectStarted(() -> false));
+        limiter.connectEnded();
+        assertTrue(limiter.connectStarted(() -> false));
+        limiter.connectEnded();
+        long duration = System.nanoTime() - start;
+
+        // a rate of 5 per second means 200 milliseconds between connects
+        assertTrue(duration >= TimeUnit.MILLISECONDS.toNanos(150), "duration: " + duration);
+    }
+}
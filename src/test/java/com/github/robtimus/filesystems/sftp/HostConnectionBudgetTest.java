@@ -0,0 +1,230 @@
+/*
+ * HostConnectionBudgetTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class HostConnectionBudgetTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void testJoinAndLeave() throws IOException {
+        int budgetCount = HostConnectionBudget.budgetCount();
+
+        TestMember member1 = new TestMember();
+        TestMember member2 = new TestMember();
+        HostConnectionBudget budget1 = HostConnectionBudget.join("join-and-leave", 22, 2, member1);
+        HostConnectionBudget budget2 = HostConnectionBudget.join("join-and-leave", 22, 2, member2);
+        HostConnectionBudget otherBudget = HostConnectionBudget.join("join-and-leave", 2222, 5, member2);
+
+        assertSame(budget1, budget2);
+        assertNotSame(budget1, otherBudget);
+        assertEquals(2, budget2.maxConnections());
+        assertEquals(budgetCount + 2, HostConnectionBudget.budgetCount());
+
+        budget1.leave(member1);
+        assertEquals(budgetCount + 2, HostConnectionBudget.budgetCount());
+
+        budget2.leave(member2);
+        otherBudget.leave(member2);
+        assertEquals(budgetCount, HostConnectionBudget.budgetCount());
+
+        HostConnectionBudget newBudget = HostConnectionBudget.join("join-and-leave", 22, 5, member1);
+        assertNotSame(budget1, newBudget);
+        assertEquals(5, newBudget.maxConnections());
+        newBudget.leave(member1);
+    }
+
+    @Test
+    void testDefaultPortAndHostNameCase() throws IOException {
+        TestMember member1 = new TestMember();
+        TestMember member2 = new TestMember();
+        TestMember member3 = new TestMember();
+        HostConnectionBudget budget1 = HostConnectionBudget.join("default-port", -1, 2, member1);
+        HostConnectionBudget budget2 = HostConnectionBudget.join("default-port", 22, 2, member2);
+        HostConnectionBudget budget3 = HostConnectionBudget.join("DEFAULT-PORT", 22, 2, member3);
+
+        assertSame(budget1, budget2);
+        assertSame(budget1, budget3);
+
+        budget1.leave(member1);
+        budget2.leave(member2);
+        budget3.leave(member3);
+    }
+
+    @Test
+    void testConflictingMaxConnections() throws IOException {
+        int budgetCount = HostConnectionBudget.budgetCount();
+
+        TestMember member1 = new TestMember();
+        TestMember member2 = new TestMember();
+        HostConnectionBudget budget = HostConnectionBudget.join("conflict", 22, 2, member1);
+
+        IOException exception = assertThrows(IOException.class, () -> HostConnectionBudget.join("conflict", -1, 5, member2));
+        assertEquals(SFTPMessages.hostConnectionBudgetConflict("conflict:22", 2, 5), exception.getMessage());
+        assertEquals(2, budget.maxConnections());
+
+        budget.leave(member1);
+        assertEquals(budgetCount, HostConnectionBudget.budgetCount());
+    }
+
+    @Test
+    void testAcquireAndRelease() throws IOException {
+        TestMember member = new TestMember();
+        HostConnectionBudget budget = HostConnectionBudget.join("acquire-and-release", 22, 2, member);
+        try {
+            budget.acquire(member, TIMEOUT);
+            budget.acquire(member, TIMEOUT);
+
+            assertEquals(0, budget.availableConnections());
+
+            budget.release();
+            budget.release();
+
+            assertEquals(2, budget.availableConnections());
+        } finally {
+            budget.leave(member);
+        }
+    }
+
+    @Test
+    void testExhaustedBudgetWaits() throws IOException {
+        TestMember member = new TestMember();
+        HostConnectionBudget budget = HostConnectionBudget.join("exhausted", 22, 1, member);
+        try {
+            budget.acquire(member, TIMEOUT);
+
+            IOException exception = assertThrows(IOException.class, () -> budget.acquire(member, TimeUnit.MILLISECONDS.toNanos(100)));
+            assertEquals(SFTPMessages.clientConnectionWaitTimeoutExpired(), exception.getMessage());
+            assertEquals(0, budget.waiterCount());
+
+            budget.release();
+
+            assertEquals(1, budget.availableConnections());
+        } finally {
+            budget.leave(member);
+        }
+    }
+
+    @Test
+    void testFairShare() throws Exception {
+        TestMember busyMember = new TestMember();
+        TestMember otherMember = new TestMember();
+        HostConnectionBudget budget = HostConnectionBudget.join("fair-share", 22, 1, busyMember);
+        HostConnectionBudget.join("fair-share", 22, 1, otherMember);
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            budget.acquire(busyMember, TIMEOUT);
+
+            List<String> order = Collections.synchronizedList(new ArrayList<>());
+            List<Future<?>> futures = new ArrayList<>();
+            // the busy member queues up two waiters before the other member queues up one
+            futures.add(acquireAsync(executor, budget, busyMember, "busy-1", order, 1));
+            futures.add(acquireAsync(executor, budget, busyMember, "busy-2", order, 2));
+            futures.add(acquireAsync(executor, budget, otherMember, "other", order, 3));
+
+            for (int i = 0; i < 3; i++) {
+                budget.release();
+                awaitSize(order, i + 1);
+            }
+
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+            // the other member gets its turn before the busy member's second waiter
+            assertEquals(List.of("busy-1", "other", "busy-2"), order);
+        } finally {
+            executor.shutdownNow();
+            budget.leave(busyMember);
+            budget.leave(otherMember);
+        }
+    }
+
+    @Test
+    void testReclaimIdleChannel() throws IOException {
+        TestMember waitingMember = new TestMember();
+        TestMember idleMember = new TestMember();
+        idleMember.idleChannelCount = 1;
+        HostConnectionBudget budget = HostConnectionBudget.join("reclaim", 22, 1, waitingMember);
+        HostConnectionBudget.join("reclaim", 22, 1, idleMember);
+        try {
+            budget.acquire(idleMember, TIMEOUT);
+
+            assertThrows(IOException.class, () -> budget.acquire(waitingMember, TimeUnit.MILLISECONDS.toNanos(10)));
+
+            assertEquals(1, idleMember.reclaimCount.get());
+            assertEquals(0, waitingMember.reclaimCount.get());
+        } finally {
+            budget.leave(waitingMember);
+            budget.leave(idleMember);
+        }
+    }
+
+    private Future<?> acquireAsync(ExecutorService executor, HostConnectionBudget budget, TestMember member, String name, List<String> order,
+            int expectedWaiters) throws InterruptedException {
+
+        Future<?> future = executor.submit(() -> {
+            budget.acquire(member, TIMEOUT);
+            order.add(name);
+            return null;
+        });
+        while (budget.waiterCount() < expectedWaiters) {
+            Thread.sleep(10);
+        }
+        return future;
+    }
+
+    private void awaitSize(List<String> order, int expectedSize) throws InterruptedException {
+        while (order.size() < expectedSize) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class TestMember implements HostConnectionBudget.Member {
+
+        private int idleChannelCount;
+        private final AtomicInteger reclaimCount = new AtomicInteger();
+
+        @Override
+        public int idleChannelCount() {
+            return idleChannelCount;
+        }
+
+        @Override
+        public void reclaimIdleChannel() {
+            reclaimCount.incrementAndGet();
+        }
+    }
+}
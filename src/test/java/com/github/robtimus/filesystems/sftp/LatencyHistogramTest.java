@@ -0,0 +1,123 @@
+/*
+ * LatencyHistogramTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@SuppressWarnings("nls")
+class LatencyHistogramTest {
+
+    @Nested
+    class Buckets {
+
+        @ParameterizedTest(name = "{0}")
+        @ValueSource(longs = { 0, 1, 15, 16, 17, 18, 31, 32, 1000, 123_456_789, Long.MAX_VALUE })
+        void testValueWithinBucket(long value) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+            if (index > 0) {
+                assertTrue(value > LatencyHistogram.bucketUpperBound(index - 1));
+            }
+        }
+
+        @Test
+        void testRelativePrecision() {
+            for (long value = 16; value < Long.MAX_VALUE / 2; value += value / 2) {
+                long upperBound = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value));
+                assertTrue(upperBound - value <= value / 8, "value: " + value + ", upper bound: " + upperBound);
+            }
+        }
+    }
+
+    @Nested
+    class Snapshot {
+
+        @Test
+        void testEmpty() {
+            SFTPLatencySnapshot snapshot = new LatencyHistogram().snapshot();
+
+            assertEquals(0, snapshot.getCount());
+            assertEquals(0, snapshot.getTotalTimeInNanos());
+            assertEquals(0, snapshot.getMeanTimeInNanos());
+            assertEquals(0, snapshot.getMaxTimeInNanos());
+            assertEquals(0, snapshot.getMedianTimeInNanos());
+            assertEquals(0, snapshot.get90thPercentileTimeInNanos());
+            assertEquals(0, snapshot.get99thPercentileTimeInNanos());
+        }
+
+        @Test
+        void testRecorded() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (int i = 1; i <= 100; i++) {
+                histogram.record(i * 1000L);
+            }
+
+            SFTPLatencySnapshot snapshot = histogram.snapshot();
+
+            assertEquals(100, snapshot.getCount());
+            assertEquals(5_050_000, snapshot.getTotalTimeInNanos());
+            assertEquals(50_500, snapshot.getMeanTimeInNanos());
+            assertEquals(100_000, snapshot.getMaxTimeInNanos());
+            assertPercentile(50_000, snapshot.getMedianTimeInNanos());
+            assertPercentile(90_000, snapshot.get90thPercentileTimeInNanos());
+            assertPercentile(99_000, snapshot.get99thPercentileTimeInNanos());
+        }
+
+        @Test
+        void testNegativeDuration() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(-1);
+
+            SFTPLatencySnapshot snapshot = histogram.snapshot();
+
+            assertEquals(1, snapshot.getCount());
+            assertEquals(0, snapshot.getMaxTimeInNanos());
+        }
+
+        private void assertPercentile(long expected, long actual) {
+            assertTrue(actual >= expected && actual <= expected + expected / 8, "expected: " + expected + ", actual: " + actual);
+        }
+    }
+
+    @Nested
+    class Percentile {
+
+        @Test
+        void testEmpty() {
+            assertEquals(0, new LatencyHistogram().percentile(0.95));
+        }
+
+        @Test
+        void testRecorded() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (int i = 1; i <= 100; i++) {
+                histogram.record(i * 1000L);
+            }
+
+            long percentile = histogram.percentile(0.95);
+
+            assertTrue(percentile >= 95_000 && percentile <= 95_000 + 95_000 / 8, "actual: " + percentile);
+            assertEquals(100_000, histogram.percentile(1));
+        }
+    }
+}
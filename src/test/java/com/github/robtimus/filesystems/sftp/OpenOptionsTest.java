@@ -18,7 +18,9 @@
 package com.github.robtimus.filesystems.sftp;
 
 import static com.github.robtimus.junit.support.ThrowableAssertions.assertChainEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.nio.file.LinkOption;
@@ -278,6 +280,40 @@ class OpenOptionsTest {
             assertTrue(options.deleteOnClose);
         }
 
+        @Test
+        void testWithResumable() {
+            OpenOptions options = OpenOptions.forNewInputStream(SFTPOpenOption.RESUMABLE, StandardOpenOption.DELETE_ON_CLOSE);
+
+            assertTrue(options.read);
+            assertFalse(options.write);
+            assertTrue(options.deleteOnClose);
+            assertTrue(options.resumable);
+
+            OpenOptions delegateOptions = options.withoutDeleteOnClose();
+
+            assertTrue(delegateOptions.read);
+            assertFalse(delegateOptions.deleteOnClose);
+            assertTrue(delegateOptions.resumable);
+        }
+
+        @Test
+        void testWithLane() {
+            OpenOptions options = OpenOptions.forNewInputStream(SFTPChannelLane.INTERACTIVE);
+
+            assertTrue(options.read);
+            assertEquals(SFTPChannelLane.INTERACTIVE, options.lane);
+            assertEquals(SFTPChannelLane.INTERACTIVE, options.lane(SFTPChannelLane.BULK));
+            assertEquals(SFTPChannelLane.INTERACTIVE, options.withoutDeleteOnClose().lane);
+        }
+
+        @Test
+        void testWithoutLane() {
+            OpenOptions options = OpenOptions.forNewInputStream(StandardOpenOption.READ);
+
+            assertNull(options.lane);
+            assertEquals(SFTPChannelLane.BULK, options.lane(SFTPChannelLane.BULK));
+        }
+
         @Test
         void testWithWrite() {
             testWithInvalid(StandardOpenOption.WRITE);
@@ -348,6 +384,25 @@ class OpenOptionsTest {
             assertFalse(options.deleteOnClose);
         }
 
+        @Test
+        void testWithResumable() {
+            OpenOptions options = OpenOptions.forNewOutputStream(SFTPOpenOption.RESUMABLE, StandardOpenOption.APPEND);
+
+            assertFalse(options.read);
+            assertTrue(options.write);
+            assertTrue(options.append);
+            assertFalse(options.deleteOnClose);
+            assertTrue(options.resumable);
+        }
+
+        @Test
+        void testWithLane() {
+            OpenOptions options = OpenOptions.forNewOutputStream(StandardOpenOption.WRITE, SFTPChannelLane.INTERACTIVE);
+
+            assertTrue(options.write);
+            assertEquals(SFTPChannelLane.INTERACTIVE, options.lane);
+        }
+
         @Test
         void testWithDeleteOnClose() {
             OpenOptions options = OpenOptions.forNewOutputStream(StandardOpenOption.DELETE_ON_CLOSE);
@@ -839,6 +894,19 @@ class OpenOptionsTest {
             testWithUnsupported(DummyOption.DUMMY);
         }
 
+        @Test
+        void testWithResumable() {
+            testWithUnsupported(SFTPOpenOption.RESUMABLE);
+        }
+
+        @Test
+        void testWithLane() {
+            OpenOptions options = OpenOptions.forNewByteChannel(EnumSet.of(SFTPChannelLane.INTERACTIVE));
+
+            assertTrue(options.read);
+            assertEquals(SFTPChannelLane.INTERACTIVE, options.lane);
+        }
+
         private void testWithUnsupported(OpenOption option) {
             Set<OpenOption> openOptions = Collections.singleton(option);
             UnsupportedOperationException exception = assertThrows(UnsupportedOperationException.class,
@@ -0,0 +1,241 @@
+/*
+ * RequestCoalescerTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class RequestCoalescerTest {
+
+    private static final int THREAD_COUNT = 10;
+
+    private AttributesCache attributesCache;
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        // a disabled cache still maintains generations
+        attributesCache = new AttributesCache(Duration.ZERO, 0);
+        coalescer = new RequestCoalescer(attributesCache);
+        executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsShareResult() throws InterruptedException, ExecutionException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Object result = new Object();
+
+        RequestCoalescer.Request<Object> request = () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return result;
+        };
+
+        List<Future<Object>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> coalescer.execute("stat", "/foo", request)));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < THREAD_COUNT; i++) {
+            futures.add(executor.submit(() -> coalescer.execute("stat", "/foo", request)));
+        }
+        awaitWaiters(THREAD_COUNT - 1);
+        release.countDown();
+
+        for (Future<Object> future : futures) {
+            assertSame(result, future.get());
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, coalescer.inFlightRequestCount());
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsDoNotShareException() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        RequestCoalescer.Request<Object> request = () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            throw new NoSuchFileException("/foo");
+        };
+
+        List<Future<Object>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> coalescer.execute("stat", "/foo", request)));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < THREAD_COUNT; i++) {
+            futures.add(executor.submit(() -> coalescer.execute("stat", "/foo", request)));
+        }
+        awaitWaiters(THREAD_COUNT - 1);
+        release.countDown();
+
+        // each caller executes the request itself, and gets its own exception
+        Set<Throwable> exceptions = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<Object> future : futures) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, future::get);
+            NoSuchFileException exception = assertInstanceOf(NoSuchFileException.class, thrown.getCause());
+            assertEquals("/foo", exception.getFile());
+            assertTrue(exceptions.add(exception));
+        }
+        assertEquals(THREAD_COUNT, executions.get());
+        assertEquals(0, coalescer.inFlightRequestCount());
+    }
+
+    @Test
+    void testWaitingCallerExecutesRequestAfterFailure() throws InterruptedException, ExecutionException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        IOException exception = new IOException("failure");
+        Object result = new Object();
+
+        RequestCoalescer.Request<Object> request = () -> {
+            if (executions.incrementAndGet() > 1) {
+                return result;
+            }
+            started.countDown();
+            await(release);
+            throw exception;
+        };
+
+        Future<Object> future1 = executor.submit(() -> coalescer.execute("stat", "/foo", request));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Future<Object> future2 = executor.submit(() -> coalescer.execute("stat", "/foo", request));
+        awaitWaiters(1);
+        release.countDown();
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, future1::get);
+        assertSame(exception, thrown.getCause());
+
+        assertSame(result, future2.get());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void testDifferentRequestsNotShared() throws InterruptedException, ExecutionException {
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        RequestCoalescer.Request<Integer> request = () -> {
+            int execution = executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return execution;
+        };
+
+        Future<Integer> future1 = executor.submit(() -> coalescer.execute("stat", "/foo", request));
+        Future<Integer> future2 = executor.submit(() -> coalescer.execute("lstat", "/foo", request));
+        Future<Integer> future3 = executor.submit(() -> coalescer.execute("stat", "/bar", request));
+
+        // all three requests must be started before any of them can finish
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        release.countDown();
+
+        future1.get();
+        future2.get();
+        future3.get();
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void testRequestsNotSharedAfterModification() throws InterruptedException, ExecutionException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        RequestCoalescer.Request<Integer> request = () -> {
+            int execution = executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return execution;
+        };
+
+        Future<Integer> future1 = executor.submit(() -> coalescer.execute("stat", "/foo", request));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        attributesCache.invalidate("/foo");
+
+        Future<Integer> future2 = executor.submit(() -> coalescer.execute("stat", "/foo", request));
+        release.countDown();
+
+        assertEquals(1, future1.get());
+        assertEquals(2, future2.get());
+    }
+
+    @Test
+    void testSequentialRequestsNotShared() throws IOException {
+        AtomicInteger executions = new AtomicInteger();
+
+        RequestCoalescer.Request<Integer> request = executions::incrementAndGet;
+
+        assertEquals(1, coalescer.execute("stat", "/foo", request));
+        assertEquals(2, coalescer.execute("stat", "/foo", request));
+    }
+
+    private void awaitWaiters(int expected) {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (coalescer.waiterCount() < expected) {
+                Thread.yield();
+            }
+        });
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IOException("timeout");
+            }
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * ResumableOutputStreamTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.filesystems.sftp.ResumableOutputStream.ReplayBuffer;
+
+class ResumableOutputStreamTest {
+
+    @Nested
+    @DisplayName("ReplayBuffer")
+    class ReplayBufferTest {
+
+        private static final int CAPACITY = 64 * 1024;
+
+        @Test
+        void testEmpty() throws IOException {
+            ReplayBuffer buffer = new ReplayBuffer(CAPACITY);
+
+            assertEquals(0, buffer.allocated());
+            assertEquals(0, buffer.size());
+            assertArrayEquals(new byte[0], writeLast(buffer, 0));
+        }
+
+        @Test
+        void testGrowsLazily() throws IOException {
+            byte[] data = randomBytes(20 * 1024);
+            ReplayBuffer buffer = new ReplayBuffer(CAPACITY);
+
+            buffer.add(data, 0, 100);
+            assertEquals(8 * 1024, buffer.allocated());
+
+            // doubling is not enough, so the buffer grows to the required size
+            buffer.add(data, 100, data.length - 100);
+            assertEquals(data.length, buffer.allocated());
+            assertEquals(data.length, buffer.size());
+
+            assertArrayEquals(data, writeLast(buffer, data.length));
+            assertArrayEquals(Arrays.copyOfRange(data, data.length - 10, data.length), writeLast(buffer, 10));
+
+            buffer.add(data, 0, 1);
+            assertEquals(data.length * 2, buffer.allocated());
+            assertEquals(data.length + 1, buffer.size());
+        }
+
+        @Test
+        void testWrapsAroundAtCapacity() throws IOException {
+            byte[] data = randomBytes(CAPACITY * 2 + 123);
+            ReplayBuffer buffer = new ReplayBuffer(CAPACITY);
+
+            for (int i = 0; i < data.length; i += 1000) {
+                buffer.add(data, i, Math.min(1000, data.length - i));
+            }
+
+            assertEquals(CAPACITY, buffer.allocated());
+            assertEquals(CAPACITY, buffer.size());
+            assertArrayEquals(Arrays.copyOfRange(data, data.length - CAPACITY, data.length), writeLast(buffer, CAPACITY));
+        }
+
+        @Test
+        void testAddMoreThanCapacity() throws IOException {
+            byte[] data = randomBytes(CAPACITY + 500);
+            ReplayBuffer buffer = new ReplayBuffer(CAPACITY);
+
+            buffer.add(data, 0, 100);
+            buffer.add(data, 100, data.length - 100);
+
+            assertEquals(CAPACITY, buffer.allocated());
+            assertEquals(CAPACITY, buffer.size());
+            assertArrayEquals(Arrays.copyOfRange(data, data.length - CAPACITY, data.length), writeLast(buffer, CAPACITY));
+        }
+
+        private byte[] randomBytes(int length) {
+            byte[] data = new byte[length];
+            new Random().nextBytes(data);
+            return data;
+        }
+
+        private byte[] writeLast(ReplayBuffer buffer, long n) throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            buffer.writeLast(n, output);
+            return output.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * SFTPAddressSelectionTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+@SuppressWarnings("nls")
+class SFTPAddressSelectionTest extends AbstractSFTPFileSystemTest {
+
+    @ParameterizedTest
+    @EnumSource(SFTPAddressSelection.class)
+    void testAddressSelection(SFTPAddressSelection selection) throws IOException, InterruptedException {
+        addFile("/foo");
+
+        // the test server listens on all addresses, and all of 127.0.0.0/8 is the loopback interface
+        InetAddress address1 = InetAddress.getByName("127.0.0.1");
+        InetAddress address2 = InetAddress.getByName("127.0.0.2");
+
+        // the server may not have noticed yet that the sessions of a previous test were closed
+        for (int i = 0; i < 50 && getServerSessionAddresses().contains(address2); i++) {
+            Thread.sleep(100);
+        }
+        long initialCount1 = count(getServerSessionAddresses(), address1);
+
+        SFTPEnvironment env = createEnv()
+                .withAddressSelection(selection)
+                .withAddressResolver(hostname -> new InetAddress[] { address1, address2 })
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(2)
+                        .withMaxSize(3)
+                        .build());
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env);
+                InputStream input1 = Files.newInputStream(fs.getPath("/foo"));
+                InputStream input2 = Files.newInputStream(fs.getPath("/foo"))) {
+
+            assertTrue(Files.exists(fs.getPath("/foo")));
+            assertEquals("Hello world", readContents(input1));
+            assertEquals("Hello world", readContents(input2));
+
+            // the three sessions are spread over both addresses; with equal loads, the first address is used
+            List<InetAddress> addresses = getServerSessionAddresses();
+            assertEquals(initialCount1 + 2, count(addresses, address1), addresses::toString);
+            assertEquals(1, count(addresses, address2), addresses::toString);
+        }
+    }
+
+    private long count(List<InetAddress> addresses, InetAddress address) {
+        return addresses.stream()
+                .filter(address::equals)
+                .count();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * SFTPChannelLaneTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SFTPChannelLaneTest extends AbstractSFTPFileSystemTest {
+
+    @Test
+    void testStreamsCannotUseReservedChannels() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs = newFileSystem(false);
+                InputStream input1 = Files.newInputStream(fs.getPath("/foo"));
+                InputStream input2 = Files.newInputStream(fs.getPath("/foo"))) {
+
+            Path path = fs.getPath("/foo");
+            IOException exception = assertThrows(IOException.class, () -> Files.newInputStream(path));
+            assertEquals(SFTPMessages.clientConnectionWaitTimeoutExpired(), exception.getMessage());
+
+            // the reserved channel is still available for metadata operations
+            assertTrue(Files.exists(path));
+            assertTrue(Files.isRegularFile(path));
+        }
+    }
+
+    @Test
+    void testStreamWithLaneOption() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs = newFileSystem(false);
+                InputStream input1 = Files.newInputStream(fs.getPath("/foo"));
+                InputStream input2 = Files.newInputStream(fs.getPath("/foo"));
+                InputStream input3 = Files.newInputStream(fs.getPath("/foo"), SFTPChannelLane.INTERACTIVE)) {
+
+            assertEquals("Hello world", readContents(input3));
+        }
+    }
+
+    @Test
+    void testClosedStreamReleasesLane() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs = newFileSystem(false);
+                InputStream input1 = Files.newInputStream(fs.getPath("/foo"))) {
+
+            Files.newInputStream(fs.getPath("/foo")).close();
+
+            try (InputStream input2 = Files.newInputStream(fs.getPath("/foo"))) {
+                assertEquals("Hello world", readContents(input2));
+            }
+        }
+    }
+
+    @Test
+    void testStreamsBorrowChannels() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs = newFileSystem(true);
+                InputStream input1 = Files.newInputStream(fs.getPath("/foo"));
+                InputStream input2 = Files.newInputStream(fs.getPath("/foo"));
+                InputStream input3 = Files.newInputStream(fs.getPath("/foo"))) {
+
+            // all channels are in use
+            Path path = fs.getPath("/foo");
+            IOException exception = assertThrows(IOException.class, () -> path.getFileSystem().provider().checkAccess(path));
+            assertEquals(SFTPMessages.clientConnectionWaitTimeoutExpired(), exception.getMessage());
+        }
+    }
+
+    private FileSystem newFileSystem(boolean laneBorrowing) throws IOException {
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withMaxSize(3)
+                        .withMaxWaitTime(Duration.ofMillis(200))
+                        .withLaneSize(SFTPChannelLane.INTERACTIVE, 1)
+                        .withLaneSize(SFTPChannelLane.BULK, 2)
+                        .withLaneBorrowing(laneBorrowing)
+                        .build());
+        return new SFTPFileSystemProvider().newFileSystem(getURI(), env);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * SFTPChannelValidationTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+@SuppressWarnings("nls")
+class SFTPChannelValidationTest extends AbstractSFTPFileSystemTest {
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(SFTPChannelValidation.class)
+    void testOperations(SFTPChannelValidation channelValidation) throws IOException, InterruptedException {
+        addFile("/foo");
+
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withMaxSize(2)
+                        .withChannelValidation(channelValidation)
+                        .withValidationIdleTime(Duration.ofMillis(50))
+                        .build());
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            Path path = fs.getPath("/foo");
+
+            assertTrue(Files.exists(path));
+            // let the channels be idle long enough to be validated with AFTER_IDLE_TIME
+            Thread.sleep(100);
+            assertTrue(Files.exists(path));
+
+            SFTPFileSystemProvider.keepAlive(fs);
+            assertTrue(Files.exists(path));
+
+            SFTPFileStoreAttributeView view = Files.getFileStore(path).getFileStoreAttributeView(SFTPFileStoreAttributeView.class);
+            assertEquals(0, view.getValidationFailureCount());
+        }
+    }
+}
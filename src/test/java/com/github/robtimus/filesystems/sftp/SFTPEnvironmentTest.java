@@ -20,10 +20,12 @@ package com.github.robtimus.filesystems.sftp;
 import static com.github.robtimus.junit.support.ThrowableAssertions.assertChainEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -35,6 +37,7 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
 import java.net.Socket;
+import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
@@ -133,6 +136,20 @@ class SFTPEnvironmentTest {
                 arguments("withFilenameEncoding", "filenameEncoding", StandardCharsets.UTF_8),
                 arguments("withDefaultDirectory", "defaultDir", "/"),
                 arguments("withPoolConfig", "poolConfig", SFTPPoolConfig.defaultConfig()),
+                arguments("withListingAttributesMaxAge", "listingAttributesMaxAge", Duration.ofSeconds(1)),
+                arguments("withAttributeCacheTimeToLive", "attributeCacheTimeToLive", Duration.ofSeconds(1)),
+                arguments("withAttributeCacheMaxSize", "attributeCacheMaxSize", 100),
+                arguments("withMBeanRegistration", "mbeanRegistration", true),
+                arguments("withMaxStreamReconnects", "maxStreamReconnects", 5),
+                arguments("withHostConnectionBudget", "hostConnectionBudget", 10),
+                arguments("withSessionSharing", "sessionSharing", Duration.ofSeconds(30)),
+                arguments("withLazyConnect", "lazyConnect", true),
+                arguments("withAddressSelection", "addressSelection", SFTPAddressSelection.LEAST_LOADED),
+                arguments("withAddressResolutionInterval", "addressResolutionInterval", Duration.ofSeconds(30)),
+                arguments("withReadYourWritesWindow", "readYourWritesWindow", Duration.ofSeconds(5)),
+                arguments("withRequestListener", "requestListener", (SFTPRequestListener) (operation, type, path, durationInNanos, failed) -> {
+                    // does nothing
+                }),
                 arguments("withFileSystemExceptionFactory", "fileSystemExceptionFactory", DefaultFileSystemExceptionFactory.INSTANCE),
         };
         return Arrays.stream(arguments);
@@ -222,6 +239,44 @@ class SFTPEnvironmentTest {
         assertEquals(Collections.singletonMap("identities", Arrays.asList(identity1, identity2)), env);
     }
 
+    @Test
+    void testWithMirror() {
+        SFTPEnvironment env = new SFTPEnvironment();
+
+        assertEquals(Collections.emptyMap(), env);
+
+        env.withMirror("mirror1.example.com", 2222);
+        env.withMirror("::1", -1);
+
+        assertEquals(Collections.singletonMap("mirrors", Arrays.asList(URI.create("sftp://mirror1.example.com:2222"), URI.create("sftp://[::1]"))),
+                env);
+        assertEquals(Arrays.asList(URI.create("sftp://mirror1.example.com:2222"), URI.create("sftp://[::1]")), env.getMirrors());
+    }
+
+    @Test
+    void testWithInvalidMirror() {
+        SFTPEnvironment env = new SFTPEnvironment();
+
+        assertThrows(NullPointerException.class, () -> env.withMirror(null, 22));
+        assertThrows(IllegalArgumentException.class, () -> env.withMirror("mirror.example.com", 70000));
+        assertEquals(Collections.emptyMap(), env);
+    }
+
+    @Test
+    void testForMirror() {
+        SFTPEnvironment env = new SFTPEnvironment()
+                .withUsername("user")
+                .withMirror("mirror.example.com", -1);
+
+        SFTPEnvironment mirrorEnv = env.forMirror();
+
+        assertEquals(Collections.emptyList(), mirrorEnv.getMirrors());
+        assertTrue(mirrorEnv.isLazyConnectEnabled());
+        assertEquals("user", mirrorEnv.getUsername());
+        assertEquals(Collections.singletonList(URI.create("sftp://mirror.example.com")), env.getMirrors());
+        assertFalse(env.isLazyConnectEnabled());
+    }
+
     @Test
     void testWithQueryString() {
         SFTPEnvironment env = new SFTPEnvironment();
@@ -246,6 +301,33 @@ class SFTPEnvironmentTest {
                 + "&poolConfig.maxIdleTime=PT10S"
                 + "&poolConfig.initialSize=2"
                 + "&poolConfig.maxSize=10"
+                + "&poolConfig.channelsPerSession=3"
+                + "&poolConfig.minIdleSize=2"
+                + "&poolConfig.maintenanceInterval=PT30S"
+                + "&poolConfig.channelValidation=AFTER_IDLE_TIME"
+                + "&poolConfig.validationIdleTime=PT5S"
+                + "&poolConfig.retryDeadline=PT10S"
+                + "&poolConfig.interactiveLaneSize=8"
+                + "&poolConfig.bulkLaneSize=6"
+                + "&poolConfig.laneBorrowing=true"
+                + "&poolConfig.adaptiveTargetWaitTime=PT0.1S"
+                + "&poolConfig.adaptiveWindow=PT5S"
+                + "&poolConfig.adaptiveMaxGrowth=2"
+                + "&poolConfig.maxConcurrentConnects=3"
+                + "&poolConfig.maxConnectRate=10"
+                + "&listingAttributesMaxAge=PT1M"
+                + "&attributeCacheTimeToLive=PT30S"
+                + "&attributeCacheMaxSize=500"
+                + "&mbeanRegistration=true"
+                + "&maxStreamReconnects=5"
+                + "&hostConnectionBudget=10"
+                + "&sessionSharing=PT30S"
+                + "&lazyConnect=true"
+                + "&addressSelection=ROUND_ROBIN"
+                + "&addressResolutionInterval=PT30S"
+                + "&mirror=mirror1.example.com:2222"
+                + "&mirror=mirror2.example.com"
+                + "&readYourWritesWindow=PT5S"
                 + "&unknown2";
 
         env.withQueryString(queryString);
@@ -263,7 +345,20 @@ class SFTPEnvironmentTest {
                 .withServerAliveCountMax(20)
                 .withAgentForwarding(true)
                 .withFilenameEncoding(StandardCharsets.US_ASCII)
-                .withDefaultDirectory("/home");
+                .withDefaultDirectory("/home")
+                .withListingAttributesMaxAge(Duration.ofMinutes(1))
+                .withAttributeCacheTimeToLive(Duration.ofSeconds(30))
+                .withAttributeCacheMaxSize(500)
+                .withMBeanRegistration(true)
+                .withMaxStreamReconnects(5)
+                .withHostConnectionBudget(10)
+                .withSessionSharing(Duration.ofSeconds(30))
+                .withLazyConnect(true)
+                .withAddressSelection(SFTPAddressSelection.ROUND_ROBIN)
+                .withAddressResolutionInterval(Duration.ofSeconds(30))
+                .withMirror("mirror1.example.com", 2222)
+                .withMirror("mirror2.example.com", -1)
+                .withReadYourWritesWindow(Duration.ofSeconds(5));
 
         // SFTPPoolConfig doesn't define equals, so it needs to be removed before env can be compared to expected
         SFTPPoolConfig poolConfig = assertInstanceOf(SFTPPoolConfig.class, env.remove("poolConfig"));
@@ -272,6 +367,20 @@ class SFTPEnvironmentTest {
         assertEquals(Optional.of(Duration.ofSeconds(10)), poolConfig.maxIdleTime());
         assertEquals(2, poolConfig.initialSize());
         assertEquals(10, poolConfig.maxSize());
+        assertEquals(3, poolConfig.channelsPerSession());
+        assertEquals(2, poolConfig.minIdleSize());
+        assertEquals(Optional.of(Duration.ofSeconds(30)), poolConfig.maintenanceInterval());
+        assertEquals(SFTPChannelValidation.AFTER_IDLE_TIME, poolConfig.channelValidation());
+        assertEquals(Duration.ofSeconds(5), poolConfig.validationIdleTime());
+        assertEquals(Duration.ofSeconds(10), poolConfig.retryDeadline());
+        assertEquals(8, poolConfig.laneSize(SFTPChannelLane.INTERACTIVE));
+        assertEquals(6, poolConfig.laneSize(SFTPChannelLane.BULK));
+        assertTrue(poolConfig.laneBorrowing());
+        assertEquals(Optional.of(Duration.ofMillis(100)), poolConfig.adaptiveTargetWaitTime());
+        assertEquals(Duration.ofSeconds(5), poolConfig.adaptiveWindow());
+        assertEquals(2, poolConfig.adaptiveMaxGrowth());
+        assertEquals(3, poolConfig.maxConcurrentConnects());
+        assertEquals(10, poolConfig.maxConnectRate());
 
         assertEquals(expected, env);
     }
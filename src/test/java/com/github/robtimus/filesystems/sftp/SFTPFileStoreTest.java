@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
@@ -29,6 +30,7 @@ import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.DosFileAttributeView;
 import java.nio.file.attribute.FileAttributeView;
 import java.nio.file.attribute.FileOwnerAttributeView;
+import java.nio.file.attribute.FileStoreAttributeView;
 import java.nio.file.attribute.PosixFileAttributeView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -120,17 +122,36 @@ class SFTPFileStoreTest extends AbstractSFTPFileSystemTest {
         }
     }
 
+    @Nested
+    class GetFileStoreAttributeView {
+
+        @Test
+        void testSupported() {
+            SFTPFileStoreAttributeView view = fileStore.getFileStoreAttributeView(SFTPFileStoreAttributeView.class);
+            assertNotNull(view);
+            assertEquals("sftp", view.name());
+        }
+
+        @Test
+        void testNotSupported() {
+            assertNull(fileStore.getFileStoreAttributeView(FileStoreAttributeView.class));
+        }
+    }
+
     @Nested
     class GetAttribute {
 
         @ParameterizedTest(name = "{0}")
-        @ValueSource(strings = { "totalSpace", "usableSpace", "unallocatedSpace" })
+        @ValueSource(strings = { "totalSpace", "usableSpace", "unallocatedSpace",
+                "sftp:poolSize", "sftp:idleCount", "sftp:inUseCount", "sftp:waiterCount", "sftp:poolLimit", "sftp:acquireWaitTime",
+                "sftp:operationLatencies", "sftp:bytesRead", "sftp:bytesWritten", "sftp:openStreamCount", "sftp:reconnectCount",
+                "sftp:validationFailureCount", "sftp:retryCount" })
         void testSupported(String attribute) throws IOException {
             assertNotNull(fileStore.getAttribute(attribute));
         }
 
         @ParameterizedTest(name = "{0}")
-        @ValueSource(strings = { "size", "owner" })
+        @ValueSource(strings = { "size", "owner", "sftp:size", "sftp:name" })
         void testNotSupported(String attribute) {
             assertThrows(UnsupportedOperationException.class, () -> fileStore.getAttribute(attribute));
         }
@@ -26,11 +26,17 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.matchesRegex;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.nio.file.DirectoryIteratorException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.DirectoryStream.Filter;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -109,6 +115,162 @@ class SFTPFileSystemDirectoryStreamTest extends AbstractSFTPFileSystemTest {
         assertThat(names, everyItem(matcher));
     }
 
+    @Test
+    void testIteratorLargeDirectory() throws IOException {
+        // more entries than are buffered, so the listing continues while iterating
+        final int count = 3000;
+
+        List<Matcher<? super String>> matchers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            matchers.add(equalTo("file" + i));
+            addFile("/foo/file" + i);
+        }
+
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> stream = provider().newDirectoryStream(createPath("/foo"), entry -> true)) {
+            for (Iterator<Path> iterator = stream.iterator(); iterator.hasNext(); ) {
+                names.add(iterator.next().getFileName().toString());
+            }
+        }
+        assertThat(names, containsInAnyOrder(matchers));
+    }
+
+    @Test
+    void testCloseLargeDirectoryWhileIterating() throws IOException {
+        final int count = 3000;
+
+        for (int i = 0; i < count; i++) {
+            addFile("/foo/file" + i);
+        }
+
+        try (DirectoryStream<Path> stream = provider().newDirectoryStream(createPath("/foo"), entry -> true)) {
+            Iterator<Path> iterator = stream.iterator();
+            for (int i = 0; i < 10 && iterator.hasNext(); i++) {
+                iterator.next();
+            }
+        }
+
+        // the pool has only one channel; closing the stream must have stopped the listing and released it
+        BasicFileAttributes attributes = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> provider().readAttributes(createPath("/foo"), BasicFileAttributes.class));
+        assertTrue(attributes.isDirectory());
+    }
+
+    @Test
+    void testStalledLargeDirectoryIsNotAbandoned() throws IOException, InterruptedException {
+        final int count = 3000;
+
+        for (int i = 0; i < count; i++) {
+            addFile("/foo/file" + i);
+        }
+
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withMaxSize(2)
+                        .withMaxIdleTime(Duration.ofMillis(200))
+                        .build());
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env);
+                DirectoryStream<Path> stream = Files.newDirectoryStream(fs.getPath("/foo"))) {
+
+            Iterator<Path> iterator = stream.iterator();
+            int consumed = 0;
+            for (; consumed < 10 && iterator.hasNext(); consumed++) {
+                iterator.next();
+            }
+
+            // no entries are consumed for longer than the maximum idle time, like when a parent directory is kept open while walking a file tree
+            Thread.sleep(1000);
+
+            BasicFileAttributes attributes = Files.readAttributes(fs.getPath("/foo"), BasicFileAttributes.class);
+            assertTrue(attributes.isDirectory());
+
+            while (iterator.hasNext()) {
+                iterator.next();
+                consumed++;
+            }
+            assertEquals(count, consumed);
+        }
+    }
+
+    @Test
+    void testUnreachableLargeDirectoryIsAbandoned() throws IOException {
+        final int count = 3000;
+
+        for (int i = 0; i < count; i++) {
+            addFile("/foo/file" + i);
+        }
+
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withMaxSize(1)
+                        .withMaxWaitTime(Duration.ofMillis(100))
+                        .build());
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            openWithoutClosing(fs.getPath("/foo"));
+
+            // once the directory stream has been garbage collected, the listing stops and releases the only channel
+            BasicFileAttributes attributes = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                while (true) {
+                    System.gc();
+                    try {
+                        return Files.readAttributes(fs.getPath("/foo"), BasicFileAttributes.class);
+                    } catch (@SuppressWarnings("unused") IOException e) {
+                        // the channel is still in use
+                    }
+                }
+            });
+            assertTrue(attributes.isDirectory());
+        }
+    }
+
+    private void openWithoutClosing(Path dir) throws IOException {
+        @SuppressWarnings("resource")
+        DirectoryStream<Path> stream = Files.newDirectoryStream(dir);
+        Iterator<Path> iterator = stream.iterator();
+        for (int i = 0; i < 10 && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+    }
+
+    @Test
+    void testListingAttributes() throws IOException {
+        Path file = addFile("/foo/file");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv().withListingAttributesMaxAge(Duration.ofMinutes(1)))) {
+            List<Path> paths = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(fs.getPath("/foo"))) {
+                stream.forEach(paths::add);
+            }
+            assertEquals(1, paths.size());
+
+            setContents(file, "Hello world!!");
+
+            // the attributes from the listing are used
+            assertEquals(11, Files.readAttributes(paths.get(0), BasicFileAttributes.class).size());
+            assertEquals(11, Files.size(paths.get(0)));
+            // other paths do not carry the attributes
+            assertEquals(13, Files.size(fs.getPath("/foo/file")));
+            assertEquals(13, Files.size(paths.get(0).getParent().resolve("file")));
+        }
+    }
+
+    @Test
+    void testListingAttributesNotUsedByDefault() throws IOException {
+        Path file = addFile("/foo/file");
+
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = provider().newDirectoryStream(createPath("/foo"), entry -> true)) {
+            stream.forEach(paths::add);
+        }
+        assertEquals(1, paths.size());
+
+        setContents(file, "Hello world!!");
+
+        assertEquals(13, Files.size(paths.get(0)));
+    }
+
     @Test
     void testIteratorAfterClose() throws IOException {
         try (DirectoryStream<Path> stream = provider().newDirectoryStream(createPath("/"), entry -> true)) {
@@ -187,7 +349,7 @@ class SFTPFileSystemDirectoryStreamTest extends AbstractSFTPFileSystemTest {
         List<Matcher<? super String>> matchers = new ArrayList<>();
         addDirectory("/foo");
         for (int i = 0; i < count; i++) {
-            // the entries are collected before the iteration starts
+            // the first entries are buffered before the iteration starts
             matchers.add(equalTo("file" + i));
             addFile("/foo/file" + i);
         }
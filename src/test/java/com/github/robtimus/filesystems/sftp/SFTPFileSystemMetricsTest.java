@@ -0,0 +1,156 @@
+/*
+ * SFTPFileSystemMetricsTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SFTPFileSystemMetricsTest extends AbstractSFTPFileSystemTest {
+
+    @Test
+    void testPoolMetrics() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            SFTPFileStoreAttributeView view = getView(fs);
+
+            int poolSize = view.getPoolSize();
+            assertTrue(poolSize > 0);
+            assertEquals(poolSize, view.getIdleCount());
+            assertEquals(0, view.getInUseCount());
+            assertEquals(0, view.getWaiterCount());
+            assertTrue(view.getPoolLimit() >= poolSize);
+
+            try (InputStream input = Files.newInputStream(fs.getPath("/foo"))) {
+                // the stream keeps its channel in use
+                assertEquals(1, view.getInUseCount());
+                assertEquals(view.getPoolSize() - 1, view.getIdleCount());
+                assertEquals(1, view.getOpenStreamCount());
+            }
+
+            assertEquals(0, view.getInUseCount());
+            assertEquals(0, view.getOpenStreamCount());
+            assertTrue(view.getAcquireWaitTime().getCount() > 0);
+            assertEquals(0, view.getValidationFailureCount());
+            assertEquals(0, view.getReconnectCount());
+        }
+    }
+
+    @Test
+    void testBytesReadAndWritten() throws IOException {
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            SFTPFileStoreAttributeView view = getView(fs);
+            Path path = fs.getPath("/foo");
+
+            try (OutputStream output = Files.newOutputStream(path)) {
+                output.write(new byte[100]);
+                output.write(1);
+            }
+            assertEquals(101, view.getBytesWritten());
+
+            try (InputStream input = Files.newInputStream(path)) {
+                byte[] buffer = new byte[10];
+                while (input.read(buffer) != -1) {
+                    // read until the end
+                }
+            }
+            assertEquals(101, view.getBytesRead());
+
+            Files.copy(path, fs.getPath("/bar"));
+            assertEquals(202, view.getBytesRead());
+            assertEquals(202, view.getBytesWritten());
+        }
+    }
+
+    @Test
+    void testOperationLatencies() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            SFTPFileStoreAttributeView view = getView(fs);
+            Path path = fs.getPath("/foo");
+
+            Files.readAttributes(path, BasicFileAttributes.class);
+            Files.readAttributes(path, BasicFileAttributes.class);
+            Files.size(path);
+
+            Map<String, SFTPLatencySnapshot> latencies = view.getOperationLatencies();
+            SFTPLatencySnapshot snapshot = latencies.get("readAttributes");
+            // Files.size calls readAttributes as well
+            assertEquals(3, snapshot.getCount());
+            assertTrue(snapshot.getMaxTimeInNanos() > 0);
+            assertTrue(snapshot.getMaxTimeInNanos() <= snapshot.getTotalTimeInNanos());
+            assertTrue(latencies.containsKey("getFileStore"));
+        }
+    }
+
+    @Test
+    void testMBeanRegistration() throws IOException, JMException {
+        addFile("/foo");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName pattern = new ObjectName("com.github.robtimus.filesystems.sftp:type=SFTPFileSystem,*");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv().withMBeanRegistration(true))) {
+            Set<ObjectName> names = server.queryNames(pattern, null);
+            assertEquals(1, names.size());
+
+            ObjectName name = names.iterator().next();
+            assertEquals(getBaseUrl(), ObjectName.unquote(name.getKeyProperty("name")));
+
+            Files.size(fs.getPath("/foo"));
+
+            assertEquals(getView(fs).getPoolSize(), server.getAttribute(name, "PoolSize"));
+            assertEquals(0, server.getAttribute(name, "OpenStreamCount"));
+            assertNotNull(server.getAttribute(name, "OperationLatencies"));
+        }
+
+        assertTrue(server.queryNames(pattern, null).isEmpty());
+    }
+
+    @Test
+    void testNoMBeanRegistrationByDefault() throws IOException, JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName pattern = new ObjectName("com.github.robtimus.filesystems.sftp:type=SFTPFileSystem,*");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            assertFalse(server.queryNames(pattern, null).iterator().hasNext());
+        }
+    }
+
+    private SFTPFileStoreAttributeView getView(FileSystem fs) throws IOException {
+        return Files.getFileStore(fs.getPath("/")).getFileStoreAttributeView(SFTPFileStoreAttributeView.class);
+    }
+}
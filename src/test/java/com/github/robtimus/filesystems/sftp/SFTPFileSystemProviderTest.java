@@ -41,6 +41,7 @@ import java.nio.file.FileSystemException;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.ProviderMismatchException;
@@ -681,6 +682,210 @@ class SFTPFileSystemProviderTest extends AbstractSFTPFileSystemTest {
         }
     }
 
+    @Nested
+    class Download {
+
+        @Test
+        void testDownload() throws IOException {
+            // not a multiple of the chunk size, so the last chunk is smaller
+            byte[] content = new byte[1024 * 1024 + 17];
+            new Random().nextBytes(content);
+            setContents(addFile("/foo"), content);
+
+            SFTPTransferConfig config = SFTPTransferConfig.custom()
+                    .withChunkSize(64 * 1024)
+                    .withParallelism(4)
+                    .withBufferSize(1000)
+                    .build();
+
+            SFTPEnvironment env = createEnv().withPoolConfig(SFTPPoolConfig.custom().withMaxSize(4).build());
+            try (SFTPFileSystem fs = newFileSystem(env)) {
+                SFTPFileSystemProvider.download(fs.getPath("/foo"), getPath("/bar"), config);
+            }
+
+            assertArrayEquals(content, getContents(getPath("/bar")));
+        }
+
+        @Test
+        void testDownloadWithSingleConnection() throws IOException {
+            byte[] content = new byte[100 * 1024];
+            new Random().nextBytes(content);
+            setContents(addFile("/foo"), content);
+            // the existing contents should be replaced
+            setContents(addFile("/bar"), new byte[200 * 1024]);
+
+            SFTPTransferConfig config = SFTPTransferConfig.custom()
+                    .withChunkSize(10 * 1024)
+                    .build();
+
+            // the default file system has only one connection
+            SFTPFileSystemProvider.download(createPath("/foo"), getPath("/bar"), config);
+
+            assertArrayEquals(content, getContents(getPath("/bar")));
+        }
+
+        @Test
+        void testDownloadWithTemporarySuffixAndLastModifiedTime() throws IOException {
+            byte[] content = new byte[100 * 1024];
+            new Random().nextBytes(content);
+            Path source = addFile("/foo");
+            setContents(source, content);
+            FileTime lastModifiedTime = FileTime.fromMillis(1_600_000_000_000L);
+            Files.setLastModifiedTime(source, lastModifiedTime);
+
+            SFTPTransferConfig config = SFTPTransferConfig.custom()
+                    .withChunkSize(10 * 1024)
+                    .withTemporarySuffix(".part")
+                    .withPreserveLastModifiedTime(true)
+                    .build();
+
+            SFTPFileSystemProvider.download(createPath("/foo"), getPath("/bar"), config);
+
+            assertArrayEquals(content, getContents(getPath("/bar")));
+            assertEquals(lastModifiedTime, Files.getLastModifiedTime(getPath("/bar")));
+            assertFalse(Files.exists(getPath("/bar.part")));
+        }
+
+        @Test
+        void testDownloadEmptyFile() throws IOException {
+            setContents(addFile("/foo"), new byte[0]);
+
+            SFTPFileSystemProvider.download(createPath("/foo"), getPath("/bar"), SFTPTransferConfig.defaultConfig());
+
+            assertArrayEquals(new byte[0], getContents(getPath("/bar")));
+        }
+
+        @Test
+        void testDownloadDirectory() throws IOException {
+            addDirectory("/foo");
+
+            SFTPPath source = createPath("/foo");
+            Path target = getPath("/bar");
+            SFTPTransferConfig config = SFTPTransferConfig.defaultConfig();
+
+            FileSystemException exception = assertThrows(FileSystemException.class, () -> SFTPFileSystemProvider.download(source, target, config));
+            assertEquals("/foo", exception.getFile());
+            assertFalse(Files.exists(target));
+        }
+
+        @Test
+        void testDownloadNonExisting() {
+            SFTPPath source = createPath("/foo");
+            Path target = getPath("/bar");
+            SFTPTransferConfig config = SFTPTransferConfig.defaultConfig();
+
+            assertThrows(NoSuchFileException.class, () -> SFTPFileSystemProvider.download(source, target, config));
+            assertFalse(Files.exists(target));
+        }
+
+        @Test
+        void testDownloadFromNonSFTPPath() {
+            Path source = Paths.get("foo");
+            Path target = getPath("/bar");
+            SFTPTransferConfig config = SFTPTransferConfig.defaultConfig();
+
+            assertThrows(ProviderMismatchException.class, () -> SFTPFileSystemProvider.download(source, target, config));
+        }
+    }
+
+    @Nested
+    class Upload {
+
+        @Test
+        void testUpload() throws IOException {
+            // not a multiple of the chunk size, so the last chunk is smaller
+            byte[] content = new byte[1024 * 1024 + 17];
+            new Random().nextBytes(content);
+            setContents(addFile("/foo"), content);
+
+            SFTPTransferConfig config = SFTPTransferConfig.custom()
+                    .withChunkSize(64 * 1024)
+                    .withParallelism(4)
+                    .withBufferSize(1000)
+                    .build();
+
+            SFTPEnvironment env = createEnv().withPoolConfig(SFTPPoolConfig.custom().withMaxSize(4).build());
+            try (SFTPFileSystem fs = newFileSystem(env)) {
+                SFTPFileSystemProvider.upload(getPath("/foo"), fs.getPath("/bar"), config);
+            }
+
+            assertArrayEquals(content, getContents(getPath("/bar")));
+        }
+
+        @Test
+        void testUploadReplacingLargerFile() throws IOException {
+            byte[] content = new byte[100 * 1024];
+            new Random().nextBytes(content);
+            setContents(addFile("/foo"), content);
+            setContents(addFile("/bar"), new byte[200 * 1024]);
+
+            SFTPTransferConfig config = SFTPTransferConfig.custom()
+                    .withChunkSize(10 * 1024)
+                    .build();
+
+            // the default file system has only one connection
+            SFTPFileSystemProvider.upload(getPath("/foo"), createPath("/bar"), config);
+
+            assertArrayEquals(content, getContents(getPath("/bar")));
+        }
+
+        @Test
+        void testUploadEmptyFile() throws IOException {
+            setContents(addFile("/foo"), new byte[0]);
+            setContents(addFile("/bar"), "Hello world");
+
+            SFTPFileSystemProvider.upload(getPath("/foo"), createPath("/bar"), SFTPTransferConfig.defaultConfig());
+
+            assertArrayEquals(new byte[0], getContents(getPath("/bar")));
+        }
+
+        @Test
+        void testUploadWithTemporarySuffixAndLastModifiedTime() throws IOException {
+            byte[] content = new byte[100 * 1024];
+            new Random().nextBytes(content);
+            Path source = addFile("/foo");
+            setContents(source, content);
+            FileTime lastModifiedTime = FileTime.fromMillis(1_600_000_000_000L);
+            Files.setLastModifiedTime(source, lastModifiedTime);
+            setContents(addFile("/bar"), "Hello world");
+
+            SFTPTransferConfig config = SFTPTransferConfig.custom()
+                    .withChunkSize(10 * 1024)
+                    .withTemporarySuffix(".part")
+                    .withPreserveLastModifiedTime(true)
+                    .build();
+
+            SFTPFileSystemProvider.upload(source, createPath("/bar"), config);
+
+            assertArrayEquals(content, getContents(getPath("/bar")));
+            assertEquals(lastModifiedTime, Files.getLastModifiedTime(getPath("/bar")));
+            assertFalse(Files.exists(getPath("/bar.part")));
+        }
+
+        @Test
+        void testUploadToDirectory() throws IOException {
+            addFile("/foo");
+            addDirectory("/bar");
+
+            Path source = getPath("/foo");
+            SFTPPath target = createPath("/bar");
+            SFTPTransferConfig config = SFTPTransferConfig.defaultConfig();
+
+            FileSystemException exception = assertThrows(FileSystemException.class, () -> SFTPFileSystemProvider.upload(source, target, config));
+            assertEquals("/bar", exception.getFile());
+            assertTrue(Files.isDirectory(getPath("/bar")));
+        }
+
+        @Test
+        void testUploadToNonSFTPPath() {
+            Path source = getPath("/foo");
+            Path target = Paths.get("bar");
+            SFTPTransferConfig config = SFTPTransferConfig.defaultConfig();
+
+            assertThrows(ProviderMismatchException.class, () -> SFTPFileSystemProvider.upload(source, target, config));
+        }
+    }
+
     @Nested
     class CreateDirectory {
 
@@ -49,6 +49,7 @@ import java.nio.file.CopyOption;
 import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
@@ -69,6 +70,7 @@ import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.nio.file.attribute.UserPrincipal;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -2963,6 +2965,120 @@ class SFTPFileSystemTest extends AbstractSFTPFileSystemTest {
         }
     }
 
+    @Nested
+    class AttributeCache {
+
+        private SFTPEnvironment createCachingEnv() {
+            return createEnv().withAttributeCacheTimeToLive(Duration.ofMinutes(1));
+        }
+
+        @Test
+        void testCachedAttributes() throws IOException {
+            Path file = addFile("/foo/file");
+            setContents(file, "Hello");
+
+            try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createCachingEnv())) {
+                Path path = fs.getPath("/foo/file");
+                assertEquals(5, Files.size(path));
+                assertFalse(Files.exists(fs.getPath("/foo/bar")));
+
+                setContents(file, "Hello world");
+                addFile("/foo/bar");
+
+                // the attributes are cached, including the absence of /foo/bar
+                assertEquals(5, Files.size(path));
+                assertFalse(Files.exists(fs.getPath("/foo/bar")));
+                // attributes are cached per path and per follow links setting
+                assertEquals(11, Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).size());
+            }
+        }
+
+        @Test
+        void testNotCachedByDefault() throws IOException {
+            Path file = addFile("/foo/file");
+            setContents(file, "Hello");
+
+            SFTPPath path = createPath("/foo/file");
+            assertEquals(5, Files.size(path));
+
+            setContents(file, "Hello world");
+
+            assertEquals(11, Files.size(path));
+        }
+
+        @Test
+        void testInvalidatedByOutputStream() throws IOException {
+            addFile("/foo/file");
+
+            try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createCachingEnv())) {
+                Path path = fs.getPath("/foo/file");
+                assertEquals(11, Files.size(path));
+
+                Files.write(path, "Hello".getBytes());
+
+                assertEquals(5, Files.size(path));
+            }
+        }
+
+        @Test
+        void testInvalidatedByCreateDirectory() throws IOException {
+            try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createCachingEnv())) {
+                Path path = fs.getPath("/foo");
+                assertFalse(Files.exists(path));
+
+                Files.createDirectory(path);
+
+                assertTrue(Files.isDirectory(path));
+            }
+        }
+
+        @Test
+        void testInvalidatedByDelete() throws IOException {
+            addFile("/foo/file");
+
+            try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createCachingEnv())) {
+                Path path = fs.getPath("/foo/file");
+                assertTrue(Files.exists(path));
+
+                Files.delete(path);
+
+                assertFalse(Files.exists(path));
+            }
+        }
+
+        @Test
+        void testInvalidatedByMove() throws IOException {
+            addFile("/foo/bar/file");
+
+            try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createCachingEnv())) {
+                Path source = fs.getPath("/foo/bar");
+                Path target = fs.getPath("/baz");
+                assertTrue(Files.exists(source.resolve("file")));
+                assertFalse(Files.exists(target.resolve("file")));
+
+                Files.move(source, target);
+
+                assertFalse(Files.exists(source.resolve("file")));
+                assertTrue(Files.exists(target.resolve("file")));
+            }
+        }
+
+        @Test
+        void testInvalidatedBySetLastModifiedTime() throws IOException {
+            addFile("/foo/file");
+
+            try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createCachingEnv())) {
+                Path path = fs.getPath("/foo/file");
+                FileTime lastModifiedTime = FileTime.from(1_000_000, TimeUnit.SECONDS);
+                assertNotEquals(lastModifiedTime, Files.getLastModifiedTime(path));
+
+                Files.setLastModifiedTime(path, lastModifiedTime);
+
+                assertEquals(lastModifiedTime, Files.getLastModifiedTime(path));
+            }
+        }
+    }
+
     @Test
     void testGetTotalSpace() throws IOException {
         // SshServer does not support statVFS
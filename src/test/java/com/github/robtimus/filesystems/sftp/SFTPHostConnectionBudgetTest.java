@@ -0,0 +1,98 @@
+/*
+ * SFTPHostConnectionBudgetTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SFTPHostConnectionBudgetTest extends AbstractSFTPFileSystemTest {
+
+    @Test
+    void testExhaustedBudget() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs1 = newFileSystem(Duration.ofMillis(200));
+                FileSystem fs2 = newFileSystem(Duration.ofMillis(200));
+                InputStream input1 = Files.newInputStream(fs1.getPath("/foo"));
+                InputStream input2 = Files.newInputStream(fs2.getPath("/foo"))) {
+
+            // each file system could open another channel, but together they have used up the budget
+            Path path = fs2.getPath("/foo");
+            IOException exception = assertThrows(IOException.class, () -> Files.newInputStream(path));
+            assertEquals(SFTPMessages.clientConnectionWaitTimeoutExpired(), exception.getMessage());
+        }
+    }
+
+    @Test
+    void testIdleChannelIsReclaimed() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs1 = newFileSystem(Duration.ofSeconds(5));
+                FileSystem fs2 = newFileSystem(Duration.ofSeconds(5));
+                InputStream input1 = Files.newInputStream(fs2.getPath("/foo"))) {
+
+            // fs1 has an idle channel, that it closes so fs2 can open a second channel
+            try (InputStream input2 = Files.newInputStream(fs2.getPath("/foo"))) {
+                assertEquals("Hello world", readContents(input2));
+            }
+
+            // fs1 can still open a channel once fs2 no longer needs it
+            try (InputStream input3 = Files.newInputStream(fs1.getPath("/foo"))) {
+                assertEquals("Hello world", readContents(input3));
+            }
+        }
+    }
+
+    @Test
+    void testClosedFileSystemReleasesBudget() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs1 = newFileSystem(Duration.ofMillis(200))) {
+            try (FileSystem fs2 = newFileSystem(Duration.ofMillis(200));
+                    InputStream input1 = Files.newInputStream(fs2.getPath("/foo"))) {
+
+                assertEquals("Hello world", readContents(input1));
+            }
+
+            try (InputStream input1 = Files.newInputStream(fs1.getPath("/foo"));
+                    InputStream input2 = Files.newInputStream(fs1.getPath("/foo"))) {
+
+                assertEquals("Hello world", readContents(input2));
+            }
+        }
+    }
+
+    private FileSystem newFileSystem(Duration maxWaitTime) throws IOException {
+        SFTPEnvironment env = createEnv()
+                .withHostConnectionBudget(2)
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(1)
+                        .withMaxSize(3)
+                        .withMaxWaitTime(maxWaitTime)
+                        .build());
+        return new SFTPFileSystemProvider().newFileSystem(getURI(), env);
+    }
+}
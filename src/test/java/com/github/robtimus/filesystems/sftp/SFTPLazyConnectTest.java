@@ -0,0 +1,104 @@
+/*
+ * SFTPLazyConnectTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SFTPLazyConnectTest extends AbstractSFTPFileSystemTest {
+
+    @Test
+    void testLazyConnect() throws IOException {
+        addFile("/home/foo");
+
+        SFTPEnvironment env = createEnv()
+                .withLazyConnect(true);
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            SFTPFileStoreAttributeView view = getView(fs);
+            assertEquals(0, view.getPoolSize());
+
+            Path path = fs.getPath("foo");
+            assertEquals("/home/foo", path.toAbsolutePath().toString());
+            assertTrue(Files.exists(path));
+            assertTrue(view.getPoolSize() > 0);
+        }
+    }
+
+    @Test
+    void testLazyConnectWithInvalidCredentials() throws IOException {
+        SFTPEnvironment env = createEnv()
+                .withUserInfo(new SimpleUserInfo("invalid".toCharArray()))
+                .withLazyConnect(true);
+        // creating the file system succeeds, but using it fails
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            Path path = fs.getPath("/foo");
+            assertThrows(IOException.class, () -> path.getFileSystem().provider().checkAccess(path));
+        }
+    }
+
+    @Test
+    void testInitialChannels() throws IOException {
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(3)
+                        .withMaxSize(5)
+                        .build());
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            SFTPFileStoreAttributeView view = getView(fs);
+            assertEquals(3, view.getPoolSize());
+            assertEquals(3, view.getIdleCount());
+        }
+    }
+
+    @Test
+    void testNewFileSystemAsync() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        addFile("/foo");
+
+        CompletableFuture<FileSystem> future = new SFTPFileSystemProvider().newFileSystemAsync(getURI(), createEnv());
+        try (FileSystem fs = future.get(10, TimeUnit.SECONDS)) {
+            assertTrue(Files.exists(fs.getPath("/foo")));
+        }
+    }
+
+    @Test
+    void testNewFileSystemAsyncWithInvalidCredentials() throws InterruptedException, TimeoutException {
+        SFTPEnvironment env = createEnv()
+                .withUserInfo(new SimpleUserInfo("invalid".toCharArray()));
+
+        CompletableFuture<FileSystem> future = new SFTPFileSystemProvider().newFileSystemAsync(getURI(), env);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, exception.getCause());
+    }
+
+    private SFTPFileStoreAttributeView getView(FileSystem fs) {
+        // don't use Files.getFileStore, as that connects to check that the path exists
+        return fs.getFileStores().iterator().next().getFileStoreAttributeView(SFTPFileStoreAttributeView.class);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * SFTPMirrorTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel;
+
+@SuppressWarnings("nls")
+class SFTPMirrorTest extends AbstractSFTPFileSystemTest {
+
+    private static final byte[] CONTENTS = "Hello World".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testWithoutMirrors() throws IOException {
+        setContents(addFile("/foo"), CONTENTS);
+
+        try (SFTPFileSystem fs = newFileSystem(createEnv())) {
+            assertEquals(0, fs.mirrors().mirrorCount());
+            assertArrayEquals(CONTENTS, Files.readAllBytes(fs.getPath("/foo")));
+            assertEquals(CONTENTS.length, fs.metrics().getBytesRead());
+        }
+    }
+
+    @Test
+    void testReadsUseMirror() throws IOException {
+        setContents(addFile("/foo"), CONTENTS);
+
+        // 127.0.0.1 is the same server as localhost, but gets its own pool
+        SFTPEnvironment env = createEnv()
+                .withMirror("127.0.0.1", getURI().getPort());
+        try (SFTPFileSystem fs = newFileSystem(env)) {
+            MetricsCollector mirrorMetrics = fs.mirrors().mirrorPool(0).metrics();
+            assertEquals(0, mirrorMetrics.getPoolSize());
+
+            BasicFileAttributes attributes = Files.readAttributes(fs.getPath("/foo"), BasicFileAttributes.class);
+            assertEquals(CONTENTS.length, attributes.size());
+            assertEquals(1, mirrorMetrics.getPoolSize());
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(fs.getPath("/"))) {
+                assertTrue(stream.iterator().hasNext());
+            }
+
+            assertArrayEquals(CONTENTS, Files.readAllBytes(fs.getPath("/foo")));
+            assertEquals(CONTENTS.length, mirrorMetrics.getBytesRead());
+            assertEquals(0, fs.metrics().getBytesRead());
+        }
+    }
+
+    @Test
+    void testWritesUsePrimary() throws IOException {
+        SFTPEnvironment env = createEnv()
+                .withMirror("127.0.0.1", getURI().getPort());
+        try (SFTPFileSystem fs = newFileSystem(env)) {
+            Files.write(fs.getPath("/foo"), CONTENTS);
+            Files.createDirectory(fs.getPath("/bar"));
+
+            assertArrayEquals(CONTENTS, getContents(getFile("/foo")));
+            assertTrue(Files.isDirectory(getPath("/bar")));
+            assertEquals(CONTENTS.length, fs.metrics().getBytesWritten());
+            assertEquals(0, fs.mirrors().mirrorPool(0).metrics().getBytesWritten());
+        }
+    }
+
+    @Test
+    void testCopyReadsSourceFromPrimary() throws IOException {
+        setContents(addFile("/foo"), CONTENTS);
+
+        SFTPEnvironment env = createEnv()
+                .withMirror("127.0.0.1", getURI().getPort());
+        try (SFTPFileSystem fs = newFileSystem(env)) {
+            Files.copy(fs.getPath("/foo"), fs.getPath("/bar"));
+
+            assertArrayEquals(CONTENTS, getContents(getFile("/bar")));
+            assertEquals(CONTENTS.length, fs.metrics().getBytesRead());
+            assertEquals(0, fs.mirrors().mirrorPool(0).metrics().getBytesRead());
+        }
+    }
+
+    @Test
+    void testCopyAcrossFileSystemsReadsSourceFromMirror() throws IOException {
+        setContents(addFile("/foo"), CONTENTS);
+
+        SFTPEnvironment env = createEnv()
+                .withMirror("127.0.0.1", getURI().getPort());
+        try (SFTPFileSystem fs = newFileSystem(env)) {
+            // Files.copy would not let the provider copy the file, because the test file system has a different provider instance
+            fs.provider().copy(fs.getPath("/foo"), createPath("/bar"));
+
+            assertArrayEquals(CONTENTS, getContents(getFile("/bar")));
+            assertEquals(CONTENTS.length, fs.mirrors().mirrorPool(0).metrics().getBytesRead());
+            assertEquals(0, fs.metrics().getBytesRead());
+        }
+    }
+
+    @Test
+    void testMoveAcrossFileSystemsReadsSourceFromPrimary() throws IOException {
+        setContents(addFile("/foo"), CONTENTS);
+
+        SFTPEnvironment env = createEnv()
+                .withMirror("127.0.0.1", getURI().getPort());
+        try (SFTPFileSystem fs = newFileSystem(env)) {
+            fs.provider().move(fs.getPath("/foo"), createPath("/bar"));
+
+            assertArrayEquals(CONTENTS, getContents(getFile("/bar")));
+            assertFalse(Files.exists(getPath("/foo")));
+            assertEquals(CONTENTS.length, fs.metrics().getBytesRead());
+            assertEquals(0, fs.mirrors().mirrorPool(0).metrics().getBytesRead());
+        }
+    }
+
+    @Test
+    void testAttributesFromMirrorNotCached() throws IOException {
+        Path file = addFile("/foo");
+        setContents(file, CONTENTS);
+
+        SFTPEnvironment env = createEnv()
+                .withMirror("127.0.0.1", getURI().getPort())
+                .withAttributeCacheTimeToLive(Duration.ofMinutes(1));
+        try (SFTPFileSystem fs = newFileSystem(env)) {
+            assertEquals(CONTENTS.length, Files.size(fs.getPath("/foo")));
+            assertFalse(Files.exists(fs.getPath("/bar")));
+            assertEquals(1, fs.mirrors().mirrorPool(0).metrics().getPoolSize());
+
+            setContents(file, new byte[CONTENTS.length + 2]);
+            addFile("/bar");
+
+            // neither the attributes nor the missing file were cached
+            assertEquals(CONTENTS.length + 2, Files.size(fs.getPath("/foo")));
+            assertTrue(Files.exists(fs.getPath("/bar")));
+        }
+    }
+
+    @Test
+    void testReadYourWritesWindow() throws IOException {
+        SFTPEnvironment env = createEnv()
+                .withMirror("127.0.0.1", getURI().getPort())
+                .withReadYourWritesWindow(Duration.ofMinutes(1));
+        try (SFTPFileSystem fs = newFileSystem(env)) {
+            Files.write(fs.getPath("/foo"), CONTENTS);
+
+            // the file was just written, so it's read from the primary server
+            assertArrayEquals(CONTENTS, Files.readAllBytes(fs.getPath("/foo")));
+            assertEquals(CONTENTS.length, fs.metrics().getBytesRead());
+            assertEquals(0, fs.mirrors().mirrorPool(0).metrics().getPoolSize());
+        }
+    }
+
+    @Test
+    void testUnreachableMirror() throws IOException {
+        setContents(addFile("/foo"), CONTENTS);
+
+        SFTPEnvironment env = createEnv()
+                .withMirror("localhost", findUnusedPort());
+        // mirrors are connected lazily, so an unreachable mirror doesn't prevent creating the file system
+        try (SFTPFileSystem fs = newFileSystem(env)) {
+            assertTrue(fs.mirrors().isHealthy(0));
+
+            assertArrayEquals(CONTENTS, Files.readAllBytes(fs.getPath("/foo")));
+            assertEquals(CONTENTS.length, fs.metrics().getBytesRead());
+            assertFalse(fs.mirrors().isHealthy(0));
+
+            // the unhealthy mirror is skipped
+            assertTrue(Files.exists(fs.getPath("/foo")));
+            assertEquals(0, fs.mirrors().mirrorPool(0).metrics().getPoolSize());
+        }
+    }
+
+    @Test
+    void testBusyMirror() throws IOException {
+        setContents(addFile("/foo"), CONTENTS);
+
+        SFTPEnvironment env = createEnv()
+                .withMirror("127.0.0.1", getURI().getPort())
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withMaxSize(1)
+                        .withMaxWaitTime(Duration.ofMillis(100))
+                        .build());
+        try (SFTPFileSystem fs = newFileSystem(env);
+                Channel channel = fs.mirrors().mirrorPool(0).get()) {
+
+            // the only channel of the mirror is in use, so the operation uses the primary pool
+            assertArrayEquals(CONTENTS, Files.readAllBytes(fs.getPath("/foo")));
+            assertEquals(CONTENTS.length, fs.metrics().getBytesRead());
+            assertEquals(0, fs.mirrors().mirrorPool(0).metrics().getBytesRead());
+
+            // waiting for a busy mirror is not a failure
+            assertTrue(fs.mirrors().isHealthy(0));
+        }
+    }
+
+    private SFTPFileSystem newFileSystem(SFTPEnvironment env) throws IOException {
+        FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env);
+        return (SFTPFileSystem) fs;
+    }
+
+    private static int findUnusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
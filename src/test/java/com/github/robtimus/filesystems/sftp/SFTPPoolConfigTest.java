@@ -18,12 +18,16 @@
 package com.github.robtimus.filesystems.sftp;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.time.Duration;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import com.github.robtimus.filesystems.sftp.SFTPPoolConfig.Builder;
 
 @SuppressWarnings("nls")
@@ -265,6 +269,648 @@ class SFTPPoolConfigTest {
                 assertEquals(10, config.maxSize());
             }
         }
+
+        @Nested
+        @DisplayName("channelsPerSession")
+        class ChannelsPerSession {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(1, config.channelsPerSession());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPPoolConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withChannelsPerSession(-1));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(1, config.channelsPerSession());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                Builder builder = SFTPPoolConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withChannelsPerSession(0));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(1, config.channelsPerSession());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withChannelsPerSession(4)
+                        .build();
+
+                assertEquals(4, config.channelsPerSession());
+            }
+        }
+
+        @Nested
+        @DisplayName("minIdleSize")
+        class MinIdleSize {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(0, config.minIdleSize());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPPoolConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withMinIdleSize(-1));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(0, config.minIdleSize());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withMinIdleSize(2)
+                        .build();
+
+                assertEquals(2, config.minIdleSize());
+            }
+
+            @Test
+            @DisplayName("larger than maxSize")
+            void testLargerThanMaxSize() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withMaxSize(3)
+                        .withMinIdleSize(5)
+                        .build();
+
+                assertEquals(3, config.minIdleSize());
+            }
+        }
+
+        @Nested
+        @DisplayName("maintenanceInterval")
+        class MaintenanceInterval {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(Optional.empty(), config.maintenanceInterval());
+            }
+
+            @Test
+            @DisplayName("null value")
+            void testNullValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withMaintenanceInterval(Duration.ofSeconds(1))
+                        .withMaintenanceInterval(null)
+                        .build();
+
+                assertEquals(Optional.empty(), config.maintenanceInterval());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withMaintenanceInterval(Duration.ofSeconds(-1))
+                        .build();
+
+                assertEquals(Optional.empty(), config.maintenanceInterval());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withMaintenanceInterval(Duration.ZERO)
+                        .build();
+
+                assertEquals(Optional.empty(), config.maintenanceInterval());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withMaintenanceInterval(Duration.ofSeconds(30))
+                        .build();
+
+                assertEquals(Optional.of(Duration.ofSeconds(30)), config.maintenanceInterval());
+            }
+        }
+
+        @Nested
+        @DisplayName("channelValidation")
+        class ChannelValidation {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(SFTPChannelValidation.ON_ACQUIRE, config.channelValidation());
+            }
+
+            @Test
+            @DisplayName("null value")
+            void testNullValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withChannelValidation(SFTPChannelValidation.NONE)
+                        .withChannelValidation(null)
+                        .build();
+
+                assertEquals(SFTPChannelValidation.ON_ACQUIRE, config.channelValidation());
+            }
+
+            @ParameterizedTest(name = "{0}")
+            @EnumSource(SFTPChannelValidation.class)
+            @DisplayName("non-null value")
+            void testNonNullValue(SFTPChannelValidation channelValidation) {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withChannelValidation(channelValidation)
+                        .build();
+
+                assertEquals(channelValidation, config.channelValidation());
+            }
+        }
+
+        @Nested
+        @DisplayName("validationIdleTime")
+        class ValidationIdleTime {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(Duration.ofSeconds(30), config.validationIdleTime());
+            }
+
+            @Test
+            @DisplayName("null value")
+            void testNullValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withValidationIdleTime(Duration.ofSeconds(5))
+                        .withValidationIdleTime(null)
+                        .build();
+
+                assertEquals(Duration.ofSeconds(30), config.validationIdleTime());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPPoolConfig.custom();
+                Duration validationIdleTime = Duration.ofSeconds(-1);
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withValidationIdleTime(validationIdleTime));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(Duration.ofSeconds(30), config.validationIdleTime());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withValidationIdleTime(Duration.ZERO)
+                        .build();
+
+                assertEquals(Duration.ZERO, config.validationIdleTime());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withValidationIdleTime(Duration.ofSeconds(5))
+                        .build();
+
+                assertEquals(Duration.ofSeconds(5), config.validationIdleTime());
+            }
+        }
+
+        @Nested
+        @DisplayName("retryDeadline")
+        class RetryDeadline {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(Duration.ofSeconds(30), config.retryDeadline());
+            }
+
+            @Test
+            @DisplayName("null value")
+            void testNullValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withRetryDeadline(Duration.ofSeconds(5))
+                        .withRetryDeadline(null)
+                        .build();
+
+                assertEquals(Duration.ofSeconds(30), config.retryDeadline());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPPoolConfig.custom();
+                Duration retryDeadline = Duration.ofSeconds(-1);
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withRetryDeadline(retryDeadline));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(Duration.ofSeconds(30), config.retryDeadline());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withRetryDeadline(Duration.ZERO)
+                        .build();
+
+                assertEquals(Duration.ZERO, config.retryDeadline());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withRetryDeadline(Duration.ofSeconds(5))
+                        .build();
+
+                assertEquals(Duration.ofSeconds(5), config.retryDeadline());
+            }
+        }
+
+        @Nested
+        @DisplayName("laneSize")
+        class LaneSize {
+
+            @ParameterizedTest(name = "{0}")
+            @EnumSource(SFTPChannelLane.class)
+            @DisplayName("default value")
+            void testDefaultValue(SFTPChannelLane lane) {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withMaxSize(10)
+                        .build();
+
+                assertEquals(10, config.laneSize(lane));
+            }
+
+            @Test
+            @DisplayName("null lane")
+            void testNullLane() {
+                Builder builder = SFTPPoolConfig.custom();
+
+                assertThrows(NullPointerException.class, () -> builder.withLaneSize(null, 1));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertThrows(NullPointerException.class, () -> config.laneSize(null));
+            }
+
+            @ParameterizedTest(name = "{0}")
+            @EnumSource(SFTPChannelLane.class)
+            @DisplayName("0 value")
+            void testZeroValue(SFTPChannelLane lane) {
+                Builder builder = SFTPPoolConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withLaneSize(lane, 0));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(5, config.laneSize(lane));
+            }
+
+            @ParameterizedTest(name = "{0}")
+            @EnumSource(SFTPChannelLane.class)
+            @DisplayName("positive value")
+            void testPositiveValue(SFTPChannelLane lane) {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withLaneSize(lane, 3)
+                        .build();
+
+                assertEquals(3, config.laneSize(lane));
+                for (SFTPChannelLane other : SFTPChannelLane.values()) {
+                    if (other != lane) {
+                        assertEquals(5, config.laneSize(other));
+                    }
+                }
+            }
+
+            @ParameterizedTest(name = "{0}")
+            @EnumSource(SFTPChannelLane.class)
+            @DisplayName("larger than maxSize")
+            void testLargerThanMaxSize(SFTPChannelLane lane) {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withLaneSize(lane, 10)
+                        .build();
+
+                assertEquals(5, config.laneSize(lane));
+            }
+
+            @Test
+            @DisplayName("toBuilder with changed maxSize")
+            void testToBuilderWithChangedMaxSize() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withLaneSize(SFTPChannelLane.BULK, 3)
+                        .build()
+                        .toBuilder()
+                        .withMaxSize(10)
+                        .build();
+
+                assertEquals(10, config.laneSize(SFTPChannelLane.INTERACTIVE));
+                assertEquals(3, config.laneSize(SFTPChannelLane.BULK));
+            }
+        }
+
+        @Nested
+        @DisplayName("laneBorrowing")
+        class LaneBorrowing {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertFalse(config.laneBorrowing());
+            }
+
+            @Test
+            @DisplayName("true")
+            void testTrue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withLaneBorrowing(true)
+                        .build();
+
+                assertTrue(config.laneBorrowing());
+            }
+        }
+
+        @Nested
+        @DisplayName("adaptiveTargetWaitTime")
+        class AdaptiveTargetWaitTime {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(Optional.empty(), config.adaptiveTargetWaitTime());
+            }
+
+            @Test
+            @DisplayName("null value")
+            void testNullValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withAdaptiveTargetWaitTime(Duration.ofMillis(100))
+                        .withAdaptiveTargetWaitTime(null)
+                        .build();
+
+                assertEquals(Optional.empty(), config.adaptiveTargetWaitTime());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPPoolConfig.custom();
+                Duration adaptiveTargetWaitTime = Duration.ofSeconds(-1);
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withAdaptiveTargetWaitTime(adaptiveTargetWaitTime));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(Optional.empty(), config.adaptiveTargetWaitTime());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withAdaptiveTargetWaitTime(Duration.ZERO)
+                        .build();
+
+                assertEquals(Optional.of(Duration.ZERO), config.adaptiveTargetWaitTime());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withAdaptiveTargetWaitTime(Duration.ofMillis(100))
+                        .build();
+
+                assertEquals(Optional.of(Duration.ofMillis(100)), config.adaptiveTargetWaitTime());
+            }
+        }
+
+        @Nested
+        @DisplayName("adaptiveWindow")
+        class AdaptiveWindow {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(Duration.ofSeconds(10), config.adaptiveWindow());
+            }
+
+            @Test
+            @DisplayName("null value")
+            void testNullValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withAdaptiveWindow(Duration.ofSeconds(5))
+                        .withAdaptiveWindow(null)
+                        .build();
+
+                assertEquals(Duration.ofSeconds(10), config.adaptiveWindow());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                Builder builder = SFTPPoolConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withAdaptiveWindow(Duration.ZERO));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(Duration.ofSeconds(10), config.adaptiveWindow());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withAdaptiveWindow(Duration.ofSeconds(5))
+                        .build();
+
+                assertEquals(Duration.ofSeconds(5), config.adaptiveWindow());
+            }
+        }
+
+        @Nested
+        @DisplayName("adaptiveMaxGrowth")
+        class AdaptiveMaxGrowth {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(1, config.adaptiveMaxGrowth());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                Builder builder = SFTPPoolConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withAdaptiveMaxGrowth(0));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(1, config.adaptiveMaxGrowth());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withAdaptiveMaxGrowth(3)
+                        .build();
+
+                assertEquals(3, config.adaptiveMaxGrowth());
+            }
+        }
+
+        @Nested
+        @DisplayName("maxConcurrentConnects")
+        class MaxConcurrentConnects {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(0, config.maxConcurrentConnects());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPPoolConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withMaxConcurrentConnects(-1));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(0, config.maxConcurrentConnects());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withMaxConcurrentConnects(3)
+                        .build();
+
+                assertEquals(3, config.maxConcurrentConnects());
+            }
+        }
+
+        @Nested
+        @DisplayName("maxConnectRate")
+        class MaxConnectRate {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .build();
+
+                assertEquals(0, config.maxConnectRate());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPPoolConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withMaxConnectRate(-1));
+
+                SFTPPoolConfig config = builder.build();
+
+                assertEquals(0, config.maxConnectRate());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPPoolConfig config = SFTPPoolConfig.custom()
+                        .withMaxConnectRate(10)
+                        .build();
+
+                assertEquals(10, config.maxConnectRate());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("defaultConfig")
+    class DefaultConfig {
+
+        @Test
+        @DisplayName("default durations")
+        void testDefaultDurations() {
+            SFTPPoolConfig config = SFTPPoolConfig.defaultConfig();
+
+            assertEquals(Duration.ofSeconds(30), config.validationIdleTime());
+            assertEquals(Duration.ofSeconds(30), config.retryDeadline());
+            assertEquals(Duration.ofSeconds(10), config.adaptiveWindow());
+        }
+
+        @Test
+        @DisplayName("same as custom().build()")
+        void testSameAsCustom() {
+            assertEquals(SFTPPoolConfig.custom().build().toString(), SFTPPoolConfig.defaultConfig().toString());
+        }
     }
 
     @Nested
@@ -277,7 +923,11 @@ class SFTPPoolConfigTest {
             SFTPPoolConfig config = SFTPPoolConfig.custom()
                     .build();
 
-            assertEquals("SFTPPoolConfig[maxWaitTime=null,maxIdleTime=null,initialSize=1,maxSize=5]", config.toString());
+            assertEquals("SFTPPoolConfig[maxWaitTime=null,maxIdleTime=null,initialSize=1,maxSize=5,channelsPerSession=1"
+                    + ",minIdleSize=0,maintenanceInterval=null,channelValidation=ON_ACQUIRE,validationIdleTime=PT30S"
+                    + ",retryDeadline=PT30S,interactiveLaneSize=5,bulkLaneSize=5,laneBorrowing=false"
+                    + ",adaptiveTargetWaitTime=null,adaptiveWindow=PT10S,adaptiveMaxGrowth=1"
+                    + ",maxConcurrentConnects=0,maxConnectRate=0]", config.toString());
         }
 
         @Test
@@ -288,7 +938,87 @@ class SFTPPoolConfigTest {
                     .withMaxIdleTime(Duration.ofSeconds(5))
                     .build();
 
-            assertEquals("SFTPPoolConfig[maxWaitTime=PT0S,maxIdleTime=PT5S,initialSize=1,maxSize=5]", config.toString());
+            assertEquals("SFTPPoolConfig[maxWaitTime=PT0S,maxIdleTime=PT5S,initialSize=1,maxSize=5,channelsPerSession=1"
+                    + ",minIdleSize=0,maintenanceInterval=null,channelValidation=ON_ACQUIRE,validationIdleTime=PT30S"
+                    + ",retryDeadline=PT30S,interactiveLaneSize=5,bulkLaneSize=5,laneBorrowing=false"
+                    + ",adaptiveTargetWaitTime=null,adaptiveWindow=PT10S,adaptiveMaxGrowth=1"
+                    + ",maxConcurrentConnects=0,maxConnectRate=0]", config.toString());
+        }
+
+        @Test
+        @DisplayName("with background maintenance")
+        void testWithMaintenance() {
+            SFTPPoolConfig config = SFTPPoolConfig.custom()
+                    .withMinIdleSize(2)
+                    .withMaintenanceInterval(Duration.ofSeconds(30))
+                    .build();
+
+            assertEquals("SFTPPoolConfig[maxWaitTime=null,maxIdleTime=null,initialSize=1,maxSize=5,channelsPerSession=1"
+                    + ",minIdleSize=2,maintenanceInterval=PT30S,channelValidation=ON_ACQUIRE,validationIdleTime=PT30S"
+                    + ",retryDeadline=PT30S,interactiveLaneSize=5,bulkLaneSize=5,laneBorrowing=false"
+                    + ",adaptiveTargetWaitTime=null,adaptiveWindow=PT10S,adaptiveMaxGrowth=1"
+                    + ",maxConcurrentConnects=0,maxConnectRate=0]", config.toString());
+        }
+
+        @Test
+        @DisplayName("with channel validation")
+        void testWithChannelValidation() {
+            SFTPPoolConfig config = SFTPPoolConfig.custom()
+                    .withChannelValidation(SFTPChannelValidation.AFTER_IDLE_TIME)
+                    .withValidationIdleTime(Duration.ofSeconds(5))
+                    .build();
+
+            assertEquals("SFTPPoolConfig[maxWaitTime=null,maxIdleTime=null,initialSize=1,maxSize=5,channelsPerSession=1"
+                    + ",minIdleSize=0,maintenanceInterval=null,channelValidation=AFTER_IDLE_TIME,validationIdleTime=PT5S"
+                    + ",retryDeadline=PT30S,interactiveLaneSize=5,bulkLaneSize=5,laneBorrowing=false"
+                    + ",adaptiveTargetWaitTime=null,adaptiveWindow=PT10S,adaptiveMaxGrowth=1"
+                    + ",maxConcurrentConnects=0,maxConnectRate=0]", config.toString());
+        }
+
+        @Test
+        @DisplayName("with adaptive size")
+        void testWithAdaptiveSize() {
+            SFTPPoolConfig config = SFTPPoolConfig.custom()
+                    .withAdaptiveTargetWaitTime(Duration.ofMillis(100))
+                    .withAdaptiveWindow(Duration.ofSeconds(5))
+                    .withAdaptiveMaxGrowth(2)
+                    .build();
+
+            assertEquals("SFTPPoolConfig[maxWaitTime=null,maxIdleTime=null,initialSize=1,maxSize=5,channelsPerSession=1"
+                    + ",minIdleSize=0,maintenanceInterval=null,channelValidation=ON_ACQUIRE,validationIdleTime=PT30S"
+                    + ",retryDeadline=PT30S,interactiveLaneSize=5,bulkLaneSize=5,laneBorrowing=false"
+                    + ",adaptiveTargetWaitTime=PT0.1S,adaptiveWindow=PT5S,adaptiveMaxGrowth=2"
+                    + ",maxConcurrentConnects=0,maxConnectRate=0]", config.toString());
+        }
+
+        @Test
+        @DisplayName("with lanes")
+        void testWithLanes() {
+            SFTPPoolConfig config = SFTPPoolConfig.custom()
+                    .withLaneSize(SFTPChannelLane.BULK, 3)
+                    .withLaneBorrowing(true)
+                    .build();
+
+            assertEquals("SFTPPoolConfig[maxWaitTime=null,maxIdleTime=null,initialSize=1,maxSize=5,channelsPerSession=1"
+                    + ",minIdleSize=0,maintenanceInterval=null,channelValidation=ON_ACQUIRE,validationIdleTime=PT30S"
+                    + ",retryDeadline=PT30S,interactiveLaneSize=5,bulkLaneSize=3,laneBorrowing=true"
+                    + ",adaptiveTargetWaitTime=null,adaptiveWindow=PT10S,adaptiveMaxGrowth=1"
+                    + ",maxConcurrentConnects=0,maxConnectRate=0]", config.toString());
+        }
+
+        @Test
+        @DisplayName("with connect limits")
+        void testWithConnectLimits() {
+            SFTPPoolConfig config = SFTPPoolConfig.custom()
+                    .withMaxConcurrentConnects(2)
+                    .withMaxConnectRate(10)
+                    .build();
+
+            assertEquals("SFTPPoolConfig[maxWaitTime=null,maxIdleTime=null,initialSize=1,maxSize=5,channelsPerSession=1"
+                    + ",minIdleSize=0,maintenanceInterval=null,channelValidation=ON_ACQUIRE,validationIdleTime=PT30S"
+                    + ",retryDeadline=PT30S,interactiveLaneSize=5,bulkLaneSize=5,laneBorrowing=false"
+                    + ",adaptiveTargetWaitTime=null,adaptiveWindow=PT10S,adaptiveMaxGrowth=1"
+                    + ",maxConcurrentConnects=2,maxConnectRate=10]", config.toString());
         }
     }
 }
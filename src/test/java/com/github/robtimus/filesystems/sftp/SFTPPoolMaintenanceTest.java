@@ -0,0 +1,131 @@
+/*
+ * SFTPPoolMaintenanceTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SFTPPoolMaintenanceTest extends AbstractSFTPFileSystemTest {
+
+    @Test
+    void testPrewarm() throws IOException, InterruptedException {
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(1)
+                        .withMaxSize(5)
+                        .withMinIdleSize(3)
+                        .withMaintenanceInterval(Duration.ofMillis(50))
+                        .build());
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            MetricsCollector view = getView(fs);
+
+            awaitAtLeast(3, view::getIdleCount);
+
+            assertEquals(3, view.getPoolSize());
+            assertEquals(0, view.getInUseCount());
+
+            // later maintenance runs must not open more channels
+            awaitAtLeast(view.maintenanceRunCount() + 2, view::maintenanceRunCount);
+
+            assertEquals(3, view.getPoolSize());
+            assertEquals(3, view.getIdleCount());
+            assertEquals(3, view.createdChannelCount());
+        }
+    }
+
+    @Test
+    void testExpiredChannelsReplaced() throws IOException, InterruptedException {
+        addFile("/foo");
+
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(1)
+                        .withMaxSize(5)
+                        .withMaxIdleTime(Duration.ofMillis(100))
+                        .withMinIdleSize(2)
+                        .withMaintenanceInterval(Duration.ofMillis(50))
+                        .build());
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            MetricsCollector view = getView(fs);
+
+            awaitAtLeast(2, view::getIdleCount);
+
+            // let the idle channels expire and be replaced several times
+            awaitAtLeast(6, view::destroyedChannelCount);
+            awaitAtLeast(8, view::createdChannelCount);
+
+            awaitAtLeast(2, view::getIdleCount);
+            assertTrue(Files.exists(fs.getPath("/foo")));
+            // expired channels are not broken
+            assertEquals(0, view.getValidationFailureCount());
+        }
+    }
+
+    @Test
+    void testWithoutMaintenance() throws IOException, InterruptedException {
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(1)
+                        .withMaxSize(5)
+                        .withMinIdleSize(3)
+                        .build());
+        SFTPEnvironment maintainedEnv = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(1)
+                        .withMaxSize(5)
+                        .withMinIdleSize(3)
+                        .withMaintenanceInterval(Duration.ofMillis(50))
+                        .build());
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            MetricsCollector view = getView(fs);
+
+            // give maintenance enough time to have opened channels, if it were enabled
+            try (FileSystem maintainedFs = new SFTPFileSystemProvider().newFileSystem(getURI(), maintainedEnv)) {
+                MetricsCollector maintainedView = getView(maintainedFs);
+
+                awaitAtLeast(maintainedView.maintenanceRunCount() + 2, maintainedView::maintenanceRunCount);
+            }
+
+            assertEquals(1, view.getPoolSize());
+            assertEquals(0, view.maintenanceRunCount());
+        }
+    }
+
+    private static void awaitAtLeast(long expected, LongSupplier actual) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (actual.getAsLong() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(actual.getAsLong() >= expected, () -> "expected at least " + expected + ", was " + actual.getAsLong());
+    }
+
+    private MetricsCollector getView(FileSystem fs) throws IOException {
+        return (MetricsCollector) Files.getFileStore(fs.getPath("/")).getFileStoreAttributeView(SFTPFileStoreAttributeView.class);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * SFTPRequestStatisticsTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SFTPRequestStatisticsTest extends AbstractSFTPFileSystemTest {
+
+    @Test
+    void testReadAttributes() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            SFTPRequestStatistics statistics = SFTPFileSystemProvider.getRequestStatistics(fs);
+
+            Files.readAttributes(fs.getPath("/foo"), BasicFileAttributes.class);
+
+            assertEquals(1, statistics.requestCount());
+            assertEquals(1, statistics.requestCount("readAttributes"));
+            assertEquals(1, statistics.requestCount("readAttributes", SFTPRequestType.STAT));
+            assertEquals(1, statistics.requestCount(SFTPRequestType.STAT));
+            assertEquals(Collections.singleton("readAttributes"), statistics.operations());
+            assertFalse(statistics.requestTime("readAttributes").isNegative());
+        }
+    }
+
+    @Test
+    void testCopyReplaceExisting() throws IOException {
+        addFile("/foo");
+        addFile("/bar");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            SFTPRequestStatistics statistics = SFTPFileSystemProvider.getRequestStatistics(fs);
+
+            Files.copy(fs.getPath("/foo"), fs.getPath("/bar"), StandardCopyOption.REPLACE_EXISTING);
+
+            // real path of the source and target, existence check of the target
+            assertEquals(3, statistics.requestCount("copy", SFTPRequestType.LSTAT));
+            assertEquals(1, statistics.requestCount("copy", SFTPRequestType.REMOVE));
+            assertEquals(1, statistics.requestCount("copy", SFTPRequestType.GET));
+            assertEquals(1, statistics.requestCount("copy", SFTPRequestType.PUT));
+            assertEquals(6, statistics.requestCount("copy"));
+            assertEquals(6, statistics.requestCount());
+        }
+    }
+
+    @Test
+    void testUploadCountsImplicitStatPerChunk() throws IOException {
+        setContents(addFile("/foo"), new byte[3 * 1024]);
+
+        SFTPTransferConfig config = SFTPTransferConfig.custom()
+                .withChunkSize(1024)
+                .build();
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            SFTPRequestStatistics statistics = SFTPFileSystemProvider.getRequestStatistics(fs);
+
+            SFTPFileSystemProvider.upload(getPath("/foo"), fs.getPath("/bar"), config);
+
+            // one for creating the file, and one per chunk
+            assertEquals(4, statistics.requestCount("upload", SFTPRequestType.PUT));
+            // one for checking the target, and one implicit one per chunk
+            assertEquals(4, statistics.requestCount("upload", SFTPRequestType.STAT));
+        }
+    }
+
+    @Test
+    void testOuterOperationWins() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            SFTPRequestStatistics statistics = SFTPFileSystemProvider.getRequestStatistics(fs);
+
+            // setAttribute uses a file attribute view internally
+            Files.setAttribute(fs.getPath("/foo"), "basic:lastModifiedTime", FileTime.fromMillis(0));
+
+            assertEquals(Collections.singleton("setAttribute"), statistics.operations());
+            assertTrue(statistics.requestCount("setAttribute", SFTPRequestType.SETSTAT) > 0);
+        }
+    }
+
+    @Test
+    void testFailedRequest() throws IOException {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        SFTPEnvironment env = createEnv()
+                .withRequestListener((operation, type, path, durationInNanos, failed) ->
+                        events.add(operation + " " + type + " " + path + " " + failed));
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            SFTPRequestStatistics statistics = SFTPFileSystemProvider.getRequestStatistics(fs);
+            Path path = fs.getPath("/foo");
+
+            assertThrows(NoSuchFileException.class, () -> Files.readAttributes(path, BasicFileAttributes.class));
+
+            assertEquals(1, statistics.requestCount("readAttributes", SFTPRequestType.STAT));
+            assertEquals(Arrays.asList("readAttributes STAT /foo true"), events);
+        }
+    }
+
+    @Test
+    void testListener() throws IOException {
+        addFile("/foo");
+
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        SFTPEnvironment env = createEnv()
+                .withRequestListener((operation, type, path, durationInNanos, failed) -> events.add(operation + " " + type + " " + path));
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            Path path = fs.getPath("/foo");
+
+            try (InputStream input = Files.newInputStream(path, StandardOpenOption.DELETE_ON_CLOSE)) {
+                input.read();
+            }
+
+            // deleting the file on close is not done by any specific operation
+            assertEquals(Arrays.asList("newInputStream GET /foo", "other REMOVE /foo"), events);
+            assertEquals(new TreeSet<>(Arrays.asList("newInputStream", SFTPRequestStatistics.OTHER_OPERATION)),
+                    SFTPFileSystemProvider.getRequestStatistics(fs).operations());
+        }
+    }
+
+    @Test
+    void testThrowingListener() throws IOException {
+        addFile("/foo");
+
+        SFTPEnvironment env = createEnv()
+                .withRequestListener((operation, type, path, durationInNanos, failed) -> {
+                    throw new IllegalStateException(operation);
+                });
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            SFTPRequestStatistics statistics = SFTPFileSystemProvider.getRequestStatistics(fs);
+
+            assertTrue(Files.readAttributes(fs.getPath("/foo"), BasicFileAttributes.class).isRegularFile());
+            assertThrows(NoSuchFileException.class, () -> Files.readAttributes(fs.getPath("/bar"), BasicFileAttributes.class));
+
+            assertEquals(2, statistics.requestCount("readAttributes", SFTPRequestType.STAT));
+        }
+    }
+
+    @Test
+    void testDirectoryStream() throws IOException {
+        addFile("/dir/foo");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            SFTPRequestStatistics statistics = SFTPFileSystemProvider.getRequestStatistics(fs);
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(fs.getPath("/dir"))) {
+                stream.forEach(p -> { /* consume all entries */ });
+            }
+
+            assertEquals(1, statistics.requestCount("newDirectoryStream", SFTPRequestType.LIST));
+        }
+    }
+
+    @Test
+    void testReset() throws IOException {
+        addFile("/foo");
+
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+            SFTPRequestStatistics statistics = SFTPFileSystemProvider.getRequestStatistics(fs);
+
+            Files.exists(fs.getPath("/foo"));
+            assertEquals(1, statistics.requestCount());
+
+            statistics.reset();
+
+            assertEquals(0, statistics.requestCount());
+            assertEquals(Collections.emptySet(), statistics.operations());
+        }
+    }
+
+    @Test
+    void testGetRequestStatisticsForNonSFTPFileSystem() {
+        FileSystem fs = getPath("/").getFileSystem();
+        assertThrows(ProviderMismatchException.class, () -> SFTPFileSystemProvider.getRequestStatistics(fs));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * SFTPResumableStreamTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SFTPResumableStreamTest extends AbstractSFTPFileSystemTest {
+
+    private static final int CONTENT_SIZE = 1024 * 1024;
+
+    @Test
+    void testReadWithoutConnectionLoss() throws IOException {
+        final String content = "Hello World";
+
+        Path file = addFile("/foo");
+        setContents(file, content);
+
+        try (InputStream input = provider().newInputStream(createPath("/foo"), SFTPOpenOption.RESUMABLE)) {
+            assertArrayEquals(content.getBytes(), readRemaining(input));
+        }
+    }
+
+    @Test
+    void testReadAfterConnectionLoss() throws IOException {
+        byte[] content = createContent();
+
+        Path file = addFile("/foo");
+        setContents(file, content);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream input = provider().newInputStream(createPath("/foo"), SFTPOpenOption.RESUMABLE)) {
+            byte[] b = new byte[1024];
+            int n = input.read(b);
+            output.write(b, 0, n);
+
+            closeServerSessions();
+
+            output.write(readRemaining(input));
+        }
+        assertArrayEquals(content, output.toByteArray());
+    }
+
+    @Test
+    void testReadAfterConnectionLossWithChangedFile() throws IOException {
+        byte[] content = createContent();
+
+        Path file = addFile("/foo");
+        setContents(file, content);
+
+        try (InputStream input = provider().newInputStream(createPath("/foo"), SFTPOpenOption.RESUMABLE)) {
+            assertEquals(content[0] & 0xFF, input.read());
+
+            closeServerSessions();
+            setContents(file, "Hello World");
+
+            IOException exception = assertThrows(IOException.class, () -> readRemaining(input));
+            assertEquals(SFTPMessages.fileChangedDuringTransfer("/foo"), exception.getMessage());
+        }
+    }
+
+    @Test
+    void testReadWithDeleteOnClose() throws IOException {
+        Path file = addFile("/foo");
+        setContents(file, createContent());
+
+        try (InputStream input = provider().newInputStream(createPath("/foo"), SFTPOpenOption.RESUMABLE, StandardOpenOption.DELETE_ON_CLOSE)) {
+            readRemaining(input);
+        }
+        assertFalse(Files.exists(getPath("/foo")));
+    }
+
+    @Test
+    void testWriteWithoutConnectionLoss() throws IOException {
+        final String content = "Hello World";
+
+        Path file = addFile("/foo");
+
+        try (OutputStream output = provider().newOutputStream(createPath("/foo"), SFTPOpenOption.RESUMABLE)) {
+            output.write(content.getBytes());
+        }
+        assertArrayEquals(content.getBytes(), getContents(file));
+    }
+
+    @Test
+    void testWriteAfterConnectionLoss() throws IOException {
+        byte[] content = createContent();
+        int half = content.length / 2;
+
+        Path file = addFile("/foo");
+
+        try (OutputStream output = provider().newOutputStream(createPath("/foo"), SFTPOpenOption.RESUMABLE)) {
+            output.write(content, 0, half);
+            output.flush();
+
+            closeServerSessions();
+
+            output.write(content, half, content.length - half);
+        }
+        assertArrayEquals(content, getContents(file));
+    }
+
+    @Test
+    void testAppendAfterConnectionLoss() throws IOException {
+        byte[] content = createContent();
+        int half = content.length / 2;
+
+        Path file = addFile("/foo");
+        setContents(file, "Hello World");
+
+        try (OutputStream output = provider().newOutputStream(createPath("/foo"), SFTPOpenOption.RESUMABLE, StandardOpenOption.APPEND)) {
+            output.write(content, 0, half);
+            output.flush();
+
+            closeServerSessions();
+
+            output.write(content, half, content.length - half);
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write("Hello World".getBytes());
+        expected.write(content);
+        assertArrayEquals(expected.toByteArray(), getContents(file));
+    }
+
+    private static byte[] createContent() {
+        byte[] content = new byte[CONTENT_SIZE];
+        new Random(0).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] readRemaining(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] b = new byte[1024];
+        int n;
+        while ((n = input.read(b)) != -1) {
+            output.write(b, 0, n);
+        }
+        return output.toByteArray();
+    }
+}
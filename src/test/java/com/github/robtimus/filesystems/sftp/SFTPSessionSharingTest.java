@@ -0,0 +1,102 @@
+/*
+ * SFTPSessionSharingTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SFTPSessionSharingTest extends AbstractSFTPFileSystemTest {
+
+    @Test
+    void testSessionIsReusedAfterClose() throws IOException {
+        addFile("/foo");
+
+        SFTPFileSystemProvider provider = new SFTPFileSystemProvider();
+        SFTPEnvironment env = createEnv()
+                .withSessionSharing(Duration.ofMinutes(1));
+        URI uri = getURI();
+        SessionRegistry.Key key = env.sessionKey(uri.getHost(), uri.getPort());
+
+        try (FileSystem fs = provider.newFileSystem(uri, env)) {
+            assertTrue(Files.exists(fs.getPath("/foo")));
+            assertEquals(1, provider.sessionRegistry().sessionCount(key));
+        }
+
+        // the session lingers after the file system is closed
+        assertEquals(1, provider.sessionRegistry().sessionCount(key));
+
+        try (FileSystem fs = provider.newFileSystem(uri, env)) {
+            assertTrue(Files.exists(fs.getPath("/foo")));
+            assertEquals(1, provider.sessionRegistry().sessionCount(key));
+        }
+    }
+
+    @Test
+    void testSessionIsClosedAfterLingerTime() throws IOException, InterruptedException {
+        SFTPFileSystemProvider provider = new SFTPFileSystemProvider();
+        SFTPEnvironment env = createEnv()
+                .withSessionSharing(Duration.ofMillis(100));
+        URI uri = getURI();
+        SessionRegistry.Key key = env.sessionKey(uri.getHost(), uri.getPort());
+
+        provider.newFileSystem(uri, env).close();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (provider.sessionRegistry().sessionCount(key) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, provider.sessionRegistry().sessionCount(key));
+    }
+
+    @Test
+    void testSessionsAreNotSharedWithOtherCredentials() throws IOException {
+        SFTPFileSystemProvider provider = new SFTPFileSystemProvider();
+        SFTPEnvironment env1 = createEnv()
+                .withSessionSharing(Duration.ofMinutes(1));
+        // createEnv uses a new user info object, so these are different credentials
+        SFTPEnvironment env2 = createEnv()
+                .withSessionSharing(Duration.ofMinutes(1));
+        URI uri = getURI();
+        SessionRegistry.Key key1 = env1.sessionKey(uri.getHost(), uri.getPort());
+        SessionRegistry.Key key2 = env2.sessionKey(uri.getHost(), uri.getPort());
+
+        provider.newFileSystem(uri, env1).close();
+        provider.newFileSystem(uri, env2).close();
+
+        assertEquals(1, provider.sessionRegistry().sessionCount(key1));
+        assertEquals(1, provider.sessionRegistry().sessionCount(key2));
+    }
+
+    @Test
+    void testSessionsAreNotSharedByDefault() throws IOException {
+        SFTPFileSystemProvider provider = new SFTPFileSystemProvider();
+        SFTPEnvironment env = createEnv();
+        URI uri = getURI();
+
+        provider.newFileSystem(uri, env).close();
+
+        assertEquals(0, provider.sessionRegistry().sessionCount(env.sessionKey(uri.getHost(), uri.getPort())));
+    }
+}
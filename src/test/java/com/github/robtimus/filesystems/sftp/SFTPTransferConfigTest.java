@@ -0,0 +1,262 @@
+/*
+ * SFTPTransferConfigTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.filesystems.sftp.SFTPTransferConfig.Builder;
+
+@SuppressWarnings("nls")
+class SFTPTransferConfigTest {
+
+    @Nested
+    @DisplayName("Builder")
+    class BuilderTest {
+
+        @Nested
+        @DisplayName("chunkSize")
+        class ChunkSize {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .build();
+
+                assertEquals(8 * 1024 * 1024, config.chunkSize());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPTransferConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withChunkSize(-1));
+
+                SFTPTransferConfig config = builder.build();
+
+                assertEquals(8 * 1024 * 1024, config.chunkSize());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                Builder builder = SFTPTransferConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withChunkSize(0));
+
+                SFTPTransferConfig config = builder.build();
+
+                assertEquals(8 * 1024 * 1024, config.chunkSize());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .withChunkSize(1024)
+                        .build();
+
+                assertEquals(1024, config.chunkSize());
+            }
+        }
+
+        @Nested
+        @DisplayName("parallelism")
+        class Parallelism {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .build();
+
+                assertEquals(4, config.parallelism());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPTransferConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withParallelism(-1));
+
+                SFTPTransferConfig config = builder.build();
+
+                assertEquals(4, config.parallelism());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                Builder builder = SFTPTransferConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withParallelism(0));
+
+                SFTPTransferConfig config = builder.build();
+
+                assertEquals(4, config.parallelism());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .withParallelism(8)
+                        .build();
+
+                assertEquals(8, config.parallelism());
+            }
+        }
+
+        @Nested
+        @DisplayName("bufferSize")
+        class BufferSize {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .build();
+
+                assertEquals(32 * 1024, config.bufferSize());
+            }
+
+            @Test
+            @DisplayName("negative value")
+            void testNegativeValue() {
+                Builder builder = SFTPTransferConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withBufferSize(-1));
+
+                SFTPTransferConfig config = builder.build();
+
+                assertEquals(32 * 1024, config.bufferSize());
+            }
+
+            @Test
+            @DisplayName("0 value")
+            void testZeroValue() {
+                Builder builder = SFTPTransferConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withBufferSize(0));
+
+                SFTPTransferConfig config = builder.build();
+
+                assertEquals(32 * 1024, config.bufferSize());
+            }
+
+            @Test
+            @DisplayName("positive value")
+            void testPositiveValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .withBufferSize(1024)
+                        .build();
+
+                assertEquals(1024, config.bufferSize());
+            }
+        }
+
+        @Nested
+        @DisplayName("temporarySuffix")
+        class TemporarySuffix {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .build();
+
+                assertEquals(Optional.empty(), config.temporarySuffix());
+            }
+
+            @Test
+            @DisplayName("null value")
+            void testNullValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .withTemporarySuffix(".part")
+                        .withTemporarySuffix(null)
+                        .build();
+
+                assertEquals(Optional.empty(), config.temporarySuffix());
+            }
+
+            @Test
+            @DisplayName("empty value")
+            void testEmptyValue() {
+                Builder builder = SFTPTransferConfig.custom();
+
+                assertThrows(IllegalArgumentException.class, () -> builder.withTemporarySuffix(""));
+
+                SFTPTransferConfig config = builder.build();
+
+                assertEquals(Optional.empty(), config.temporarySuffix());
+            }
+
+            @Test
+            @DisplayName("non-empty value")
+            void testNonEmptyValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .withTemporarySuffix(".part")
+                        .build();
+
+                assertEquals(Optional.of(".part"), config.temporarySuffix());
+            }
+        }
+
+        @Nested
+        @DisplayName("preserveLastModifiedTime")
+        class PreserveLastModifiedTime {
+
+            @Test
+            @DisplayName("default value")
+            void testDefaultValue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .build();
+
+                assertFalse(config.preserveLastModifiedTime());
+            }
+
+            @Test
+            @DisplayName("true")
+            void testTrue() {
+                SFTPTransferConfig config = SFTPTransferConfig.custom()
+                        .withPreserveLastModifiedTime(true)
+                        .build();
+
+                assertTrue(config.preserveLastModifiedTime());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("toString")
+    void testToString() {
+        SFTPTransferConfig config = SFTPTransferConfig.custom()
+                .build();
+
+        assertEquals("SFTPTransferConfig[chunkSize=8388608,parallelism=4,bufferSize=32768,temporarySuffix=null,preserveLastModifiedTime=false]",
+                config.toString());
+    }
+}
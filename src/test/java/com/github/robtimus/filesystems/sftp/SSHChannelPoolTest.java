@@ -20,16 +20,36 @@ package com.github.robtimus.filesystems.sftp;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import com.github.robtimus.filesystems.sftp.SSHChannelPool.Channel;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
 
+@SuppressWarnings("nls")
 class SSHChannelPoolTest extends AbstractSFTPFileSystemTest {
 
     @Test
@@ -64,6 +84,288 @@ class SSHChannelPoolTest extends AbstractSFTPFileSystemTest {
         }
     }
 
+    @Test
+    void testTryGet() throws Exception {
+        final int clientCount = 2;
+
+        URI uri = getURI();
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withMaxSize(clientCount)
+                        .build()
+                );
+
+        SSHChannelPool pool = new SSHChannelPool(uri.getHost(), uri.getPort(), env);
+        List<Channel> channels = new ArrayList<>();
+        try {
+            claimChannels(pool, clientCount - 1, channels);
+
+            // a new channel can still be opened
+            Channel channel = pool.tryGet(SFTPChannelLane.BULK);
+            assertNotNull(channel);
+            channels.add(channel);
+
+            // the pool is exhausted; tryGet must neither wait nor open a channel beyond the maximum size
+            assertNull(assertTimeoutPreemptively(Duration.ofSeconds(1), () -> pool.tryGet(SFTPChannelLane.BULK)));
+            assertEquals(clientCount, pool.metrics().getPoolSize());
+
+            // a released channel can be acquired again
+            channels.remove(channel);
+            channel.close();
+            channel = pool.tryGet(SFTPChannelLane.BULK);
+            assertNotNull(channel);
+            channels.add(channel);
+        } finally {
+            for (Channel channel : channels) {
+                channel.close();
+            }
+            pool.close();
+        }
+    }
+
+    @Test
+    void testChannelsPerSession() throws Exception {
+        final int clientCount = 5;
+
+        URI uri = getURI();
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withMaxSize(clientCount)
+                        .withChannelsPerSession(2)
+                        .build()
+                );
+
+        SSHChannelPool pool = new SSHChannelPool(uri.getHost(), uri.getPort(), env);
+        List<Channel> channels = new ArrayList<>();
+        try {
+            claimChannels(pool, clientCount, channels);
+
+            assertEquals(3, pool.sessionCount());
+
+            for (Channel channel : channels) {
+                assertEquals(getDefaultDir(), channel.pwd());
+            }
+        } finally {
+            for (Channel channel : channels) {
+                channel.close();
+            }
+            pool.close();
+        }
+
+        assertEquals(0, pool.sessionCount());
+    }
+
+    @Test
+    void testExecuteIdempotentAfterServerClosedSessions() throws IOException {
+        URI uri = getURI();
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withMaxSize(1)
+                        .withChannelValidation(SFTPChannelValidation.NONE)
+                        .build()
+                );
+
+        SSHChannelPool pool = new SSHChannelPool(uri.getHost(), uri.getPort(), env);
+        try {
+            SftpATTRS attributes = pool.executeIdempotent(channel -> channel.readAttributes(getDefaultDir(), true));
+            assertTrue(attributes.isDir());
+
+            closeServerSessions();
+
+            // the broken channel is either discarded when it's acquired, or the operation is retried on a new channel
+            attributes = pool.executeIdempotent(channel -> channel.readAttributes(getDefaultDir(), true));
+            assertTrue(attributes.isDir());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testExecuteIdempotentDoesNotRetryFileFailures() throws IOException {
+        URI uri = getURI();
+        SFTPEnvironment env = createEnv();
+
+        SSHChannelPool pool = new SSHChannelPool(uri.getHost(), uri.getPort(), env);
+        try {
+            AtomicInteger executions = new AtomicInteger();
+
+            assertThrows(NoSuchFileException.class, () -> pool.executeIdempotent(channel -> {
+                executions.incrementAndGet();
+                return channel.readAttributes("/non-existing", true);
+            }));
+            assertEquals(1, executions.get());
+            assertEquals(0, pool.metrics().getRetryCount());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testInterruptedWhileOpeningInitialChannels() {
+        URI uri = getURI();
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(3)
+                        .withMaxSize(3)
+                        .withChannelsPerSession(1)
+                        .build()
+                );
+
+        int sessionCount = getServerSessionAddresses().size();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class, () -> new SSHChannelPool(uri.getHost(), uri.getPort(), env));
+        } finally {
+            Thread.interrupted();
+        }
+
+        // the channels that were still being opened are closed once they have been opened
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (getServerSessionAddresses().size() > sessionCount) {
+                Thread.yield();
+            }
+        });
+    }
+
+    @Test
+    void testDownloadChunkOfTruncatedFile() throws IOException {
+        setContents(addFile("/foo"), new byte[10]);
+
+        URI uri = getURI();
+        SFTPEnvironment env = createEnv();
+
+        SSHChannelPool pool = new SSHChannelPool(uri.getHost(), uri.getPort(), env);
+        Path target = Files.createTempFile("sftp-fs", ".tmp");
+        try (Channel channel = pool.get();
+                FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+
+            // the chunk extends beyond the end of the file, as if the file was truncated after the transfer started
+            IOException exception = assertThrows(IOException.class, () -> channel.downloadChunk("/foo", 0, 20, out, ByteBuffer.allocate(8)));
+            assertEquals(SFTPMessages.fileChangedDuringTransfer("/foo"), exception.getMessage());
+        } finally {
+            pool.close();
+            Files.delete(target);
+        }
+    }
+
+    @Test
+    void testAdaptiveSize() throws IOException {
+        URI uri = getURI();
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(1)
+                        .withMaxSize(3)
+                        .withMaxWaitTime(Duration.ofMillis(100))
+                        .withAdaptiveTargetWaitTime(Duration.ofMillis(10))
+                        // adjust manually
+                        .withAdaptiveWindow(Duration.ofHours(1))
+                        .build()
+                );
+
+        SSHChannelPool pool = new SSHChannelPool(uri.getHost(), uri.getPort(), env);
+        try {
+            assertEquals(1, pool.metrics().getPoolLimit());
+
+            try (Channel channel1 = pool.get()) {
+                IOException exception = assertThrows(IOException.class, () -> claimChannel(pool));
+                assertEquals(SFTPMessages.clientConnectionWaitTimeoutExpired(), exception.getMessage());
+
+                pool.adjustSize();
+                assertEquals(2, pool.metrics().getPoolLimit());
+
+                try (Channel channel2 = pool.get()) {
+                    assertEquals(2, pool.metrics().getPoolSize());
+                }
+            }
+
+            // the previous window had 2 of 2 channels in use
+            pool.adjustSize();
+            assertEquals(2, pool.metrics().getPoolLimit());
+
+            pool.adjustSize();
+            assertEquals(1, pool.metrics().getPoolLimit());
+            assertEquals(1, pool.metrics().getPoolSize());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testConcurrentConnectLimit() throws Exception {
+        final int clientCount = 3;
+
+        URI uri = getURI();
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(0)
+                        .withMaxSize(clientCount)
+                        .withMaxConcurrentConnects(1)
+                        .build()
+                );
+
+        SSHChannelPool pool = new SSHChannelPool(uri.getHost(), uri.getPort(), env);
+        List<Channel> channels = new ArrayList<>();
+        try {
+            List<CompletableFuture<Channel>> futures = new ArrayList<>();
+            for (int i = 0; i < clientCount; i++) {
+                futures.add(Connector.submit(pool::get));
+            }
+            for (CompletableFuture<Channel> future : futures) {
+                channels.add(future.get(10, TimeUnit.SECONDS));
+            }
+
+            assertEquals(clientCount, pool.metrics().getPoolSize());
+        } finally {
+            for (Channel channel : channels) {
+                channel.close();
+            }
+            pool.close();
+        }
+    }
+
+    @Test
+    void testReleasedChannelIsUsedWhileWaitingToConnect() throws Exception {
+        URI uri = getURI();
+        SFTPEnvironment env = createEnv()
+                .withPoolConfig(SFTPPoolConfig.custom()
+                        .withInitialSize(1)
+                        .withMaxSize(2)
+                        // the initial channel was just opened, so the next one can only be opened after a second
+                        .withMaxConnectRate(1)
+                        .build()
+                );
+
+        SSHChannelPool pool = new SSHChannelPool(uri.getHost(), uri.getPort(), env);
+        try {
+            CompletableFuture<Channel> future;
+            try (Channel channel = pool.get()) {
+                future = Connector.submit(pool::get);
+
+                awaitWaiters(pool, 1);
+                assertFalse(future.isDone());
+            }
+
+            try (Channel channel = future.get(500, TimeUnit.MILLISECONDS)) {
+                assertEquals(1, pool.metrics().getPoolSize());
+            }
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testIsConnectionFailure() {
+        assertTrue(SSHChannelPool.isConnectionFailure(new SftpException(ChannelSftp.SSH_FX_NO_CONNECTION, "no connection")));
+        assertTrue(SSHChannelPool.isConnectionFailure(new SftpException(ChannelSftp.SSH_FX_CONNECTION_LOST, "connection lost")));
+        assertTrue(SSHChannelPool.isConnectionFailure(new SftpException(ChannelSftp.SSH_FX_FAILURE, "EOF", new EOFException())));
+        assertTrue(SSHChannelPool.isConnectionFailure(new SftpException(ChannelSftp.SSH_FX_FAILURE, "closed", new JSchException("closed"))));
+
+        assertFalse(SSHChannelPool.isConnectionFailure(new SftpException(ChannelSftp.SSH_FX_FAILURE, "failure")));
+        assertFalse(SSHChannelPool.isConnectionFailure(new SftpException(ChannelSftp.SSH_FX_NO_SUCH_FILE, "no such file")));
+        assertFalse(SSHChannelPool.isConnectionFailure(new SftpException(ChannelSftp.SSH_FX_PERMISSION_DENIED, "permission denied")));
+    }
+
     @SuppressWarnings("resource")
     private void claimChannels(SSHChannelPool pool, int clientCount, List<Channel> channels) throws IOException {
         for (int i = 0; i < clientCount; i++) {
@@ -75,4 +377,12 @@ class SSHChannelPoolTest extends AbstractSFTPFileSystemTest {
     private void claimChannel(SSHChannelPool pool) throws IOException {
         pool.get();
     }
+
+    private void awaitWaiters(SSHChannelPool pool, int expected) {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (pool.metrics().getWaiterCount() < expected) {
+                Thread.yield();
+            }
+        });
+    }
 }
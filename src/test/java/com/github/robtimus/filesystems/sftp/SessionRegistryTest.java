@@ -0,0 +1,182 @@
+/*
+ * SessionRegistryTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import com.jcraft.jsch.Session;
+
+@SuppressWarnings("nls")
+class SessionRegistryTest {
+
+    private final SessionRegistry registry = new SessionRegistry();
+
+    @Test
+    void testReserveReusesSession() throws IOException {
+        SessionRegistry.Key key = createKey("password");
+        Session session = createSession();
+
+        SessionRegistry.Entry entry1 = registry.reserve(key, 2, () -> session);
+        SessionRegistry.Entry entry2 = registry.reserve(key, 2, SessionRegistryTest::failToOpen);
+        SessionRegistry.Entry entry3 = registry.reserve(key, 2, this::createSession);
+
+        assertSame(entry1, entry2);
+        assertNotSame(entry1, entry3);
+        assertSame(session, entry1.session());
+        assertEquals(2, registry.sessionCount(key));
+    }
+
+    @Test
+    void testConcurrentReservesOpenOneSession() throws Exception {
+        SessionRegistry.Key key = createKey("password");
+        Session session = createSession();
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<SessionRegistry.Entry> future1 = new CompletableFuture<>();
+        Thread thread1 = new Thread(() -> reserve(key, () -> {
+            opening.countDown();
+            await(release);
+            return session;
+        }, future1));
+        thread1.start();
+        assertTrue(opening.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<SessionRegistry.Entry> future2 = new CompletableFuture<>();
+        Thread thread2 = new Thread(() -> reserve(key, SessionRegistryTest::failToOpen, future2));
+        thread2.start();
+        // the second thread must wait until the first one has opened its session
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (thread2.getState() != Thread.State.BLOCKED) {
+                Thread.yield();
+            }
+        });
+        release.countDown();
+
+        SessionRegistry.Entry entry = future1.get(10, TimeUnit.SECONDS);
+        assertSame(entry, future2.get(10, TimeUnit.SECONDS));
+        assertEquals(1, registry.sessionCount(key));
+    }
+
+    @Test
+    void testReserveWithDifferentCredentials() throws IOException {
+        SessionRegistry.Key key1 = createKey("password1");
+        SessionRegistry.Key key2 = createKey("password2");
+
+        SessionRegistry.Entry entry1 = registry.reserve(key1, 2, this::createSession);
+        SessionRegistry.Entry entry2 = registry.reserve(key2, 2, this::createSession);
+
+        assertNotSame(entry1, entry2);
+        assertEquals(1, registry.sessionCount(key1));
+        assertEquals(1, registry.sessionCount(key2));
+    }
+
+    @Test
+    void testReserveSkipsDisconnectedSession() throws IOException {
+        SessionRegistry.Key key = createKey("password");
+        Session session = createSession();
+
+        SessionRegistry.Entry entry1 = registry.reserve(key, 2, () -> session);
+        when(session.isConnected()).thenReturn(false);
+        SessionRegistry.Entry entry2 = registry.reserve(key, 2, this::createSession);
+
+        assertNotSame(entry1, entry2);
+    }
+
+    @Test
+    void testReleaseWithoutLingerTime() throws IOException {
+        SessionRegistry.Key key = createKey("password");
+        Session session = createSession();
+
+        SessionRegistry.Entry entry = registry.reserve(key, 2, () -> session);
+        registry.reserve(key, 2, SessionRegistryTest::failToOpen);
+
+        registry.release(entry, Duration.ZERO);
+        verify(session, never()).disconnect();
+
+        registry.release(entry, Duration.ZERO);
+        verify(session).disconnect();
+        assertEquals(0, registry.sessionCount(key));
+    }
+
+    @Test
+    void testReleaseWithLingerTime() throws IOException {
+        SessionRegistry.Key key = createKey("password");
+        Session session = createSession();
+
+        SessionRegistry.Entry entry = registry.reserve(key, 1, () -> session);
+        registry.release(entry, Duration.ofMinutes(1));
+
+        verify(session, never()).disconnect();
+        assertEquals(1, registry.sessionCount(key));
+
+        // the lingering session can be reserved again
+        assertSame(entry, registry.reserve(key, 1, SessionRegistryTest::failToOpen));
+
+        registry.release(entry, Duration.ofMillis(50));
+
+        verify(session, timeout(5000)).disconnect();
+        assertEquals(0, registry.sessionCount(key));
+    }
+
+    private static SessionRegistry.Key createKey(String password) {
+        return new SessionRegistry.Key("localhost", 22, "user", password, Collections.emptyMap());
+    }
+
+    private Session createSession() {
+        Session session = mock(Session.class);
+        when(session.isConnected()).thenReturn(true);
+        return session;
+    }
+
+    private void reserve(SessionRegistry.Key key, SessionRegistry.SessionFactory factory, CompletableFuture<SessionRegistry.Entry> result) {
+        try {
+            result.complete(registry.reserve(key, 2, factory));
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private static Session failToOpen() throws IOException {
+        throw new IOException("no new session expected");
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * ShapingSocketFactory.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import com.jcraft.jsch.SocketFactory;
+
+/**
+ * A {@link SocketFactory} that simulates a slower network between client and server, by adding latency, jitter, bandwidth limits and stalls
+ * to all data that is sent and received. Use it with {@link SFTPEnvironment#withSocketFactory(SocketFactory)}.
+ * <p>
+ * Half of the round-trip time is added to each direction. The order of data is always preserved, so jitter never reorders data.
+ * Bandwidth limits apply to each direction separately.
+ *
+ * @author Rob Spoor
+ */
+@SuppressWarnings("nls")
+final class ShapingSocketFactory implements SocketFactory {
+
+    private static final int READ_BUFFER_SIZE = 32 * 1024;
+
+    private final long oneWayDelay;
+    private final long jitter;
+    private final long bytesPerSecond;
+    private final double stallProbability;
+    private final long stallDuration;
+
+    private ShapingSocketFactory(Builder builder) {
+        oneWayDelay = builder.roundTripTime.toNanos() / 2;
+        jitter = builder.jitter.toNanos();
+        bytesPerSecond = builder.bytesPerSecond;
+        stallProbability = builder.stallProbability;
+        stallDuration = builder.stallDuration.toNanos();
+    }
+
+    /**
+     * Returns a socket factory that simulates a network with the given round-trip time, and no other limitations.
+     *
+     * @param roundTripTime The round-trip time.
+     * @return A socket factory that simulates a network with the given round-trip time.
+     */
+    static ShapingSocketFactory withRoundTripTime(Duration roundTripTime) {
+        return custom().withRoundTripTime(roundTripTime).build();
+    }
+
+    static Builder custom() {
+        return new Builder();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        Socket socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        return socket;
+    }
+
+    @Override
+    public InputStream getInputStream(Socket socket) throws IOException {
+        return new ShapedInputStream(socket.getInputStream(), new DelayLine());
+    }
+
+    @Override
+    public OutputStream getOutputStream(Socket socket) throws IOException {
+        return new ShapedOutputStream(socket.getOutputStream(), new DelayLine());
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()
+                + "[roundTripTime=" + Duration.ofNanos(oneWayDelay * 2)
+                + ",jitter=" + Duration.ofNanos(jitter)
+                + ",bytesPerSecond=" + bytesPerSecond
+                + ",stallProbability=" + stallProbability
+                + ",stallDuration=" + Duration.ofNanos(stallDuration)
+                + "]";
+    }
+
+    /**
+     * A delay line for one direction. It determines when chunks of data are delivered.
+     */
+    private final class DelayLine {
+
+        private final BlockingQueue<Chunk> chunks = new LinkedBlockingQueue<>();
+
+        // the time at which the previous chunk is delivered; chunks are never delivered before previous chunks
+        private long lastDeliveryTime = System.nanoTime();
+
+        private synchronized void add(byte[] data) {
+            long now = System.nanoTime();
+            long deliveryTime = now + oneWayDelay;
+            if (jitter > 0) {
+                deliveryTime += ThreadLocalRandom.current().nextLong(jitter + 1);
+            }
+            if (stallProbability > 0 && ThreadLocalRandom.current().nextDouble() < stallProbability) {
+                deliveryTime += stallDuration;
+            }
+            if (bytesPerSecond > 0) {
+                // the chunk can only be sent after the previous chunk has been sent completely
+                long transmissionTime = data.length * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+                deliveryTime = Math.max(deliveryTime, lastDeliveryTime + transmissionTime);
+            }
+            deliveryTime = Math.max(deliveryTime, lastDeliveryTime);
+            lastDeliveryTime = deliveryTime;
+            chunks.add(new Chunk(data, deliveryTime));
+        }
+
+        private void addEnd(IOException failure) {
+            chunks.add(new Chunk(null, failure, System.nanoTime()));
+        }
+
+        private Chunk take() throws InterruptedException {
+            Chunk chunk = chunks.take();
+            long remaining = chunk.deliveryTime - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+            return chunk;
+        }
+    }
+
+    private static final class Chunk {
+
+        private final byte[] data;
+        private final IOException failure;
+        private final long deliveryTime;
+
+        private Chunk(byte[] data, long deliveryTime) {
+            this(data, null, deliveryTime);
+        }
+
+        private Chunk(byte[] data, IOException failure, long deliveryTime) {
+            this.data = data;
+            this.failure = failure;
+            this.deliveryTime = deliveryTime;
+        }
+
+        private boolean isEnd() {
+            return data == null;
+        }
+    }
+
+    /**
+     * An input stream that reads data from the actual input stream in a background thread, and makes it available once it's delivered.
+     */
+    private static final class ShapedInputStream extends InputStream {
+
+        private final InputStream in;
+        private final DelayLine delayLine;
+
+        private Chunk current;
+        private int position;
+
+        private ShapedInputStream(InputStream in, DelayLine delayLine) {
+            this.in = in;
+            this.delayLine = delayLine;
+
+            Thread thread = new Thread(this::receive, "shaping-socket-factory-in");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void receive() {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            try {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    delayLine.add(Arrays.copyOf(buffer, n));
+                }
+                delayLine.addEnd(null);
+            } catch (IOException e) {
+                delayLine.addEnd(e);
+            }
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (current != null && current.isEnd()) {
+                return false;
+            }
+            if (current == null || position == current.data.length) {
+                try {
+                    current = delayLine.take();
+                    position = 0;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException(e.getMessage());
+                }
+            }
+            if (current.isEnd()) {
+                if (current.failure != null) {
+                    throw current.failure;
+                }
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return nextChunk() ? current.data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            int n = Math.min(len, current.data.length - position);
+            System.arraycopy(current.data, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return current == null || current.isEnd() ? 0 : current.data.length - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * An output stream that passes data to the actual output stream in a background thread, once it's delivered.
+     */
+    private static final class ShapedOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final DelayLine delayLine;
+
+        private volatile IOException failure;
+        private boolean closed;
+
+        private ShapedOutputStream(OutputStream out, DelayLine delayLine) {
+            this.out = out;
+            this.delayLine = delayLine;
+
+            Thread thread = new Thread(this::send, "shaping-socket-factory-out");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void send() {
+            try {
+                Chunk chunk;
+                while (!(chunk = delayLine.take()).isEnd()) {
+                    out.write(chunk.data);
+                    out.flush();
+                }
+                out.close();
+            } catch (IOException e) {
+                failure = e;
+            } catch (@SuppressWarnings("unused") InterruptedException e) {
+                failure = new InterruptedIOException();
+            }
+        }
+
+        private void checkState() throws IOException {
+            if (closed) {
+                throw new IOException("closed");
+            }
+            IOException f = failure;
+            if (f != null) {
+                throw f;
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkState();
+            if (len > 0) {
+                delayLine.add(Arrays.copyOfRange(b, off, off + len));
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // data is flushed by the background thread once it's delivered
+            checkState();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                delayLine.addEnd(null);
+            }
+        }
+    }
+
+    static final class Builder {
+
+        private Duration roundTripTime = Duration.ZERO;
+        private Duration jitter = Duration.ZERO;
+        private long bytesPerSecond = 0;
+        private double stallProbability = 0;
+        private Duration stallDuration = Duration.ZERO;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the round-trip time. Half of it is added to each direction.
+         *
+         * @param roundTripTime The round-trip time.
+         * @return This builder.
+         */
+        Builder withRoundTripTime(Duration roundTripTime) {
+            this.roundTripTime = roundTripTime;
+            return this;
+        }
+
+        /**
+         * Sets the maximum jitter. A random delay between zero and the given jitter is added to each chunk of data.
+         *
+         * @param jitter The maximum jitter.
+         * @return This builder.
+         */
+        Builder withJitter(Duration jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Sets the bandwidth for each direction.
+         *
+         * @param bytesPerSecond The bandwidth in bytes per second, or {@code 0} for unlimited bandwidth.
+         * @return This builder.
+         */
+        Builder withBandwidth(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets the stall settings. Each chunk of data has the given probability of being delayed for an additional duration.
+         * Since order is preserved, all data that follows is delayed as well.
+         *
+         * @param probability The probability of stalls, between {@code 0} and {@code 1}.
+         * @param duration The duration of stalls.
+         * @return This builder.
+         */
+        Builder withStalls(double probability, Duration duration) {
+            this.stallProbability = probability;
+            this.stallDuration = duration;
+            return this;
+        }
+
+        ShapingSocketFactory build() {
+            return new ShapingSocketFactory(this);
+        }
+    }
+}
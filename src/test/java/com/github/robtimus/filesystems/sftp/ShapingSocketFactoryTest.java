@@ -0,0 +1,77 @@
+/*
+ * ShapingSocketFactoryTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class ShapingSocketFactoryTest extends AbstractSFTPFileSystemTest {
+
+    @Test
+    void testRoundTripTime() throws IOException {
+        addFile("/foo");
+
+        SFTPEnvironment env = createEnv().withSocketFactory(ShapingSocketFactory.withRoundTripTime(Duration.ofMillis(50)));
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            Path path = fs.getPath("/foo");
+
+            long start = System.nanoTime();
+            assertTrue(Files.exists(path));
+            long duration = System.nanoTime() - start;
+
+            assertThat(TimeUnit.NANOSECONDS.toMillis(duration), greaterThanOrEqualTo(50L));
+        }
+    }
+
+    @Test
+    void testBandwidth() throws IOException {
+        byte[] content = new byte[200 * 1024];
+        new Random().nextBytes(content);
+        Path file = addFile("/foo");
+        setContents(file, content);
+
+        SFTPEnvironment env = createEnv().withSocketFactory(ShapingSocketFactory.custom()
+                .withBandwidth(1024 * 1024)
+                .withJitter(Duration.ofMillis(2))
+                .withStalls(0.01, Duration.ofMillis(20))
+                .build());
+        try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), env)) {
+            Path path = fs.getPath("/foo");
+
+            long start = System.nanoTime();
+            byte[] read = Files.readAllBytes(path);
+            long duration = System.nanoTime() - start;
+
+            // jitter and stalls never corrupt or reorder data
+            assertArrayEquals(content, read);
+            // 200 KB at 1 MB per second
+            assertThat(TimeUnit.NANOSECONDS.toMillis(duration), greaterThanOrEqualTo(190L));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * FlightRecorderEventsTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.filesystems.sftp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@SuppressWarnings("nls")
+class FlightRecorderEventsTest extends AbstractSFTPFileSystemTest {
+
+    private static final String NAME_PREFIX = "com.github.robtimus.filesystems.sftp.";
+
+    private static final byte[] CONTENTS = "Hello World".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testEvents() throws IOException {
+        setContents(addFile("/foo"), CONTENTS);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] { "ChannelAcquire", "SessionCreation", "ChannelCreation", "Request", "Stream" }) {
+                recording.enable(NAME_PREFIX + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            try (FileSystem fs = new SFTPFileSystemProvider().newFileSystem(getURI(), createEnv())) {
+                assertTrue(Files.readAttributes(fs.getPath("/foo"), BasicFileAttributes.class).isRegularFile());
+                assertArrayEquals(CONTENTS, Files.readAllBytes(fs.getPath("/foo")));
+                Files.copy(fs.getPath("/foo"), fs.getPath("/bar"));
+            }
+
+            recording.stop();
+            Path file = Files.createTempFile("sftp-fs", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.delete(file);
+            }
+        }
+
+        String pool = getURI().getHost() + ":" + getURI().getPort();
+
+        RecordedEvent sessionCreation = findEvent(events, "SessionCreation");
+        assertEquals(pool, sessionCreation.getString("pool"));
+        assertFalse(sessionCreation.getBoolean("failed"));
+
+        RecordedEvent channelCreation = findEvent(events, "ChannelCreation");
+        assertEquals(pool, channelCreation.getString("pool"));
+        assertFalse(channelCreation.getBoolean("failed"));
+
+        RecordedEvent channelAcquire = findEvent(events, "ChannelAcquire");
+        assertEquals(pool, channelAcquire.getString("pool"));
+        assertTrue(channelAcquire.getBoolean("acquired"));
+
+        List<RecordedEvent> requests = findEvents(events, "Request");
+        RecordedEvent stat = requests.stream()
+                .filter(event -> "readAttributes".equals(event.getString("operation")))
+                .filter(event -> "STAT".equals(event.getString("requestType")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no STAT request for readAttributes"));
+        assertEquals("/foo", stat.getString("path"));
+        assertEquals(0, stat.getLong("bytes"));
+        assertFalse(stat.getBoolean("failed"));
+
+        // the copy stores the file using a single request
+        RecordedEvent put = requests.stream()
+                .filter(event -> "copy".equals(event.getString("operation")))
+                .filter(event -> "PUT".equals(event.getString("requestType")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no PUT request for copy"));
+        assertEquals("/bar", put.getString("path"));
+        assertEquals(CONTENTS.length, put.getLong("bytes"));
+        assertFalse(put.getBoolean("failed"));
+
+        List<RecordedEvent> streams = findEvents(events, "Stream");
+        RecordedEvent input = streams.stream()
+                .filter(event -> !event.getBoolean("output"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no input stream"));
+        assertEquals("/foo", input.getString("path"));
+        assertEquals(CONTENTS.length, input.getLong("bytes"));
+        assertFalse(input.getDuration().isNegative());
+    }
+
+    private static RecordedEvent findEvent(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = findEvents(events, name);
+        assertFalse(matching.isEmpty(), "no " + name + " events");
+        return matching.get(0);
+    }
+
+    private static List<RecordedEvent> findEvents(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> (NAME_PREFIX + name).equals(event.getEventType().getName()))
+                .collect(Collectors.toList());
+    }
+}